@@ -58,7 +58,7 @@ public interface ScaleAndShiftAxons<N extends Neurons> extends TrainableAxons<N,
 	/**
 	 * 
 	 * @return The column vector containing the shift weights - one for each
-	 *         non-bias Neuron.
+	 *         non-bias Neuron, or null if these axons do not shift.
 	 */
 	Matrix getShiftColumnVector();
 }
@@ -15,10 +15,11 @@
 package org.ml4j.nn.axons;
 
 /**
- * Enum specifying whether to add or subtract a connection weights adjustment.
+ * Enum specifying whether to add or subtract a connection weights adjustment,
+ * or to replace the connection weights with it.
  * 
  * @author Michael Lavelle
  */
 public enum AxonWeightsAdjustmentDirection {
-	ADDITION, SUBTRACTION;
+	ADDITION, SUBTRACTION, REPLACEMENT;
 }
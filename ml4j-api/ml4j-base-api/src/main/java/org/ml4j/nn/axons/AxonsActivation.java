@@ -54,4 +54,15 @@ public interface AxonsActivation {
 	 */
 	Supplier<NeuronsActivation> getPostDropoutInput();
 
+	/**
+	 * @return For axons which select a single input element for each output
+	 *         element, such as max pooling, the index within the input
+	 *         activation data of the element selected for each output element
+	 *         (or -1 if none), in the order of the output activation data. Null
+	 *         for all other axons.
+	 */
+	default int[] getArgmaxIndexes() {
+		return null;
+	}
+
 }
@@ -16,6 +16,7 @@
 
 package org.ml4j.nn.axons;
 
+import org.ml4j.nn.components.BranchScheduler;
 import org.ml4j.nn.neurons.FreezeableNeuronsActivationContext;
 
 /**
@@ -69,6 +70,13 @@ public interface AxonsContext extends FreezeableNeuronsActivationContext<AxonsCo
 	 *         DirectedLayer.
 	 */
 	float getRegularisationLambda();
+
+	/**
+	 * @return The BranchScheduler on which the independent tiles of reformats
+	 *         within these Axons are run, or null to run them on the calling
+	 *         thread.
+	 */
+	BranchScheduler getBranchScheduler();
 	
 	/**
 	 * @return A deep copy of this AxonsContext
@@ -14,7 +14,11 @@
 
 package org.ml4j.nn.axons;
 
+import java.util.Optional;
+
+import org.ml4j.Matrix;
 import org.ml4j.nn.neurons.Neurons;
+import org.ml4j.nn.neurons.NeuronsActivation;
 
 /**
  * Encapsulates the connections between two sets of Neurons, and allows for
@@ -41,4 +45,22 @@ public interface TrainableAxons<L extends Neurons, R extends Neurons, A extends
 	 */
 	AxonWeights getDetachedAxonWeights();
 
+	/**
+	 * Calculate the gradient of the connection weights directly, for Axons which
+	 * can do so more cheaply than the generic product of the right to left input
+	 * with the transposed left to right input. The inputs are not closed.
+	 * 
+	 * @param leftToRightInput The post dropout input of the left to right
+	 *                         AxonsActivation.
+	 * @param rightToLeftInput The post dropout input of the right to left
+	 *                         AxonsActivation.
+	 * @param axonsContext     The axons context.
+	 * @return The connection weights gradient, or empty if it is to be calculated
+	 *         generically.
+	 */
+	default Optional<Matrix> getConnectionWeightsGradient(NeuronsActivation leftToRightInput,
+			NeuronsActivation rightToLeftInput, AxonsContext axonsContext) {
+		return Optional.empty();
+	}
+
 }
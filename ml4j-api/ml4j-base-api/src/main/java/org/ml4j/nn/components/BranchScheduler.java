@@ -0,0 +1,37 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.ml4j.nn.components;
+
+import java.io.Serializable;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Schedules the execution of the independent branches of a component graph,
+ * such as the parallel paths of a bipole graph, in both the forward and
+ * backward directions.
+ *
+ * @author Michael Lavelle
+ */
+public interface BranchScheduler extends Serializable {
+
+	/**
+	 * Execute each of the branches, waiting for all of them to complete.
+	 *
+	 * @param <T>      The type of result of each branch.
+	 * @param branches The branches to execute.
+	 * @return The results of the branches, in the same order as the branches.
+	 */
+	<T> List<T> invokeAll(List<Supplier<T>> branches);
+}
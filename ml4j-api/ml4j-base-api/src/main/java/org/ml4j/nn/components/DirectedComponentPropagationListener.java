@@ -0,0 +1,42 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.ml4j.nn.components;
+
+import java.io.Serializable;
+
+/**
+ * Notified before and after each component propagates activations or
+ * gradients within a DirectedComponentsContext, for example to profile the
+ * components.
+ *
+ * Notifications are made on the thread doing the propagation, and nest -
+ * a component containing other components is completed only after each of
+ * the components it contains.
+ *
+ * @author Michael Lavelle
+ */
+public interface DirectedComponentPropagationListener extends Serializable {
+
+	/**
+	 * @param componentName The name of the component about to propagate.
+	 * @param phase         FORWARD_PROPAGATION or BACK_PROPAGATION.
+	 */
+	void onPropagationStarted(String componentName, DirectedComponentActivationLifecycle phase);
+
+	/**
+	 * @param componentName The name of the component which has propagated.
+	 * @param phase         FORWARD_PROPAGATION or BACK_PROPAGATION.
+	 */
+	void onPropagationCompleted(String componentName, DirectedComponentActivationLifecycle phase);
+}
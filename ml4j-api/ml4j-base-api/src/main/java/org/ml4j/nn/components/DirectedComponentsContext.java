@@ -54,4 +54,16 @@ public interface DirectedComponentsContext extends Serializable {
 	 * @return This context as a non-training context.
 	 */
 	DirectedComponentsContext asNonTrainingContext();
+
+	/**
+	 * @return The scheduler for the independent branches of component graphs
+	 *         activated within this context.
+	 */
+	BranchScheduler getBranchScheduler();
+
+	/**
+	 * @return The listener notified as each component propagates within this
+	 *         context, or null if propagation is not being listened to.
+	 */
+	DirectedComponentPropagationListener getPropagationListener();
 }
@@ -38,4 +38,58 @@ public interface EditableMatrix extends Matrix {
 	EditableMatrix expi();
 	void reshape(int r, int c);
 
+	/**
+	 * Apply the kernel to every element of this matrix in place.
+	 *
+	 * @param kernel The kernel.
+	 * @return This matrix.
+	 */
+	default EditableMatrix applyi(FloatArrayKernel kernel) {
+		for (int i = 0; i < getLength(); i++) {
+			put(i, kernel.acceptAndModify(get(i)));
+		}
+		return this;
+	}
+
+	/**
+	 * @return This matrix, with negative values replaced by zero.
+	 */
+	default EditableMatrix reluInPlace() {
+		return applyi(FloatArrayKernels.relu());
+	}
+
+	/**
+	 * @return This matrix, with non-positive values replaced by zero and other
+	 *         values by one.
+	 */
+	default EditableMatrix reluGradientInPlace() {
+		return applyi(FloatArrayKernels.reluGradient());
+	}
+
+	/**
+	 * @param alpha The slope applied to negative values.
+	 * @return This matrix, with negative values multiplied by alpha.
+	 */
+	default EditableMatrix leakyReluInPlace(float alpha) {
+		return applyi(FloatArrayKernels.leakyRelu(alpha));
+	}
+
+	/**
+	 * @param alpha The slope applied to negative values.
+	 * @return This matrix, with non-positive values replaced by alpha and other
+	 *         values by one.
+	 */
+	default EditableMatrix leakyReluGradientInPlace(float alpha) {
+		return applyi(FloatArrayKernels.leakyReluGradient(alpha));
+	}
+
+	/**
+	 * @param min The minimum value.
+	 * @param max The maximum value.
+	 * @return This matrix, with values clamped to the range [min, max].
+	 */
+	default EditableMatrix clampInPlace(float min, float max) {
+		return applyi(FloatArrayKernels.clamp(min, max));
+	}
+
 }
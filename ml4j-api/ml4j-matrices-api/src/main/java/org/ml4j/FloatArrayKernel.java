@@ -0,0 +1,42 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.ml4j;
+
+/**
+ * A {@code FloatModifier} which can also be applied in place to a range of a
+ * float array in a single call.
+ *
+ * <p>Matrices and images apply kernels directly to their backing arrays, so
+ * implementations overriding {@link #apply(float[], int, int)} with a tight
+ * loop avoid a per-element call through the {@code FloatModifier} interface.
+ *
+ * @author Michael Lavelle
+ */
+@FunctionalInterface
+public interface FloatArrayKernel extends FloatModifier {
+
+	/**
+	 * Modify each element of data from startIndex (inclusive) to endIndex
+	 * (exclusive) in place.
+	 *
+	 * @param data       The data to modify.
+	 * @param startIndex The index of the first element to modify.
+	 * @param endIndex   The index after the last element to modify.
+	 */
+	default void apply(float[] data, int startIndex, int endIndex) {
+		for (int i = startIndex; i < endIndex; i++) {
+			data[i] = acceptAndModify(data[i]);
+		}
+	}
+}
@@ -0,0 +1,163 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.ml4j;
+
+/**
+ * Built-in element-wise FloatArrayKernels, each applied to arrays with a
+ * branch-free loop the JIT is able to vectorise.
+ *
+ * @author Michael Lavelle
+ */
+public final class FloatArrayKernels {
+
+	private static final FloatArrayKernel RELU = new FloatArrayKernel() {
+
+		@Override
+		public float acceptAndModify(float value) {
+			return value < 0 ? 0 : value;
+		}
+
+		@Override
+		public void apply(float[] data, int startIndex, int endIndex) {
+			for (int i = startIndex; i < endIndex; i++) {
+				float value = data[i];
+				data[i] = value < 0 ? 0 : value;
+			}
+		}
+	};
+
+	private static final FloatArrayKernel RELU_GRADIENT = new FloatArrayKernel() {
+
+		@Override
+		public float acceptAndModify(float value) {
+			return value <= 0 ? 0 : 1;
+		}
+
+		@Override
+		public void apply(float[] data, int startIndex, int endIndex) {
+			for (int i = startIndex; i < endIndex; i++) {
+				data[i] = data[i] <= 0 ? 0 : 1;
+			}
+		}
+	};
+
+	private FloatArrayKernels() {
+	}
+
+	/**
+	 * @return A kernel replacing negative values with zero.
+	 */
+	public static FloatArrayKernel relu() {
+		return RELU;
+	}
+
+	/**
+	 * @return A kernel replacing non-positive values with zero and all other
+	 *         values with one.
+	 */
+	public static FloatArrayKernel reluGradient() {
+		return RELU_GRADIENT;
+	}
+
+	/**
+	 * @param alpha The slope applied to negative values.
+	 * @return A kernel multiplying negative values by alpha.
+	 */
+	public static FloatArrayKernel leakyRelu(float alpha) {
+		return new FloatArrayKernel() {
+
+			@Override
+			public float acceptAndModify(float value) {
+				return value < 0 ? alpha * value : value;
+			}
+
+			@Override
+			public void apply(float[] data, int startIndex, int endIndex) {
+				for (int i = startIndex; i < endIndex; i++) {
+					float value = data[i];
+					data[i] = value < 0 ? alpha * value : value;
+				}
+			}
+		};
+	}
+
+	/**
+	 * @param alpha The slope applied to negative values.
+	 * @return A kernel replacing non-positive values with alpha and all other
+	 *         values with one.
+	 */
+	public static FloatArrayKernel leakyReluGradient(float alpha) {
+		return new FloatArrayKernel() {
+
+			@Override
+			public float acceptAndModify(float value) {
+				return value <= 0 ? alpha : 1;
+			}
+
+			@Override
+			public void apply(float[] data, int startIndex, int endIndex) {
+				for (int i = startIndex; i < endIndex; i++) {
+					data[i] = data[i] <= 0 ? alpha : 1;
+				}
+			}
+		};
+	}
+
+	/**
+	 * @param min The minimum value.
+	 * @param max The maximum value.
+	 * @return A kernel clamping values to the range [min, max].
+	 */
+	public static FloatArrayKernel clamp(float min, float max) {
+		if (min > max) {
+			throw new IllegalArgumentException("Min must not be greater than max");
+		}
+		return new FloatArrayKernel() {
+
+			@Override
+			public float acceptAndModify(float value) {
+				return value < min ? min : (value > max ? max : value);
+			}
+
+			@Override
+			public void apply(float[] data, int startIndex, int endIndex) {
+				for (int i = startIndex; i < endIndex; i++) {
+					float value = data[i];
+					data[i] = value < min ? min : (value > max ? max : value);
+				}
+			}
+		};
+	}
+
+	/**
+	 * @param factor The scale factor.
+	 * @return A kernel multiplying values by factor.
+	 */
+	public static FloatArrayKernel scale(float factor) {
+		return new FloatArrayKernel() {
+
+			@Override
+			public float acceptAndModify(float value) {
+				return value * factor;
+			}
+
+			@Override
+			public void apply(float[] data, int startIndex, int endIndex) {
+				for (int i = startIndex; i < endIndex; i++) {
+					data[i] = data[i] * factor;
+				}
+			}
+		};
+	}
+}
@@ -51,6 +51,28 @@ public interface Matrix extends Tensor<Matrix, EditableMatrix, InterrimMatrix>,
 	Matrix getColumns(int[] columns);
 	Matrix getRows(int[] rows);
 
+	/**
+	 * Obtain a contiguous range of columns. When the range spans the whole matrix
+	 * the result is a view sharing this matrix's data, otherwise implementations
+	 * copy the range in bulk rather than column by column.
+	 * 
+	 * @param startColumnIndex The index of the first column, inclusive.
+	 * @param endColumnIndex   The index of the last column, exclusive.
+	 * @return The columns within the range.
+	 */
+	Matrix getColumnRange(int startColumnIndex, int endColumnIndex);
+
+	/**
+	 * Obtain a contiguous range of rows. When the range spans the whole matrix the
+	 * result is a view sharing this matrix's data, otherwise implementations copy
+	 * the range in bulk rather than row by row.
+	 * 
+	 * @param startRowIndex The index of the first row, inclusive.
+	 * @param endRowIndex   The index of the last row, exclusive.
+	 * @return The rows within the range.
+	 */
+	Matrix getRowRange(int startRowIndex, int endRowIndex);
+
 	
 	
 	
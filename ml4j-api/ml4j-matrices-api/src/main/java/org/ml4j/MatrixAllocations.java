@@ -0,0 +1,78 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.ml4j;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Counts the matrices created on each thread, and the bytes of their data,
+ * while at least one tracker is enabled.
+ *
+ * Matrix implementations call recordAllocation when they allocate the data
+ * array of a new matrix, so views of existing data and wrappers of caller
+ * supplied arrays are not counted. This costs a single volatile read when no
+ * tracker is enabled.
+ *
+ * @author Michael Lavelle
+ */
+public final class MatrixAllocations {
+
+	private static final AtomicInteger TRACKERS = new AtomicInteger();
+
+	private static final ThreadLocal<long[]> COUNTS = ThreadLocal.withInitial(() -> new long[2]);
+
+	private MatrixAllocations() {
+	}
+
+	/**
+	 * Start counting allocations, until a matching call to disableTracking.
+	 */
+	public static void enableTracking() {
+		TRACKERS.incrementAndGet();
+	}
+
+	public static void disableTracking() {
+		if (TRACKERS.decrementAndGet() < 0) {
+			TRACKERS.incrementAndGet();
+			throw new IllegalStateException("Matrix allocation tracking is not enabled");
+		}
+	}
+
+	/**
+	 * @param length The number of elements of the data array allocated.
+	 */
+	public static void recordAllocation(int length) {
+		if (TRACKERS.get() > 0) {
+			long[] counts = COUNTS.get();
+			counts[0]++;
+			counts[1] += (long) length * Float.BYTES;
+		}
+	}
+
+	/**
+	 * @return The number of matrices created on the current thread while
+	 *         tracking was enabled.
+	 */
+	public static long getCount() {
+		return COUNTS.get()[0];
+	}
+
+	/**
+	 * @return The bytes of data of the matrices created on the current thread
+	 *         while tracking was enabled.
+	 */
+	public static long getBytes() {
+		return COUNTS.get()[1];
+	}
+}
@@ -80,7 +80,51 @@ public interface MatrixFactory extends Serializable {
    *         data[r][c].
    */
   Matrix createMatrixFromRows(float[][] data);
- 
+
+  /**
+   * Create a new Matrix from the provided arrays, each forming a row of the Matrix, in a single
+   * pass with no intermediate matrices.
+   *
+   * @param columns The number of columns, which is the length of each array
+   * @param data The rows of this matrix, with the value for row r, column c equal to data[r][c].
+   * @return A new Matrix of size (data.length, columns)
+   */
+  default Matrix createMatrixFromRows(int columns, float[][] data) {
+    float[] values = new float[data.length * columns];
+    for (int r = 0; r < data.length; r++) {
+      if (data[r].length != columns) {
+        throw new IllegalArgumentException(
+            "Expected row of length " + columns + " but found " + data[r].length);
+      }
+      System.arraycopy(data[r], 0, values, r * columns, columns);
+    }
+    return createMatrixFromRowsByRowsArray(data.length, columns, values);
+  }
+
+  /**
+   * Create a new Matrix from the provided arrays, each forming a column of the Matrix, in a
+   * single pass with no intermediate matrices.
+   *
+   * @param rows The number of rows, which is the length of each array
+   * @param data The columns of this matrix, with the value for row r, column c equal to data[c][r].
+   * @return A new Matrix of size (rows, data.length)
+   */
+  default Matrix createMatrixFromColumns(int rows, float[][] data) {
+    int columns = data.length;
+    float[] values = new float[rows * columns];
+    for (int c = 0; c < columns; c++) {
+      float[] column = data[c];
+      if (column.length != rows) {
+        throw new IllegalArgumentException(
+            "Expected column of length " + rows + " but found " + column.length);
+      }
+      for (int r = 0; r < rows; r++) {
+        values[r * columns + c] = column[r];
+      }
+    }
+    return createMatrixFromRowsByRowsArray(rows, columns, values);
+  }
+
   /**
    * Create a new uninitialised Matrix for the provided shape
    * 
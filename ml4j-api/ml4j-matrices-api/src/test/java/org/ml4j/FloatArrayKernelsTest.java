@@ -0,0 +1,55 @@
+package org.ml4j;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class FloatArrayKernelsTest {
+
+	private static final float[] VALUES = new float[] { -2f, -0.5f, 0f, 0.5f, 2f };
+
+	private void assertKernel(FloatArrayKernel kernel, float... expected) {
+		float[] data = new float[VALUES.length + 2];
+		data[0] = -7f;
+		data[data.length - 1] = -7f;
+		System.arraycopy(VALUES, 0, data, 1, VALUES.length);
+		kernel.apply(data, 1, data.length - 1);
+		for (int i = 0; i < VALUES.length; i++) {
+			Assertions.assertEquals(expected[i], data[i + 1]);
+			Assertions.assertEquals(expected[i], kernel.acceptAndModify(VALUES[i]));
+		}
+		// Elements outside the range are untouched
+		Assertions.assertEquals(-7f, data[0]);
+		Assertions.assertEquals(-7f, data[data.length - 1]);
+	}
+
+	@Test
+	public void testRelu() {
+		assertKernel(FloatArrayKernels.relu(), 0f, 0f, 0f, 0.5f, 2f);
+	}
+
+	@Test
+	public void testReluGradient() {
+		assertKernel(FloatArrayKernels.reluGradient(), 0f, 0f, 0f, 1f, 1f);
+	}
+
+	@Test
+	public void testLeakyRelu() {
+		assertKernel(FloatArrayKernels.leakyRelu(0.1f), -0.2f, -0.05f, 0f, 0.5f, 2f);
+	}
+
+	@Test
+	public void testLeakyReluGradient() {
+		assertKernel(FloatArrayKernels.leakyReluGradient(0.1f), 0.1f, 0.1f, 0.1f, 1f, 1f);
+	}
+
+	@Test
+	public void testClamp() {
+		assertKernel(FloatArrayKernels.clamp(-1f, 1f), -1f, -0.5f, 0f, 0.5f, 1f);
+		Assertions.assertThrows(IllegalArgumentException.class, () -> FloatArrayKernels.clamp(1f, -1f));
+	}
+
+	@Test
+	public void testScale() {
+		assertKernel(FloatArrayKernels.scale(2f), -4f, -1f, 0f, 1f, 4f);
+	}
+}
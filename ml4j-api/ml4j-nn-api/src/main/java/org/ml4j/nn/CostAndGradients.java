@@ -36,6 +36,12 @@ public interface CostAndGradients {
 	 */
 	float getAverageCost();
 
+	/**
+	 * @return The number of training examples the costs and gradients were
+	 *         calculated over.
+	 */
+	int getNumberOfTrainingExamples();
+
 	/**
 	 * @return The total gradients.
 	 */
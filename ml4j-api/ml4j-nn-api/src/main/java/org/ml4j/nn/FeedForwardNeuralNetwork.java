@@ -17,6 +17,7 @@
 package org.ml4j.nn;
 
 import org.ml4j.nn.components.onetone.DefaultNeuralComponent;
+import org.ml4j.nn.neurons.NeuronsActivation;
 
 /**
  * 
@@ -29,4 +30,23 @@ import org.ml4j.nn.components.onetone.DefaultNeuralComponent;
  */
 public interface FeedForwardNeuralNetwork<C extends FeedForwardNeuralNetworkContext, N extends FeedForwardNeuralNetwork<C, N>>
 		extends DirectedNeuralNetwork<C, N>, DefaultNeuralComponent {
+
+	/**
+	 * Forward propagate the activation through this FeedForwardNeuralNetwork for
+	 * inference only, always in a non-training context.
+	 * 
+	 * No activations are retained for back propagation, and each intermediate
+	 * activation is closed as soon as the next component has consumed it, so at
+	 * most two are alive at any time. The memory of the closed activations is
+	 * reused by later components only when the MatrixFactory is backed by a pooled
+	 * FloatArrayFactory.
+	 * 
+	 * @param inputActivation The NeuronsActivation input on the left hand side of
+	 *                        this FeedForwardNeuralNetwork, which is neither closed
+	 *                        nor left with its immutability changed.
+	 * @param context         The context in which we are performing the inference.
+	 * @return The NeuronsActivation output on the right hand side of this
+	 *         FeedForwardNeuralNetwork, to be closed by the caller.
+	 */
+	NeuronsActivation infer(NeuronsActivation inputActivation, C context);
 }
@@ -31,6 +31,10 @@ public interface GradientDescentOptimisationStrategy extends Serializable {
 	 * Allows an optimisation strategy such as Momentum, RMSProp, Adam to adjust the
 	 * axons gradient before it is used for weight updates.
 	 * 
+	 * The provided gradient is discarded by the caller after the update, so may be
+	 * overwritten by the strategy. The returned gradient is scaled in place by the
+	 * learning rate, so must not be retained as part of the strategy's state.
+	 * 
 	 * @param axonsGradient   The pre-adjusted AxonsGradient.
 	 * @param axonsIndex      The index of these Axons in the NeuralNetwork.
 	 * @param trainingContext The training context.
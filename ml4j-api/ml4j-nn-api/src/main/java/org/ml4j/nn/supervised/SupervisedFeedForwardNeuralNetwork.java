@@ -24,6 +24,7 @@ import java.util.stream.Stream;
 import org.ml4j.nn.CostAndGradients;
 import org.ml4j.nn.FeedForwardNeuralNetwork;
 import org.ml4j.nn.FeedForwardNeuralNetworkContext;
+import org.ml4j.nn.components.factories.DirectedComponentFactory;
 import org.ml4j.nn.components.onetone.DefaultChainableDirectedComponent;
 import org.ml4j.nn.datasets.LabeledData;
 import org.ml4j.nn.neurons.NeuronsActivation;
@@ -72,6 +73,24 @@ public interface SupervisedFeedForwardNeuralNetwork
 			Supplier<Stream<LabeledData<NeuronsActivation, NeuronsActivation>>> labeledTrainingDataActivations,
 			FeedForwardNeuralNetworkContext trainingContext, Consumer<Float> onEpochAverageCostHandler);
 
+	/**
+	 * Trains the SupervisedNeuralNetwork data-parallel, splitting each batch
+	 * between a number of workers which each forward and back-propagate their
+	 * share of the batch through their own replica of this network.
+	 * 
+	 * @param labeledTrainingDataActivations A stream of labelled NeuronsActivations produced by the
+	 *                                 training data
+	 * @param trainingContext          The NeuralNetworkContext used for training
+	 * @param onEpochAverageCostHandler A handler to be called on each epoch, passed the average cost for
+	 * that epoch.
+	 * @param directedComponentFactory The DirectedComponentFactory used to replicate this network.
+	 * @param numberOfWorkers          The number of workers.
+	 */
+	public void train(
+			Supplier<Stream<LabeledData<NeuronsActivation, NeuronsActivation>>> labeledTrainingDataActivations,
+			FeedForwardNeuralNetworkContext trainingContext, Consumer<Float> onEpochAverageCostHandler,
+			DirectedComponentFactory directedComponentFactory, int numberOfWorkers);
+
 	/**
 	 * Obtains the accuracy of this neural network given the inputs and desired
 	 * classification activations.
@@ -0,0 +1,130 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.ml4j.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.ml4j.MatrixFactory;
+import org.ml4j.nn.activationfunctions.factories.DifferentiableActivationFunctionFactory;
+import org.ml4j.nn.axons.AxonsContext;
+import org.ml4j.nn.axons.BatchNormAxonsConfig;
+import org.ml4j.nn.axons.BatchNormConfig.BatchNormDimension;
+import org.ml4j.nn.components.DirectedComponentActivationLifecycle;
+import org.ml4j.nn.components.DirectedComponentGradient;
+import org.ml4j.nn.components.DirectedComponentGradientImpl;
+import org.ml4j.nn.components.DirectedComponentsContext;
+import org.ml4j.nn.components.DirectedComponentsContextImpl;
+import org.ml4j.nn.components.axons.BatchNormDirectedAxonsComponent;
+import org.ml4j.nn.components.axons.DirectedAxonsComponentActivation;
+import org.ml4j.nn.components.factories.DirectedComponentFactory;
+import org.ml4j.nn.factories.DefaultAxonsFactoryImpl;
+import org.ml4j.nn.factories.DefaultDifferentiableActivationFunctionFactory;
+import org.ml4j.nn.factories.DefaultDirectedComponentFactoryImpl;
+import org.ml4j.nn.neurons.Neurons3D;
+import org.ml4j.nn.neurons.NeuronsActivation;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks the fused back propagation of DefaultBatchNormDirectedAxonsComponentImpl
+ * for per-channel batch norm over 3D neurons.
+ *
+ * @author Michael Lavelle
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class BatchNormBackPropagationBenchmark {
+
+	@Param({ BenchmarkSupport.JBLAS })
+	private String matrixFactory;
+
+	@Param({ "32", "128" })
+	private int batchSize;
+
+	@Param({ "3", "32" })
+	private int channels;
+
+	@Param({ "28" })
+	private int imageSize;
+
+	private BatchNormDirectedAxonsComponent<Neurons3D, ?> batchNormComponent;
+	private AxonsContext axonsContext;
+	private NeuronsActivation input;
+
+	@Setup
+	public void setUp() {
+		MatrixFactory factory = BenchmarkSupport.createMatrixFactory(matrixFactory);
+		Neurons3D neurons = new Neurons3D(imageSize, imageSize, channels, false);
+		DirectedComponentsContext directedComponentsContext = new DirectedComponentsContextImpl(factory, true);
+		DifferentiableActivationFunctionFactory activationFunctionFactory = new DefaultDifferentiableActivationFunctionFactory();
+		DirectedComponentFactory directedComponentFactory = new DefaultDirectedComponentFactoryImpl(factory,
+				new DefaultAxonsFactoryImpl(factory), activationFunctionFactory, directedComponentsContext);
+		this.batchNormComponent = directedComponentFactory.createBatchNormAxonsComponent("batchNorm",
+				BatchNormAxonsConfig.create(BatchNormDimension.CHANNEL).withNeurons(neurons));
+		this.axonsContext = batchNormComponent.getContext(directedComponentsContext);
+		this.input = BenchmarkSupport.createImageActivation(factory, neurons, batchSize);
+	}
+
+	@TearDown
+	public void tearDown() {
+		input.close();
+	}
+
+	/**
+	 * A fresh forward activation and output gradient for each invocation, as
+	 * backPropagate releases the cached normalised input of the activation.
+	 */
+	@State(Scope.Thread)
+	public static class ForwardPropagation {
+
+		private DirectedAxonsComponentActivation activation;
+		private DirectedComponentGradient<NeuronsActivation> gradient;
+
+		@Setup(Level.Invocation)
+		public void setUp(BatchNormBackPropagationBenchmark benchmark) {
+			this.activation = benchmark.batchNormComponent.forwardPropagate(benchmark.input,
+					benchmark.axonsContext);
+			this.gradient = new DirectedComponentGradientImpl<>(activation.getOutput().dup());
+		}
+
+		@TearDown(Level.Invocation)
+		public void tearDown() {
+			activation.close(DirectedComponentActivationLifecycle.FORWARD_PROPAGATION);
+			gradient.getOutput().close();
+		}
+	}
+
+	@Benchmark
+	public DirectedComponentGradient<NeuronsActivation> backPropagate(ForwardPropagation forwardPropagation) {
+		DirectedComponentGradient<NeuronsActivation> gradient = forwardPropagation.activation
+				.backPropagate(forwardPropagation.gradient);
+		gradient.getOutput().close();
+		return gradient;
+	}
+}
@@ -0,0 +1,127 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.ml4j.benchmarks;
+
+import java.util.Arrays;
+
+import org.ml4j.Matrix;
+import org.ml4j.MatrixFactory;
+import org.ml4j.floatarray.PooledFloatArrayFactory;
+import org.ml4j.jblas.JBlasRowMajorMatrixFactory;
+import org.ml4j.jblas.PooledFloatMatrixFactory;
+import org.ml4j.nd4j.Nd4jRowMajorMatrixFactory;
+import org.ml4j.nn.axons.AxonsActivation;
+import org.ml4j.nn.axons.AxonsContext;
+import org.ml4j.nn.axons.AxonsContextImpl;
+import org.ml4j.nn.axons.WeightsFormatImpl;
+import org.ml4j.nn.axons.WeightsMatrix;
+import org.ml4j.nn.axons.WeightsMatrixImpl;
+import org.ml4j.nn.axons.WeightsMatrixOrientation;
+import org.ml4j.nn.neurons.ImageNeuronsActivationImpl;
+import org.ml4j.nn.neurons.Neurons3D;
+import org.ml4j.nn.neurons.NeuronsActivation;
+import org.ml4j.nn.neurons.format.ImageNeuronsActivationFormat;
+import org.ml4j.nn.neurons.format.features.Dimension;
+
+/**
+ * Shared fixtures for the ml4j JMH benchmarks.
+ *
+ * @author Michael Lavelle
+ */
+public final class BenchmarkSupport {
+
+	public static final String JBLAS = "jblas";
+	public static final String JBLAS_POOLED = "jblas-pooled";
+	public static final String ND4J = "nd4j";
+
+	private BenchmarkSupport() {
+	}
+
+	/**
+	 * @param name The name of the matrix implementation - "jblas", "jblas-pooled"
+	 *             or "nd4j".
+	 * @return A MatrixFactory for the named implementation.
+	 */
+	public static MatrixFactory createMatrixFactory(String name) {
+		if (JBLAS.equals(name)) {
+			return new JBlasRowMajorMatrixFactory();
+		} else if (JBLAS_POOLED.equals(name)) {
+			PooledFloatArrayFactory floatArrayFactory = new PooledFloatArrayFactory();
+			return new JBlasRowMajorMatrixFactory(new PooledFloatMatrixFactory(floatArrayFactory), floatArrayFactory);
+		} else if (ND4J.equals(name)) {
+			return new Nd4jRowMajorMatrixFactory();
+		} else {
+			throw new IllegalArgumentException("Unsupported matrix factory:" + name);
+		}
+	}
+
+	/**
+	 * @param matrixFactory The matrix factory.
+	 * @param neurons       The neurons the activation is for.
+	 * @param batchSize     The number of examples.
+	 * @return An immutable, randomly populated image activation, so that it can
+	 *         be pushed through axons repeatedly without being closed.
+	 */
+	public static NeuronsActivation createImageActivation(MatrixFactory matrixFactory, Neurons3D neurons,
+			int batchSize) {
+		Matrix activations = matrixFactory.createRandn(neurons.getNeuronCountExcludingBias(), batchSize);
+		NeuronsActivation activation = new ImageNeuronsActivationImpl(activations, neurons,
+				ImageNeuronsActivationFormat.ML4J_DEFAULT_IMAGE_FORMAT, false);
+		activation.setImmutable(true);
+		return activation;
+	}
+
+	/**
+	 * @param matrixFactory The matrix factory.
+	 * @param training      Whether the context is for training.
+	 * @return An AxonsContext for the benchmarked axons.
+	 */
+	public static AxonsContext createAxonsContext(MatrixFactory matrixFactory, boolean training) {
+		return new AxonsContextImpl("benchmark", matrixFactory, training, false);
+	}
+
+	/**
+	 * @return An uninitialised convolutional weights matrix in the default
+	 *         format, to be initialised by the axons factory.
+	 */
+	public static WeightsMatrix createConvolutionalWeightsMatrix() {
+		return new WeightsMatrixImpl(null,
+				new WeightsFormatImpl(Arrays.asList(Dimension.INPUT_DEPTH, Dimension.FILTER_HEIGHT, Dimension.FILTER_WIDTH),
+						Arrays.asList(Dimension.OUTPUT_DEPTH), WeightsMatrixOrientation.ROWS_SPAN_OUTPUT_DIMENSIONS));
+	}
+
+	/**
+	 * @return An uninitialised fully connected weights matrix in the default
+	 *         format, to be initialised by the axons factory.
+	 */
+	public static WeightsMatrix createFullyConnectedWeightsMatrix() {
+		return new WeightsMatrixImpl(null, new WeightsFormatImpl(Arrays.asList(Dimension.INPUT_FEATURE),
+				Arrays.asList(Dimension.OUTPUT_FEATURE), WeightsMatrixOrientation.ROWS_SPAN_OUTPUT_DIMENSIONS));
+	}
+
+	/**
+	 * Close the activations produced by a benchmarked push through axons, leaving
+	 * the (shared) benchmark input open.
+	 * 
+	 * @param axonsActivation The activation produced by the axons.
+	 * @param input           The benchmark input, which is not closed.
+	 */
+	public static void close(AxonsActivation axonsActivation, NeuronsActivation input) {
+		NeuronsActivation postDropoutInput = axonsActivation.getPostDropoutInput().get();
+		if (postDropoutInput != null && postDropoutInput != input) {
+			postDropoutInput.close();
+		}
+		axonsActivation.getPostDropoutOutput().close();
+	}
+}
@@ -0,0 +1,123 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.ml4j.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.ml4j.MatrixFactory;
+import org.ml4j.nn.axons.Axons3DConfig;
+import org.ml4j.nn.axons.AxonsActivation;
+import org.ml4j.nn.axons.AxonsContext;
+import org.ml4j.nn.axons.ConvolutionalAxons;
+import org.ml4j.nn.axons.DefaultConvolutionalAxonsImpl;
+import org.ml4j.nn.factories.DefaultAxonsFactoryImpl;
+import org.ml4j.nn.neurons.Neurons3D;
+import org.ml4j.nn.neurons.NeuronsActivation;
+import org.ml4j.nn.neurons.NeuronsActivationImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks DefaultConvolutionalAxonsImpl (im2col + GEMM) for a 3x3 "same"
+ * padded convolution with as many output channels as input channels.
+ *
+ * @author Michael Lavelle
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class ConvolutionalAxonsBenchmark {
+
+	@Param({ BenchmarkSupport.JBLAS, BenchmarkSupport.JBLAS_POOLED })
+	private String matrixFactory;
+
+	@Param({ "32", "128" })
+	private int batchSize;
+
+	@Param({ "3", "32" })
+	private int channels;
+
+	@Param({ "28" })
+	private int imageSize;
+
+	private AxonsContext axonsContext;
+	private ConvolutionalAxons axons;
+	private NeuronsActivation leftToRightInput;
+	private AxonsActivation leftToRightActivation;
+
+	@Setup
+	public void setUp() {
+		MatrixFactory factory = BenchmarkSupport.createMatrixFactory(matrixFactory);
+		Neurons3D leftNeurons = new Neurons3D(imageSize, imageSize, channels, false);
+		Neurons3D rightNeurons = new Neurons3D(imageSize, imageSize, channels, false);
+		Axons3DConfig config = new Axons3DConfig(leftNeurons, rightNeurons).withPaddingWidth(1)
+				.withPaddingHeight(1);
+		this.axons = new DefaultConvolutionalAxonsImpl(new DefaultAxonsFactoryImpl(factory), config,
+				BenchmarkSupport.createConvolutionalWeightsMatrix(), null);
+		this.axonsContext = BenchmarkSupport.createAxonsContext(factory, true);
+		this.leftToRightInput = BenchmarkSupport.createImageActivation(factory, leftNeurons, batchSize);
+		this.leftToRightActivation = axons.pushLeftToRight(leftToRightInput, null, axonsContext);
+	}
+
+	@TearDown
+	public void tearDown() {
+		BenchmarkSupport.close(leftToRightActivation, leftToRightInput);
+		leftToRightInput.close();
+	}
+
+	/**
+	 * A fresh, mutable output gradient for each invocation, as
+	 * pushRightToLeft reshapes its (non-image) input in place.
+	 */
+	@State(Scope.Thread)
+	public static class RightToLeftInput {
+
+		private NeuronsActivation gradient;
+
+		@Setup(Level.Invocation)
+		public void setUp(ConvolutionalAxonsBenchmark benchmark) {
+			NeuronsActivation output = benchmark.leftToRightActivation.getPostDropoutOutput();
+			this.gradient = new NeuronsActivationImpl(output.getNeurons(),
+					output.getActivations(benchmark.axonsContext.getMatrixFactory()).dup(), output.getFormat());
+		}
+	}
+
+	@Benchmark
+	public AxonsActivation pushLeftToRight() {
+		AxonsActivation activation = axons.pushLeftToRight(leftToRightInput, null, axonsContext);
+		BenchmarkSupport.close(activation, leftToRightInput);
+		return activation;
+	}
+
+	@Benchmark
+	public AxonsActivation pushRightToLeft(RightToLeftInput input) {
+		AxonsActivation activation = axons.pushRightToLeft(input.gradient, leftToRightActivation, axonsContext);
+		BenchmarkSupport.close(activation, null);
+		return activation;
+	}
+}
@@ -0,0 +1,169 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.ml4j.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.ml4j.EditableMatrix;
+import org.ml4j.MatrixFactory;
+import org.ml4j.nn.CostAndGradientsImpl;
+import org.ml4j.nn.FeedForwardNeuralNetworkContext;
+import org.ml4j.nn.activationfunctions.ActivationFunctionBaseType;
+import org.ml4j.nn.activationfunctions.ActivationFunctionProperties;
+import org.ml4j.nn.activationfunctions.ActivationFunctionType;
+import org.ml4j.nn.axons.Axons3DConfig;
+import org.ml4j.nn.axons.ConvolutionalAxonsConfig;
+import org.ml4j.nn.axons.FullyConnectedAxonsConfig;
+import org.ml4j.nn.axons.PoolingAxonsConfig;
+import org.ml4j.nn.components.DirectedComponentsContext;
+import org.ml4j.nn.components.DirectedComponentsContextImpl;
+import org.ml4j.nn.components.factories.DirectedComponentFactory;
+import org.ml4j.nn.factories.DefaultAxonsFactoryImpl;
+import org.ml4j.nn.factories.DefaultDifferentiableActivationFunctionFactory;
+import org.ml4j.nn.factories.DefaultDirectedComponentFactoryImpl;
+import org.ml4j.nn.neurons.Neurons;
+import org.ml4j.nn.neurons.Neurons3D;
+import org.ml4j.nn.neurons.NeuronsActivation;
+import org.ml4j.nn.neurons.NeuronsActivationImpl;
+import org.ml4j.nn.neurons.format.NeuronsActivationFormat;
+import org.ml4j.nn.supervised.FeedForwardNeuralNetworkContextImpl;
+import org.ml4j.nn.supervised.SupervisedFeedForwardNeuralNetworkImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks FeedForwardNeuralNetworkBase.getCostAndGradients - a full forward
+ * and backward pass - for a small convolutional network:
+ *
+ * conv 3x3 (same) -> relu -> max pool 2x2 -> fully connected -> softmax.
+ *
+ * @author Michael Lavelle
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class FeedForwardNeuralNetworkBenchmark {
+
+	private static final int CLASSES = 10;
+
+	@Param({ BenchmarkSupport.JBLAS, BenchmarkSupport.JBLAS_POOLED })
+	private String matrixFactory;
+
+	@Param({ "32", "128" })
+	private int batchSize;
+
+	@Param({ "3", "32" })
+	private int channels;
+
+	@Param({ "28" })
+	private int imageSize;
+
+	private BenchmarkedNetwork network;
+	private FeedForwardNeuralNetworkContext trainingContext;
+	private NeuronsActivation input;
+	private NeuronsActivation labels;
+
+	/**
+	 * Exposes getCostAndGradients of the network under benchmark.
+	 */
+	private static class BenchmarkedNetwork extends SupervisedFeedForwardNeuralNetworkImpl {
+
+		/**
+		 * Default serialization id.
+		 */
+		private static final long serialVersionUID = 1L;
+
+		BenchmarkedNetwork(DirectedComponentFactory directedComponentFactory, Neurons3D inputNeurons,
+				Neurons3D convolutionalNeurons, Neurons3D poolingNeurons, Neurons outputNeurons) {
+			super("benchmark", directedComponentFactory,
+					directedComponentFactory.createConvolutionalAxonsComponent("conv",
+							ConvolutionalAxonsConfig.create(new Axons3DConfig(inputNeurons, convolutionalNeurons)
+									.withPaddingWidth(1).withPaddingHeight(1)),
+							BenchmarkSupport.createConvolutionalWeightsMatrix(), null),
+					directedComponentFactory.createDifferentiableActivationFunctionComponent("relu",
+							convolutionalNeurons, ActivationFunctionType.getBaseType(ActivationFunctionBaseType.RELU),
+							new ActivationFunctionProperties()),
+					directedComponentFactory.createMaxPoolingAxonsComponent("pool",
+							PoolingAxonsConfig.create(new Axons3DConfig(convolutionalNeurons, poolingNeurons)
+									.withStrideWidth(2).withStrideHeight(2)),
+							false),
+					directedComponentFactory.createFullyConnectedAxonsComponent("fc",
+							FullyConnectedAxonsConfig.create(
+									new Neurons(poolingNeurons.getNeuronCountExcludingBias(), true), outputNeurons),
+							BenchmarkSupport.createFullyConnectedWeightsMatrix(), null),
+					directedComponentFactory.createDifferentiableActivationFunctionComponent("softmax",
+							outputNeurons, ActivationFunctionType.getBaseType(ActivationFunctionBaseType.SOFTMAX),
+							new ActivationFunctionProperties()));
+		}
+
+		@Override
+		public CostAndGradientsImpl getCostAndGradients(NeuronsActivation inputActivations,
+				NeuronsActivation desiredOutputActivations, FeedForwardNeuralNetworkContext trainingContext) {
+			return super.getCostAndGradients(inputActivations, desiredOutputActivations, trainingContext);
+		}
+	}
+
+	@Setup
+	public void setUp() {
+		MatrixFactory factory = BenchmarkSupport.createMatrixFactory(matrixFactory);
+		DirectedComponentsContext directedComponentsContext = new DirectedComponentsContextImpl(factory, true);
+		DirectedComponentFactory directedComponentFactory = new DefaultDirectedComponentFactoryImpl(factory,
+				new DefaultAxonsFactoryImpl(factory), new DefaultDifferentiableActivationFunctionFactory(),
+				directedComponentsContext);
+
+		Neurons3D inputNeurons = new Neurons3D(imageSize, imageSize, channels, false);
+		Neurons3D convolutionalNeurons = new Neurons3D(imageSize, imageSize, channels, false);
+		Neurons3D poolingNeurons = new Neurons3D(imageSize / 2, imageSize / 2, channels, false);
+		Neurons outputNeurons = new Neurons(CLASSES, false);
+
+		this.network = new BenchmarkedNetwork(directedComponentFactory, inputNeurons, convolutionalNeurons,
+				poolingNeurons, outputNeurons);
+		this.trainingContext = new FeedForwardNeuralNetworkContextImpl(directedComponentsContext, true);
+		this.input = BenchmarkSupport.createImageActivation(factory, inputNeurons, batchSize);
+
+		EditableMatrix labelMatrix = factory.createZeros(CLASSES, batchSize).asEditableMatrix();
+		for (int example = 0; example < batchSize; example++) {
+			labelMatrix.put(example % CLASSES, example, 1);
+		}
+		this.labels = new NeuronsActivationImpl(outputNeurons, labelMatrix,
+				NeuronsActivationFormat.ROWS_SPAN_FEATURE_SET, true);
+	}
+
+	@TearDown
+	public void tearDown() {
+		input.close();
+		labels.close();
+	}
+
+	@Benchmark
+	public float getCostAndGradients() {
+		CostAndGradientsImpl costAndGradients = network.getCostAndGradients(input, labels, trainingContext);
+		float totalCost = costAndGradients.getTotalCost();
+		costAndGradients.close();
+		return totalCost;
+	}
+}
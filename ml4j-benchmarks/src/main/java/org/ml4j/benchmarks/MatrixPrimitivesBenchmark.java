@@ -0,0 +1,140 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.ml4j.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.ml4j.InterrimMatrix;
+import org.ml4j.Matrix;
+import org.ml4j.MatrixFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks the JBlasRowMajorMatrix / Nd4jRowMajorMatrix primitives used on the
+ * forward and backward paths, on an activation-shaped matrix of
+ * (channels * imageSize * imageSize) rows by batchSize columns.
+ *
+ * The Nd4j variant needs a native backend on the classpath - build with
+ * -Pnd4j-native and run with -p matrixFactory=nd4j.
+ *
+ * @author Michael Lavelle
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class MatrixPrimitivesBenchmark {
+
+	@Param({ BenchmarkSupport.JBLAS })
+	private String matrixFactory;
+
+	@Param({ "32", "128" })
+	private int batchSize;
+
+	@Param({ "3", "32" })
+	private int channels;
+
+	@Param({ "28" })
+	private int imageSize;
+
+	private Matrix activations;
+	private Matrix other;
+	private Matrix weights;
+	private Matrix columnVector;
+
+	@Setup
+	public void setUp() {
+		MatrixFactory factory = BenchmarkSupport.createMatrixFactory(matrixFactory);
+		int features = channels * imageSize * imageSize;
+		this.activations = factory.createRandn(features, batchSize);
+		this.other = factory.createRandn(features, batchSize);
+		this.weights = factory.createRandn(10, features);
+		this.columnVector = factory.createRandn(features, 1);
+	}
+
+	@TearDown
+	public void tearDown() {
+		activations.close();
+		other.close();
+		weights.close();
+		columnVector.close();
+	}
+
+	@Benchmark
+	public float mmul() {
+		try (InterrimMatrix result = weights.mmul(activations).asInterrimMatrix()) {
+			return result.get(0);
+		}
+	}
+
+	@Benchmark
+	public float add() {
+		try (InterrimMatrix result = activations.add(other).asInterrimMatrix()) {
+			return result.get(0);
+		}
+	}
+
+	@Benchmark
+	public float mul() {
+		try (InterrimMatrix result = activations.mul(other).asInterrimMatrix()) {
+			return result.get(0);
+		}
+	}
+
+	@Benchmark
+	public float addColumnVector() {
+		try (InterrimMatrix result = activations.addColumnVector(columnVector).asInterrimMatrix()) {
+			return result.get(0);
+		}
+	}
+
+	@Benchmark
+	public float transpose() {
+		try (InterrimMatrix result = activations.transpose().asInterrimMatrix()) {
+			return result.get(0);
+		}
+	}
+
+	@Benchmark
+	public float rowSums() {
+		try (InterrimMatrix result = activations.rowSums().asInterrimMatrix()) {
+			return result.get(0);
+		}
+	}
+
+	@Benchmark
+	public int[] columnArgmaxs() {
+		return activations.columnArgmaxs();
+	}
+
+	@Benchmark
+	public float dup() {
+		try (InterrimMatrix result = activations.dup().asInterrimMatrix()) {
+			return result.get(0);
+		}
+	}
+}
@@ -0,0 +1,123 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.ml4j.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.ml4j.MatrixFactory;
+import org.ml4j.nn.axons.Axons3DConfig;
+import org.ml4j.nn.axons.AxonsActivation;
+import org.ml4j.nn.axons.AxonsContext;
+import org.ml4j.nn.axons.DefaultMaxPoolingAxonsImpl;
+import org.ml4j.nn.axons.MaxPoolingAxons;
+import org.ml4j.nn.neurons.Neurons3D;
+import org.ml4j.nn.neurons.NeuronsActivation;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks DefaultMaxPoolingAxonsImpl for 2x2 max pooling with a stride of 2.
+ *
+ * @author Michael Lavelle
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class MaxPoolingAxonsBenchmark {
+
+	@Param({ BenchmarkSupport.JBLAS })
+	private String matrixFactory;
+
+	@Param({ "32", "128" })
+	private int batchSize;
+
+	@Param({ "3", "32" })
+	private int channels;
+
+	@Param({ "28" })
+	private int imageSize;
+
+	private AxonsContext axonsContext;
+	private MaxPoolingAxons axons;
+	private NeuronsActivation leftToRightInput;
+
+	@Setup
+	public void setUp() {
+		MatrixFactory factory = BenchmarkSupport.createMatrixFactory(matrixFactory);
+		Neurons3D leftNeurons = new Neurons3D(imageSize, imageSize, channels, false);
+		Neurons3D rightNeurons = new Neurons3D(imageSize / 2, imageSize / 2, channels, false);
+		Axons3DConfig config = new Axons3DConfig(leftNeurons, rightNeurons).withStrideWidth(2)
+				.withStrideHeight(2);
+		this.axons = new DefaultMaxPoolingAxonsImpl(factory, config, false);
+		this.axonsContext = BenchmarkSupport.createAxonsContext(factory, true);
+		this.leftToRightInput = BenchmarkSupport.createImageActivation(factory, leftNeurons, batchSize);
+	}
+
+	@TearDown
+	public void tearDown() {
+		leftToRightInput.close();
+	}
+
+	/**
+	 * A fresh forward activation and output gradient for each invocation, as
+	 * pushRightToLeft consumes the dropout mask of the forward activation.
+	 */
+	@State(Scope.Thread)
+	public static class RightToLeftInput {
+
+		private AxonsActivation leftToRightActivation;
+		private NeuronsActivation gradient;
+
+		@Setup(Level.Invocation)
+		public void setUp(MaxPoolingAxonsBenchmark benchmark) {
+			this.leftToRightActivation = benchmark.axons.pushLeftToRight(benchmark.leftToRightInput, null,
+					benchmark.axonsContext);
+			this.gradient = leftToRightActivation.getPostDropoutOutput().dup();
+		}
+
+		@TearDown(Level.Invocation)
+		public void tearDown() {
+			leftToRightActivation.getPostDropoutOutput().close();
+		}
+	}
+
+	@Benchmark
+	public AxonsActivation pushLeftToRight() {
+		AxonsActivation activation = axons.pushLeftToRight(leftToRightInput, null, axonsContext);
+		BenchmarkSupport.close(activation, leftToRightInput);
+		return activation;
+	}
+
+	@Benchmark
+	public AxonsActivation pushRightToLeft(RightToLeftInput input) {
+		AxonsActivation activation = axons.pushRightToLeft(input.gradient, input.leftToRightActivation,
+				axonsContext);
+		BenchmarkSupport.close(activation, null);
+		return activation;
+	}
+}
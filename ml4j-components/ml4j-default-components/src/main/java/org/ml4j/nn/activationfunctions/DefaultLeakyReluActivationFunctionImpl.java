@@ -15,6 +15,7 @@ package org.ml4j.nn.activationfunctions;
 
 import java.util.Optional;
 
+import org.ml4j.FloatArrayKernels;
 import org.ml4j.nn.neurons.NeuronsActivation;
 import org.ml4j.nn.neurons.NeuronsActivationContext;
 import org.ml4j.nn.neurons.format.NeuronsActivationFormat;
@@ -42,7 +43,7 @@ public class DefaultLeakyReluActivationFunctionImpl implements DifferentiableAct
 			NeuronsActivationContext context) {
 		NeuronsActivation input = context.isTrainingContext() ? activation.dup() : activation;
 		NeuronsActivation output = activation;
-		output.applyValueModifier(v -> v < 0, v -> alpha * v);
+		output.applyValueModifier(FloatArrayKernels.leakyRelu(alpha));
 		return new DefaultDifferentiableActivationFunctionActivationImpl(this, input, output);
 	}
 
@@ -50,7 +51,7 @@ public class DefaultLeakyReluActivationFunctionImpl implements DifferentiableAct
 	public NeuronsActivation activationGradient(DifferentiableActivationFunctionActivation activation,
 			NeuronsActivationContext context) {
 		NeuronsActivation output = activation.getInput();
-		output.applyValueModifier(v -> true, v -> v <= 0 ? alpha : 1);
+		output.applyValueModifier(FloatArrayKernels.leakyReluGradient(alpha));
 		return output;
 	}
 
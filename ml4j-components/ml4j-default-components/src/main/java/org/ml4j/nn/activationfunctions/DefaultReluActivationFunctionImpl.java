@@ -15,6 +15,7 @@ package org.ml4j.nn.activationfunctions;
 
 import java.util.Optional;
 
+import org.ml4j.FloatArrayKernels;
 import org.ml4j.nn.neurons.NeuronsActivation;
 import org.ml4j.nn.neurons.NeuronsActivationContext;
 import org.ml4j.nn.neurons.format.NeuronsActivationFormat;
@@ -36,7 +37,7 @@ public class DefaultReluActivationFunctionImpl implements DifferentiableActivati
 			NeuronsActivationContext context) {
 		NeuronsActivation input = context.isTrainingContext() ? activation.dup() : activation;
 		NeuronsActivation output = activation;
-		output.applyValueModifier(v -> v < 0, v -> 0);
+		output.applyValueModifier(FloatArrayKernels.relu());
 		return new DefaultDifferentiableActivationFunctionActivationImpl(this, input, output);
 	}
 
@@ -44,7 +45,7 @@ public class DefaultReluActivationFunctionImpl implements DifferentiableActivati
 	public NeuronsActivation activationGradient(DifferentiableActivationFunctionActivation activation,
 			NeuronsActivationContext context) {
 		NeuronsActivation output = activation.getInput();
-		output.applyValueModifier(v -> true, v -> v <= 0 ? 0 : 1);
+		output.applyValueModifier(FloatArrayKernels.reluGradient());
 		return output;
 	}
 
@@ -13,11 +13,11 @@
  */
 package org.ml4j.nn.activationfunctions;
 
+import java.util.Arrays;
 import java.util.Optional;
 
-import org.ml4j.EditableMatrix;
-import org.ml4j.InterrimMatrix;
 import org.ml4j.Matrix;
+import org.ml4j.MatrixFactory;
 import org.ml4j.nn.neurons.NeuronsActivation;
 import org.ml4j.nn.neurons.NeuronsActivationContext;
 import org.ml4j.nn.neurons.NeuronsActivationFeatureOrientation;
@@ -50,7 +50,8 @@ public class DefaultSoftmaxActivationFunctionImpl implements DifferentiableActiv
 					"Only neurons actiavation with ROWS_SPAN_FEATURE_SET " + "orientation supported currently");
 		}
 
-		Matrix softmaxOfInputActivationsMatrix = softmax(input.getActivations(context.getMatrixFactory()));
+		Matrix softmaxOfInputActivationsMatrix = softmax(input.getActivations(context.getMatrixFactory()),
+				context.getMatrixFactory());
 
 		// TODO
 		// input.close();
@@ -60,14 +61,46 @@ public class DefaultSoftmaxActivationFunctionImpl implements DifferentiableActiv
 	}
 
 	/**
-	 * Returns a matrix that has the softmax function applied to each element of
+	 * Returns a matrix that has the softmax function applied to each column of
 	 * given input matrix.
+	 * 
+	 * The maximum of each column is subtracted before exponentiation so that
+	 * large inputs do not overflow, and the exponentiation, column sums and
+	 * normalisation are fused into streaming passes over the row-by-row data,
+	 * without intermediate matrices.
 	 */
-	public static Matrix softmax(Matrix x1) {
-		EditableMatrix exp = x1.asEditableMatrix().expi();
-		try (InterrimMatrix sums = exp.columnSums().asInterrimMatrix()) {
-			return exp.diviRowVector(sums);
+	public static Matrix softmax(Matrix x1, MatrixFactory matrixFactory) {
+		int rows = x1.getRows();
+		int columns = x1.getColumns();
+		float[] input = x1.getRowByRowArray();
+		float[] output = new float[input.length];
+		float[] columnMaxs = new float[columns];
+		float[] columnSums = new float[columns];
+		Arrays.fill(columnMaxs, Float.NEGATIVE_INFINITY);
+		for (int r = 0; r < rows; r++) {
+			int rowStart = r * columns;
+			for (int c = 0; c < columns; c++) {
+				columnMaxs[c] = Math.max(columnMaxs[c], input[rowStart + c]);
+			}
 		}
+		for (int r = 0; r < rows; r++) {
+			int rowStart = r * columns;
+			for (int c = 0; c < columns; c++) {
+				float exp = (float) Math.exp(input[rowStart + c] - columnMaxs[c]);
+				output[rowStart + c] = exp;
+				columnSums[c] += exp;
+			}
+		}
+		for (int c = 0; c < columns; c++) {
+			columnSums[c] = 1f / columnSums[c];
+		}
+		for (int r = 0; r < rows; r++) {
+			int rowStart = r * columns;
+			for (int c = 0; c < columns; c++) {
+				output[rowStart + c] *= columnSums[c];
+			}
+		}
+		return matrixFactory.createMatrixFromRowsByRowsArray(rows, columns, output);
 	}
 
 	@Override
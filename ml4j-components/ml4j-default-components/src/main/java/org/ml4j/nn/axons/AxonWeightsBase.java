@@ -1,5 +1,7 @@
 package org.ml4j.nn.axons;
 
+import org.ml4j.EditableMatrix;
+import org.ml4j.Matrix;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -46,6 +48,15 @@ public abstract class AxonWeightsBase implements AxonWeights {
 			if (axonWeightsAdjustment.getRightToLeftBiases().isPresent()) {
 				rightToLeftBiases.getVector().asEditableMatrix().addi(axonWeightsAdjustment.getRightToLeftBiases().get());
 			}
+		} else if (adjustmentDirection == AxonWeightsAdjustmentDirection.REPLACEMENT) {
+			LOGGER.debug("Replacing axon weights with adjustment");
+			replace(connectionWeights.getMatrix(), axonWeightsAdjustment.getConnectionWeights());
+			if (axonWeightsAdjustment.getLeftToRightBiases().isPresent()) {
+				replace(leftToRightBiases.getVector(), axonWeightsAdjustment.getLeftToRightBiases().get());
+			}
+			if (axonWeightsAdjustment.getRightToLeftBiases().isPresent()) {
+				replace(rightToLeftBiases.getVector(), axonWeightsAdjustment.getRightToLeftBiases().get());
+			}
 		} else {
 			LOGGER.debug("Subtracting adjustment from axon weights");
 			connectionWeights.getMatrix().asEditableMatrix().subi(axonWeightsAdjustment.getConnectionWeights());
@@ -58,6 +69,21 @@ public abstract class AxonWeightsBase implements AxonWeights {
 		}
 	}
 
+	/**
+	 * Copy the replacement into the target in place, so that any non-finite
+	 * values in the target are overwritten rather than combined.
+	 */
+	private void replace(Matrix target, Matrix replacement) {
+		if (target.getRows() != replacement.getRows() || target.getColumns() != replacement.getColumns()) {
+			throw new IllegalArgumentException("Replacement shape " + replacement.getRows() + "x"
+					+ replacement.getColumns() + " does not match " + target.getRows() + "x" + target.getColumns());
+		}
+		EditableMatrix editableTarget = target.asEditableMatrix();
+		for (int i = 0; i < target.getLength(); i++) {
+			editableTarget.put(i, replacement.get(i));
+		}
+	}
+
 	@Override
 	public WeightsMatrix getConnectionWeights() {
 		return connectionWeights;
@@ -2,10 +2,9 @@ package org.ml4j.nn.axons;
 
 import java.util.Optional;
 
-import org.ml4j.EditableMatrix;
-import org.ml4j.InterrimMatrix;
 import org.ml4j.Matrix;
 import org.ml4j.MatrixFactory;
+import org.ml4j.images.AveragePoolingWindows;
 import org.ml4j.images.Images;
 import org.ml4j.images.MultiChannelImages;
 import org.ml4j.nn.neurons.ImageNeuronsActivation;
@@ -71,50 +70,39 @@ public class DefaultAveragePoolingAxonsImpl implements AveragePoolingAxons {
 
 	}
 
+	private AveragePoolingWindows createWindows() {
+		AveragePoolingWindows windows = new AveragePoolingWindows(getLeftNeurons().getDepth(),
+				getLeftNeurons().getHeight(), getLeftNeurons().getWidth(), config.getFilterHeight(),
+				config.getFilterWidth(), config.getStrideHeight(), config.getStrideWidth(), config.getPaddingHeight(),
+				config.getPaddingWidth());
+		if (windows.getOutputHeight() != getRightNeurons().getHeight()
+				|| windows.getOutputWidth() != getRightNeurons().getWidth()
+				|| getLeftNeurons().getDepth() != getRightNeurons().getDepth()) {
+			throw new IllegalStateException("Right neurons do not match the average pooling configuration");
+		}
+		return windows;
+	}
+
 	@Override
 	public AxonsActivation pushLeftToRight(NeuronsActivation leftNeuronsActivation,
 			AxonsActivation previousRightToLeftActivation, AxonsContext axonsContext) {
 
-	
-		ImageNeuronsActivation inputImageActivation = leftNeuronsActivation.asImageNeuronsActivation(getLeftNeurons(), DimensionScope.INPUT);
+		ImageNeuronsActivation inputImageActivation = leftNeuronsActivation.asImageNeuronsActivation(getLeftNeurons(),
+				DimensionScope.INPUT);
 
-		int inputMatrixRows = inputImageActivation.getRows();
-		int inputMatrixColumns = inputImageActivation.getColumns();
 		int exampleCount = inputImageActivation.getExampleCount();
 
-		ImageNeuronsActivation onesActivation = new ImageNeuronsActivationImpl(
-				axonsContext.getMatrixFactory().createOnes(inputMatrixRows, inputMatrixColumns),
-				inputImageActivation.getNeurons(), inputImageActivation.getFormat(), false);
+		// Obtain pooled feature averages directly from the windows of the input
+		float[] outputData = new float[getRightNeurons().getNeuronCountExcludingBias() * exampleCount];
+		createWindows().pool(inputImageActivation.getImages().getData(), 0, outputData, 0, exampleCount);
 
-		// Reformat the input and the ones activations.
-
-		Matrix reformatted = reformatLeftToRightInput(axonsContext.getMatrixFactory(), inputImageActivation);
-		Matrix reformattedOnes = reformatLeftToRightInput(axonsContext.getMatrixFactory(), onesActivation);
+		ImageNeuronsActivation output = new ImageNeuronsActivationImpl(getRightNeurons(),
+				createImages(getRightNeurons(), outputData, exampleCount),
+				ImageNeuronsActivationFormat.ML4J_DEFAULT_IMAGE_FORMAT, false);
 
-		EditableMatrix counts = reformattedOnes.columnSums().asEditableMatrix();
-		for (int i = 0; i < counts.getLength(); i++) {
-			if (counts.get(i) == 0) {
-				counts.put(i, 1);
-			}
+		if (inputImageActivation != leftNeuronsActivation) {
+			inputImageActivation.close();
 		}
-		onesActivation.close();
-		reformattedOnes.close();
-
-	
-		// Obtain pooled feature averages
-		Matrix preFormattedOutput = 
-				reformatted.columnSums().asEditableMatrix().diviRowVector(counts);
-		
-		reformatted.close();
-
-		// Reformat back to output shape
-		preFormattedOutput.asEditableMatrix().reshape(getRightNeurons().getNeuronCountExcludingBias(), exampleCount);
-		
-		ImageNeuronsActivation output = new ImageNeuronsActivationImpl(preFormattedOutput, getRightNeurons(),
-				ImageNeuronsActivationFormat.ML4J_DEFAULT_IMAGE_FORMAT, false);
-				
-		// Close the pooled feature averages activations
-		preFormattedOutput.close();
 
 		// If the leftNeuronsActivation wassn't immutable, close it.
 		if (!leftNeuronsActivation.isImmutable()) {
@@ -129,59 +117,35 @@ public class DefaultAveragePoolingAxonsImpl implements AveragePoolingAxons {
 	public AxonsActivation pushRightToLeft(NeuronsActivation rightNeuronsActivation,
 			AxonsActivation previousLeftToRightActivation, AxonsContext axonsContext) {
 
-		int filterElementCount = config.getFilterWidth() * config.getFilterWidth();
-
-		try (InterrimMatrix reformattedRow = rightNeuronsActivation.getActivations(axonsContext.getMatrixFactory())
-				.asInterrimMatrix()) {
+		int exampleCount = rightNeuronsActivation.getExampleCount();
 
-			try (InterrimMatrix reformattedAvgRow = reformattedRow.div(filterElementCount).asInterrimMatrix()) {
-				try (InterrimMatrix reformattedAvgMatrix = axonsContext.getMatrixFactory()
-						.createMatrix(filterElementCount, reformattedAvgRow.getColumns() * reformattedAvgRow.getRows())
-						.asInterrimMatrix()) {
-					for (int r = 0; r < reformattedAvgMatrix.getRows(); r++) {
-						reformattedAvgMatrix.asEditableMatrix().putRow(r, reformattedAvgRow);
-					}
-					LOGGER.debug("Output average pooling axons:" + reformattedAvgMatrix.getRows() + ":"
-							+ reformattedAvgMatrix.getColumns());
+		LOGGER.debug("Reformatted average pooling axons:" + rightNeuronsActivation.getRows() + ":"
+				+ rightNeuronsActivation.getColumns());
 
-					LOGGER.debug("Reformatted average pooling axons:" + rightNeuronsActivation.getRows() + ":"
-							+ rightNeuronsActivation.getColumns());
+		// Scatter the share of each gradient to the inputs of its window
+		float[] outputData = new float[getLeftNeurons().getNeuronCountExcludingBias() * exampleCount];
+		createWindows().scatter(
+				rightNeuronsActivation.getActivations(axonsContext.getMatrixFactory()).getRowByRowArray(), 0,
+				outputData, 0, exampleCount);
 
-					Matrix preFormattedOutput = reformattedAvgMatrix;
-
-					NeuronsActivation reformattedOutput = reformatRightToLeftOutput(axonsContext.getMatrixFactory(),
-							rightNeuronsActivation.getFeatureOrientation(), preFormattedOutput,
-							previousLeftToRightActivation.getPostDropoutOutput().getExampleCount());
-
-					if (!rightNeuronsActivation.isImmutable()) {
-						rightNeuronsActivation.close();
-					}
-					return new AxonsActivationImpl(this, null, () -> rightNeuronsActivation, reformattedOutput);
-				}
-
-			}
+		NeuronsActivation reformattedOutput = new ImageNeuronsActivationImpl(getLeftNeurons(),
+				createImages(getLeftNeurons(), outputData, exampleCount),
+				ImageNeuronsActivationFormat.ML4J_DEFAULT_IMAGE_FORMAT, false);
 
+		if (!rightNeuronsActivation.isImmutable()) {
+			rightNeuronsActivation.close();
 		}
+		return new AxonsActivationImpl(this, null, () -> rightNeuronsActivation, reformattedOutput);
 	}
 
-	private NeuronsActivation reformatRightToLeftOutput(MatrixFactory matrixFactory,
-			NeuronsActivationFeatureOrientation featureOrientation, Matrix output, int exampleCount) {
-
-		float[] data = new float[getLeftNeurons().getDepth() * getLeftNeurons().getWidth()
-				* getLeftNeurons().getHeight() * exampleCount];
-
-		Images images = new MultiChannelImages(data, getLeftNeurons().getDepth(), getLeftNeurons().getHeight(),
-				getLeftNeurons().getWidth(), config.getPaddingHeight(), config.getPaddingWidth(), exampleCount);
-
-		images.im2colPoolImport(matrixFactory, output, config.getFilterHeight(), config.getFilterWidth(), config.getStrideHeight(),
-				config.getStrideWidth());
-
-		return new ImageNeuronsActivationImpl(getLeftNeurons(), images, ImageNeuronsActivationFormat.ML4J_DEFAULT_IMAGE_FORMAT, false);
+	private Images createImages(Neurons3D neurons, float[] data, int exampleCount) {
+		return new MultiChannelImages(data, neurons.getDepth(), neurons.getHeight(), neurons.getWidth(), 0, 0,
+				exampleCount);
 	}
 
 	@Override
 	public AveragePoolingAxons dup() {
-		throw new UnsupportedOperationException();
+		return new DefaultAveragePoolingAxonsImpl(matrixFactory, config.dup());
 	}
 
 	@Override
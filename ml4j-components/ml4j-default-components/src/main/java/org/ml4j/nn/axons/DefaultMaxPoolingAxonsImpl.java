@@ -2,8 +2,7 @@ package org.ml4j.nn.axons;
 
 import java.util.Optional;
 
-import org.ml4j.EditableMatrix;
-import org.ml4j.InterrimMatrix;
+import org.ml4j.FloatArrayKernels;
 import org.ml4j.Matrix;
 import org.ml4j.MatrixFactory;
 import org.ml4j.images.Images;
@@ -70,7 +69,7 @@ public class DefaultMaxPoolingAxonsImpl implements MaxPoolingAxons {
 			int inputDim = (int) (this.getLeftNeurons().getNeuronCountIncludingBias() / getLeftNeurons().getDepth());
 
 			float scaleDown = inputDim / outputDim;
-			reformatted.applyValueModifier(v -> v * scaleDown);
+			reformatted.applyValueModifier(FloatArrayKernels.scale(scaleDown));
 		}
 
 		return reformatted;
@@ -88,23 +87,16 @@ public class DefaultMaxPoolingAxonsImpl implements MaxPoolingAxons {
 
 		Matrix reformatted = reformattedActivation.getActivations(matrixFactory);
 
-		EditableMatrix maxes = (EditableMatrix) axonsContext.getMatrixFactory().createMatrix(reformatted.getRows(),
-				reformatted.getColumns());
+		// Capture the argmax of each pooling window as an index into the input,
+		// rather than as a mask the size of the reformatted input
+		int[] argmaxIndexes = reformatted.columnArgmaxs();
+		float[] outputData = new float[reformatted.getColumns()];
+		gatherArgmaxes(reformatted.getRowByRowArray(), reformatted.getColumns(), argmaxIndexes, outputData,
+				exampleCount);
+
+		Matrix origOutput = axonsContext.getMatrixFactory().createMatrixFromRowsByRowsArray(
+				getRightNeurons().getNeuronCountExcludingBias(), exampleCount, outputData);
 
-		EditableMatrix origOutput = (EditableMatrix) axonsContext.getMatrixFactory().createMatrix(1,
-				reformatted.getColumns());
-		int[] maxInts = reformatted.columnArgmaxs();
-		for (int c = 0; c < reformatted.getColumns(); c++) {
-			if (maxInts[c] != -1) {
-				maxes.put(maxInts[c], c, 1);
-				origOutput.put(0, c, reformatted.get(maxInts[c], c));
-			}
-		}
-	
-		AxonsDropoutMask maxesDropoutMask = new AxonsDropoutMaskImpl(maxes, AxonsDropoutMaskType.INPUT);
-		
-		origOutput.reshape(getRightNeurons().getNeuronCountExcludingBias(), exampleCount);
-		
 		ImageNeuronsActivation output = new ImageNeuronsActivationImpl(origOutput, getRightNeurons(),
 				ImageNeuronsActivationFormat.ML4J_DEFAULT_IMAGE_FORMAT, false);
 
@@ -113,10 +105,43 @@ public class DefaultMaxPoolingAxonsImpl implements MaxPoolingAxons {
 		}
 		reformattedActivation.close();
 
-		return new AxonsActivationImpl(this, maxesDropoutMask, () -> null, output);
+		return new AxonsActivationImpl(this, null, () -> null, output, argmaxIndexes);
 
 	}
 
+	/**
+	 * Populates the output with the maximum of each column of the reformatted
+	 * input, replacing each argmax row with the index of the corresponding
+	 * element of the left neurons activation data, or -1 if it lies within the
+	 * padding.
+	 */
+	private void gatherArgmaxes(float[] reformattedData, int columns, int[] argmaxes, float[] output,
+			int exampleCount) {
+		int inputWidth = getLeftNeurons().getWidth();
+		int inputHeight = getLeftNeurons().getHeight();
+		int filterWidth = config.getFilterWidth();
+		int c = 0;
+		for (int channel = 0; channel < getRightNeurons().getDepth(); channel++) {
+			for (int h = 0; h < getRightNeurons().getHeight(); h++) {
+				int top = h * config.getStrideHeight() - config.getPaddingHeight();
+				for (int w = 0; w < getRightNeurons().getWidth(); w++) {
+					int left = w * config.getStrideWidth() - config.getPaddingWidth();
+					for (int example = 0; example < exampleCount; example++, c++) {
+						int row = argmaxes[c];
+						if (row != -1) {
+							output[c] = reformattedData[row * columns + c];
+							int inputH = top + row / filterWidth;
+							int inputW = left + row % filterWidth;
+							argmaxes[c] = inputH >= 0 && inputH < inputHeight && inputW >= 0 && inputW < inputWidth
+									? ((channel * inputHeight + inputH) * inputWidth + inputW) * exampleCount + example
+									: -1;
+						}
+					}
+				}
+			}
+		}
+	}
+
 	@Override
 	public AxonsActivation pushRightToLeft(NeuronsActivation rightNeuronsActivation,
 			AxonsActivation previousLeftToRightActivation, AxonsContext axonsContext) {
@@ -127,57 +152,34 @@ public class DefaultMaxPoolingAxonsImpl implements MaxPoolingAxons {
 
 		LOGGER.debug("Reformatted max pooling axons:" + inputActivations.getRows() + ":" + inputActivations.getColumns());
 
-		AxonsDropoutMask axonsDropoutMask = previousLeftToRightActivation.getDropoutMask();
-
-		try (InterrimMatrix outputMatrix = axonsDropoutMask.getDropoutMask().asInterrimMatrix()) {
-
-			EditableMatrix reformatted = axonsContext.getMatrixFactory()
-					.createMatrix(outputMatrix.getRows(), outputMatrix.getColumns()).asEditableMatrix();
-			for (int r = 0; r < reformatted.getRows(); r++) {
-				reformatted.putRow(r, inputActivations);
-			}
-			// reformatted.close();
-			outputMatrix.asEditableMatrix().muli(reformatted);
-
-			Matrix preFormattedOutput = outputMatrix;
-
-			NeuronsActivation reformattedOutput = reformatRightToLeftOutput(axonsContext.getMatrixFactory(),
-					preFormattedOutput, rightNeuronsActivation.getFeatureOrientation(), exampleCount);
-
-			reformatted.close();
-			if (!rightNeuronsActivation.isImmutable()) {
-				rightNeuronsActivation.close();
-			}
-			return new AxonsActivationImpl(this, null, () -> rightNeuronsActivation, reformattedOutput);
+		int[] argmaxIndexes = previousLeftToRightActivation.getArgmaxIndexes();
+		if (argmaxIndexes == null) {
+			throw new IllegalArgumentException("Previous left to right activation has no argmax indexes");
 		}
-	}
-
-	private NeuronsActivation reformatRightToLeftOutput(MatrixFactory matrixFactory, Matrix output,
-			NeuronsActivationFeatureOrientation featureOrientation, int exampleCount) {
-
-		int inputWidth = getLeftNeurons().getWidth();
-		int inputHeight = getLeftNeurons().getHeight();
-		int outputWidth = getRightNeurons().getWidth();
-		int outputHeight = getRightNeurons().getHeight();
-
-		int inputWidthWithPadding = inputWidth + config.getPaddingWidth() * 2;
-
-		int inputHeightWithPadding = inputHeight + config.getPaddingHeight() * 2;
-
-		int filterWidth = inputWidthWithPadding + (1 - outputWidth) * (config.getStrideWidth());
-
-		int filterHeight = inputHeightWithPadding + (1 - outputHeight) * (config.getStrideHeight());
 
+		// Scatter each gradient directly to the input element it was pooled from,
+		// accumulating where windows overlap
+		float[] gradients = inputActivations.getRowByRowArray();
 		float[] data = new float[getLeftNeurons().getDepth() * getLeftNeurons().getWidth()
 				* getLeftNeurons().getHeight() * exampleCount];
+		for (int c = 0; c < argmaxIndexes.length; c++) {
+			int index = argmaxIndexes[c];
+			if (index != -1) {
+				data[index] += gradients[c];
+			}
+		}
 
+		// The scattered data excludes any padding, so is wrapped without it
 		Images images = new MultiChannelImages(data, getLeftNeurons().getDepth(), getLeftNeurons().getHeight(),
-				getLeftNeurons().getWidth(), config.getPaddingHeight(), config.getPaddingWidth(), exampleCount);
+				getLeftNeurons().getWidth(), 0, 0, exampleCount);
 
-		images.im2colPoolImport(matrixFactory, output, filterHeight, filterWidth, config.getStrideHeight(),
-				config.getStrideWidth());
+		NeuronsActivation reformattedOutput = new ImageNeuronsActivationImpl(getLeftNeurons(), images,
+				ImageNeuronsActivationFormat.ML4J_DEFAULT_IMAGE_FORMAT, false);
 
-		return new ImageNeuronsActivationImpl(getLeftNeurons(), images, ImageNeuronsActivationFormat.ML4J_DEFAULT_IMAGE_FORMAT, false);
+		if (!rightNeuronsActivation.isImmutable()) {
+			rightNeuronsActivation.close();
+		}
+		return new AxonsActivationImpl(this, null, () -> rightNeuronsActivation, reformattedOutput);
 	}
 
 	public NeuronsActivation reformatRightToLeftInput(MatrixFactory matrixFactory, NeuronsActivation input) {
@@ -186,7 +188,7 @@ public class DefaultMaxPoolingAxonsImpl implements MaxPoolingAxons {
 
 	@Override
 	public MaxPoolingAxons dup() {
-		throw new UnsupportedOperationException();
+		return new DefaultMaxPoolingAxonsImpl(matrixFactory, config.dup(), scaleOutputs);
 	}
 
 	@Override
@@ -65,24 +65,42 @@ public class DefaultOneByOneConvolutionalAxonsImpl implements ConvolutionalAxons
 		return config.getRightNeurons();
 	}
 
-	public Matrix reformatLeftToRightInputOneByOne(MatrixFactory matrixFactory, NeuronsActivation activations) {
-		EditableMatrix out = activations.getActivations(matrixFactory).dup().asEditableMatrix();
-		out.reshape(config.getLeftNeurons().getDepth(),
-				config.getLeftNeurons().getWidth() * config.getLeftNeurons().getHeight() * activations.getExampleCount());
+	/**
+	 * Image activations hold the value of each channel, row and column of each
+	 * example at ((depth * height + row) * width + column) * examples + example,
+	 * so reshaping them to have one row per channel gives the right hand operand
+	 * of the channel mixing product for all the examples at once.
+	 * 
+	 * @param matrixFactory The matrix factory.
+	 * @param activations   The image activations.
+	 * @param depth         The number of channels of the images.
+	 * @return A view sharing the data of the activations, with one row per
+	 *         channel.
+	 */
+	private Matrix createChannelsView(MatrixFactory matrixFactory, NeuronsActivation activations, int depth) {
+		Matrix matrix = activations.getActivations(matrixFactory);
+		EditableMatrix out = matrix.softDup().asEditableMatrix();
+		out.reshape(depth, matrix.getRows() * matrix.getColumns() / depth);
 		return out;
 	}
 
+	private NeuronsActivation createChannelsActivation(MatrixFactory matrixFactory, NeuronsActivation activations,
+			Neurons3D neurons) {
+		return new NeuronsActivationImpl(new Neurons(neurons.getDepth(), neurons.hasBiasUnit()),
+				createChannelsView(matrixFactory, activations, neurons.getDepth()),
+				// TODO
+				new NeuronsActivationFormat<>(activations.getFeatureOrientation(),
+						new FeaturesFormatImpl(Arrays.asList(Dimension.DEPTH)),
+						Arrays.asList(Dimension.HEIGHT, Dimension.WIDTH, Dimension.EXAMPLE)));
+	}
+
+	public Matrix reformatLeftToRightInputOneByOne(MatrixFactory matrixFactory, NeuronsActivation activations) {
+		return createChannelsView(matrixFactory, activations, config.getLeftNeurons().getDepth());
+	}
+
 	public NeuronsActivation reformatLeftToRightInput(MatrixFactory matrixFactory,
 			NeuronsActivation leftNeuronsActivation)  {
-		final NeuronsActivation reformatted;
-			reformatted = new NeuronsActivationImpl(new Neurons(config.getLeftNeurons().getDepth(), config.getLeftNeurons().hasBiasUnit()),
-					reformatLeftToRightInputOneByOne(matrixFactory, leftNeuronsActivation),
-					// TODO
-					new NeuronsActivationFormat<>(leftNeuronsActivation.getFeatureOrientation(),
-							new FeaturesFormatImpl(Arrays.asList(Dimension.DEPTH)),
-									Arrays.asList(Dimension.HEIGHT, Dimension.WIDTH, Dimension.EXAMPLE)));	
-		return reformatted;
-
+		return createChannelsActivation(matrixFactory, leftNeuronsActivation, config.getLeftNeurons());
 	}
 	
 	public static boolean isEligible(Axons3DConfig axonsConfig) {
@@ -143,7 +161,7 @@ public class DefaultOneByOneConvolutionalAxonsImpl implements ConvolutionalAxons
 
 		axonsActivation.getPostDropoutOutput().close();
 
-		return new AxonsActivationImpl(this, null, () -> rightNeuronsActivation, reformattedOutput);
+		return new AxonsActivationImpl(this, null, () -> reformattedInput, reformattedOutput);
 	}
 
 	private NeuronsActivation reformatRightToLeftOutput(MatrixFactory matrixFactory, NeuronsActivation output,
@@ -156,7 +174,8 @@ public class DefaultOneByOneConvolutionalAxonsImpl implements ConvolutionalAxons
 	public NeuronsActivation reformatRightToLeftInput(MatrixFactory matrixFactory, NeuronsActivation input) {
 
 		if (input.isImmutable()) {
-			throw new UnsupportedOperationException();
+			// Leave the input as it is, and reshape a view of it instead
+			return createChannelsActivation(matrixFactory, input, config.getRightNeurons());
 		} else {
 			input.reshape(config.getRightNeurons().getDepth(),
 					config.getRightNeurons().getWidth() * config.getRightNeurons().getHeight() * input.getExampleCount());
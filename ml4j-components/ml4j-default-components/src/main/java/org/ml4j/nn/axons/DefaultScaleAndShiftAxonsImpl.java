@@ -17,7 +17,7 @@ public class DefaultScaleAndShiftAxonsImpl<N extends Neurons> extends WeightedAx
 
 	@Override
 	public ScaleAndShiftAxons<N> dup() {
-		throw new UnsupportedOperationException();
+		return new DefaultScaleAndShiftAxonsImpl<>(axonsConfig.dup(), axonWeights.dup());
 	}
 
 	@Override
@@ -32,7 +32,7 @@ public class DefaultScaleAndShiftAxonsImpl<N extends Neurons> extends WeightedAx
 
 	@Override
 	public Matrix getShiftColumnVector() {
-		return axonWeights.getLeftToRightBiases().getVector();
+		return axonWeights.getLeftToRightBiases() == null ? null : axonWeights.getLeftToRightBiases().getVector();
 	}
 
 	@Override
@@ -2,8 +2,9 @@ package org.ml4j.nn.axons;
 
 import java.util.Optional;
 
-import org.ml4j.Matrix;
+import org.ml4j.MatrixFactory;
 import org.ml4j.images.Images;
+import org.ml4j.images.SpaceToDepthImages;
 import org.ml4j.nn.neurons.ImageNeuronsActivation;
 import org.ml4j.nn.neurons.ImageNeuronsActivationImpl;
 import org.ml4j.nn.neurons.Neurons3D;
@@ -29,23 +30,61 @@ public class DefaultSpaceToDepthAxons extends AxonsBase<Neurons3D, Neurons3D, De
 		super(axonsConfig);
 		this.blockHeight = axonsConfig.getLeftNeurons().getHeight() / axonsConfig.getRightNeurons().getHeight();
 		this.blockWidth = axonsConfig.getLeftNeurons().getWidth() / axonsConfig.getRightNeurons().getWidth();
+		if (axonsConfig.getLeftNeurons().getNeuronCountExcludingBias() != axonsConfig.getRightNeurons()
+				.getNeuronCountExcludingBias()) {
+			throw new IllegalArgumentException(
+					"Right neurons must have the same number of neurons as the left neurons");
+		}
 	}
-	
+
+	/**
+	 * The activation may be closed while a view of its data is still in use, for
+	 * example by DefaultDirectedAxonsComponentActivationImpl once the gradient
+	 * has been pushed through, so the data is marked as non-recyclable before it
+	 * is viewed.
+	 */
+	private float[] getViewedData(MatrixFactory matrixFactory, NeuronsActivation activation, Neurons3D neurons,
+			DimensionScope dimensionScope) {
+		if (ImageNeuronsActivationFormat.ML4J_DEFAULT_IMAGE_FORMAT.equals(activation.getFormat())) {
+			return activation.getActivations(matrixFactory).softDup().getRowByRowArray();
+		} else {
+			// Converted into data owned by the converted activation
+			return activation.asImageNeuronsActivation(neurons, dimensionScope).getImages().getData();
+		}
+	}
+
+	/**
+	 * The output is a view of the input with each block moved into channels, so
+	 * it is immutable to protect the input.
+	 */
 	@Override
-	public AxonsActivation pushLeftToRight(NeuronsActivation input, AxonsActivation previousRightToLeftActivation, AxonsContext axonsContext) {
-		Images images = input.asImageNeuronsActivation(getLeftNeurons(), DimensionScope.INPUT).getImages();
-		Matrix output = images.spaceToDepthExport(axonsContext.getMatrixFactory(), blockHeight, blockWidth);
-		ImageNeuronsActivation outputActivation =  new ImageNeuronsActivationImpl(output, 
-				getRightNeurons(), ImageNeuronsActivationFormat.ML4J_DEFAULT_IMAGE_FORMAT, false);
+	public AxonsActivation pushLeftToRight(NeuronsActivation input, AxonsActivation previousRightToLeftActivation,
+			AxonsContext axonsContext) {
+		Images output = SpaceToDepthImages.spaceToDepth(
+				getViewedData(axonsContext.getMatrixFactory(), input, getLeftNeurons(), DimensionScope.INPUT), 0,
+				getLeftNeurons().getDepth(), getLeftNeurons().getHeight(), getLeftNeurons().getWidth(), blockHeight,
+				blockWidth, input.getExampleCount());
+		ImageNeuronsActivation outputActivation = new ImageNeuronsActivationImpl(getRightNeurons(), output,
+				ImageNeuronsActivationFormat.ML4J_DEFAULT_IMAGE_FORMAT, true);
 		return new AxonsActivationImpl(this, null, () -> input, outputActivation);
 	}
 
+	/**
+	 * The gradient is a view of the output gradient with its channels moved back
+	 * into blocks, so it is immutable to protect the output gradient.
+	 */
 	@Override
-	public AxonsActivation pushRightToLeft(NeuronsActivation input, AxonsActivation previousLeftToRightActivation, AxonsContext axonsContext) {
-		// TODO
-		throw new UnsupportedOperationException("Not yet implemented");
+	public AxonsActivation pushRightToLeft(NeuronsActivation input, AxonsActivation previousLeftToRightActivation,
+			AxonsContext axonsContext) {
+		Images output = SpaceToDepthImages.depthToSpace(
+				getViewedData(axonsContext.getMatrixFactory(), input, getRightNeurons(), DimensionScope.OUTPUT), 0,
+				getLeftNeurons().getDepth(), getLeftNeurons().getHeight(), getLeftNeurons().getWidth(), blockHeight,
+				blockWidth, input.getExampleCount());
+		ImageNeuronsActivation outputActivation = new ImageNeuronsActivationImpl(getLeftNeurons(), output,
+				ImageNeuronsActivationFormat.ML4J_DEFAULT_IMAGE_FORMAT, true);
+		return new AxonsActivationImpl(this, null, () -> input, outputActivation);
 	}
-	
+
 	@Override
 	public AxonsType getAxonsType() {
 		return SPACE_TO_DEPTH_AXONS_TYPE;
@@ -23,6 +23,7 @@ import org.ml4j.Matrix;
 import org.ml4j.MatrixFactory;
 import org.ml4j.nn.axons.Axons;
 import org.ml4j.nn.axons.AxonsActivation;
+import org.ml4j.nn.axons.AxonsActivationImpl;
 import org.ml4j.nn.axons.AxonsBaseType;
 import org.ml4j.nn.axons.AxonsContext;
 import org.ml4j.nn.axons.AxonsType;
@@ -55,6 +56,12 @@ public class DefaultBatchNormDirectedAxonsComponentImpl<L extends Neurons> exten
 	 */
 	private static final long serialVersionUID = 1L;
 
+	/**
+	 * Added to the variances before taking square roots, to avoid division by
+	 * zero.
+	 */
+	private static final float EPSILON = 0.001f;
+
 	private Matrix exponentiallyWeightedAverageInputFeatureMeans;
 	private Matrix exponentiallyWeightedAverageInputFeatureVariances;
 	// TODO
@@ -112,6 +119,11 @@ public class DefaultBatchNormDirectedAxonsComponentImpl<L extends Neurons> exten
 		 * IllegalArgumentException(neuronsActivation.getFeatureCount() + ":" +
 		 * getInputNeurons().getNeuronCountExcludingBias()); }
 		 */
+		ScaleAndShiftAxons<?> scaleAndShiftAxons = (ScaleAndShiftAxons<?>) this.axons;
+		if (scaleAndShiftAxons.getScaleColumnVector() != null) {
+			return forwardPropagateFused(input, scaleAndShiftAxons, axonsContext);
+		}
+
 		Matrix activations = input.getActivations(axonsContext.getMatrixFactory());
 		
 		if (activations.isImmutable()) {
@@ -138,6 +150,102 @@ public class DefaultBatchNormDirectedAxonsComponentImpl<L extends Neurons> exten
 				axonsActivation, meanColumnVector, varianceColumnVector, axonsContext);
 	}
 
+	/**
+	 * Forward propagates with the batch statistics computed in a single pass, and
+	 * with normalisation, scale and shift applied in a second pass, without the
+	 * intermediate matrices of the unfused implementation.
+	 */
+	private DirectedAxonsComponentActivation forwardPropagateFused(NeuronsActivation input,
+			ScaleAndShiftAxons<?> scaleAndShiftAxons, AxonsContext axonsContext) {
+
+		MatrixFactory matrixFactory = axonsContext.getMatrixFactory();
+		boolean isTraining = axonsContext.isTrainingContext();
+
+		Matrix activations = input.getActivations(matrixFactory);
+		int features = activations.getRows();
+		int examples = activations.getColumns();
+		float[] data = activations.getRowByRowArray();
+
+		Matrix meanColumnVector;
+		Matrix varianceColumnVector;
+		if (isTraining && examples > 1) {
+			float[] means = new float[features];
+			float[] variances = new float[features];
+			computeMeansAndVariances(data, features, examples, means, variances);
+			meanColumnVector = matrixFactory.createMatrixFromRowsByRowsArray(features, 1, means);
+			varianceColumnVector = matrixFactory.createMatrixFromRowsByRowsArray(features, 1, variances);
+		} else {
+			meanColumnVector = getMeanColumnVector(activations, matrixFactory, isTraining);
+			varianceColumnVector = getVarianceColumnVector(activations, matrixFactory, meanColumnVector,
+					isTraining);
+		}
+
+		float[] means = meanColumnVector.getRowByRowArray();
+		float[] variances = varianceColumnVector.getRowByRowArray();
+		float[] istd = new float[features];
+		for (int f = 0; f < features; f++) {
+			istd[f] = (float) (1 / Math.sqrt(variances[f] + EPSILON));
+		}
+
+		float[] scale = scaleAndShiftAxons.getScaleColumnVector().getRowByRowArray();
+		Matrix shiftColumnVector = scaleAndShiftAxons.getShiftColumnVector();
+		float[] shift = shiftColumnVector == null ? null : shiftColumnVector.getRowByRowArray();
+
+		// The normalised input is only needed for back propagation
+		float[] xhat = isTraining ? new float[data.length] : null;
+		float[] output = new float[data.length];
+		for (int f = 0; f < features; f++) {
+			float mean = means[f];
+			float featureIstd = istd[f];
+			float featureScale = scale[f];
+			float featureShift = shift == null ? 0f : shift[f];
+			int end = (f + 1) * examples;
+			for (int i = f * examples; i < end; i++) {
+				float normalised = (data[i] - mean) * featureIstd;
+				if (xhat != null) {
+					xhat[i] = normalised;
+				}
+				output[i] = featureScale * normalised + featureShift;
+			}
+		}
+		if (!input.isImmutable()) {
+			input.close();
+		}
+
+		NeuronsActivation xhatN = xhat == null ? null
+				: new NeuronsActivationImpl(getAxons().getRightNeurons(),
+						matrixFactory.createMatrixFromRowsByRowsArray(features, examples, xhat), input.getFormat(),
+						true);
+		NeuronsActivation outputN = new NeuronsActivationImpl(getAxons().getRightNeurons(),
+				matrixFactory.createMatrixFromRowsByRowsArray(features, examples, output), input.getFormat());
+
+		AxonsActivation axonsActivation = new AxonsActivationImpl(axons, null, () -> xhatN, outputN);
+
+		return new FusedBatchNormDirectedAxonsComponentActivationImpl<>(this, axonsActivation, meanColumnVector,
+				varianceColumnVector, istd, axonsContext);
+	}
+
+	/**
+	 * Computes the mean and (biased) variance of each feature in a single pass,
+	 * using Welford's algorithm.
+	 */
+	private static void computeMeansAndVariances(float[] data, int features, int examples, float[] means,
+			float[] variances) {
+		for (int f = 0; f < features; f++) {
+			double mean = 0;
+			double sumOfSquaredDiffs = 0;
+			int offset = f * examples;
+			for (int n = 1; n <= examples; n++) {
+				float value = data[offset + n - 1];
+				double diff = value - mean;
+				mean += diff / n;
+				sumOfSquaredDiffs += diff * (value - mean);
+			}
+			means[f] = (float) mean;
+			variances[f] = (float) (sumOfSquaredDiffs / examples);
+		}
+	}
+
 	/**
 	 * Naive implementation to construct a variance row vector with an entry for
 	 * each feature.
@@ -206,10 +314,9 @@ public class DefaultBatchNormDirectedAxonsComponentImpl<L extends Neurons> exten
 
 	private Matrix getStdDevColumnVector(Matrix varianceColumnVector) {
 		EditableMatrix stdDev = varianceColumnVector.dup().asEditableMatrix();
-		float epsilion = 0.001f;
 		for (int i = 0; i < stdDev.getLength(); i++) {
 			float variance = stdDev.get(i);
-			float stdDevValue = (float) Math.sqrt(variance + epsilion);
+			float stdDevValue = (float) Math.sqrt(variance + EPSILON);
 			stdDev.put(i, stdDevValue);
 		}
 		return stdDev;
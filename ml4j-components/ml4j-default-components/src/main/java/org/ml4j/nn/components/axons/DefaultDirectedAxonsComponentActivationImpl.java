@@ -102,15 +102,22 @@ public class DefaultDirectedAxonsComponentActivationImpl<A extends Axons<?, ?, ?
 			NeuronsActivation leftToRightPostDropoutInputActivation = leftToRightAxonsActivation.getPostDropoutInput()
 					.get();
 
-			try (InterrimMatrix leftToRightPostDropoutInputActivationMatrix = leftToRightPostDropoutInputActivation
-					.getActivations(axonsContext.getMatrixFactory()).asInterrimMatrix()) {
+			Optional<Matrix> connectionWeightsGradient = trainableAxons.getConnectionWeightsGradient(
+					leftToRightPostDropoutInputActivation, rightToLeftPostDropoutInput, axonsContext);
+			if (connectionWeightsGradient.isPresent()) {
+				totalTrainableAxonsGradientMatrixNonBias = connectionWeightsGradient.get().asEditableMatrix();
+			} else {
+				Matrix leftToRightPostDropoutInputActivationMatrix = leftToRightPostDropoutInputActivation
+						.getActivations(axonsContext.getMatrixFactory());
 				try (InterrimMatrix second = leftToRightPostDropoutInputActivationMatrix.transpose()
 						.asInterrimMatrix()) {
 
 					totalTrainableAxonsGradientMatrixNonBias = first.mmul(second).asEditableMatrix();
-					leftToRightPostDropoutInputActivation.close();
 				}
 			}
+			// The input is no longer needed once the weights gradient is calculated on
+			// either path, unless it is held elsewhere
+			close(leftToRightPostDropoutInputActivation);
 
 			if (directedAxonsComponent.getAxons().getLeftNeurons().hasBiasUnit()) {
 				totalTrainableAxonsGradientMatrixBias = first.rowSums();
@@ -18,6 +18,7 @@ import java.util.HashSet;
 import java.util.Optional;
 import java.util.Set;
 
+import org.ml4j.images.ImageContainerParallelism;
 import org.ml4j.nn.axons.Axons;
 import org.ml4j.nn.axons.AxonsActivation;
 import org.ml4j.nn.axons.AxonsContext;
@@ -68,7 +69,10 @@ public class DefaultDirectedAxonsComponentImpl<L extends Neurons, R extends Neur
 			throw new IllegalArgumentException();
 		}
 		
-		AxonsActivation axonsActivation = axons.pushLeftToRight(neuronsActivation, null, context);
+		// Run the tiles of any image reformats within the axons on the scheduler of
+		// the context
+		AxonsActivation axonsActivation = ImageContainerParallelism.withBranchScheduler(context.getBranchScheduler(),
+				() -> axons.pushLeftToRight(neuronsActivation, null, context));
 		NeuronsActivation output = axonsActivation.getPostDropoutOutput();
 
 		if (output.getFeatureCount() != getOutputNeurons().getNeuronCountExcludingBias()) {
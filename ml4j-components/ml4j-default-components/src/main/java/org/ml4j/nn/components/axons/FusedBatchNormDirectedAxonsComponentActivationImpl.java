@@ -0,0 +1,249 @@
+/*
+ * Copyright 2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.ml4j.nn.components.axons;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+import org.ml4j.Matrix;
+import org.ml4j.MatrixFactory;
+import org.ml4j.nn.axons.Axons;
+import org.ml4j.nn.axons.AxonsActivation;
+import org.ml4j.nn.axons.AxonsActivationImpl;
+import org.ml4j.nn.axons.AxonsContext;
+import org.ml4j.nn.axons.AxonsGradient;
+import org.ml4j.nn.axons.AxonsGradientImpl;
+import org.ml4j.nn.axons.ScaleAndShiftAxons;
+import org.ml4j.nn.components.DirectedComponentActivationLifecycle;
+import org.ml4j.nn.components.DirectedComponentGradient;
+import org.ml4j.nn.components.DirectedComponentGradientImpl;
+import org.ml4j.nn.components.axons.base.DirectedAxonsComponentActivationBase;
+import org.ml4j.nn.neurons.Neurons;
+import org.ml4j.nn.neurons.NeuronsActivation;
+import org.ml4j.nn.neurons.NeuronsActivationImpl;
+
+/**
+ * Activation from a DefaultBatchNormDirectedAxonsComponent whose back
+ * propagation is fused into two passes over each feature - one for the scale
+ * and shift gradients, and one for the input gradient - reusing the inverse
+ * standard deviations of the forward propagation.
+ * 
+ * @author Michael Lavelle
+ *
+ * @param <N> The type of Neurons on the left/right of the batch norm
+ *            component.
+ */
+public class FusedBatchNormDirectedAxonsComponentActivationImpl<N extends Neurons>
+		extends DirectedAxonsComponentActivationBase<Axons<N, N, ?>> implements DirectedAxonsComponentActivation {
+
+	private BatchNormDirectedAxonsComponent<N, Axons<N, N, ?>> batchNormDirectedAxonsComponent;
+	private Matrix meanColumnVector;
+	private Matrix varianceColumnVector;
+	private float[] istd;
+
+	/**
+	 * @param batchNormAxonsComponent The batch norm component.
+	 * @param axonsActivation         The activation of the scale and shift axons,
+	 *                                with the normalised input as post dropout
+	 *                                input.
+	 * @param meanColumnVector        The feature means used for normalisation.
+	 * @param varianceColumnVector    The feature variances used for
+	 *                                normalisation.
+	 * @param istd                    The inverse standard deviation of each
+	 *                                feature used for normalisation.
+	 * @param axonsContext            The axons context.
+	 */
+	public FusedBatchNormDirectedAxonsComponentActivationImpl(
+			BatchNormDirectedAxonsComponent<N, Axons<N, N, ?>> batchNormAxonsComponent,
+			AxonsActivation axonsActivation, Matrix meanColumnVector, Matrix varianceColumnVector, float[] istd,
+			AxonsContext axonsContext) {
+		super(batchNormAxonsComponent, axonsActivation, axonsContext);
+		this.batchNormDirectedAxonsComponent = batchNormAxonsComponent;
+		this.meanColumnVector = meanColumnVector;
+		this.varianceColumnVector = varianceColumnVector;
+		this.istd = istd;
+	}
+
+	private ScaleAndShiftAxons<?> getScaleAndShiftAxons() {
+		return (ScaleAndShiftAxons<?>) directedAxonsComponent.getAxons();
+	}
+
+	@Override
+	public DirectedComponentGradient<NeuronsActivation> backPropagate(
+			DirectedComponentGradient<NeuronsActivation> outerGradient) {
+
+		updateExponentiallyWeightedAverages();
+
+		MatrixFactory matrixFactory = axonsContext.getMatrixFactory();
+
+		NeuronsActivation leftToRightPostDropoutInput = leftToRightAxonsActivation.getPostDropoutInput().get();
+		Matrix xhatMatrix = leftToRightPostDropoutInput.getActivations(matrixFactory);
+		Matrix doutMatrix = outerGradient.getOutput().getActivations(matrixFactory);
+
+		int features = xhatMatrix.getRows();
+		int examples = xhatMatrix.getColumns();
+		float[] xhat = xhatMatrix.getRowByRowArray();
+		float[] dout = doutMatrix.getRowByRowArray();
+		float[] gamma = getScaleAndShiftAxons().getScaleColumnVector().getRowByRowArray();
+
+		float[] dgamma = new float[features];
+		float[] dbeta = new float[features];
+		float[] dx = new float[xhat.length];
+
+		// dbeta = sum(dout), dgamma = sum(xhat * dout)
+		// dx = (gamma * istd / N) * (N * dout - xhat * dgamma - dbeta)
+		for (int f = 0; f < features; f++) {
+			int start = f * examples;
+			int end = start + examples;
+			float dbetaSum = 0f;
+			float dgammaSum = 0f;
+			for (int i = start; i < end; i++) {
+				dbetaSum += dout[i];
+				dgammaSum += xhat[i] * dout[i];
+			}
+			float factor = gamma[f] * istd[f] / examples;
+			for (int i = start; i < end; i++) {
+				dx[i] = factor * (examples * dout[i] - xhat[i] * dgammaSum - dbetaSum);
+			}
+			dgamma[f] = dgammaSum;
+			dbeta[f] = dbetaSum;
+		}
+
+		float lambda = axonsContext.getRegularisationLambda();
+		if (lambda != 0) {
+			Matrix shiftColumnVector = getScaleAndShiftAxons().getShiftColumnVector();
+			float[] shift = shiftColumnVector == null ? null : shiftColumnVector.getRowByRowArray();
+			for (int f = 0; f < features; f++) {
+				dgamma[f] += lambda * gamma[f];
+				if (shift != null) {
+					dbeta[f] += lambda * shift[f];
+				}
+			}
+		}
+
+		NeuronsActivation dxn = new NeuronsActivationImpl(outerGradient.getOutput().getNeurons(),
+				matrixFactory.createMatrixFromRowsByRowsArray(features, examples, dx),
+				outerGradient.getOutput().getFormat());
+
+		leftToRightPostDropoutInput.close();
+		if (!this.leftToRightAxonsActivation.getPostDropoutOutput().isImmutable()) {
+			this.leftToRightAxonsActivation.getPostDropoutOutput().close();
+		}
+
+		FusedBatchNormGradientActivation rightToLeftAxonsActivation = new FusedBatchNormGradientActivation(
+				getScaleAndShiftAxons(), outerGradient.getOutput(), dxn,
+				matrixFactory.createMatrixFromRowsByRowsArray(features, 1, dgamma),
+				matrixFactory.createMatrixFromRowsByRowsArray(features, 1, dbeta));
+		return createBackPropagatedGradient(rightToLeftAxonsActivation,
+				outerGradient.getTotalTrainableAxonsGradients(), getAxonsGradientSupplier(rightToLeftAxonsActivation));
+	}
+
+	private void updateExponentiallyWeightedAverages() {
+		float beta = batchNormDirectedAxonsComponent.getBetaForExponentiallyWeightedAverages();
+		batchNormDirectedAxonsComponent.setExponentiallyWeightedAverageInputFeatureMeans(
+				getExponentiallyWeightedAverage(
+						batchNormDirectedAxonsComponent.getExponentiallyWeightedAverageInputFeatureMeans(),
+						meanColumnVector, beta));
+		batchNormDirectedAxonsComponent.setExponentiallyWeightedAverageInputFeatureVariances(
+				getExponentiallyWeightedAverage(
+						batchNormDirectedAxonsComponent.getExponentiallyWeightedAverageInputFeatureVariances(),
+						varianceColumnVector, beta));
+	}
+
+	private Matrix getExponentiallyWeightedAverage(Matrix average, Matrix columnVector, float beta) {
+		if (average == null) {
+			return columnVector.dup();
+		}
+		float[] averages = average.getRowByRowArray();
+		float[] values = columnVector.getRowByRowArray();
+		float[] updated = new float[averages.length];
+		for (int i = 0; i < updated.length; i++) {
+			updated[i] = beta * averages[i] + (1 - beta) * values[i];
+		}
+		return axonsContext.getMatrixFactory().createMatrixFromRowsByRowsArray(average.getRows(),
+				average.getColumns(), updated);
+	}
+
+	@Override
+	public float getTotalRegularisationCost() {
+		if (axonsContext.getRegularisationLambda() == 0) {
+			return 0f;
+		}
+		float sumOfSquares = 0f;
+		for (float scale : getScaleAndShiftAxons().getScaleColumnVector().getRowByRowArray()) {
+			sumOfSquares += scale * scale;
+		}
+		Matrix shiftColumnVector = getScaleAndShiftAxons().getShiftColumnVector();
+		if (shiftColumnVector != null) {
+			for (float shift : shiftColumnVector.getRowByRowArray()) {
+				sumOfSquares += shift * shift;
+			}
+		}
+		return axonsContext.getRegularisationLambda() * sumOfSquares / 2f;
+	}
+
+	@Override
+	protected DirectedComponentGradientImpl<NeuronsActivation> createBackPropagatedGradient(
+			AxonsActivation rightToLeftGradientActivation, List<Supplier<AxonsGradient>> previousAxonsGradients,
+			Supplier<AxonsGradient> thisAxonsGradient) {
+		return new DirectedComponentGradientImpl<>(previousAxonsGradients, thisAxonsGradient,
+				rightToLeftGradientActivation.getPostDropoutOutput());
+	}
+
+	@Override
+	protected Optional<AxonsGradient> getCalculatedAxonsGradient(AxonsActivation rightToLeftAxonsActivation) {
+		if (!(rightToLeftAxonsActivation instanceof FusedBatchNormGradientActivation)) {
+			throw new IllegalArgumentException("Expected an activation from the fused back propagation");
+		}
+		if (!directedAxonsComponent.getAxons().isTrainable(axonsContext)) {
+			return Optional.empty();
+		}
+		FusedBatchNormGradientActivation fusedGradientActivation =
+				(FusedBatchNormGradientActivation) rightToLeftAxonsActivation;
+		return Optional.of(new AxonsGradientImpl(getScaleAndShiftAxons(), fusedGradientActivation.dgammaColumnVector,
+				fusedGradientActivation.dbetaColumnVector));
+	}
+
+	@Override
+	public void close(DirectedComponentActivationLifecycle completedLifeCycleStage) {
+		if (completedLifeCycleStage == DirectedComponentActivationLifecycle.FORWARD_PROPAGATION) {
+			close(output);
+			close(leftToRightAxonsActivation.getPostDropoutOutput());
+		}
+	}
+
+	private void close(NeuronsActivation activation) {
+		if (!activation.isImmutable()) {
+			activation.close();
+		}
+	}
+
+	/**
+	 * The right to left activation of the fused back propagation, carrying the
+	 * scale and shift gradients calculated alongside the input gradient.
+	 */
+	private static class FusedBatchNormGradientActivation extends AxonsActivationImpl {
+
+		private Matrix dgammaColumnVector;
+		private Matrix dbetaColumnVector;
+
+		FusedBatchNormGradientActivation(ScaleAndShiftAxons<?> axons, NeuronsActivation inboundGradient,
+				NeuronsActivation outboundGradient, Matrix dgammaColumnVector, Matrix dbetaColumnVector) {
+			super(axons, null, () -> inboundGradient, outboundGradient);
+			this.dgammaColumnVector = dgammaColumnVector;
+			this.dbetaColumnVector = dbetaColumnVector;
+		}
+	}
+}
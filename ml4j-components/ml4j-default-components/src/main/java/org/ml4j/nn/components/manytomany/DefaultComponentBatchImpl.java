@@ -14,11 +14,14 @@
 package org.ml4j.nn.components.manytomany;
 
 import java.io.Serializable;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.function.Supplier;
 
+import org.ml4j.nn.components.BranchScheduler;
 import org.ml4j.nn.components.DirectedComponentsContext;
+import org.ml4j.nn.components.NotifyingDirectedComponentActivation;
 import org.ml4j.nn.components.factories.DirectedComponentFactory;
 import org.ml4j.nn.components.manytomany.base.DefaultComponentBatchBase;
 import org.ml4j.nn.components.onetone.DefaultChainableDirectedComponent;
@@ -27,8 +30,6 @@ import org.ml4j.nn.neurons.NeuronsActivation;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import com.codepoetics.protonpack.StreamUtils;
-
 /**
  * Default implementation of a batch of DefaultChainableDirectedComponent
  * instances with DirectedComponentsContext contexts that can be activated in
@@ -55,12 +56,17 @@ public class DefaultComponentBatchImpl extends DefaultComponentBatchBase {
 
 		LOGGER.debug("Forward propagating through DefaultComponentChainBatchImpl");
 
-		List<DefaultChainableDirectedComponentActivation> chainActivations = StreamUtils
-				.zipWithIndex(neuronActivations.parallelStream()).map(a -> forwardPropagate(a.getValue(),
-						parallelComponents.get((int) a.getIndex()), (int) a.getIndex(), context))
-				.collect(Collectors.toList());
-
-		return new DefaultDirectedComponentBatchActivationImpl(chainActivations);
+		BranchScheduler branchScheduler = getBranchScheduler(context);
+		List<Supplier<DefaultChainableDirectedComponentActivation>> branches = new ArrayList<>();
+		for (int i = 0; i < neuronActivations.size(); i++) {
+			int componentIndex = i;
+			DefaultChainableDirectedComponent<?, ?> component = parallelComponents.get(componentIndex);
+			branches.add(() -> NotifyingDirectedComponentActivation.forwardPropagate(component, context,
+					() -> forwardPropagate(neuronActivations.get(componentIndex), component, componentIndex, context)));
+		}
+		List<DefaultChainableDirectedComponentActivation> chainActivations = branchScheduler.invokeAll(branches);
+
+		return new DefaultDirectedComponentBatchActivationImpl(chainActivations, branchScheduler);
 	}
 
 	protected <X extends Serializable, Y> Y forwardPropagate(NeuronsActivation input,
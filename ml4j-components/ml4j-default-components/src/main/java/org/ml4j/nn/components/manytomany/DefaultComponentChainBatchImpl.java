@@ -13,10 +13,12 @@
  */
 package org.ml4j.nn.components.manytomany;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.function.Supplier;
 
+import org.ml4j.nn.components.BranchScheduler;
 import org.ml4j.nn.components.DirectedComponentsContext;
 import org.ml4j.nn.components.factories.DirectedComponentFactory;
 import org.ml4j.nn.components.manytomany.base.DefaultComponentChainBatchBase;
@@ -26,8 +28,6 @@ import org.ml4j.nn.neurons.NeuronsActivation;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import com.codepoetics.protonpack.StreamUtils;
-
 /**
  * Default implementation of a batch DefaultDirectedComponentChain instances
  * that can be activated in parallel.
@@ -54,12 +54,16 @@ public class DefaultComponentChainBatchImpl extends DefaultComponentChainBatchBa
 
 		LOGGER.debug("Forward propagating through DefaultComponentChainBatchImpl");
 
-		List<DefaultDirectedComponentChainActivation> chainActivations = StreamUtils
-				.zipWithIndex(neuronActivations.parallelStream())
-				.map(a -> parallelComponents.get((int) a.getIndex()).forwardPropagate(a.getValue(), context))
-				.collect(Collectors.toList());
+		BranchScheduler branchScheduler = getBranchScheduler(context);
+		List<Supplier<DefaultDirectedComponentChainActivation>> branches = new ArrayList<>();
+		for (int i = 0; i < neuronActivations.size(); i++) {
+			int componentIndex = i;
+			branches.add(() -> parallelComponents.get(componentIndex)
+					.forwardPropagate(neuronActivations.get(componentIndex), context));
+		}
+		List<DefaultDirectedComponentChainActivation> chainActivations = branchScheduler.invokeAll(branches);
 
-		return new DefaultDirectedComponentChainBatchActivationImpl(chainActivations);
+		return new DefaultDirectedComponentChainBatchActivationImpl(chainActivations, branchScheduler);
 	}
 
 	@Override
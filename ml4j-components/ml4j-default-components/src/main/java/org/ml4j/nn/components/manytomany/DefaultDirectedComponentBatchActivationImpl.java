@@ -22,10 +22,12 @@ import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 import org.ml4j.nn.axons.AxonsGradient;
+import org.ml4j.nn.components.BranchScheduler;
 import org.ml4j.nn.components.ChainableDirectedComponentActivation;
 import org.ml4j.nn.components.DirectedComponentActivationLifecycle;
 import org.ml4j.nn.components.DirectedComponentGradient;
 import org.ml4j.nn.components.DirectedComponentGradientImpl;
+import org.ml4j.nn.components.ForkJoinPoolBranchScheduler;
 import org.ml4j.nn.components.manytomany.base.DirectedComponentBatchActivationBase;
 import org.ml4j.nn.components.onetone.DefaultChainableDirectedComponentActivation;
 import org.ml4j.nn.neurons.NeuronsActivation;
@@ -40,13 +42,27 @@ import org.ml4j.nn.neurons.NeuronsActivation;
 public class DefaultDirectedComponentBatchActivationImpl extends DirectedComponentBatchActivationBase
 		implements DefaultDirectedComponentBatchActivation {
 
+	private final BranchScheduler branchScheduler;
+
 	/**
 	 * @param activations The list of DefaultDirectedComponentChainActivation
 	 *                    instances generated by the
 	 *                    DefaultDirectedComponentChainBatch
 	 */
 	public DefaultDirectedComponentBatchActivationImpl(List<DefaultChainableDirectedComponentActivation> activations) {
+		this(activations, ForkJoinPoolBranchScheduler.getDefault());
+	}
+
+	/**
+	 * @param activations     The list of DefaultDirectedComponentChainActivation
+	 *                        instances generated by the
+	 *                        DefaultDirectedComponentChainBatch
+	 * @param branchScheduler The scheduler for back propagating through each of
+	 *                        the activations.
+	 */
+	public DefaultDirectedComponentBatchActivationImpl(List<DefaultChainableDirectedComponentActivation> activations, BranchScheduler branchScheduler) {
 		super(activations);
+		this.branchScheduler = branchScheduler;
 	}
 
 	@Override
@@ -67,9 +83,12 @@ public class DefaultDirectedComponentBatchActivationImpl extends DirectedCompone
 			index++;
 		}
 
-		for (GradientIndex backPropGrad : activationGradients.parallelStream()
-				.map(a -> new GradientIndex(a.getActivation().backPropagate(a.getGradient()), a.getIndex()))
-				.collect(Collectors.toList())) {
+		List<Supplier<GradientIndex>> branches = activationGradients.stream()
+				.<Supplier<GradientIndex>>map(a -> () -> new GradientIndex(
+						a.getActivation().backPropagate(a.getGradient()), a.getIndex()))
+				.collect(Collectors.toList());
+
+		for (GradientIndex backPropGrad : branchScheduler.invokeAll(branches)) {
 			combinedOutputMap.put(backPropGrad.getIndex(), backPropGrad.getGradient().getOutput());
 			// combinedOutput.add(backPropGrad.getGradient().getOutput());
 			List<Supplier<AxonsGradient>> backPropAxonsGradients = backPropGrad.getGradient()
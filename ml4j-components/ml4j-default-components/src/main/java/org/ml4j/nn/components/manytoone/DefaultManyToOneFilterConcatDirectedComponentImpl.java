@@ -13,14 +13,13 @@
  */
 package org.ml4j.nn.components.manytoone;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 import java.util.function.Predicate;
-import java.util.stream.Collectors;
 
 import org.apache.commons.lang3.tuple.ImmutablePair;
 import org.apache.commons.lang3.tuple.Pair;
-import org.ml4j.images.ChannelConcatImages;
 import org.ml4j.images.Images;
 import org.ml4j.nn.components.DirectedComponentsContext;
 import org.ml4j.nn.components.factories.DirectedComponentFactory;
@@ -36,8 +35,6 @@ import org.ml4j.nn.neurons.format.features.DimensionScope;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import com.codepoetics.protonpack.StreamUtils;
-
 public class DefaultManyToOneFilterConcatDirectedComponentImpl
 		extends ManyToOneDirectedComponentBase<DefaultManyToOneDirectedComponentActivationImpl>
 		implements ManyToOneDirectedComponent<DefaultManyToOneDirectedComponentActivationImpl> {
@@ -71,30 +68,50 @@ public class DefaultManyToOneFilterConcatDirectedComponentImpl
 				b.getLeft());
 	}
 
+	/**
+	 * Plans the channel range of each input from the depths of their neurons, and
+	 * then copies each input once into its range of a single output buffer.
+	 */
 	private Pair<ImageNeuronsActivation, int[]> getCombinedOutput(List<NeuronsActivation> inputs,
 			DirectedComponentsContext context) {
 
-		List<Images> images = inputs.stream()
-				.map(i -> i.asImageNeuronsActivation(getInputNeurons3D(i.getNeurons()), DimensionScope.OUTPUT).getImages())
-				.collect(Collectors.toList());
-
-		Images result = new ChannelConcatImages(images, outputNeurons.getHeight(), outputNeurons.getWidth(), 0, 0,
-				images.get(0).getExamples());
-
 		int[] channelBoundaries = new int[inputs.size()];
-		StreamUtils.zipWithIndex(inputs.stream().map(i -> getInputNeurons3D(i.getNeurons()).getDepth())).forEach(e -> {
-			if (e.getIndex() == 0) {
-				channelBoundaries[(int) e.getIndex()] = e.getValue();
-			} else {
-				channelBoundaries[(int) e.getIndex()] = channelBoundaries[(int) e.getIndex() - 1] + e.getValue();
+		List<Neurons3D> inputNeurons = new ArrayList<>();
+		int channels = 0;
+		for (int i = 0; i < channelBoundaries.length; i++) {
+			Neurons3D neurons = getInputNeurons3D(inputs.get(i).getNeurons());
+			inputNeurons.add(neurons);
+			channels = channels + neurons.getDepth();
+			channelBoundaries[i] = channels;
+		}
+
+		int height = outputNeurons.getHeight();
+		int width = outputNeurons.getWidth();
+		int examples = inputs.get(0).getExampleCount();
+		int channelLength = height * width * examples;
+		float[] data = new float[channels * channelLength];
+
+		ImageNeuronsActivation firstInput = null;
+		for (int i = 0; i < channelBoundaries.length; i++) {
+			ImageNeuronsActivation input = inputs.get(i).asImageNeuronsActivation(inputNeurons.get(i),
+					DimensionScope.OUTPUT);
+			if (input.getExampleCount() != examples) {
+				throw new IllegalArgumentException("Inputs to many to one component have differing example counts");
+			}
+			int startChannel = i == 0 ? 0 : channelBoundaries[i - 1];
+			input.getImages().populateData(data, startChannel * channelLength);
+			if (i == 0) {
+				firstInput = input;
 			}
-		});
+		}
+
+		Images result = ManyToOneFilterConcatDirectedComponentActivation.createChannelImages(data, 0, channels, height,
+				width, examples);
 
 		LOGGER.debug("End Combining input for many to one junction:" + result.getChannels());
 
-		return new ImmutablePair<>(new ImageNeuronsActivationImpl(
-				new Neurons3D(outputNeurons.getWidth(), outputNeurons.getHeight(), result.getChannels(), false), result,
-				inputs.get(0).asImageNeuronsActivation(getInputNeurons3D(inputs.get(0).getNeurons()), DimensionScope.OUTPUT).getFormat(), false), channelBoundaries);
+		return new ImmutablePair<>(new ImageNeuronsActivationImpl(new Neurons3D(width, height, channels, false),
+				result, firstInput.getFormat(), false), channelBoundaries);
 	}
 
 	private Neurons3D getInputNeurons3D(Neurons inputNeurons) {
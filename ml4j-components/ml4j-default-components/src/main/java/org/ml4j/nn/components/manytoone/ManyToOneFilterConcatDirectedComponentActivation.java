@@ -5,6 +5,8 @@ import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 
 import org.ml4j.images.Images;
+import org.ml4j.images.MultiChannelImages;
+import org.ml4j.images.SingleChannelImages;
 import org.ml4j.nn.components.DirectedComponentGradient;
 import org.ml4j.nn.components.DirectedComponentGradientImpl;
 import org.ml4j.nn.neurons.ImageNeuronsActivation;
@@ -33,10 +35,29 @@ public class ManyToOneFilterConcatDirectedComponentActivation extends DefaultMan
 		}
 	}
 
-	private Images getChannelImages(Images images, int channelBoundaryIndex) {
-		return channelBoundaryIndex == 0 ? images.getChannels(0, channelBoundaries[channelBoundaryIndex])
-				: images.getChannels(channelBoundaries[channelBoundaryIndex - 1],
-						channelBoundaries[channelBoundaryIndex]);
+	/**
+	 * Images store each channel of every example contiguously, so a range of
+	 * channels of a concatenation is a view at an offset into its data.
+	 * 
+	 * @param data         The data of the concatenated images, without padding.
+	 * @param startChannel The first channel of the range.
+	 * @param channels     The number of channels in the range.
+	 * @param height       The height of the images.
+	 * @param width        The width of the images.
+	 * @param examples     The number of examples.
+	 * @return Images sharing the data of the channels in the range.
+	 */
+	static Images createChannelImages(float[] data, int startChannel, int channels, int height, int width,
+			int examples) {
+		int startIndex = startChannel * height * width * examples;
+		return channels == 1 ? new SingleChannelImages(data, startIndex, height, width, 0, 0, examples)
+				: new MultiChannelImages(data, startIndex, channels, height, width, 0, 0, examples);
+	}
+
+	private Images getChannelImages(float[] data, int examples, int channelBoundaryIndex) {
+		int startChannel = channelBoundaryIndex == 0 ? 0 : channelBoundaries[channelBoundaryIndex - 1];
+		return createChannelImages(data, startChannel, channelBoundaries[channelBoundaryIndex] - startChannel,
+				outputNeurons.getHeight(), outputNeurons.getWidth(), examples);
 	}
 
 	@Override
@@ -48,11 +69,13 @@ public class ManyToOneFilterConcatDirectedComponentActivation extends DefaultMan
 		// Convert the outer gradient into image format
 		ImageNeuronsActivation imagesActivation = outerGradient.getOutput().asImageNeuronsActivation(outputNeurons, DimensionScope.OUTPUT);
 		Images outerGradientAsImage = imagesActivation.getImages();
+		float[] outerGradientData = outerGradientAsImage.getData();
+		int examples = outerGradientAsImage.getExamples();
 
 		// Split according to the filter channel boundaries into multiple
-		// back-propagated gradients activations.
+		// back-propagated gradients activations, each a view of the outer gradient.
 		List<NeuronsActivation> outerGradientBackPropagatedImages = IntStream.range(0, channelBoundaries.length)
-				.mapToObj(i -> getChannelImages(outerGradientAsImage, i))
+				.mapToObj(i -> getChannelImages(outerGradientData, examples, i))
 				.map(channelImage -> new ImageNeuronsActivationImpl(
 						new Neurons3D(outputNeurons.getWidth(), outputNeurons.getHeight(), channelImage.getChannels(),
 								false),
@@ -0,0 +1,146 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.ml4j.nn.components.onetomany;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+import org.ml4j.MatrixFactory;
+import org.ml4j.nn.components.BranchScheduler;
+import org.ml4j.nn.neurons.Neurons;
+import org.ml4j.nn.neurons.NeuronsActivation;
+import org.ml4j.nn.neurons.NeuronsActivationImpl;
+
+/**
+ * Sums the gradients back propagated through each of the branches that share
+ * the input of a OneToManyDirectedComponent.
+ *
+ * The total is written in a single pass over blocks of rows, each block being
+ * small enough to stay in cache while every branch gradient is added to it, so
+ * the total is not re-read once per branch. Blocks write to disjoint regions of the total, so they are run on the
+ * BranchScheduler of the context when the gradients are large enough.
+ *
+ * @author Michael Lavelle
+ */
+public final class BranchGradientSummation {
+
+	/**
+	 * The default minimum number of floats in the total before its blocks are
+	 * summed in parallel.
+	 */
+	public static final int DEFAULT_MINIMUM_PARALLEL_LENGTH = 1 << 15;
+
+	/**
+	 * The number of floats targeted for each block of rows.
+	 */
+	private static final int BLOCK_LENGTH = 1 << 13;
+
+	private static volatile int minimumParallelLength = DEFAULT_MINIMUM_PARALLEL_LENGTH;
+
+	private BranchGradientSummation() {
+	}
+
+	/**
+	 * @return The minimum number of floats in the total before its blocks are
+	 *         summed in parallel.
+	 */
+	public static int getMinimumParallelLength() {
+		return minimumParallelLength;
+	}
+
+	/**
+	 * @param minimumParallelLength The minimum number of floats in the total
+	 *                              before its blocks are summed in parallel.
+	 */
+	public static void setMinimumParallelLength(int minimumParallelLength) {
+		if (minimumParallelLength < 0) {
+			throw new IllegalArgumentException("Minimum parallel length must not be negative");
+		}
+		BranchGradientSummation.minimumParallelLength = minimumParallelLength;
+	}
+
+	/**
+	 * @param matrixFactory   The matrix factory with which the total is wrapped.
+	 * @param branchScheduler The scheduler on which blocks of the total are
+	 *                        summed, or null to sum all blocks on the calling
+	 *                        thread.
+	 * @param neurons         The neurons of the total.
+	 * @param gradients       The gradients of the branches, all of the same
+	 *                        format and shape. The gradients are read but not
+	 *                        modified or closed.
+	 * @return A new activation containing the sum of the gradients.
+	 */
+	public static NeuronsActivation sum(MatrixFactory matrixFactory, BranchScheduler branchScheduler,
+			Neurons neurons, List<NeuronsActivation> gradients) {
+		if (gradients.isEmpty()) {
+			throw new IllegalArgumentException("At least one gradient is required");
+		}
+		NeuronsActivation first = gradients.get(0);
+		for (NeuronsActivation gradient : gradients) {
+			if (!gradient.getFormat().equals(first.getFormat())) {
+				throw new IllegalArgumentException("Incompatible orientations");
+			}
+			if (gradient.getFeatureCount() != first.getFeatureCount()
+					|| gradient.getExampleCount() != first.getExampleCount()) {
+				throw new IllegalArgumentException("Incompatible activations");
+			}
+		}
+		int rows = first.getRows();
+		int columns = first.getColumns();
+		float[][] sources = new float[gradients.size()][];
+		for (int i = 0; i < sources.length; i++) {
+			sources[i] = gradients.get(i).getActivations(matrixFactory).getRowByRowArray();
+		}
+		// The total is summed into an array owned here and only then wrapped, as the
+		// array returned by getRowByRowArray is a copy for some matrix factories
+		float[] total = new float[rows * columns];
+		int rowsPerBlock = Math.max(1, BLOCK_LENGTH / Math.max(1, columns));
+		int blockCount = (rows + rowsPerBlock - 1) / rowsPerBlock;
+		if (branchScheduler == null || blockCount < 2 || total.length < minimumParallelLength) {
+			sum(sources, total, 0, total.length);
+		} else {
+			List<Supplier<Void>> blocks = new ArrayList<>(blockCount);
+			for (int b = 0; b < blockCount; b++) {
+				int start = b * rowsPerBlock * columns;
+				int end = Math.min(rows, (b + 1) * rowsPerBlock) * columns;
+				blocks.add(() -> {
+					sum(sources, total, start, end);
+					return null;
+				});
+			}
+			branchScheduler.invokeAll(blocks);
+		}
+		return new NeuronsActivationImpl(neurons, matrixFactory.createMatrixFromRowsByRowsArray(rows, columns, total),
+				first.getFormat(), false);
+	}
+
+	private static void sum(float[][] sources, float[] total, int start, int end) {
+		if (sources.length == 1) {
+			System.arraycopy(sources[0], start, total, start, end - start);
+			return;
+		}
+		float[] first = sources[0];
+		float[] second = sources[1];
+		for (int i = start; i < end; i++) {
+			total[i] = first[i] + second[i];
+		}
+		for (int s = 2; s < sources.length; s++) {
+			float[] source = sources[s];
+			for (int i = start; i < end; i++) {
+				total[i] += source[i];
+			}
+		}
+	}
+}
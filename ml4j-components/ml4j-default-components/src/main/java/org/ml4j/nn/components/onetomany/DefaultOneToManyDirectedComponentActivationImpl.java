@@ -16,12 +16,12 @@ package org.ml4j.nn.components.onetomany;
 import java.util.List;
 
 import org.ml4j.MatrixFactory;
+import org.ml4j.nn.components.BranchScheduler;
 import org.ml4j.nn.components.DirectedComponentGradient;
 import org.ml4j.nn.components.DirectedComponentGradientImpl;
 import org.ml4j.nn.components.onetomany.base.OneToManyDirectedComponentActivationBase;
 import org.ml4j.nn.neurons.Neurons;
 import org.ml4j.nn.neurons.NeuronsActivation;
-import org.ml4j.nn.neurons.NeuronsActivationImpl;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -37,11 +37,15 @@ public class DefaultOneToManyDirectedComponentActivationImpl extends OneToManyDi
 	private static final Logger LOGGER = LoggerFactory.getLogger(DefaultOneToManyDirectedComponentActivationImpl.class);
 
 	private MatrixFactory matrixFactory;
+	private BranchScheduler branchScheduler;
 	private Neurons inputNeurons;
 
 	/**
 	 * DefaultOneToManyDirectedComponentActivationImpl constructor
 	 * 
+	 * @param matrixFactory                The matrix factory.
+	 * @param branchScheduler              The scheduler on which the back
+	 *                                     propagated gradients are summed.
 	 * @param input                        The neurons activation input to the one
 	 *                                     to many component.
 	 * @param outputNeuronsActivationCount The desired number of instances of output
@@ -49,10 +53,11 @@ public class DefaultOneToManyDirectedComponentActivationImpl extends OneToManyDi
 	 *                                     components on the RHS of the
 	 *                                     OneToManyDirectedComponentActivation.
 	 */
-	public DefaultOneToManyDirectedComponentActivationImpl(MatrixFactory matrixFactory, NeuronsActivation input,
-			int outputNeuronsActivationCount) {
+	public DefaultOneToManyDirectedComponentActivationImpl(MatrixFactory matrixFactory,
+			BranchScheduler branchScheduler, NeuronsActivation input, int outputNeuronsActivationCount) {
 		super(input, outputNeuronsActivationCount);
 		this.matrixFactory = matrixFactory;
+		this.branchScheduler = branchScheduler;
 		this.inputNeurons = input.getNeurons();
 	}
 
@@ -63,12 +68,10 @@ public class DefaultOneToManyDirectedComponentActivationImpl extends OneToManyDi
 				"Back propagating multiple gradient neurons activations into a single combined neurons activation");
 		List<NeuronsActivation> gradients = gradient.getOutput();
 
-		NeuronsActivation totalActivation = new NeuronsActivationImpl(inputNeurons,
-				matrixFactory.createMatrix(gradients.get(0).getRows(), gradients.get(0).getColumns()),
-				gradients.get(0).getFormat(), false);
+		NeuronsActivation totalActivation = BranchGradientSummation.sum(matrixFactory, branchScheduler, inputNeurons,
+				gradients);
 
 		for (NeuronsActivation activation : gradients) {
-			totalActivation.addInline(matrixFactory, activation);
 			activation.close();
 		}
 		return new DirectedComponentGradientImpl<>(gradient.getTotalTrainableAxonsGradients(), totalActivation);
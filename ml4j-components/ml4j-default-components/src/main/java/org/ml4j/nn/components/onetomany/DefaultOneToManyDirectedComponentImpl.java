@@ -68,8 +68,8 @@ public class DefaultOneToManyDirectedComponentImpl
 			DirectedComponentsContext context) {
 		neuronsActivation.setImmutable(true);
 		LOGGER.debug("Splitting input neurons activation into multiple output neurons activations");
-		return new DefaultOneToManyDirectedComponentActivationImpl(context.getMatrixFactory(), neuronsActivation,
-				targetComponentsCountSupplier.getAsInt());
+		return new DefaultOneToManyDirectedComponentActivationImpl(context.getMatrixFactory(),
+				context.getBranchScheduler(), neuronsActivation, targetComponentsCountSupplier.getAsInt());
 	}
 
 	@Override
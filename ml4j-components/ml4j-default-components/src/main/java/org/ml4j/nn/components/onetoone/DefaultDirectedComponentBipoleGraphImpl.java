@@ -20,7 +20,10 @@ import java.util.Optional;
 import java.util.Set;
 import java.util.stream.Collectors;
 
+import org.ml4j.nn.components.DirectedComponentActivationLifecycle;
+import org.ml4j.nn.components.DirectedComponentPropagationListener;
 import org.ml4j.nn.components.DirectedComponentsContext;
+import org.ml4j.nn.components.NotifyingDirectedComponentActivation;
 import org.ml4j.nn.components.factories.DirectedComponentFactory;
 import org.ml4j.nn.components.manytomany.DefaultDirectedComponentBatch;
 import org.ml4j.nn.components.manytomany.DefaultDirectedComponentBatchActivation;
@@ -174,14 +177,23 @@ public class DefaultDirectedComponentBipoleGraphImpl extends DefaultDirectedComp
 
 		} else {
 
-			OneToManyDirectedComponentActivation oneToManyDirectedComponentActivation = oneToManyDirectedComponent
-					.forwardPropagate(neuronsActivation, context);
+			DirectedComponentPropagationListener propagationListener = context.getPropagationListener();
+
+			// The fan out and fan in are notified for forward propagation only, as
+			// their activations are not decorated
+			OneToManyDirectedComponentActivation oneToManyDirectedComponentActivation =
+					NotifyingDirectedComponentActivation.notify(getName() + "/oneToMany",
+							DirectedComponentActivationLifecycle.FORWARD_PROPAGATION, propagationListener,
+							() -> oneToManyDirectedComponent.forwardPropagate(neuronsActivation, context));
 
 			DefaultDirectedComponentBatchActivation parallelChainsActivation = parallelComponentBatch
 					.forwardPropagate(oneToManyDirectedComponentActivation.getOutput(), context);
 
-			ManyToOneDirectedComponentActivation manyToOneDirectedComponentActivation = manyToOneDirectedComponent
-					.forwardPropagate(parallelChainsActivation.getOutput(), context);
+			ManyToOneDirectedComponentActivation manyToOneDirectedComponentActivation =
+					NotifyingDirectedComponentActivation.notify(getName() + "/manyToOne",
+							DirectedComponentActivationLifecycle.FORWARD_PROPAGATION, propagationListener,
+							() -> manyToOneDirectedComponent.forwardPropagate(parallelChainsActivation.getOutput(),
+									context));
 			if (manyToOneDirectedComponentActivation.getOutput().getFeatureCount() != getOutputNeurons()
 					.getNeuronCountExcludingBias()) {
 				throw new IllegalArgumentException("Many to one activation feature count of:"
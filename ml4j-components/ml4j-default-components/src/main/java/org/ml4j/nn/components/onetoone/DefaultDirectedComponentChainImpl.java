@@ -20,6 +20,7 @@ import java.util.stream.Collectors;
 
 import org.ml4j.nn.components.DirectedComponentActivationLifecycle;
 import org.ml4j.nn.components.DirectedComponentsContext;
+import org.ml4j.nn.components.NotifyingDirectedComponentActivation;
 import org.ml4j.nn.components.factories.DirectedComponentFactory;
 import org.ml4j.nn.components.onetone.DefaultChainableDirectedComponent;
 import org.ml4j.nn.components.onetone.DefaultChainableDirectedComponentActivation;
@@ -87,8 +88,9 @@ public class DefaultDirectedComponentChainImpl extends DefaultDirectedComponentC
 					LOGGER.warn(component.getName() + " is not using optimal input format of:" + optimisedFor);
 				}
 			}
-			DefaultChainableDirectedComponentActivation activation = forwardPropagate(inFlightActivation, component,
-					context);
+			NeuronsActivation input = inFlightActivation;
+			DefaultChainableDirectedComponentActivation activation = NotifyingDirectedComponentActivation
+					.forwardPropagate(component, context, () -> forwardPropagate(input, component, context));
 			activations.add(activation);
 			inFlightActivation = activation.getOutput();
 			inFlightActivationFeatureCount = inFlightActivation.getFeatureCount();
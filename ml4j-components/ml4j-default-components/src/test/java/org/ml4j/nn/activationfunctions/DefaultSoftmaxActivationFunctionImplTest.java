@@ -2,6 +2,7 @@ package org.ml4j.nn.activationfunctions;
 
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
+import org.ml4j.Matrix;
 import org.ml4j.MatrixFactory;
 import org.ml4j.jblas.JBlasRowMajorMatrixFactory;
 import org.ml4j.nn.activationfunctions.base.DifferentiableActivationFunctionTestBase;
@@ -42,4 +43,12 @@ public class DefaultSoftmaxActivationFunctionImplTest extends DifferentiableActi
 		});
 	}
 
+	@Test
+	public void testSoftmaxIsNumericallyStable() {
+		Matrix input = matrixFactory.createMatrixFromRowsByRowsArray(2, 2, new float[] { 1000, -1000, 1000, -999 });
+		Matrix softmax = DefaultSoftmaxActivationFunctionImpl.softmax(input, matrixFactory);
+		float expected = (float) (1 / (1 + Math.E));
+		Assertions.assertArrayEquals(new float[] { 0.5f, expected, 0.5f, 1 - expected },
+				softmax.getRowByRowArray(), 0.0001f);
+	}
 }
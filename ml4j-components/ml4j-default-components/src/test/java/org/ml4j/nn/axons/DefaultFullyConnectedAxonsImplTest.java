@@ -2,7 +2,9 @@ package org.ml4j.nn.axons;
 
 import java.util.Arrays;
 
+import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
 import org.ml4j.MatrixFactory;
 import org.ml4j.jblas.JBlasRowMajorMatrixFactory;
 import org.ml4j.nn.axons.base.AxonsTestBase;
@@ -51,4 +53,22 @@ public class DefaultFullyConnectedAxonsImplTest extends AxonsTestBase<FullyConne
 		super.testPushLeftToRight();
 	}
 
+	@Test
+	public void testReplacementOverwritesNonFiniteWeights() {
+		FullyConnectedAxons axons = createAxonsUnderTest(new Neurons(3, true), new Neurons(2, false));
+		axons.adjustAxonWeights(new AxonWeightsAdjustmentImpl(matrixFactory.createOnes(2, 3).mul(Float.NaN),
+				matrixFactory.createOnes(2, 1).mul(Float.POSITIVE_INFINITY)), AxonWeightsAdjustmentDirection.ADDITION);
+
+		axons.adjustAxonWeights(new AxonWeightsAdjustmentImpl(
+				matrixFactory.createMatrixFromRowsByRowsArray(2, 3, new float[] { 1, 2, 3, 4, 5, 6 }),
+				matrixFactory.createMatrixFromRowsByRowsArray(2, 1, new float[] { 7, 8 })),
+				AxonWeightsAdjustmentDirection.REPLACEMENT);
+
+		AxonWeights axonWeights = axons.getDetachedAxonWeights();
+		Assertions.assertArrayEquals(new float[] { 1, 2, 3, 4, 5, 6 },
+				axonWeights.getConnectionWeights().getMatrix().getRowByRowArray());
+		Assertions.assertArrayEquals(new float[] { 7, 8 },
+				axonWeights.getLeftToRightBiases().getVector().getRowByRowArray());
+	}
+
 }
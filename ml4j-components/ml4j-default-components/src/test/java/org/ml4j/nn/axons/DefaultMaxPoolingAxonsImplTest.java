@@ -1,6 +1,10 @@
 package org.ml4j.nn.axons;
 
+import java.util.Random;
+
+import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
 import org.ml4j.MatrixFactory;
 import org.ml4j.jblas.JBlasRowMajorMatrixFactory;
 import org.ml4j.nn.axons.base.Axons3DTestBase;
@@ -66,4 +70,74 @@ public class DefaultMaxPoolingAxonsImplTest extends Axons3DTestBase<MaxPoolingAx
 		return false;
 	}
 
+	@Test
+	public void testPushLeftToRightAndRightToLeftMatchDirectPooling() {
+		// Non-overlapping 2 * 2 windows
+		assertMatchesDirectPooling(new Neurons3D(6, 4, 2, false), new Neurons3D(3, 2, 2, false), 2, 0, 3);
+		// Overlapping 3 * 3 windows with padding
+		assertMatchesDirectPooling(new Neurons3D(5, 5, 1, false), new Neurons3D(3, 3, 1, false), 2, 1, 2);
+	}
+
+	private void assertMatchesDirectPooling(Neurons3D left, Neurons3D right, int stride, int padding,
+			int exampleCount) {
+		Axons3DConfig config = new Axons3DConfig(left, right).withStrideWidth(stride).withStrideHeight(stride)
+				.withPaddingWidth(padding).withPaddingHeight(padding);
+		DefaultMaxPoolingAxonsImpl axons = new DefaultMaxPoolingAxonsImpl(matrixFactory, config, false);
+		int filter = config.getFilterWidth();
+
+		Random random = new Random(1);
+		float[] input = new float[left.getNeuronCountExcludingBias() * exampleCount];
+		for (int i = 0; i < input.length; i++) {
+			// Positive values, so that no window has its maximum in the padding
+			input[i] = 1 + random.nextFloat();
+		}
+		float[] gradient = new float[right.getNeuronCountExcludingBias() * exampleCount];
+		for (int i = 0; i < gradient.length; i++) {
+			gradient[i] = random.nextFloat();
+		}
+
+		float[] expectedOutput = new float[gradient.length];
+		float[] expectedInputGradient = new float[input.length];
+		for (int d = 0; d < right.getDepth(); d++) {
+			for (int h = 0; h < right.getHeight(); h++) {
+				for (int w = 0; w < right.getWidth(); w++) {
+					for (int e = 0; e < exampleCount; e++) {
+						int argmax = -1;
+						for (int i = 0; i < filter; i++) {
+							for (int j = 0; j < filter; j++) {
+								int inputH = h * stride - padding + i;
+								int inputW = w * stride - padding + j;
+								if (inputH >= 0 && inputH < left.getHeight() && inputW >= 0
+										&& inputW < left.getWidth()) {
+									int index = ((d * left.getHeight() + inputH) * left.getWidth() + inputW)
+											* exampleCount + e;
+									if (argmax == -1 || input[index] > input[argmax]) {
+										argmax = index;
+									}
+								}
+							}
+						}
+						int outputIndex = ((d * right.getHeight() + h) * right.getWidth() + w) * exampleCount + e;
+						expectedOutput[outputIndex] = input[argmax];
+						expectedInputGradient[argmax] += gradient[outputIndex];
+					}
+				}
+			}
+		}
+
+		AxonsActivation leftToRight = axons.pushLeftToRight(new ImageNeuronsActivationImpl(
+				matrixFactory.createMatrixFromRowsByRowsArray(left.getNeuronCountExcludingBias(), exampleCount,
+						input.clone()),
+				left, ImageNeuronsActivationFormat.ML4J_DEFAULT_IMAGE_FORMAT, false), null, mockAxonsContext);
+		Assertions.assertNull(leftToRight.getDropoutMask());
+		Assertions.assertArrayEquals(expectedOutput,
+				leftToRight.getPostDropoutOutput().getActivations(matrixFactory).getRowByRowArray(), 0.0001f);
+
+		AxonsActivation rightToLeft = axons.pushRightToLeft(new ImageNeuronsActivationImpl(
+				matrixFactory.createMatrixFromRowsByRowsArray(right.getNeuronCountExcludingBias(), exampleCount,
+						gradient),
+				right, ImageNeuronsActivationFormat.ML4J_DEFAULT_IMAGE_FORMAT, false), leftToRight, mockAxonsContext);
+		Assertions.assertArrayEquals(expectedInputGradient,
+				rightToLeft.getPostDropoutOutput().getActivations(matrixFactory).getRowByRowArray(), 0.0001f);
+	}
 }
@@ -0,0 +1,115 @@
+package org.ml4j.nn.axons;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.MockitoAnnotations;
+import org.ml4j.Matrix;
+import org.ml4j.MatrixFactory;
+import org.ml4j.jblas.JBlasRowMajorMatrixFactory;
+import org.ml4j.nn.axons.factories.AxonsFactory;
+import org.ml4j.nn.neurons.Neurons;
+import org.ml4j.nn.neurons.Neurons3D;
+import org.ml4j.nn.neurons.NeuronsActivation;
+import org.ml4j.nn.neurons.NeuronsActivationImpl;
+import org.ml4j.nn.neurons.format.ImageNeuronsActivationFormat;
+
+public class DefaultOneByOneConvolutionalAxonsImplTest {
+
+	private MatrixFactory matrixFactory = new JBlasRowMajorMatrixFactory();
+
+	@Mock
+	private AxonsFactory mockAxonsFactory;
+
+	@Mock
+	private FullyConnectedAxons mockFullyConnectedAxons;
+
+	@Mock
+	private AxonsActivation mockAxonsActivation;
+
+	@Mock
+	private AxonsContext mockAxonsContext;
+
+	private DefaultOneByOneConvolutionalAxonsImpl axons;
+
+	@BeforeEach
+	public void setUp() {
+		MockitoAnnotations.initMocks(this);
+		Mockito.when(mockAxonsContext.getMatrixFactory()).thenReturn(matrixFactory);
+		Mockito.when(mockAxonsContext.isTrainingContext()).thenReturn(true);
+		Mockito.when(mockAxonsFactory.createFullyConnectedAxons(Mockito.any(), Mockito.any(), Mockito.any()))
+				.thenReturn(mockFullyConnectedAxons);
+		axons = new DefaultOneByOneConvolutionalAxonsImpl(mockAxonsFactory,
+				new Axons3DConfig(new Neurons3D(4, 3, 2, false), new Neurons3D(4, 3, 5, false)), null, null);
+	}
+
+	private NeuronsActivation createImageActivation(int featureCount, int exampleCount) {
+		float[] data = new float[featureCount * exampleCount];
+		for (int i = 0; i < data.length; i++) {
+			data[i] = i;
+		}
+		return new NeuronsActivationImpl(new Neurons(featureCount, false),
+				matrixFactory.createMatrixFromRowsByRowsArray(featureCount, exampleCount, data),
+				ImageNeuronsActivationFormat.ML4J_DEFAULT_IMAGE_FORMAT);
+	}
+
+	@Test
+	public void testPushLeftToRightSharesInputData() {
+		NeuronsActivation input = createImageActivation(2 * 12, 8);
+		input.setImmutable(true);
+		float[] inputData = input.getActivations(matrixFactory).getRowByRowArray();
+
+		Mockito.when(mockAxonsActivation.getPostDropoutOutput()).thenReturn(createImageActivation(5, 12 * 8));
+		ArgumentCaptor<NeuronsActivation> nestedInput = ArgumentCaptor.forClass(NeuronsActivation.class);
+		Mockito.when(mockFullyConnectedAxons.pushLeftToRight(nestedInput.capture(), Mockito.any(), Mockito.any()))
+				.thenReturn(mockAxonsActivation);
+
+		AxonsActivation activation = axons.pushLeftToRight(input, null, mockAxonsContext);
+
+		Matrix channels = nestedInput.getValue().getActivations(matrixFactory);
+		Assertions.assertEquals(2, channels.getRows());
+		Assertions.assertEquals(12 * 8, channels.getColumns());
+		Assertions.assertSame(inputData, channels.getRowByRowArray());
+		Assertions.assertEquals(12 * 8 + 3, channels.get(1, 3));
+
+		// The input itself is left unchanged
+		Assertions.assertEquals(2 * 12, input.getActivations(matrixFactory).getRows());
+		Assertions.assertSame(nestedInput.getValue(), activation.getPostDropoutInput().get());
+
+		NeuronsActivation output = activation.getPostDropoutOutput();
+		Assertions.assertEquals(5 * 12, output.getFeatureCount());
+		Assertions.assertEquals(8, output.getExampleCount());
+	}
+
+	@Test
+	public void testPushRightToLeftReshapesViewOfImmutableInput() {
+		NeuronsActivation leftToRightOutput = createImageActivation(5 * 12, 8);
+		AxonsActivation leftToRightActivation = Mockito.mock(AxonsActivation.class);
+		Mockito.when(leftToRightActivation.getPostDropoutOutput()).thenReturn(leftToRightOutput);
+
+		NeuronsActivation input = createImageActivation(5 * 12, 8);
+		input.setImmutable(true);
+		float[] inputData = input.getActivations(matrixFactory).getRowByRowArray();
+
+		Mockito.when(mockAxonsActivation.getPostDropoutOutput()).thenReturn(createImageActivation(2, 12 * 8));
+		ArgumentCaptor<NeuronsActivation> nestedInput = ArgumentCaptor.forClass(NeuronsActivation.class);
+		Mockito.when(mockFullyConnectedAxons.pushRightToLeft(nestedInput.capture(), Mockito.any(), Mockito.any()))
+				.thenReturn(mockAxonsActivation);
+
+		AxonsActivation activation = axons.pushRightToLeft(input, leftToRightActivation, mockAxonsContext);
+
+		Matrix channels = nestedInput.getValue().getActivations(matrixFactory);
+		Assertions.assertEquals(5, channels.getRows());
+		Assertions.assertEquals(12 * 8, channels.getColumns());
+		Assertions.assertSame(inputData, channels.getRowByRowArray());
+		Assertions.assertEquals(5 * 12, input.getActivations(matrixFactory).getRows());
+		Assertions.assertSame(nestedInput.getValue(), activation.getPostDropoutInput().get());
+
+		NeuronsActivation output = activation.getPostDropoutOutput();
+		Assertions.assertEquals(2 * 12, output.getFeatureCount());
+		Assertions.assertEquals(8, output.getExampleCount());
+	}
+}
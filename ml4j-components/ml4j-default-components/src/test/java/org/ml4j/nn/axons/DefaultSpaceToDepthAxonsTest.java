@@ -0,0 +1,109 @@
+package org.ml4j.nn.axons;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.ml4j.Matrix;
+import org.ml4j.MatrixFactory;
+import org.ml4j.floatarray.PooledFloatArrayFactory;
+import org.ml4j.images.MultiChannelImages;
+import org.ml4j.jblas.JBlasRowMajorMatrixFactory;
+import org.ml4j.jblas.PooledFloatMatrixFactory;
+import org.ml4j.nn.neurons.Neurons;
+import org.ml4j.nn.neurons.Neurons3D;
+import org.ml4j.nn.neurons.NeuronsActivation;
+import org.ml4j.nn.neurons.NeuronsActivationImpl;
+import org.ml4j.nn.neurons.format.ImageNeuronsActivationFormat;
+
+public class DefaultSpaceToDepthAxonsTest {
+
+	private MatrixFactory matrixFactory = new JBlasRowMajorMatrixFactory();
+
+	private AxonsContext mockAxonsContext;
+
+	private DefaultSpaceToDepthAxons axons;
+
+	@BeforeEach
+	public void setUp() {
+		mockAxonsContext = Mockito.mock(AxonsContext.class);
+		Mockito.when(mockAxonsContext.getMatrixFactory()).thenReturn(matrixFactory);
+		axons = new DefaultSpaceToDepthAxons(
+				new AxonsConfig<>(new Neurons3D(4, 6, 2, false), new Neurons3D(2, 3, 8, false)));
+	}
+
+	private NeuronsActivation createImageActivation(int featureCount, int exampleCount) {
+		float[] data = new float[featureCount * exampleCount];
+		for (int i = 0; i < data.length; i++) {
+			data[i] = i;
+		}
+		return new NeuronsActivationImpl(new Neurons(featureCount, false),
+				matrixFactory.createMatrixFromRowsByRowsArray(featureCount, exampleCount, data),
+				ImageNeuronsActivationFormat.ML4J_DEFAULT_IMAGE_FORMAT);
+	}
+
+	@Test
+	public void testPushLeftToRightMatchesSpaceToDepthExport() {
+		NeuronsActivation input = createImageActivation(48, 5);
+		float[] expected = new MultiChannelImages(input.getActivations(matrixFactory).getRowByRowArray(), 2, 6, 4, 0,
+				0, 5).spaceToDepthExport(matrixFactory, 2, 2).getRowByRowArray();
+
+		AxonsActivation activation = axons.pushLeftToRight(input, null, mockAxonsContext);
+
+		NeuronsActivation output = activation.getPostDropoutOutput();
+		Assertions.assertTrue(output.isImmutable());
+		Assertions.assertEquals(48, output.getFeatureCount());
+		Assertions.assertEquals(5, output.getExampleCount());
+		Assertions.assertArrayEquals(expected, output.getActivations(matrixFactory).getRowByRowArray());
+		Assertions.assertSame(input, activation.getPostDropoutInput().get());
+	}
+
+	@Test
+	public void testPushRightToLeftInvertsPushLeftToRight() {
+		NeuronsActivation input = createImageActivation(48, 5);
+		float[] inputData = input.getActivations(matrixFactory).getRowByRowArray().clone();
+		AxonsActivation leftToRightActivation = axons.pushLeftToRight(input, null, mockAxonsContext);
+
+		NeuronsActivation gradient = new NeuronsActivationImpl(new Neurons(48, false),
+				leftToRightActivation.getPostDropoutOutput().getActivations(matrixFactory),
+				ImageNeuronsActivationFormat.ML4J_DEFAULT_IMAGE_FORMAT);
+		AxonsActivation rightToLeftActivation = axons.pushRightToLeft(gradient, leftToRightActivation,
+				mockAxonsContext);
+
+		NeuronsActivation output = rightToLeftActivation.getPostDropoutOutput();
+		Assertions.assertTrue(output.isImmutable());
+		Assertions.assertEquals(48, output.getFeatureCount());
+		Assertions.assertEquals(5, output.getExampleCount());
+		Assertions.assertArrayEquals(inputData, output.getActivations(matrixFactory).getRowByRowArray());
+	}
+
+	@Test
+	public void testClosedGradientIsNotRecycledWhileViewed() {
+		PooledFloatArrayFactory floatArrayFactory = new PooledFloatArrayFactory(4, 2, 2);
+		matrixFactory = new JBlasRowMajorMatrixFactory(new PooledFloatMatrixFactory(floatArrayFactory),
+				floatArrayFactory);
+		Mockito.when(mockAxonsContext.getMatrixFactory()).thenReturn(matrixFactory);
+		NeuronsActivation input = createImageActivation(48, 5);
+		float[] inputData = input.getActivations(matrixFactory).getRowByRowArray().clone();
+		AxonsActivation leftToRightActivation = axons.pushLeftToRight(input, null, mockAxonsContext);
+
+		Matrix gradientMatrix = matrixFactory.createMatrix(48, 5);
+		gradientMatrix.asEditableMatrix().addi(leftToRightActivation.getPostDropoutOutput()
+				.getActivations(matrixFactory));
+		NeuronsActivation gradient = new NeuronsActivationImpl(new Neurons(48, false), gradientMatrix,
+				ImageNeuronsActivationFormat.ML4J_DEFAULT_IMAGE_FORMAT);
+		AxonsActivation rightToLeftActivation = axons.pushRightToLeft(gradient, leftToRightActivation,
+				mockAxonsContext);
+		gradient.close();
+
+		Assertions.assertEquals(0, floatArrayFactory.getReleaseCount());
+		Assertions.assertArrayEquals(inputData,
+				rightToLeftActivation.getPostDropoutOutput().getActivations(matrixFactory).getRowByRowArray());
+	}
+
+	@Test
+	public void testMismatchedNeuronsAreRejected() {
+		Assertions.assertThrows(IllegalArgumentException.class, () -> new DefaultSpaceToDepthAxons(
+				new AxonsConfig<>(new Neurons3D(4, 6, 2, false), new Neurons3D(2, 3, 4, false))));
+	}
+}
@@ -0,0 +1,135 @@
+package org.ml4j.nn.components;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.ml4j.MatrixFactory;
+import org.ml4j.jblas.JBlasRowMajorMatrixFactory;
+import org.ml4j.nn.axons.AxonsContext;
+import org.ml4j.nn.axons.AxonsContextImpl;
+
+public class DirectedComponentsContextImplTest {
+
+	private MatrixFactory matrixFactory = new JBlasRowMajorMatrixFactory();
+
+	private ContextualNeuralComponent<AxonsContext> component;
+
+	private AtomicInteger created;
+
+	@SuppressWarnings("unchecked")
+	@BeforeEach
+	public void setUp() {
+		component = Mockito.mock(ContextualNeuralComponent.class);
+		Mockito.when(component.getName()).thenReturn("axons");
+		created = new AtomicInteger();
+	}
+
+	private AxonsContext getContext(DirectedComponentsContext directedComponentsContext) {
+		return directedComponentsContext.getContext(component, () -> {
+			created.incrementAndGet();
+			return new AxonsContextImpl("axons", matrixFactory, false, false);
+		}, context -> {
+			created.incrementAndGet();
+			return context.dup();
+		});
+	}
+
+	@Test
+	public void testContextIsCachedForView() {
+		DirectedComponentsContext directedComponentsContext = new DirectedComponentsContextImpl(matrixFactory, true);
+		AxonsContext context = getContext(directedComponentsContext);
+		Assertions.assertTrue(context.isTrainingContext());
+		Assertions.assertSame(context, getContext(directedComponentsContext));
+		Assertions.assertSame(context, getContext(directedComponentsContext.asTrainingContext()));
+		Assertions.assertEquals(1, created.get());
+	}
+
+	@Test
+	public void testContextIsRebuiltOnChangeOfView() {
+		DirectedComponentsContext trainingContext = new DirectedComponentsContextImpl(matrixFactory, true);
+		AxonsContext context = getContext(trainingContext);
+		context.withFreezeOut(true);
+
+		AxonsContext nonTrainingContext = getContext(trainingContext.asNonTrainingContext());
+		Assertions.assertNotSame(context, nonTrainingContext);
+		Assertions.assertFalse(nonTrainingContext.isTrainingContext());
+		Assertions.assertTrue(nonTrainingContext.isWithFreezeOut());
+		Assertions.assertSame(nonTrainingContext, getContext(trainingContext.asNonTrainingContext()));
+
+		AxonsContext rebuiltContext = getContext(trainingContext);
+		Assertions.assertTrue(rebuiltContext.isTrainingContext());
+		Assertions.assertEquals(3, created.get());
+	}
+
+	@Test
+	public void testExplicitlySetContextIsRebuiltOnNextLookup() {
+		DirectedComponentsContext directedComponentsContext = new DirectedComponentsContextImpl(matrixFactory, true);
+		AxonsContext context = new AxonsContextImpl("axons", matrixFactory, false, false)
+				.withRegularisationLambda(0.5f);
+		directedComponentsContext.setContext(component, context);
+
+		AxonsContext rebuiltContext = getContext(directedComponentsContext);
+		Assertions.assertNotSame(context, rebuiltContext);
+		Assertions.assertTrue(rebuiltContext.isTrainingContext());
+		Assertions.assertEquals(0.5f, rebuiltContext.getRegularisationLambda());
+		Assertions.assertSame(rebuiltContext, getContext(directedComponentsContext));
+		Assertions.assertEquals(1, created.get());
+	}
+
+	@Test
+	public void testConcurrentLookupsShareOneContext() throws Exception {
+		DirectedComponentsContext directedComponentsContext = new DirectedComponentsContextImpl(matrixFactory, true);
+		int threads = 8;
+		ExecutorService executorService = Executors.newFixedThreadPool(threads);
+		try {
+			CountDownLatch start = new CountDownLatch(1);
+			List<Future<AxonsContext>> contexts = new ArrayList<>();
+			for (int i = 0; i < threads; i++) {
+				Callable<AxonsContext> lookup = () -> {
+					start.await();
+					AxonsContext context = null;
+					for (int j = 0; j < 1000; j++) {
+						context = getContext(directedComponentsContext);
+					}
+					return context;
+				};
+				contexts.add(executorService.submit(lookup));
+			}
+			start.countDown();
+			AxonsContext registered = getContext(directedComponentsContext);
+			for (Future<AxonsContext> context : contexts) {
+				Assertions.assertSame(registered, context.get());
+			}
+		} finally {
+			executorService.shutdown();
+		}
+	}
+
+	@Test
+	public void testConfigurationOfSharedContextIsVisibleToLaterLookupsOnOtherThreads() throws Exception {
+		DirectedComponentsContext directedComponentsContext = new DirectedComponentsContextImpl(matrixFactory, true);
+		getContext(directedComponentsContext).withFreezeOut(true).withRegularisationLambda(0.5f)
+				.withLeftHandInputDropoutKeepProbability(0.8f);
+		ExecutorService executorService = Executors.newSingleThreadExecutor();
+		try {
+			AxonsContext context = executorService.submit(() -> getContext(directedComponentsContext)).get();
+			Assertions.assertTrue(context.isWithFreezeOut());
+			Assertions.assertEquals(0.5f, context.getRegularisationLambda());
+			Assertions.assertEquals(0.8f, context.getLeftHandInputDropoutKeepProbability());
+			Assertions.assertNotSame(context, context.dup());
+			Assertions.assertEquals(1, created.get());
+		} finally {
+			executorService.shutdown();
+		}
+	}
+}
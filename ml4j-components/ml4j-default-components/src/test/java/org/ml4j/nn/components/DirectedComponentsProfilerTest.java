@@ -0,0 +1,153 @@
+package org.ml4j.nn.components;
+
+import java.io.StringWriter;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.ml4j.Matrix;
+import org.ml4j.MatrixFactory;
+import org.ml4j.jblas.JBlasRowMajorMatrixFactory;
+import org.ml4j.nn.components.onetone.DefaultChainableDirectedComponent;
+import org.ml4j.nn.components.onetone.DefaultChainableDirectedComponentActivation;
+import org.ml4j.nn.neurons.NeuronsActivation;
+
+public class DirectedComponentsProfilerTest {
+
+	private MatrixFactory matrixFactory = new JBlasRowMajorMatrixFactory();
+
+	private DirectedComponentsProfiler profiler;
+
+	private DirectedComponentsContext context;
+
+	@BeforeEach
+	public void setUp() {
+		profiler = new DirectedComponentsProfiler();
+		context = new DirectedComponentsContextImpl(matrixFactory, true, new SerialBranchScheduler(), profiler);
+	}
+
+	@AfterEach
+	public void tearDown() {
+		profiler.close();
+	}
+
+	private DirectedComponentProfile getProfile(List<DirectedComponentProfile> profiles, String name,
+			DirectedComponentActivationLifecycle phase) {
+		return profiles.stream().filter(p -> p.getName().equals(name) && p.getPhase() == phase).findFirst()
+				.orElseThrow(() -> new AssertionError("No profile for " + name));
+	}
+
+	@Test
+	public void testNestedPropagationsAreAggregated() {
+		for (int i = 0; i < 2; i++) {
+			NotifyingDirectedComponentActivation.notify("chain",
+					DirectedComponentActivationLifecycle.FORWARD_PROPAGATION, profiler, () -> {
+						NotifyingDirectedComponentActivation.notify("fc1",
+								DirectedComponentActivationLifecycle.FORWARD_PROPAGATION, profiler,
+								() -> matrixFactory.createZeros(10, 20));
+						return NotifyingDirectedComponentActivation.notify("relu",
+								DirectedComponentActivationLifecycle.FORWARD_PROPAGATION, profiler,
+								() -> matrixFactory.createOnes(5, 4));
+					});
+		}
+
+		List<DirectedComponentProfile> componentProfiles = profiler.getComponentProfiles();
+		Assertions.assertEquals(3, componentProfiles.size());
+		DirectedComponentProfile chain = getProfile(componentProfiles, "chain",
+				DirectedComponentActivationLifecycle.FORWARD_PROPAGATION);
+		DirectedComponentProfile fc1 = getProfile(componentProfiles, "fc1",
+				DirectedComponentActivationLifecycle.FORWARD_PROPAGATION);
+		Assertions.assertEquals(2, chain.getCalls());
+		Assertions.assertEquals(2, fc1.getCalls());
+		Assertions.assertEquals(2, fc1.getMatrixCount());
+		Assertions.assertEquals(2 * 10 * 20 * 4, fc1.getMatrixBytes());
+		Assertions.assertEquals(4, chain.getMatrixCount());
+		Assertions.assertEquals(2 * (10 * 20 + 5 * 4) * 4, chain.getMatrixBytes());
+		Assertions.assertTrue(chain.getTotalNanos() >= chain.getSelfNanos());
+		Assertions.assertTrue(chain.getTotalNanos() >= fc1.getTotalNanos());
+		Assertions.assertSame(chain, componentProfiles.get(0));
+
+		Assertions.assertEquals(
+				new HashSet<>(Arrays.asList("FORWARD_PROPAGATION;chain", "FORWARD_PROPAGATION;chain;fc1",
+						"FORWARD_PROPAGATION;chain;relu")),
+				new HashSet<>(Arrays.asList(profiler.getStackProfiles().stream().map(DirectedComponentProfile::getName)
+						.toArray())));
+		StringWriter foldedStacks = new StringWriter();
+		profiler.writeFoldedStacks(foldedStacks);
+		Assertions.assertEquals(3, foldedStacks.toString().split("\n").length);
+		Assertions.assertTrue(foldedStacks.toString().matches("(?s).*FORWARD_PROPAGATION;chain;fc1 \\d+\n.*"));
+		Assertions.assertTrue(profiler.getReport().contains("relu"));
+
+		profiler.reset();
+		Assertions.assertTrue(profiler.getComponentProfiles().isEmpty());
+	}
+
+	@Test
+	public void testViewsAndWrappedArraysAreNotCountedAsAllocations() {
+		Matrix matrix = matrixFactory.createOnes(10, 20);
+		NotifyingDirectedComponentActivation.notify("view", DirectedComponentActivationLifecycle.FORWARD_PROPAGATION,
+				profiler, () -> {
+					matrix.softDup();
+					matrix.getRowRange(0, 10);
+					return matrixFactory.createMatrixFromRowsByRowsArray(20, 10, matrix.getRowByRowArray());
+				});
+		NotifyingDirectedComponentActivation.notify("dup", DirectedComponentActivationLifecycle.FORWARD_PROPAGATION,
+				profiler, () -> matrix.dup());
+
+		List<DirectedComponentProfile> profiles = profiler.getComponentProfiles();
+		DirectedComponentProfile view = getProfile(profiles, "view",
+				DirectedComponentActivationLifecycle.FORWARD_PROPAGATION);
+		DirectedComponentProfile dup = getProfile(profiles, "dup",
+				DirectedComponentActivationLifecycle.FORWARD_PROPAGATION);
+		Assertions.assertEquals(0, view.getMatrixCount());
+		Assertions.assertEquals(0, view.getMatrixBytes());
+		Assertions.assertEquals(1, dup.getMatrixCount());
+		Assertions.assertEquals(10 * 20 * 4, dup.getMatrixBytes());
+	}
+
+	@Test
+	public void testBackPropagationOfActivationIsNotified() {
+		DefaultChainableDirectedComponent<?, ?> component = Mockito.mock(DefaultChainableDirectedComponent.class);
+		Mockito.when(component.getName()).thenReturn("fc1");
+		DefaultChainableDirectedComponentActivation activation = Mockito
+				.mock(DefaultChainableDirectedComponentActivation.class);
+		@SuppressWarnings("unchecked")
+		DirectedComponentGradient<NeuronsActivation> gradient = Mockito.mock(DirectedComponentGradient.class);
+		Mockito.when(activation.backPropagate(gradient)).thenReturn(gradient);
+
+		DefaultChainableDirectedComponentActivation notifying = NotifyingDirectedComponentActivation
+				.forwardPropagate(component, context, () -> activation);
+		Assertions.assertSame(gradient, notifying.backPropagate(gradient));
+		Mockito.verify(activation).backPropagate(gradient);
+
+		List<DirectedComponentProfile> profiles = profiler.getComponentProfiles();
+		Assertions.assertEquals(1, getProfile(profiles, "fc1", DirectedComponentActivationLifecycle.FORWARD_PROPAGATION)
+				.getCalls());
+		Assertions.assertEquals(1, getProfile(profiles, "fc1", DirectedComponentActivationLifecycle.BACK_PROPAGATION)
+				.getCalls());
+	}
+
+	@Test
+	public void testActivationIsUndecoratedWithoutListener() {
+		DefaultChainableDirectedComponentActivation activation = Mockito
+				.mock(DefaultChainableDirectedComponentActivation.class);
+		DirectedComponentsContext unprofiledContext = new DirectedComponentsContextImpl(matrixFactory, true);
+		Assertions.assertSame(activation, NotifyingDirectedComponentActivation
+				.forwardPropagate(Mockito.mock(DefaultChainableDirectedComponent.class), unprofiledContext,
+						() -> activation));
+		Assertions.assertNull(unprofiledContext.asNonTrainingContext().getPropagationListener());
+		Assertions.assertSame(profiler, context.asNonTrainingContext().getPropagationListener());
+	}
+
+	@Test
+	public void testUnmatchedCompletionIsRejected() {
+		profiler.onPropagationStarted("fc1", DirectedComponentActivationLifecycle.FORWARD_PROPAGATION);
+		Assertions.assertThrows(IllegalStateException.class, () -> profiler.onPropagationCompleted("fc2",
+				DirectedComponentActivationLifecycle.FORWARD_PROPAGATION));
+	}
+}
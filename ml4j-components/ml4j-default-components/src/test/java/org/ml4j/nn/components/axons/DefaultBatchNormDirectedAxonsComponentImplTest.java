@@ -1,16 +1,35 @@
 package org.ml4j.nn.components.axons;
 
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
 import org.ml4j.Matrix;
 import org.ml4j.MatrixFactory;
 import org.ml4j.jblas.JBlasRowMajorMatrixFactory;
+import org.ml4j.nn.axons.AxonWeights;
 import org.ml4j.nn.axons.AxonsActivation;
+import org.ml4j.nn.axons.AxonsConfig;
+import org.ml4j.nn.axons.AxonsContext;
+import org.ml4j.nn.axons.AxonsGradient;
+import org.ml4j.nn.axons.BiasVectorImpl;
+import org.ml4j.nn.axons.DefaultScaleAndShiftAxonsImpl;
+import org.ml4j.nn.axons.FeaturesVectorFormat;
+import org.ml4j.nn.axons.ScaleAndShiftAxonWeightsImpl;
 import org.ml4j.nn.axons.ScaleAndShiftAxons;
+import org.ml4j.nn.axons.WeightsFormatImpl;
+import org.ml4j.nn.axons.WeightsMatrixImpl;
+import org.ml4j.nn.axons.WeightsMatrixOrientation;
+import org.ml4j.nn.components.DirectedComponentGradient;
+import org.ml4j.nn.components.DirectedComponentGradientImpl;
 import org.ml4j.nn.components.axons.base.BatchNormDirectedAxonsComponentTestBase;
 import org.ml4j.nn.neurons.Neurons;
 import org.ml4j.nn.neurons.NeuronsActivation;
 import org.ml4j.nn.neurons.NeuronsActivationFeatureOrientation;
 import org.ml4j.nn.neurons.NeuronsActivationImpl;
 import org.ml4j.nn.neurons.format.NeuronsActivationFormat;
+import org.ml4j.nn.neurons.format.features.Dimension;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 
@@ -59,4 +78,101 @@ public class DefaultBatchNormDirectedAxonsComponentImplTest extends BatchNormDir
 
 		super.testForwardPropagate();
 	}
+
+	@Test
+	public void testFusedForwardAndBackPropagate() {
+		int features = 3;
+		int examples = 5;
+		float[] gamma = new float[] { 1.5f, -0.5f, 2f };
+		float[] beta = new float[] { 0.1f, 0.2f, -0.3f };
+		Neurons neurons = new Neurons(features, false);
+		AxonWeights axonWeights = new ScaleAndShiftAxonWeightsImpl(features, features,
+				new WeightsMatrixImpl(matrixFactory.createMatrixFromRowsByRowsArray(features, 1, gamma),
+						new WeightsFormatImpl(Arrays.asList(Dimension.INPUT_FEATURE),
+								Arrays.asList(Dimension.OUTPUT_FEATURE),
+								WeightsMatrixOrientation.ROWS_SPAN_OUTPUT_DIMENSIONS)),
+				new BiasVectorImpl(matrixFactory.createMatrixFromRowsByRowsArray(features, 1, beta),
+						FeaturesVectorFormat.DEFAULT_BIAS_FORMAT),
+				null);
+		BatchNormDirectedAxonsComponent<Neurons, ?> component = new DefaultBatchNormDirectedAxonsComponentImpl<>(
+				"someName", new DefaultScaleAndShiftAxonsImpl<>(new AxonsConfig<>(neurons, neurons), axonWeights),
+				null, null);
+
+		Random random = new Random(1);
+		float[] input = new float[features * examples];
+		float[] dout = new float[features * examples];
+		for (int i = 0; i < input.length; i++) {
+			input[i] = 3 * random.nextFloat() - 1;
+			dout[i] = random.nextFloat() - 0.5f;
+		}
+
+		float[] expectedMeans = new float[features];
+		float[] expectedOutput = new float[input.length];
+		float[] expectedDx = new float[input.length];
+		float[] expectedDgamma = new float[features];
+		float[] expectedDbeta = new float[features];
+		for (int f = 0; f < features; f++) {
+			double mean = 0;
+			for (int e = 0; e < examples; e++) {
+				mean += input[f * examples + e] / examples;
+			}
+			double variance = 0;
+			for (int e = 0; e < examples; e++) {
+				variance += Math.pow(input[f * examples + e] - mean, 2) / examples;
+			}
+			double istd = 1 / Math.sqrt(variance + 0.001);
+			double dbeta = 0;
+			double dgamma = 0;
+			for (int e = 0; e < examples; e++) {
+				int i = f * examples + e;
+				double xhat = (input[i] - mean) * istd;
+				expectedOutput[i] = (float) (gamma[f] * xhat + beta[f]);
+				dbeta += dout[i];
+				dgamma += xhat * dout[i];
+			}
+			for (int e = 0; e < examples; e++) {
+				int i = f * examples + e;
+				double xhat = (input[i] - mean) * istd;
+				expectedDx[i] = (float) (gamma[f] * istd / examples * (examples * dout[i] - xhat * dgamma - dbeta));
+			}
+			expectedMeans[f] = (float) mean;
+			expectedDgamma[f] = (float) dgamma;
+			expectedDbeta[f] = (float) dbeta;
+		}
+
+		AxonsContext axonsContext = Mockito.mock(AxonsContext.class);
+		Mockito.when(axonsContext.getMatrixFactory()).thenReturn(matrixFactory);
+		Mockito.when(axonsContext.isTrainingContext()).thenReturn(true);
+
+		DirectedAxonsComponentActivation activation = component.forwardPropagate(new NeuronsActivationImpl(neurons,
+				matrixFactory.createMatrixFromRowsByRowsArray(features, examples, input),
+				NeuronsActivationFormat.ROWS_SPAN_FEATURE_SET), axonsContext);
+		Assertions.assertArrayEquals(expectedOutput,
+				activation.getOutput().getActivations(matrixFactory).getRowByRowArray(), 0.0001f);
+
+		DirectedComponentGradient<NeuronsActivation> gradient = activation
+				.backPropagate(new DirectedComponentGradientImpl<>(new NeuronsActivationImpl(neurons,
+						matrixFactory.createMatrixFromRowsByRowsArray(features, examples, dout),
+						NeuronsActivationFormat.ROWS_SPAN_FEATURE_SET)));
+		Assertions.assertArrayEquals(expectedDx, gradient.getOutput().getActivations(matrixFactory).getRowByRowArray(),
+				0.0001f);
+		AxonsGradient axonsGradient = gradient.getTotalTrainableAxonsGradients().get(0).get();
+		Assertions.assertNotNull(axonsGradient);
+		Assertions.assertArrayEquals(expectedDgamma, axonsGradient.getWeightsGradient().getRowByRowArray(), 0.0001f);
+		Assertions.assertArrayEquals(expectedDbeta, axonsGradient.getLeftToRightBiasGradient().getRowByRowArray(),
+				0.0001f);
+		Assertions.assertArrayEquals(expectedMeans,
+				component.getExponentiallyWeightedAverageInputFeatureMeans().getRowByRowArray(), 0.0001f);
+
+		Mockito.when(axonsContext.isWithFreezeOut()).thenReturn(true);
+		DirectedComponentGradient<NeuronsActivation> frozenGradient = component.forwardPropagate(
+				new NeuronsActivationImpl(neurons, matrixFactory.createMatrixFromRowsByRowsArray(features, examples, input),
+						NeuronsActivationFormat.ROWS_SPAN_FEATURE_SET), axonsContext)
+				.backPropagate(new DirectedComponentGradientImpl<>(new NeuronsActivationImpl(neurons,
+						matrixFactory.createMatrixFromRowsByRowsArray(features, examples, dout),
+						NeuronsActivationFormat.ROWS_SPAN_FEATURE_SET)));
+		Assertions.assertArrayEquals(expectedDx,
+				frozenGradient.getOutput().getActivations(matrixFactory).getRowByRowArray(), 0.0001f);
+		Assertions.assertNull(frozenGradient.getTotalTrainableAxonsGradients().get(0).get());
+	}
 }
@@ -1,9 +1,16 @@
 package org.ml4j.nn.components.axons;
 
+import java.util.Optional;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.ml4j.EditableMatrix;
+import org.ml4j.Matrix;
 import org.ml4j.MatrixFactory;
 import org.ml4j.nn.axons.Axons;
 import org.ml4j.nn.axons.AxonsActivation;
 import org.ml4j.nn.axons.AxonsContext;
+import org.ml4j.nn.axons.TrainableAxons;
 import org.ml4j.nn.components.axons.base.DirectedAxonsComponentActivationTestBase;
 import org.ml4j.nn.components.mocks.MockTestData;
 import org.ml4j.nn.neurons.Neurons;
@@ -29,4 +36,43 @@ public class DefaultDirectedAxonsComponentActivationImplTest extends DirectedAxo
 		return MockTestData.mockNeuronsActivation(featureCount, exampleCount);
 	}
 
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	private void assertLeftToRightInputClosedAfterWeightsGradient(boolean immutableInput) {
+		TrainableAxons trainableAxons = Mockito.mock(TrainableAxons.class);
+		Mockito.when(trainableAxons.isTrainable(mockAxonsContext)).thenReturn(true);
+		Mockito.when(trainableAxons.getLeftNeurons()).thenReturn(new Neurons(100, false));
+		Mockito.when(mockAxonsComponent.getAxons()).thenReturn(trainableAxons);
+
+		NeuronsActivation leftToRightInput = Mockito.mock(NeuronsActivation.class);
+		Mockito.when(leftToRightInput.isImmutable()).thenReturn(immutableInput);
+		Mockito.when(mockAxonsActivation.getPostDropoutInput()).thenReturn(() -> leftToRightInput);
+		Mockito.when(mockAxonsActivation.getPostDropoutOutput()).thenReturn(mockOutputActivation);
+
+		NeuronsActivation rightToLeftInput = Mockito.mock(NeuronsActivation.class);
+		Mockito.when(mockAxonsActivationRightToLeft.getPostDropoutInput()).thenReturn(() -> rightToLeftInput);
+
+		// The axons calculate the weights gradient themselves, as the convolutional
+		// axons do
+		Matrix weightsGradient = Mockito.mock(Matrix.class);
+		Mockito.when(weightsGradient.asEditableMatrix()).thenReturn(Mockito.mock(EditableMatrix.class));
+		Mockito.when(trainableAxons.getConnectionWeightsGradient(leftToRightInput, rightToLeftInput,
+				mockAxonsContext)).thenReturn(Optional.of(weightsGradient));
+
+		DefaultDirectedAxonsComponentActivationImpl<?> activation = new DefaultDirectedAxonsComponentActivationImpl<>(
+				mockAxonsComponent, mockAxonsActivation, mockAxonsContext);
+		Assertions.assertTrue(activation.getCalculatedAxonsGradient(mockAxonsActivationRightToLeft).isPresent());
+
+		Mockito.verify(leftToRightInput, Mockito.times(immutableInput ? 0 : 1)).close();
+		Mockito.verify(rightToLeftInput).close();
+	}
+
+	@Test
+	public void testLeftToRightInputClosedAfterAxonsCalculateWeightsGradient() {
+		assertLeftToRightInputClosedAfterWeightsGradient(false);
+	}
+
+	@Test
+	public void testImmutableLeftToRightInputNotClosedAfterAxonsCalculateWeightsGradient() {
+		assertLeftToRightInputClosedAfterWeightsGradient(true);
+	}
 }
@@ -17,7 +17,11 @@ import java.util.Arrays;
 import java.util.List;
 import java.util.stream.Collectors;
 
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
 import org.ml4j.MatrixFactory;
+import org.ml4j.nn.components.BranchScheduler;
+import org.ml4j.nn.components.SerialBranchScheduler;
 import org.ml4j.nn.components.manytomany.base.DefaultDirectedComponentChainBatchTestBase;
 import org.ml4j.nn.components.mocks.MockTestData;
 import org.ml4j.nn.components.onetone.DefaultChainableDirectedComponent;
@@ -43,6 +47,21 @@ public class DefaultComponentChainBatchImplTest extends DefaultDirectedComponent
 		return new DefaultComponentChainBatchImpl(chains);
 	}
 
+	@Test
+	public void testForwardPropagateUsesBranchSchedulerOfContext() {
+		BranchScheduler branchScheduler = Mockito.spy(new SerialBranchScheduler());
+		Mockito.when(mockDirectedComponentsContext.getBranchScheduler()).thenReturn(branchScheduler);
+
+		DefaultDirectedComponentChainBatch chainBatch = createDefaultDirectedComponentChainBatchUnderTest(
+				Arrays.asList(mockComponent1, mockComponent2));
+		DefaultDirectedComponentChainBatchActivation chainBatchActivation = chainBatch.forwardPropagate(
+				Arrays.asList(mockNeuronsActivation1, mockNeuronsActivation2), mockDirectedComponentsContext);
+
+		Mockito.verify(branchScheduler).invokeAll(Mockito.anyList());
+		Assertions.assertEquals(Arrays.asList(mockNeuronsActivation3, mockNeuronsActivation4),
+				chainBatchActivation.getOutput());
+	}
+
 	@Override
 	protected MatrixFactory createMatrixFactory() {
 		return Mockito.mock(MatrixFactory.class);
@@ -0,0 +1,95 @@
+package org.ml4j.nn.components.manytoone;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.ml4j.Matrix;
+import org.ml4j.MatrixFactory;
+import org.ml4j.jblas.JBlasRowMajorMatrixFactory;
+import org.ml4j.nn.components.DirectedComponentGradient;
+import org.ml4j.nn.components.DirectedComponentGradientImpl;
+import org.ml4j.nn.components.DirectedComponentsContext;
+import org.ml4j.nn.neurons.Neurons;
+import org.ml4j.nn.neurons.Neurons3D;
+import org.ml4j.nn.neurons.NeuronsActivation;
+import org.ml4j.nn.neurons.NeuronsActivationImpl;
+import org.ml4j.nn.neurons.format.ImageNeuronsActivationFormat;
+
+public class ManyToOneFilterConcatDirectedComponentActivationTest {
+
+	private static final int WIDTH = 2;
+	private static final int HEIGHT = 3;
+	private static final int EXAMPLES = 4;
+	private static final int CHANNEL_LENGTH = WIDTH * HEIGHT * EXAMPLES;
+
+	private MatrixFactory matrixFactory = new JBlasRowMajorMatrixFactory();
+
+	private NeuronsActivation createImageActivation(int channels, float offset) {
+		float[] data = new float[channels * CHANNEL_LENGTH];
+		for (int i = 0; i < data.length; i++) {
+			data[i] = offset + i;
+		}
+		return new NeuronsActivationImpl(new Neurons(channels * WIDTH * HEIGHT, false),
+				matrixFactory.createMatrixFromRowsByRowsArray(channels * WIDTH * HEIGHT, EXAMPLES, data),
+				ImageNeuronsActivationFormat.ML4J_DEFAULT_IMAGE_FORMAT);
+	}
+
+	private DefaultManyToOneDirectedComponentActivationImpl forwardPropagate(List<NeuronsActivation> inputs) {
+		return new DefaultManyToOneFilterConcatDirectedComponentImpl(new Neurons3D(WIDTH, HEIGHT, 6, false))
+				.forwardPropagate(inputs, Mockito.mock(DirectedComponentsContext.class));
+	}
+
+	@Test
+	public void testBranchOutputsAreConcatenatedIntoOneBuffer() {
+		List<NeuronsActivation> inputs = Arrays.asList(createImageActivation(2, 0), createImageActivation(1, 100),
+				createImageActivation(3, 1000));
+
+		NeuronsActivation output = forwardPropagate(inputs).getOutput();
+
+		Assertions.assertEquals(6 * WIDTH * HEIGHT, output.getFeatureCount());
+		Assertions.assertEquals(EXAMPLES, output.getExampleCount());
+		Matrix activations = output.getActivations(matrixFactory);
+		float[] data = activations.getRowByRowArray();
+		Assertions.assertEquals(6 * CHANNEL_LENGTH, data.length);
+		Assertions.assertSame(data, output.getActivations(matrixFactory).getRowByRowArray());
+		Assertions.assertEquals(2 * CHANNEL_LENGTH - 1, data[2 * CHANNEL_LENGTH - 1]);
+		Assertions.assertEquals(100, data[2 * CHANNEL_LENGTH]);
+		Assertions.assertEquals(1000 + 5, data[3 * CHANNEL_LENGTH + 5]);
+		Assertions.assertEquals(1000 + 3 * CHANNEL_LENGTH - 1, data[6 * CHANNEL_LENGTH - 1]);
+	}
+
+	@Test
+	public void testBackPropagatedGradientsAreViewsOfOuterGradient() {
+		List<NeuronsActivation> inputs = Arrays.asList(createImageActivation(2, 0), createImageActivation(1, 0),
+				createImageActivation(3, 0));
+		DefaultManyToOneDirectedComponentActivationImpl activation = forwardPropagate(inputs);
+
+		NeuronsActivation outerGradient = createImageActivation(6, 0);
+		float[] outerGradientData = outerGradient.getActivations(matrixFactory).getRowByRowArray();
+
+		DirectedComponentGradient<List<NeuronsActivation>> gradient = activation
+				.backPropagate(new DirectedComponentGradientImpl<>(new ArrayList<>(), outerGradient));
+
+		List<NeuronsActivation> gradients = gradient.getOutput();
+		Assertions.assertEquals(3, gradients.size());
+		int[] channels = new int[] { 2, 1, 3 };
+		int startChannel = 0;
+		for (int i = 0; i < gradients.size(); i++) {
+			NeuronsActivation branchGradient = gradients.get(i);
+			Assertions.assertEquals(channels[i] * WIDTH * HEIGHT, branchGradient.getFeatureCount());
+			Assertions.assertEquals(EXAMPLES, branchGradient.getExampleCount());
+			Assertions.assertTrue(branchGradient.isImmutable());
+			Matrix branchActivations = branchGradient.getActivations(matrixFactory);
+			Assertions.assertEquals(startChannel * CHANNEL_LENGTH, branchActivations.get(0, 0));
+			Assertions.assertEquals(startChannel * CHANNEL_LENGTH + 7, branchActivations.get(1, 3));
+			startChannel += channels[i];
+		}
+		// The outer gradient is left unchanged
+		Assertions.assertSame(outerGradientData, outerGradient.getActivations(matrixFactory).getRowByRowArray());
+		Assertions.assertEquals(5, outerGradientData[5]);
+	}
+}
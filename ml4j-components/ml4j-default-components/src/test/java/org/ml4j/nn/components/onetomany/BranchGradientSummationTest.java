@@ -0,0 +1,117 @@
+package org.ml4j.nn.components.onetomany;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.ml4j.Matrix;
+import org.ml4j.MatrixFactory;
+import org.ml4j.jblas.JBlasRowMajorMatrixFactory;
+import org.ml4j.nn.components.BranchScheduler;
+import org.ml4j.nn.components.ForkJoinPoolBranchScheduler;
+import org.ml4j.nn.components.SerialBranchScheduler;
+import org.ml4j.nn.neurons.Neurons;
+import org.ml4j.nn.neurons.NeuronsActivation;
+import org.ml4j.nn.neurons.NeuronsActivationImpl;
+import org.ml4j.nn.neurons.format.NeuronsActivationFormat;
+import org.mockito.AdditionalAnswers;
+import org.mockito.Mockito;
+
+public class BranchGradientSummationTest {
+
+	private MatrixFactory matrixFactory = new JBlasRowMajorMatrixFactory();
+
+	@AfterEach
+	public void tearDown() {
+		BranchGradientSummation
+				.setMinimumParallelLength(BranchGradientSummation.DEFAULT_MINIMUM_PARALLEL_LENGTH);
+	}
+
+	private NeuronsActivation createGradient(int featureCount, int exampleCount, float scale) {
+		float[] data = new float[featureCount * exampleCount];
+		for (int i = 0; i < data.length; i++) {
+			data[i] = i * scale;
+		}
+		return new NeuronsActivationImpl(new Neurons(featureCount, false),
+				matrixFactory.createMatrixFromRowsByRowsArray(featureCount, exampleCount, data),
+				NeuronsActivationFormat.ROWS_SPAN_FEATURE_SET);
+	}
+
+	private void assertSum(int featureCount, int exampleCount, int branches) {
+		assertSum(new SerialBranchScheduler(), featureCount, exampleCount, branches);
+	}
+
+	private void assertSum(BranchScheduler branchScheduler, int featureCount, int exampleCount, int branches) {
+		List<NeuronsActivation> gradients = new ArrayList<>();
+		float totalScale = 0;
+		for (int b = 0; b < branches; b++) {
+			gradients.add(createGradient(featureCount, exampleCount, b + 1));
+			totalScale += b + 1;
+		}
+		NeuronsActivation total = BranchGradientSummation.sum(matrixFactory, branchScheduler,
+				new Neurons(featureCount, false), gradients);
+		Assertions.assertEquals(featureCount, total.getFeatureCount());
+		Assertions.assertEquals(exampleCount, total.getExampleCount());
+		float[] totalData = total.getActivations(matrixFactory).getRowByRowArray();
+		for (int i = 0; i < totalData.length; i++) {
+			Assertions.assertEquals(i * totalScale, totalData[i], 1e-3f * i);
+		}
+		for (int b = 0; b < branches; b++) {
+			Assertions.assertNotSame(totalData, gradients.get(b).getActivations(matrixFactory).getRowByRowArray());
+			Assertions.assertEquals(3 * (b + 1f), gradients.get(b).getActivations(matrixFactory).get(0, 3));
+		}
+	}
+
+	@Test
+	public void testGradientsAreSummed() {
+		assertSum(10, 4, 1);
+		assertSum(10, 4, 2);
+		assertSum(10, 4, 3);
+	}
+
+	@Test
+	public void testGradientsAreSummedInParallelBlocks() {
+		ForkJoinPoolBranchScheduler branchScheduler = new ForkJoinPoolBranchScheduler(4);
+		BranchGradientSummation.setMinimumParallelLength(0);
+		try {
+			assertSum(branchScheduler, 3000, 7, 4);
+		} finally {
+			branchScheduler.shutdown();
+		}
+	}
+
+	@Test
+	public void testSharedGradientIsCountedOncePerBranch() {
+		NeuronsActivation gradient = createGradient(5, 2, 1);
+		NeuronsActivation total = BranchGradientSummation.sum(matrixFactory, null, new Neurons(5, false),
+				Arrays.asList(gradient, gradient));
+		Assertions.assertEquals(18f, total.getActivations(matrixFactory).get(4, 1));
+	}
+
+	@Test
+	public void testIncompatibleGradientsAreRejected() {
+		Assertions.assertThrows(IllegalArgumentException.class,
+				() -> BranchGradientSummation.sum(matrixFactory, null, new Neurons(5, false),
+						Arrays.asList(createGradient(5, 2, 1), createGradient(5, 3, 1))));
+		Assertions.assertThrows(IllegalArgumentException.class,
+				() -> BranchGradientSummation.sum(matrixFactory, null, new Neurons(5, false), new ArrayList<>()));
+	}
+
+	@Test
+	public void testGradientsAreSummedWithMatricesWhoseArraysAreCopies() {
+		// As with Nd4j, matrices of this factory return a copy of their data from
+		// getRowByRowArray
+		MatrixFactory jblasMatrixFactory = matrixFactory;
+		matrixFactory = Mockito.mock(MatrixFactory.class, AdditionalAnswers.delegatesTo(jblasMatrixFactory));
+		Mockito.when(matrixFactory.createMatrix(Mockito.anyInt(), Mockito.anyInt())).thenAnswer(invocation -> {
+			Matrix matrix = jblasMatrixFactory.createMatrix(invocation.getArgument(0), invocation.getArgument(1));
+			Matrix copyingMatrix = Mockito.mock(Matrix.class, AdditionalAnswers.delegatesTo(matrix));
+			Mockito.when(copyingMatrix.getRowByRowArray()).thenAnswer(i -> matrix.getRowByRowArray().clone());
+			return copyingMatrix;
+		});
+		assertSum(10, 4, 3);
+	}
+}
@@ -15,6 +15,7 @@ package org.ml4j.nn.components.onetomany;
 
 import org.ml4j.MatrixFactory;
 import org.ml4j.jblas.JBlasRowMajorMatrixFactory;
+import org.ml4j.nn.components.SerialBranchScheduler;
 import org.ml4j.nn.components.mocks.MockTestData;
 import org.ml4j.nn.components.onetomany.base.OneToManyDirectedComponentActivationTestBase;
 import org.ml4j.nn.neurons.NeuronsActivation;
@@ -30,7 +31,8 @@ public class DefaultOneToManyDirectedComponentActivationImplTest extends OneToMa
 	@Override
 	protected OneToManyDirectedComponentActivation createOneToManyDirectedComponentActivationUnderTest(
 			MatrixFactory matrixFactory, NeuronsActivation input, int outputCount) {
-		return new DefaultOneToManyDirectedComponentActivationImpl(matrixFactory, input, outputCount);
+		return new DefaultOneToManyDirectedComponentActivationImpl(matrixFactory, new SerialBranchScheduler(), input,
+				outputCount);
 	}
 
 	@Override
@@ -0,0 +1,260 @@
+package org.ml4j.nn.supervised;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+import org.jblas.FloatMatrix;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.ml4j.EditableMatrix;
+import org.ml4j.Matrix;
+import org.ml4j.MatrixFactory;
+import org.ml4j.jblas.JBlasRowMajorMatrix;
+import org.ml4j.jblas.JBlasRowMajorMatrixFactory;
+import org.ml4j.nn.activationfunctions.ActivationFunctionBaseType;
+import org.ml4j.nn.activationfunctions.ActivationFunctionProperties;
+import org.ml4j.nn.activationfunctions.ActivationFunctionType;
+import org.ml4j.nn.axons.AxonWeights;
+import org.ml4j.nn.axons.BiasVectorImpl;
+import org.ml4j.nn.axons.FeaturesVectorFormat;
+import org.ml4j.nn.axons.FullyConnectedAxonsConfig;
+import org.ml4j.nn.axons.TrainableAxons;
+import org.ml4j.nn.axons.WeightsFormatImpl;
+import org.ml4j.nn.axons.WeightsMatrixImpl;
+import org.ml4j.nn.axons.WeightsMatrixOrientation;
+import org.ml4j.nn.components.DirectedComponentsContext;
+import org.ml4j.nn.components.DirectedComponentsContextImpl;
+import org.ml4j.nn.components.ForkJoinPoolBranchScheduler;
+import org.ml4j.nn.components.axons.DirectedAxonsComponent;
+import org.ml4j.nn.components.factories.DirectedComponentFactory;
+import org.ml4j.nn.datasets.LabeledData;
+import org.ml4j.nn.datasets.LabeledDataImpl;
+import org.ml4j.nn.factories.DefaultAxonsFactoryImpl;
+import org.ml4j.nn.factories.DefaultDifferentiableActivationFunctionFactory;
+import org.ml4j.nn.factories.DefaultDirectedComponentFactoryImpl;
+import org.ml4j.nn.neurons.Neurons;
+import org.ml4j.nn.neurons.NeuronsActivation;
+import org.ml4j.nn.neurons.NeuronsActivationImpl;
+import org.ml4j.nn.neurons.format.NeuronsActivationFormat;
+import org.ml4j.nn.neurons.format.features.Dimension;
+
+public class SupervisedFeedForwardNeuralNetworkDataParallelTrainingTest {
+
+	/**
+	 * Multiplies matrices in Java, as the native libraries through which jblas
+	 * multiplies matrices are not loadable on every platform.
+	 */
+	private static class JavaMultiplyingMatrixFactory extends JBlasRowMajorMatrixFactory {
+
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		protected Matrix createJBlasMatrix(FloatMatrix matrix, boolean immutable) {
+			return new JBlasRowMajorMatrix(this, floatMatrixFactory, floatArrayFactory, matrix, immutable) {
+
+				private static final long serialVersionUID = 1L;
+
+				@Override
+				public Matrix mmul(Matrix other) {
+					int rows = getRows();
+					int inner = getColumns();
+					int columns = other.getColumns();
+					float[] left = getRowByRowArray();
+					float[] right = other.getRowByRowArray();
+					float[] product = new float[rows * columns];
+					for (int r = 0; r < rows; r++) {
+						for (int i = 0; i < inner; i++) {
+							float value = left[r * inner + i];
+							for (int c = 0; c < columns; c++) {
+								product[r * columns + c] += value * right[i * columns + c];
+							}
+						}
+					}
+					return createMatrixFromRowsByRowsArray(rows, columns, product);
+				}
+			};
+		}
+	}
+
+	private final MatrixFactory matrixFactory = new JavaMultiplyingMatrixFactory();
+
+	private final Neurons inputNeurons = new Neurons(4, true);
+
+	private final Neurons hiddenNeurons = new Neurons(5, true);
+
+	private final Neurons outputNeurons = new Neurons(3, false);
+
+	private final Matrix hiddenWeights = matrixFactory.createRandn(5, 4);
+
+	private final Matrix hiddenBiases = matrixFactory.createRandn(5, 1);
+
+	private final Matrix outputWeights = matrixFactory.createRandn(3, 5);
+
+	private final Matrix outputBiases = matrixFactory.createRandn(3, 1);
+
+	private final Matrix data = matrixFactory.createRandn(4, 8);
+
+	private Matrix createLabels() {
+		EditableMatrix labels = matrixFactory.createZeros(3, 8).asEditableMatrix();
+		for (int example = 0; example < 8; example++) {
+			labels.put(example % 3, example, 1);
+		}
+		return labels;
+	}
+
+	private final Matrix labels = createLabels();
+
+	/**
+	 * A small network of real components, with its axons components captured so
+	 * their weights can be compared after training.
+	 */
+	private class TestNetwork {
+
+		private final DirectedComponentsContext directedComponentsContext;
+
+		private final DirectedComponentFactory directedComponentFactory;
+
+		private final List<DirectedAxonsComponent<Neurons, Neurons, ?>> axonsComponents = new ArrayList<>();
+
+		private final SupervisedFeedForwardNeuralNetworkImpl network;
+
+		private final FeedForwardNeuralNetworkContextImpl trainingContext;
+
+		TestNetwork(ForkJoinPoolBranchScheduler branchScheduler, Integer miniBatchSize, float regularisationLambda) {
+			this.directedComponentsContext = new DirectedComponentsContextImpl(matrixFactory, true, branchScheduler);
+			this.directedComponentFactory = new DefaultDirectedComponentFactoryImpl(matrixFactory,
+					new DefaultAxonsFactoryImpl(matrixFactory), new DefaultDifferentiableActivationFunctionFactory(),
+					directedComponentsContext);
+			axonsComponents.add(createAxonsComponent("hidden", inputNeurons, new Neurons(5, false), hiddenWeights,
+					hiddenBiases));
+			axonsComponents.add(createAxonsComponent("output", hiddenNeurons, outputNeurons, outputWeights,
+					outputBiases));
+			this.network = new SupervisedFeedForwardNeuralNetworkImpl("network", directedComponentFactory,
+					axonsComponents.get(0),
+					directedComponentFactory.createDifferentiableActivationFunctionComponent("sigmoid",
+							new Neurons(5, false), ActivationFunctionType.getBaseType(ActivationFunctionBaseType.SIGMOID),
+							new ActivationFunctionProperties()),
+					axonsComponents.get(1),
+					directedComponentFactory.createDifferentiableActivationFunctionComponent("softmax", outputNeurons,
+							ActivationFunctionType.getBaseType(ActivationFunctionBaseType.SOFTMAX),
+							new ActivationFunctionProperties()));
+			for (DirectedAxonsComponent<Neurons, Neurons, ?> axonsComponent : axonsComponents) {
+				axonsComponent.getContext(directedComponentsContext).withRegularisationLambda(regularisationLambda);
+			}
+			this.trainingContext = new FeedForwardNeuralNetworkContextImpl(directedComponentsContext, true);
+			trainingContext.setTrainingEpochs(3);
+			trainingContext.setTrainingLearningRate(0.5f);
+			trainingContext.setTrainingMiniBatchSize(miniBatchSize);
+		}
+
+		private DirectedAxonsComponent<Neurons, Neurons, ?> createAxonsComponent(String name, Neurons leftNeurons,
+				Neurons rightNeurons, Matrix weights, Matrix biases) {
+			return directedComponentFactory.createFullyConnectedAxonsComponent(name,
+					FullyConnectedAxonsConfig.create(leftNeurons, rightNeurons),
+					new WeightsMatrixImpl(weights.dup(),
+							new WeightsFormatImpl(Arrays.asList(Dimension.INPUT_FEATURE),
+									Arrays.asList(Dimension.OUTPUT_FEATURE),
+									WeightsMatrixOrientation.ROWS_SPAN_OUTPUT_DIMENSIONS)),
+					new BiasVectorImpl(biases.dup(), FeaturesVectorFormat.DEFAULT_BIAS_FORMAT));
+		}
+
+		private AxonWeights getAxonWeights(int index) {
+			return ((TrainableAxons<?, ?, ?>) axonsComponents.get(index).getAxons()).getDetachedAxonWeights();
+		}
+
+		private void assertSameWeights(TestNetwork other) {
+			for (int index = 0; index < axonsComponents.size(); index++) {
+				assertSameValues(getAxonWeights(index).getConnectionWeights().getMatrix(),
+						other.getAxonWeights(index).getConnectionWeights().getMatrix());
+				assertSameValues(getAxonWeights(index).getLeftToRightBiases().getVector(),
+						other.getAxonWeights(index).getLeftToRightBiases().getVector());
+			}
+		}
+
+		private void assertSameValues(Matrix expected, Matrix actual) {
+			Assertions.assertEquals(expected.getRows(), actual.getRows());
+			Assertions.assertEquals(expected.getColumns(), actual.getColumns());
+			for (int i = 0; i < expected.getLength(); i++) {
+				Assertions.assertEquals(expected.get(i), actual.get(i), 0.0001f);
+			}
+		}
+	}
+
+	private Supplier<Stream<LabeledData<NeuronsActivation, NeuronsActivation>>> createBatches(int... batchSizes) {
+		return () -> {
+			List<LabeledData<NeuronsActivation, NeuronsActivation>> batches = new ArrayList<>();
+			int startColumnIndex = 0;
+			for (int batchSize : batchSizes) {
+				batches.add(new LabeledDataImpl<>(
+						new NeuronsActivationImpl(new Neurons(4, false),
+								data.getColumnRange(startColumnIndex, startColumnIndex + batchSize),
+								NeuronsActivationFormat.ROWS_SPAN_FEATURE_SET),
+						new NeuronsActivationImpl(outputNeurons,
+								labels.getColumnRange(startColumnIndex, startColumnIndex + batchSize),
+								NeuronsActivationFormat.ROWS_SPAN_FEATURE_SET)));
+				startColumnIndex += batchSize;
+			}
+			return batches.stream();
+		};
+	}
+
+	private void assertDataParallelTrainingMatchesSingleWorker(int numberOfWorkers, Integer miniBatchSize,
+			int[] batchSizes, int[] singleWorkerBatchSizes) {
+		assertDataParallelTrainingMatchesSingleWorker(numberOfWorkers, miniBatchSize, batchSizes,
+				singleWorkerBatchSizes, 0);
+	}
+
+	private void assertDataParallelTrainingMatchesSingleWorker(int numberOfWorkers, Integer miniBatchSize,
+			int[] batchSizes, int[] singleWorkerBatchSizes, float regularisationLambda) {
+		ForkJoinPoolBranchScheduler branchScheduler = new ForkJoinPoolBranchScheduler(2);
+		try {
+			TestNetwork singleWorker = new TestNetwork(branchScheduler, null, regularisationLambda);
+			List<Float> singleWorkerCosts = new ArrayList<>();
+			singleWorker.network.train(createBatches(singleWorkerBatchSizes), singleWorker.trainingContext,
+					singleWorkerCosts::add);
+
+			TestNetwork dataParallel = new TestNetwork(branchScheduler, miniBatchSize, regularisationLambda);
+			List<Float> dataParallelCosts = new ArrayList<>();
+			dataParallel.network.train(createBatches(batchSizes), dataParallel.trainingContext,
+					dataParallelCosts::add, dataParallel.directedComponentFactory, numberOfWorkers);
+
+			dataParallel.assertSameWeights(singleWorker);
+			Assertions.assertEquals(singleWorkerCosts.size(), dataParallelCosts.size());
+			for (int epochIndex = 0; epochIndex < singleWorkerCosts.size(); epochIndex++) {
+				Assertions.assertEquals(singleWorkerCosts.get(epochIndex), dataParallelCosts.get(epochIndex),
+						0.0001f);
+			}
+			// Training has moved the weights away from their initial values
+			Assertions.assertNotEquals(hiddenWeights.get(0),
+					singleWorker.getAxonWeights(0).getConnectionWeights().getMatrix().get(0), 0.00001f);
+		} finally {
+			branchScheduler.shutdown();
+		}
+	}
+
+	@Test
+	public void testDataParallelTrainingMatchesSingleWorkerTraining() {
+		assertDataParallelTrainingMatchesSingleWorker(3, null, new int[] { 8 }, new int[] { 8 });
+	}
+
+	@Test
+	public void testDataParallelTrainingShardsEachMiniBatch() {
+		assertDataParallelTrainingMatchesSingleWorker(2, 4, new int[] { 8 }, new int[] { 4, 4 });
+	}
+
+	@Test
+	public void testDataParallelTrainingKeepsIdleReplicasInStep() {
+		// The first batch leaves two of the four replicas without a shard, but they
+		// must still be adjusted to propagate the shards of the second batch
+		assertDataParallelTrainingMatchesSingleWorker(4, null, new int[] { 2, 6 }, new int[] { 2, 6 });
+	}
+
+	@Test
+	public void testDataParallelTrainingRegularisesOnce() {
+		assertDataParallelTrainingMatchesSingleWorker(3, null, new int[] { 8 }, new int[] { 8 }, 0.5f);
+		assertDataParallelTrainingMatchesSingleWorker(2, 4, new int[] { 8 }, new int[] { 4, 4 }, 0.5f);
+	}
+}
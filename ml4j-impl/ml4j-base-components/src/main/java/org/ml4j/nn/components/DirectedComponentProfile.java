@@ -0,0 +1,114 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.ml4j.nn.components;
+
+import java.io.Serializable;
+
+/**
+ * The aggregated cost of the propagations of a component, or of a stack of
+ * nested components, in one phase.
+ *
+ * @author Michael Lavelle
+ */
+public class DirectedComponentProfile implements Serializable {
+
+	/**
+	 * Default serialization id.
+	 */
+	private static final long serialVersionUID = 1L;
+
+	private String name;
+	private DirectedComponentActivationLifecycle phase;
+	private long calls;
+	private long totalNanos;
+	private long selfNanos;
+	private long matrixCount;
+	private long matrixBytes;
+	private long allocatedBytes;
+
+	public DirectedComponentProfile(String name, DirectedComponentActivationLifecycle phase) {
+		this.name = name;
+		this.phase = phase;
+	}
+
+	synchronized void record(long totalNanos, long selfNanos, long matrixCount, long matrixBytes,
+			long allocatedBytes) {
+		this.calls++;
+		this.totalNanos += totalNanos;
+		this.selfNanos += selfNanos;
+		this.matrixCount += matrixCount;
+		this.matrixBytes += matrixBytes;
+		this.allocatedBytes += allocatedBytes;
+	}
+
+	/**
+	 * @return The component name, or for a stack the semicolon separated names
+	 *         of the nested components from the outermost.
+	 */
+	public String getName() {
+		return name;
+	}
+
+	public DirectedComponentActivationLifecycle getPhase() {
+		return phase;
+	}
+
+	public synchronized long getCalls() {
+		return calls;
+	}
+
+	/**
+	 * @return The wall time, including nested components.
+	 */
+	public synchronized long getTotalNanos() {
+		return totalNanos;
+	}
+
+	/**
+	 * @return The wall time, excluding nested components propagating on the same
+	 *         thread.
+	 */
+	public synchronized long getSelfNanos() {
+		return selfNanos;
+	}
+
+	/**
+	 * @return The number of matrices created, including by nested components.
+	 */
+	public synchronized long getMatrixCount() {
+		return matrixCount;
+	}
+
+	/**
+	 * @return The bytes of data of the matrices created, including by nested
+	 *         components.
+	 */
+	public synchronized long getMatrixBytes() {
+		return matrixBytes;
+	}
+
+	/**
+	 * @return The bytes allocated on the heap by the propagating thread, including
+	 *         by nested components, or 0 if the JVM cannot measure this.
+	 */
+	public synchronized long getAllocatedBytes() {
+		return allocatedBytes;
+	}
+
+	@Override
+	public String toString() {
+		return "DirectedComponentProfile [name=" + name + ", phase=" + phase + ", calls=" + getCalls()
+				+ ", totalNanos=" + getTotalNanos() + "]";
+	}
+}
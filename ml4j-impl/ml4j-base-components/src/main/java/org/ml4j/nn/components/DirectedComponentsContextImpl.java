@@ -14,110 +14,178 @@
 package org.ml4j.nn.components;
 
 import java.io.Serializable;
-import java.util.HashMap;
 import java.util.Map;
-import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Supplier;
 import java.util.function.UnaryOperator;
 
 import org.ml4j.MatrixFactory;
 import org.ml4j.nn.neurons.NeuronsActivationContext;
 
+/**
+ * Default implementation of DirectedComponentsContext.
+ * 
+ * The contexts of components are held in a concurrent registry shared with the
+ * training and non-training views of this context. Each context is created for
+ * a view and then returned as is on later lookups through that view, without
+ * locking or allocation. A context is only rebuilt when it is looked up through
+ * a view with a different training flag or matrix factory, or after it has been
+ * set explicitly.
+ * 
+ * The registered contexts are shared, not copied: every lookup of a component,
+ * through any view and on any thread, returns the same instance until it is
+ * rebuilt. Configuring a context through its with methods therefore changes it
+ * for every later propagation, which is how a component is configured once
+ * for a whole network. The configurable values of the contexts are volatile, so
+ * a change is seen by propagations started after it on any thread, while a
+ * propagation already in progress may or may not see it. A private copy of a
+ * context can be obtained with its dup method.
+ * 
+ * @author Michael Lavelle
+ */
 public class DirectedComponentsContextImpl implements DirectedComponentsContext {
 
 	/**
 	 * Default serialization id.
 	 */
 	private static final long serialVersionUID = 1L;
-	private Map<ContextualNeuralComponent<?>, ComponentContext<?>> contexts;
-	private MatrixFactory matrixFactory;
-	private boolean isTraining;
+	private final Map<ContextualNeuralComponent<?>, ComponentContext<?>> contexts;
+	/**
+	 * The first component registered under each name, shared with the views of
+	 * this context.
+	 */
+	private final Map<String, ContextualNeuralComponent<?>> componentsByName;
+	private final MatrixFactory matrixFactory;
+	private final boolean isTraining;
+	private final BranchScheduler branchScheduler;
+	private final DirectedComponentPropagationListener propagationListener;
 
 	public DirectedComponentsContextImpl(MatrixFactory matrixFactory, boolean isTraining) {
-		this.contexts = new HashMap<>();
-		this.matrixFactory = matrixFactory;
-		this.isTraining = isTraining;
+		this(matrixFactory, isTraining, ForkJoinPoolBranchScheduler.getDefault());
+	}
+
+	/**
+	 * @param matrixFactory   The matrix factory.
+	 * @param isTraining      Whether this context is for training.
+	 * @param branchScheduler The scheduler for the independent branches of
+	 *                        component graphs.
+	 */
+	public DirectedComponentsContextImpl(MatrixFactory matrixFactory, boolean isTraining,
+			BranchScheduler branchScheduler) {
+		this(matrixFactory, isTraining, branchScheduler, null);
+	}
+
+	/**
+	 * @param matrixFactory       The matrix factory.
+	 * @param isTraining          Whether this context is for training.
+	 * @param branchScheduler     The scheduler for the independent branches of
+	 *                            component graphs.
+	 * @param propagationListener The listener notified as each component
+	 *                            propagates, or null.
+	 */
+	public DirectedComponentsContextImpl(MatrixFactory matrixFactory, boolean isTraining,
+			BranchScheduler branchScheduler, DirectedComponentPropagationListener propagationListener) {
+		this(new ConcurrentHashMap<>(), new ConcurrentHashMap<>(), matrixFactory, isTraining, branchScheduler,
+				propagationListener);
 	}
 
 	private DirectedComponentsContextImpl(Map<ContextualNeuralComponent<?>, ComponentContext<?>> contexts,
-			MatrixFactory matrixFactory, boolean isTraining) {
+			Map<String, ContextualNeuralComponent<?>> componentsByName, MatrixFactory matrixFactory,
+			boolean isTraining, BranchScheduler branchScheduler,
+			DirectedComponentPropagationListener propagationListener) {
 		super();
+		if (branchScheduler == null) {
+			throw new IllegalArgumentException("Branch scheduler must not be null");
+		}
 		this.contexts = contexts;
+		this.componentsByName = componentsByName;
 		this.matrixFactory = matrixFactory;
 		this.isTraining = isTraining;
+		this.branchScheduler = branchScheduler;
+		this.propagationListener = propagationListener;
 	}
 	
-	private boolean isComponentNameExistingUnderAnotherComponent(ContextualNeuralComponent<?> component) {
-		Optional<ContextualNeuralComponent<?>> found = contexts.keySet().stream()
-				.filter(c -> c.getName().equals(component.getName())).findFirst();
-		return found.isPresent();
-	}
-	
-	private <C extends Serializable> Object getLockObject(ContextualNeuralComponent<C> component) {
-		synchronized (contexts) {
-			ComponentContext<?> componentContext = contexts.get(component);
-			if (componentContext == null) {
-				return contexts;
-			} else {
-				return componentContext;
-			}
-		}
+	/**
+	 * Index the component by its name, unless another component is already
+	 * registered under that name.
+	 * 
+	 * @return The component already registered under the name, or null if there
+	 *         was none.
+	 */
+	private ContextualNeuralComponent<?> registerName(ContextualNeuralComponent<?> component) {
+		return componentsByName.putIfAbsent(component.getName(), component);
 	}
-	
+
 	@SuppressWarnings("unchecked")
 	@Override
-	public  <C extends Serializable> C getContext(ContextualNeuralComponent<C> component,
+	public <C extends Serializable> C getContext(ContextualNeuralComponent<C> component,
 			Supplier<C> defaultContextSupplier, UnaryOperator<C> creator) {
-	
-		synchronized (getLockObject(component)) {
-		
+		while (true) {
 			ComponentContext<C> existingContext = (ComponentContext<C>) contexts.get(component);
-	
-			C context;
-			if (existingContext != null) {
-				C newContext = creator.apply(existingContext.getContext());
-				ComponentContext<C> newComponentContext = new ComponentContext<>(component, newContext);
-				contexts.put(component, newComponentContext);
-				context = newContext;
-			} else {
-				ComponentContext<C> newContext = new ComponentContext<>(component, defaultContextSupplier.get());
-				contexts.put(component, newContext);
-				context = newContext.getContext();
+			if (existingContext != null && existingContext.isCreatedFor(this)) {
+				return existingContext.getContext();
 			}
-			
+			// Create the context outside of the registry, as creators may look up the
+			// contexts of nested components
+			C context = existingContext == null ? defaultContextSupplier.get()
+					: creator.apply(existingContext.getContext());
 			if (context instanceof NeuronsActivationContext) {
-				NeuronsActivationContext neuronsActivationContext = (NeuronsActivationContext)context;
+				NeuronsActivationContext neuronsActivationContext = (NeuronsActivationContext) context;
 				neuronsActivationContext.setTrainingContext(isTraining);
 				neuronsActivationContext.setMatrixFactory(getMatrixFactory());
 			}
-			return context;
+			ComponentContext<C> newComponentContext = new ComponentContext<>(component, context, this);
+			if (existingContext == null) {
+				registerName(component);
+			}
+			boolean registered = existingContext == null ? contexts.putIfAbsent(component, newComponentContext) == null
+					: contexts.replace(component, existingContext, newComponentContext);
+			if (registered) {
+				return context;
+			}
+			// Another thread changed the context of this component, so look it up again
 		}
 	}
 
 	public void addComponentContext(ComponentContext<?> componentContext) {
-		
-		synchronized (getLockObject(componentContext.getComponent())) {
-		
-			if (isComponentNameExistingUnderAnotherComponent(componentContext.getComponent())) {
-				throw new IllegalArgumentException("Component name already registered under another component:" + 
-						componentContext.getComponent().getName());
-			}
-			this.contexts.put(componentContext.getComponent(), componentContext);
+		// Claim the name atomically, so that two components registered concurrently
+		// under the same name cannot both succeed
+		ContextualNeuralComponent<?> existingComponent = registerName(componentContext.getComponent());
+		if (existingComponent != null && existingComponent != componentContext.getComponent()) {
+			throw new IllegalArgumentException("Component name already registered under another component:"
+					+ componentContext.getComponent().getName());
 		}
+		this.contexts.put(componentContext.getComponent(), componentContext);
 	}
 
-	private class ComponentContext<C extends Serializable> implements Serializable {
+	/**
+	 * An immutable registration of the context of a component, along with the
+	 * configuration of the view it was created for.
+	 */
+	private static class ComponentContext<C extends Serializable> implements Serializable {
 
 		/**
 		 * Default serialization id.
 		 */
 		private static final long serialVersionUID = 1L;
-		private ContextualNeuralComponent<C> component;
-		private C context;
+		private final ContextualNeuralComponent<C> component;
+		private final C context;
+		private final Boolean isTraining;
+		private final MatrixFactory matrixFactory;
 
 		public ComponentContext(ContextualNeuralComponent<C> component, C context) {
 			this.component = component;
 			this.context = context;
+			this.isTraining = null;
+			this.matrixFactory = null;
+		}
+
+		public ComponentContext(ContextualNeuralComponent<C> component, C context,
+				DirectedComponentsContextImpl directedComponentsContext) {
+			this.component = component;
+			this.context = context;
+			this.isTraining = directedComponentsContext.isTraining;
+			this.matrixFactory = directedComponentsContext.matrixFactory;
 		}
 
 		public ContextualNeuralComponent<C> getComponent() {
@@ -128,6 +196,15 @@ public class DirectedComponentsContextImpl implements DirectedComponentsContext
 			return context;
 		}
 
+		/**
+		 * @return Whether this context was created for a view with the same
+		 *         configuration as the given view.
+		 */
+		public boolean isCreatedFor(DirectedComponentsContextImpl directedComponentsContext) {
+			return isTraining != null && isTraining == directedComponentsContext.isTraining
+					&& matrixFactory == directedComponentsContext.matrixFactory;
+		}
+
 		@Override
 		public String toString() {
 			return "ComponentContext [component=" + component.getName() + ", context=" + context + "]";
@@ -144,6 +221,8 @@ public class DirectedComponentsContextImpl implements DirectedComponentsContext
 
 	@Override
 	public <C extends Serializable> void setContext(ContextualNeuralComponent<C> component, C context) {
+		// Explicitly set contexts are rebuilt for the view on their next lookup
+		registerName(component);
 		this.contexts.put(component, new ComponentContext<C>(component, context));
 	}
 
@@ -154,12 +233,24 @@ public class DirectedComponentsContextImpl implements DirectedComponentsContext
 
 	@Override
 	public DirectedComponentsContext asTrainingContext() {
-		return new DirectedComponentsContextImpl(contexts, matrixFactory, true);
+		return new DirectedComponentsContextImpl(contexts, componentsByName, matrixFactory, true, branchScheduler,
+				propagationListener);
 	}
 
 	@Override
 	public DirectedComponentsContext asNonTrainingContext() {
-		return new DirectedComponentsContextImpl(contexts, matrixFactory, false);
+		return new DirectedComponentsContextImpl(contexts, componentsByName, matrixFactory, false, branchScheduler,
+				propagationListener);
+	}
+
+	@Override
+	public BranchScheduler getBranchScheduler() {
+		return branchScheduler;
+	}
+
+	@Override
+	public DirectedComponentPropagationListener getPropagationListener() {
+		return propagationListener;
 	}
 
 	@Override
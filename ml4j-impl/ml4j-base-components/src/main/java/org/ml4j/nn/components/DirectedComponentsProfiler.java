@@ -0,0 +1,213 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.ml4j.nn.components;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.ml4j.MatrixAllocations;
+
+/**
+ * A DirectedComponentPropagationListener which aggregates the wall time,
+ * matrices created and heap bytes allocated by each component in each phase.
+ *
+ * Costs are aggregated both per component name and per stack of nested
+ * components, the latter exportable in the folded stack format read by flame
+ * graph tools. Each thread has its own stack, so components propagated by a
+ * BranchScheduler on another thread appear as the outermost component of
+ * their stacks.
+ *
+ * Attach a profiler by constructing a DirectedComponentsContextImpl with it,
+ * and close it once profiling is complete to stop counting matrices.
+ *
+ * @author Michael Lavelle
+ */
+public class DirectedComponentsProfiler implements DirectedComponentPropagationListener, AutoCloseable {
+
+	/**
+	 * Default serialization id.
+	 */
+	private static final long serialVersionUID = 1L;
+
+	private Map<String, DirectedComponentProfile> componentProfiles;
+	private Map<String, DirectedComponentProfile> stackProfiles;
+	private transient volatile ThreadLocal<Deque<Frame>> frames;
+	private boolean closed;
+
+	public DirectedComponentsProfiler() {
+		this.componentProfiles = new ConcurrentHashMap<>();
+		this.stackProfiles = new ConcurrentHashMap<>();
+		MatrixAllocations.enableTracking();
+	}
+
+	/**
+	 * A propagation in progress on the current thread.
+	 */
+	private static class Frame {
+
+		private String name;
+		private String stack;
+		private long startNanos;
+		private long startMatrixCount;
+		private long startMatrixBytes;
+		private long startAllocatedBytes;
+		private long nestedNanos;
+	}
+
+	private Deque<Frame> getFrames() {
+		ThreadLocal<Deque<Frame>> threadFrames = frames;
+		if (threadFrames == null) {
+			synchronized (this) {
+				if (frames == null) {
+					frames = ThreadLocal.withInitial(ArrayDeque::new);
+				}
+				threadFrames = frames;
+			}
+		}
+		return threadFrames.get();
+	}
+
+	@Override
+	public void onPropagationStarted(String componentName, DirectedComponentActivationLifecycle phase) {
+		Deque<Frame> stack = getFrames();
+		Frame frame = new Frame();
+		frame.name = componentName;
+		String frameName = componentName.replace(';', '_');
+		frame.stack = stack.isEmpty() ? phase.name() + ";" + frameName : stack.peek().stack + ";" + frameName;
+		frame.startMatrixCount = MatrixAllocations.getCount();
+		frame.startMatrixBytes = MatrixAllocations.getBytes();
+		frame.startAllocatedBytes = getAllocatedBytes();
+		frame.startNanos = System.nanoTime();
+		stack.push(frame);
+	}
+
+	@Override
+	public void onPropagationCompleted(String componentName, DirectedComponentActivationLifecycle phase) {
+		long endNanos = System.nanoTime();
+		Deque<Frame> stack = getFrames();
+		Frame frame = stack.poll();
+		if (frame == null || !frame.name.equals(componentName)) {
+			throw new IllegalStateException("Propagation of " + componentName + " completed without starting");
+		}
+		long totalNanos = endNanos - frame.startNanos;
+		long matrixCount = MatrixAllocations.getCount() - frame.startMatrixCount;
+		long matrixBytes = MatrixAllocations.getBytes() - frame.startMatrixBytes;
+		long allocatedBytes = getAllocatedBytes() - frame.startAllocatedBytes;
+		if (!stack.isEmpty()) {
+			stack.peek().nestedNanos += totalNanos;
+		}
+		long selfNanos = totalNanos - frame.nestedNanos;
+		componentProfiles.computeIfAbsent(componentName + "|" + phase,
+				k -> new DirectedComponentProfile(componentName, phase))
+				.record(totalNanos, selfNanos, matrixCount, matrixBytes, allocatedBytes);
+		stackProfiles.computeIfAbsent(frame.stack, k -> new DirectedComponentProfile(frame.stack, phase))
+				.record(totalNanos, selfNanos, matrixCount, matrixBytes, allocatedBytes);
+	}
+
+	private static long getAllocatedBytes() {
+		ThreadMXBean threadMXBean = ManagementFactory.getThreadMXBean();
+		if (threadMXBean instanceof com.sun.management.ThreadMXBean) {
+			com.sun.management.ThreadMXBean allocationMXBean = (com.sun.management.ThreadMXBean) threadMXBean;
+			if (allocationMXBean.isThreadAllocatedMemoryEnabled()) {
+				return allocationMXBean.getThreadAllocatedBytes(Thread.currentThread().getId());
+			}
+		}
+		return 0;
+	}
+
+	/**
+	 * @return The profile of each component name in each phase, most expensive
+	 *         first.
+	 */
+	public List<DirectedComponentProfile> getComponentProfiles() {
+		return sortByTotalTime(componentProfiles);
+	}
+
+	/**
+	 * @return The profile of each stack of nested components, most expensive
+	 *         first.
+	 */
+	public List<DirectedComponentProfile> getStackProfiles() {
+		return sortByTotalTime(stackProfiles);
+	}
+
+	private List<DirectedComponentProfile> sortByTotalTime(Map<String, DirectedComponentProfile> profiles) {
+		List<DirectedComponentProfile> sorted = new ArrayList<>(profiles.values());
+		sorted.sort(Comparator.comparingLong(DirectedComponentProfile::getTotalNanos).reversed());
+		return sorted;
+	}
+
+	/**
+	 * @return A flat report of the profile of each component name in each phase,
+	 *         most expensive first.
+	 */
+	public String getReport() {
+		StringBuilder report = new StringBuilder(String.format("%-40s %-20s %10s %12s %12s %10s %12s %12s%n",
+				"Component", "Phase", "Calls", "Total ms", "Self ms", "Matrices", "Matrix MB", "Alloc MB"));
+		for (DirectedComponentProfile profile : getComponentProfiles()) {
+			report.append(String.format("%-40s %-20s %10d %12.3f %12.3f %10d %12.3f %12.3f%n", profile.getName(),
+					profile.getPhase(), profile.getCalls(), profile.getTotalNanos() / 1e6,
+					profile.getSelfNanos() / 1e6, profile.getMatrixCount(), profile.getMatrixBytes() / 1e6,
+					profile.getAllocatedBytes() / 1e6));
+		}
+		return report.toString();
+	}
+
+	/**
+	 * Write the self time in microseconds of each stack of nested components, in
+	 * the folded stack format read by flame graph tools, with the phase as the
+	 * outermost frame.
+	 *
+	 * @param writer The writer, which is not closed.
+	 */
+	public void writeFoldedStacks(Writer writer) {
+		try {
+			for (DirectedComponentProfile profile : getStackProfiles()) {
+				writer.write(profile.getName() + " " + profile.getSelfNanos() / 1000 + "\n");
+			}
+			writer.flush();
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	/**
+	 * Discard the profiles gathered so far.
+	 */
+	public void reset() {
+		componentProfiles.clear();
+		stackProfiles.clear();
+	}
+
+	/**
+	 * Stop counting the matrices created.
+	 */
+	@Override
+	public synchronized void close() {
+		if (!closed) {
+			closed = true;
+			MatrixAllocations.disableTracking();
+		}
+	}
+}
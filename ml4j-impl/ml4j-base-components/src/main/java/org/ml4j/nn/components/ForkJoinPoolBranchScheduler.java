@@ -0,0 +1,109 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.ml4j.nn.components;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * A BranchScheduler which executes branches on a dedicated ForkJoinPool of
+ * bounded parallelism, so that branches neither contend with other users of
+ * the common pool nor oversubscribe the threads available to BLAS.
+ *
+ * Branches of nested graphs are forked from within the pool rather than
+ * submitted to it, so nesting does not require additional threads.
+ *
+ * @author Michael Lavelle
+ */
+public class ForkJoinPoolBranchScheduler implements BranchScheduler {
+
+	/**
+	 * Default serialization id.
+	 */
+	private static final long serialVersionUID = 1L;
+
+	private static final ForkJoinPoolBranchScheduler DEFAULT_BRANCH_SCHEDULER = new ForkJoinPoolBranchScheduler(
+			Runtime.getRuntime().availableProcessors());
+
+	private final int parallelism;
+
+	private transient volatile ForkJoinPool forkJoinPool;
+
+	/**
+	 * @param parallelism The maximum number of branches to execute concurrently.
+	 */
+	public ForkJoinPoolBranchScheduler(int parallelism) {
+		if (parallelism < 1) {
+			throw new IllegalArgumentException("Parallelism must be at least 1");
+		}
+		this.parallelism = parallelism;
+	}
+
+	/**
+	 * @return A BranchScheduler shared by all contexts not configured with their
+	 *         own, with parallelism equal to the number of available processors.
+	 */
+	public static ForkJoinPoolBranchScheduler getDefault() {
+		return DEFAULT_BRANCH_SCHEDULER;
+	}
+
+	public int getParallelism() {
+		return parallelism;
+	}
+
+	private ForkJoinPool getForkJoinPool() {
+		ForkJoinPool pool = forkJoinPool;
+		if (pool == null) {
+			synchronized (this) {
+				pool = forkJoinPool;
+				if (pool == null) {
+					pool = new ForkJoinPool(parallelism);
+					forkJoinPool = pool;
+				}
+			}
+		}
+		return pool;
+	}
+
+	@Override
+	public <T> List<T> invokeAll(List<Supplier<T>> branches) {
+		if (branches.size() < 2 || parallelism == 1) {
+			return branches.stream().map(Supplier::get).collect(Collectors.toList());
+		}
+		List<ForkJoinTask<T>> tasks = branches.stream().map(branch -> ForkJoinTask.adapt(branch::get))
+				.collect(Collectors.toList());
+		ForkJoinPool pool = getForkJoinPool();
+		if (ForkJoinTask.getPool() == pool) {
+			ForkJoinTask.invokeAll(tasks);
+		} else {
+			tasks.forEach(pool::execute);
+		}
+		return tasks.stream().map(ForkJoinTask::join).collect(Collectors.toList());
+	}
+
+	/**
+	 * Shut down the pool once any executing branches have completed. A new pool
+	 * is created should further branches be scheduled.
+	 */
+	public synchronized void shutdown() {
+		ForkJoinPool pool = forkJoinPool;
+		if (pool != null) {
+			forkJoinPool = null;
+			pool.shutdown();
+		}
+	}
+}
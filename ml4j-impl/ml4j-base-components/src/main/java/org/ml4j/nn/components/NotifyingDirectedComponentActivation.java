@@ -0,0 +1,121 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.ml4j.nn.components;
+
+import java.util.List;
+import java.util.function.Supplier;
+
+import org.ml4j.nn.components.onetone.DefaultChainableDirectedComponent;
+import org.ml4j.nn.components.onetone.DefaultChainableDirectedComponentActivation;
+import org.ml4j.nn.neurons.NeuronsActivation;
+
+/**
+ * Decorates the activation of a component so that the
+ * DirectedComponentPropagationListener of the context it was activated in is
+ * notified around its back propagation.
+ *
+ * Decomposing the activation returns the undecorated activations, so callers
+ * inspecting the types of decomposed activations are unaffected.
+ *
+ * @author Michael Lavelle
+ */
+public class NotifyingDirectedComponentActivation implements DefaultChainableDirectedComponentActivation {
+
+	private DefaultChainableDirectedComponentActivation activation;
+	private String componentName;
+	private DirectedComponentPropagationListener propagationListener;
+
+	public NotifyingDirectedComponentActivation(DefaultChainableDirectedComponentActivation activation,
+			String componentName, DirectedComponentPropagationListener propagationListener) {
+		this.activation = activation;
+		this.componentName = componentName;
+		this.propagationListener = propagationListener;
+	}
+
+	/**
+	 * Forward propagate through a component, notifying the propagation listener of
+	 * the context if there is one.
+	 *
+	 * @param component   The component.
+	 * @param context     The context.
+	 * @param propagation Forward propagates through the component.
+	 * @return The activation of the component, decorated to notify the listener on
+	 *         back propagation if there is a listener.
+	 */
+	public static DefaultChainableDirectedComponentActivation forwardPropagate(
+			DefaultChainableDirectedComponent<?, ?> component, DirectedComponentsContext context,
+			Supplier<? extends DefaultChainableDirectedComponentActivation> propagation) {
+		DirectedComponentPropagationListener propagationListener = context.getPropagationListener();
+		if (propagationListener == null) {
+			return propagation.get();
+		}
+		return new NotifyingDirectedComponentActivation(
+				notify(component.getName(), DirectedComponentActivationLifecycle.FORWARD_PROPAGATION,
+						propagationListener, propagation),
+				component.getName(), propagationListener);
+	}
+
+	/**
+	 * Perform a propagation, notifying the propagation listener, if not null,
+	 * before and after.
+	 *
+	 * @param <T>                 The type of result of the propagation.
+	 * @param componentName       The name of the component propagating.
+	 * @param phase               The phase of the propagation.
+	 * @param propagationListener The listener, or null.
+	 * @param propagation         The propagation.
+	 * @return The result of the propagation.
+	 */
+	public static <T> T notify(String componentName, DirectedComponentActivationLifecycle phase,
+			DirectedComponentPropagationListener propagationListener, Supplier<T> propagation) {
+		if (propagationListener == null) {
+			return propagation.get();
+		}
+		propagationListener.onPropagationStarted(componentName, phase);
+		try {
+			return propagation.get();
+		} finally {
+			propagationListener.onPropagationCompleted(componentName, phase);
+		}
+	}
+
+	@Override
+	public DirectedComponentGradient<NeuronsActivation> backPropagate(
+			DirectedComponentGradient<NeuronsActivation> outerGradient) {
+		return notify(componentName, DirectedComponentActivationLifecycle.BACK_PROPAGATION, propagationListener,
+				() -> activation.backPropagate(outerGradient));
+	}
+
+	@Override
+	public NeuronsActivation getOutput() {
+		return activation.getOutput();
+	}
+
+	@Override
+	public List<? extends DefaultChainableDirectedComponentActivation> decompose() {
+		return activation.decompose();
+	}
+
+	@Override
+	public void close(DirectedComponentActivationLifecycle completedLifeCycleStage) {
+		activation.close(completedLifeCycleStage);
+	}
+
+	/**
+	 * @return The decorated activation.
+	 */
+	public DefaultChainableDirectedComponentActivation getActivation() {
+		return activation;
+	}
+}
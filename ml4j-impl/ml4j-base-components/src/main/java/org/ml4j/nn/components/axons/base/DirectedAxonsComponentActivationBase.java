@@ -18,6 +18,7 @@ import java.util.List;
 import java.util.Optional;
 import java.util.function.Supplier;
 
+import org.ml4j.images.ImageContainerParallelism;
 import org.ml4j.nn.axons.Axons;
 import org.ml4j.nn.axons.AxonsActivation;
 import org.ml4j.nn.axons.AxonsContext;
@@ -88,7 +89,9 @@ public abstract class DirectedAxonsComponentActivationBase<A extends Axons<?, ?,
 	public DirectedComponentGradient<NeuronsActivation> backPropagate(
 			DirectedComponentGradient<NeuronsActivation> gradient) {
 		LOGGER.debug("Back propagating gradient through DirectedAxonsComponentActivationBase");
-		AxonsActivation rightToLeftAxonsActivation = directedAxonsComponent.getAxons().pushRightToLeft(gradient.getOutput(), leftToRightAxonsActivation, axonsContext);
+		AxonsActivation rightToLeftAxonsActivation = ImageContainerParallelism.withBranchScheduler(
+				axonsContext.getBranchScheduler(), () -> directedAxonsComponent.getAxons()
+						.pushRightToLeft(gradient.getOutput(), leftToRightAxonsActivation, axonsContext));
 		return createBackPropagatedGradient(rightToLeftAxonsActivation, gradient.getTotalTrainableAxonsGradients(), getAxonsGradientSupplier(rightToLeftAxonsActivation));
 	}
 	
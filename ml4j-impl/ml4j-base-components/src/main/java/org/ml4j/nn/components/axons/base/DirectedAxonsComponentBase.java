@@ -71,9 +71,11 @@ public abstract class DirectedAxonsComponentBase<L extends Neurons, R extends Ne
 	@Override
 	public AxonsContext getContext(DirectedComponentsContext directedComponentsContext) {
 		return directedComponentsContext.getContext(this, () -> 
-		new AxonsContextImpl(name, directedComponentsContext.getMatrixFactory(), directedComponentsContext.isTrainingContext(), false),
+		new AxonsContextImpl(name, directedComponentsContext.getMatrixFactory(), directedComponentsContext.isTrainingContext(), false,
+				directedComponentsContext.getBranchScheduler()),
 				context -> new AxonsContextImpl(name, directedComponentsContext.getMatrixFactory(), 
-						directedComponentsContext.isTrainingContext(), context.isWithFreezeOut())
+						directedComponentsContext.isTrainingContext(), context.isWithFreezeOut(),
+						directedComponentsContext.getBranchScheduler())
 				.withLeftHandInputDropoutKeepProbability(context.getLeftHandInputDropoutKeepProbability()).withRegularisationLambda(context.getRegularisationLambda()));
 	}
 
@@ -16,6 +16,9 @@ package org.ml4j.nn.components.manytomany.base;
 import java.util.List;
 import java.util.Optional;
 
+import org.ml4j.nn.components.BranchScheduler;
+import org.ml4j.nn.components.DirectedComponentsContext;
+import org.ml4j.nn.components.ForkJoinPoolBranchScheduler;
 import org.ml4j.nn.components.NeuralComponentBaseType;
 import org.ml4j.nn.components.NeuralComponentType;
 import org.ml4j.nn.components.manytomany.DefaultDirectedComponentChainBatch;
@@ -61,4 +64,13 @@ public abstract class DefaultComponentChainBatchBase implements DefaultDirectedC
 		return Optional.empty();
 	}
 
+	/**
+	 * @param context The context within which this batch is activated.
+	 * @return The scheduler for the components of this batch, defaulting to the
+	 *         shared ForkJoinPoolBranchScheduler if none is configured.
+	 */
+	protected BranchScheduler getBranchScheduler(DirectedComponentsContext context) {
+		BranchScheduler branchScheduler = context.getBranchScheduler();
+		return branchScheduler == null ? ForkJoinPoolBranchScheduler.getDefault() : branchScheduler;
+	}
 }
@@ -23,10 +23,12 @@ import java.util.stream.Collectors;
 
 import org.ml4j.nn.components.ChainableDirectedComponent;
 import org.ml4j.nn.components.ChainableDirectedComponentActivation;
+import org.ml4j.nn.components.DirectedComponentActivationLifecycle;
 import org.ml4j.nn.components.DirectedComponentsContext;
 import org.ml4j.nn.components.NeuralComponentBaseType;
 import org.ml4j.nn.components.NeuralComponentType;
 import org.ml4j.nn.components.NeuralComponentVisitor;
+import org.ml4j.nn.components.NotifyingDirectedComponentActivation;
 import org.ml4j.nn.components.activationfunctions.DifferentiableActivationFunctionComponent;
 import org.ml4j.nn.components.activationfunctions.DifferentiableActivationFunctionComponentActivation;
 import org.ml4j.nn.components.factories.DirectedComponentFactory;
@@ -82,15 +84,6 @@ public class TrailingActivationFunctionDirectedComponentChainImpl
 
 	}
 
-	private TrailingActivationFunctionDirectedComponentChainImpl(
-			List<DefaultChainableDirectedComponent<?, ?>> components,
-			DifferentiableActivationFunctionComponent finalDifferentiableActivationFunctionComponent,
-			DefaultDirectedComponentChain precedingChain) {
-		this.components = components;
-		this.finalDifferentiableActivationFunctionComponent = finalDifferentiableActivationFunctionComponent;
-		this.precedingChain = precedingChain;
-	}
-
 	@Override
 	public List<DefaultChainableDirectedComponent<?, ?>> getComponents() {
 		return components;
@@ -107,9 +100,11 @@ public class TrailingActivationFunctionDirectedComponentChainImpl
 
 		DefaultDirectedComponentChainActivation precedingChainActivation = precedingChain.forwardPropagateChain(input,
 				context);
-		DifferentiableActivationFunctionComponentActivation activationFunctionComponentActivation = finalDifferentiableActivationFunctionComponent
-				.forwardPropagateChain(precedingChainActivation.getOutput(),
-						context);
+		DifferentiableActivationFunctionComponentActivation activationFunctionComponentActivation =
+				NotifyingDirectedComponentActivation.notify(finalDifferentiableActivationFunctionComponent.getName(),
+						DirectedComponentActivationLifecycle.FORWARD_PROPAGATION, context.getPropagationListener(),
+						() -> finalDifferentiableActivationFunctionComponent
+								.forwardPropagateChain(precedingChainActivation.getOutput(), context));
 		// activationFunctionActivation.getInput().close();
 		return new TrailingActivationFunctionDirectedComponentChainActivationImpl(this, precedingChainActivation,
 				activationFunctionComponentActivation);
@@ -140,8 +135,9 @@ public class TrailingActivationFunctionDirectedComponentChainImpl
 		List<DefaultChainableDirectedComponent<?, ?>> dupComponents = components.stream().map(c -> c.dup(directedComponentFactory))
 				.collect(Collectors.toList());
 
-		return new TrailingActivationFunctionDirectedComponentChainImpl(dupComponents,
-				finalDifferentiableActivationFunctionComponent.dup(directedComponentFactory), precedingChain.dup(directedComponentFactory));
+		// Derive the preceding chain and final component from the duplicated components,
+		// so the duplicate propagates through the same components it is composed of
+		return new TrailingActivationFunctionDirectedComponentChainImpl(directedComponentFactory, dupComponents);
 	}
 
 	@Override
@@ -31,6 +31,7 @@ public class AxonsActivationImpl implements AxonsActivation {
 	private AxonsDropoutMask dropoutMask;
 	private NeuronsActivation outputActivations;
 	private Supplier<NeuronsActivation> postDropoutInput;
+	private int[] argmaxIndexes;
 
 	/**
 	 * @param inputDropoutMask  Any input dropout mask
@@ -49,6 +50,16 @@ public class AxonsActivationImpl implements AxonsActivation {
 
 		this.axons = axons;
 	}
+
+	/**
+	 * @param argmaxIndexes The index within the input of the element selected for
+	 *                      each output element.
+	 */
+	public AxonsActivationImpl(Axons<?, ?, ?> axons, AxonsDropoutMask dropoutMask,
+			Supplier<NeuronsActivation> postDropoutInput, NeuronsActivation outputActivations, int[] argmaxIndexes) {
+		this(axons, dropoutMask, postDropoutInput, outputActivations);
+		this.argmaxIndexes = argmaxIndexes;
+	}
 	
 	
 	@Override
@@ -71,6 +82,11 @@ public class AxonsActivationImpl implements AxonsActivation {
 		return postDropoutInput;
 	}
 
+	@Override
+	public int[] getArgmaxIndexes() {
+		return argmaxIndexes;
+	}
+
 	@Override
 	public Axons<?, ?, ?> getAxons() {
 		return axons;
@@ -17,18 +17,26 @@
 package org.ml4j.nn.axons;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.stream.Collectors;
 
+import org.ml4j.MatrixFactory;
+import org.ml4j.nn.components.BranchScheduler;
+import org.ml4j.nn.neurons.FreezeableNeuronsActivationContext;
+import org.ml4j.nn.neurons.NeuronsActivationContextImpl;
+
 /**
  * Simple implementation of AxonsContext.
  * 
+ * The with methods configure this context in place, as an AxonsContext obtained
+ * from a DirectedComponentsContext is shared by every lookup of its component
+ * on any thread. The configured values are volatile so that a change is seen by
+ * propagations started after it on other threads. Use dup for a private copy.
+ * 
  * @author Michael Lavelle
  */
-import org.ml4j.MatrixFactory;
-import org.ml4j.nn.neurons.FreezeableNeuronsActivationContext;
-import org.ml4j.nn.neurons.NeuronsActivationContextImpl;
-
 public class AxonsContextImpl extends NeuronsActivationContextImpl implements AxonsContext {
 
 	/**
@@ -36,16 +44,23 @@ public class AxonsContextImpl extends NeuronsActivationContextImpl implements Ax
 	 */
 	private static final long serialVersionUID = 1L;
 
-	private boolean localFreezeOut;
+	private volatile boolean localFreezeOut;
 
-	private float regularisationLambda;
+	private volatile float regularisationLambda;
 
-	private float leftHandInputDropoutKeepProbability;
+	private volatile float leftHandInputDropoutKeepProbability;
 
-	private List<FreezeableNeuronsActivationContext<?>> freezeOutOverrideContexts;
+	/**
+	 * The freeze-out overrides, shared with the training and non-training views of
+	 * this context. The list is immutable and replaced on each change, so that it
+	 * can be read without locking.
+	 */
+	private AtomicReference<List<FreezeableNeuronsActivationContext<?>>> freezeOutOverrideContexts;
 
 	private String axonsName;
 
+	private BranchScheduler branchScheduler;
+
 	/**
 	 * Construct a new AxonsContext.
 	 * 
@@ -54,11 +69,26 @@ public class AxonsContextImpl extends NeuronsActivationContextImpl implements Ax
 	 */
 	public AxonsContextImpl(String axonsName, MatrixFactory matrixFactory, boolean isTrainingContext,
 			boolean withFreezeOut) {
+		this(axonsName, matrixFactory, isTrainingContext, withFreezeOut, null);
+	}
+
+	/**
+	 * Construct a new AxonsContext.
+	 * 
+	 * @param matrixFactory   The MatrixFactory we configure for this context
+	 * @param withFreezeOut   Whether to freeze out these Axons.
+	 * @param branchScheduler The BranchScheduler on which the tiles of reformats
+	 *                        within these Axons are run, or null to run them on
+	 *                        the calling thread.
+	 */
+	public AxonsContextImpl(String axonsName, MatrixFactory matrixFactory, boolean isTrainingContext,
+			boolean withFreezeOut, BranchScheduler branchScheduler) {
 		super(matrixFactory, isTrainingContext);
 		this.leftHandInputDropoutKeepProbability = 1f;
 		this.localFreezeOut = withFreezeOut;
-		this.freezeOutOverrideContexts = new ArrayList<>();
+		this.freezeOutOverrideContexts = new AtomicReference<>(Collections.emptyList());
 		this.axonsName = axonsName;
+		this.branchScheduler = branchScheduler;
 	}
 
 	@Override
@@ -68,43 +98,61 @@ public class AxonsContextImpl extends NeuronsActivationContextImpl implements Ax
 
 	@Override
 	public boolean isWithFreezeOut() {
-		synchronized (freezeOutOverrideContexts) {
-			if (freezeOutOverrideContexts.isEmpty()) {
+		return isWithFreezeOut(freezeOutOverrideContexts.get());
+	}
+
+	private boolean isWithFreezeOut(List<FreezeableNeuronsActivationContext<?>> overrideContexts) {
+		if (overrideContexts.isEmpty()) {
+			return localFreezeOut;
+		} else {
+			FreezeableNeuronsActivationContext<?> finalOverride = overrideContexts.get(overrideContexts.size() - 1);
+			if (finalOverride == this) {
 				return localFreezeOut;
 			} else {
-				FreezeableNeuronsActivationContext<?> finalOverride = 
-						freezeOutOverrideContexts.get(freezeOutOverrideContexts.size() - 1);
-				if (finalOverride == this) {
-					return localFreezeOut;
-				} else {
-					return finalOverride.isWithFreezeOut();
-				}
+				return finalOverride.isWithFreezeOut();
 			}
 		}
 	}
-	
-	private void tidySelf() {
-		synchronized (freezeOutOverrideContexts) {
-			if (freezeOutOverrideContexts.size() == 1 && freezeOutOverrideContexts.get(0) == this) {
-				removeFreezeoutOverrideContext(this);
-			}
+
+	private List<FreezeableNeuronsActivationContext<?>> tidySelf(
+			List<FreezeableNeuronsActivationContext<?>> overrideContexts) {
+		if (overrideContexts.size() == 1 && overrideContexts.get(0) == this) {
+			return Collections.emptyList();
+		}
+		return overrideContexts;
+	}
+
+	private static List<FreezeableNeuronsActivationContext<?>> without(
+			List<FreezeableNeuronsActivationContext<?>> overrideContexts,
+			FreezeableNeuronsActivationContext<?> context) {
+		List<FreezeableNeuronsActivationContext<?>> remaining = new ArrayList<>(overrideContexts);
+		remaining.removeIf(c -> c == context);
+		return Collections.unmodifiableList(remaining);
+	}
+
+	private List<FreezeableNeuronsActivationContext<?>> withOverride(
+			List<FreezeableNeuronsActivationContext<?>> overrideContexts,
+			FreezeableNeuronsActivationContext<?> context) {
+		List<FreezeableNeuronsActivationContext<?>> remaining = tidySelf(without(overrideContexts, context));
+		if (context.isWithFreezeOut() != isWithFreezeOut(overrideContexts)) {
+			List<FreezeableNeuronsActivationContext<?>> added = new ArrayList<>(remaining);
+			added.add(context);
+			remaining = Collections.unmodifiableList(added);
 		}
+		return tidySelf(remaining);
 	}
 
 	@Override
 	public AxonsContext withFreezeOut(boolean withFreezeOut) {
-		synchronized (freezeOutOverrideContexts) {
-			this.localFreezeOut = withFreezeOut;
-			if (!freezeOutOverrideContexts.isEmpty()) {
-				if (withFreezeOut) {
-					addFreezeoutOverrideContext(this);
-				} else {
-					removeFreezeoutOverrideContext(this);
-				}
+		this.localFreezeOut = withFreezeOut;
+		freezeOutOverrideContexts.updateAndGet(overrideContexts -> {
+			if (overrideContexts.isEmpty()) {
+				return overrideContexts;
 			}
-			tidySelf();
-			return this;
-		}
+			return withFreezeOut ? withOverride(overrideContexts, this)
+					: tidySelf(without(overrideContexts, this));
+		});
+		return this;
 	}
 
 	@Override
@@ -112,6 +160,11 @@ public class AxonsContextImpl extends NeuronsActivationContextImpl implements Ax
 		return regularisationLambda;
 	}
 
+	@Override
+	public BranchScheduler getBranchScheduler() {
+		return branchScheduler;
+	}
+
 	@Override
 	public AxonsContext withLeftHandInputDropoutKeepProbability(float leftHandInputDropoutKeepProbability) {
 		this.leftHandInputDropoutKeepProbability = leftHandInputDropoutKeepProbability;
@@ -125,7 +178,8 @@ public class AxonsContextImpl extends NeuronsActivationContextImpl implements Ax
 	}
 
 	private List<String> getFreezeOutOverrideComponentNames() {
-		return freezeOutOverrideContexts.stream().map(c -> c.getOwningComponentName()).collect(Collectors.toList());
+		return freezeOutOverrideContexts.get().stream().map(c -> c.getOwningComponentName())
+				.collect(Collectors.toList());
 	}
 
 	@Override
@@ -139,7 +193,8 @@ public class AxonsContextImpl extends NeuronsActivationContextImpl implements Ax
 
 	@Override
 	public AxonsContext dup() {
-		return new AxonsContextImpl(axonsName, getMatrixFactory(), isTrainingContext(), isWithFreezeOut())
+		return new AxonsContextImpl(axonsName, getMatrixFactory(), isTrainingContext(), isWithFreezeOut(),
+				branchScheduler)
 				.withRegularisationLambda(regularisationLambda)
 				.withLeftHandInputDropoutKeepProbability(leftHandInputDropoutKeepProbability);
 	}
@@ -151,28 +206,18 @@ public class AxonsContextImpl extends NeuronsActivationContextImpl implements Ax
 
 	@Override
 	public void addFreezeoutOverrideContext(FreezeableNeuronsActivationContext<?> context) {
-		synchronized (freezeOutOverrideContexts) {
-			if (context.isWithFreezeOut() != this.isWithFreezeOut()) {
-				removeFreezeoutOverrideContext(context);
-				freezeOutOverrideContexts.add(context);
-			} else {
-				removeFreezeoutOverrideContext(context);
-			}
-			tidySelf();
-		}
+		freezeOutOverrideContexts.updateAndGet(overrideContexts -> withOverride(overrideContexts, context));
 	}
 
 	@Override
 	public void removeFreezeoutOverrideContext(FreezeableNeuronsActivationContext<?> context) {
-		synchronized (freezeOutOverrideContexts) {
-			freezeOutOverrideContexts.removeIf(c -> c == context);
-			tidySelf();
-		}
+		freezeOutOverrideContexts.updateAndGet(overrideContexts -> tidySelf(without(overrideContexts, context)));
 	}
 	
 	@Override
 	public AxonsContext asNonTrainingContext() {
-		AxonsContextImpl axonsContext =  new AxonsContextImpl(axonsName, getMatrixFactory(), false, localFreezeOut);
+		AxonsContextImpl axonsContext =  new AxonsContextImpl(axonsName, getMatrixFactory(), false, localFreezeOut,
+				branchScheduler);
 		axonsContext.withLeftHandInputDropoutKeepProbability(leftHandInputDropoutKeepProbability);
 		axonsContext.withRegularisationLambda(regularisationLambda);
 		axonsContext.freezeOutOverrideContexts = this.freezeOutOverrideContexts;
@@ -181,7 +226,8 @@ public class AxonsContextImpl extends NeuronsActivationContextImpl implements Ax
 
 	@Override
 	public AxonsContext asTrainingContext() {
-		AxonsContextImpl axonsContext =  new AxonsContextImpl(axonsName, getMatrixFactory(), true, localFreezeOut);
+		AxonsContextImpl axonsContext =  new AxonsContextImpl(axonsName, getMatrixFactory(), true, localFreezeOut,
+				branchScheduler);
 		axonsContext.withLeftHandInputDropoutKeepProbability(leftHandInputDropoutKeepProbability);
 		axonsContext.withRegularisationLambda(regularisationLambda);
 		axonsContext.freezeOutOverrideContexts = this.freezeOutOverrideContexts;
@@ -2,6 +2,7 @@ package org.ml4j.nn.axons;
 
 import java.util.Optional;
 
+import org.ml4j.Matrix;
 import org.ml4j.nn.neurons.Neurons;
 import org.ml4j.nn.neurons.NeuronsActivation;
 import org.ml4j.nn.neurons.format.NeuronsActivationFormat;
@@ -82,4 +83,10 @@ public class GenericTrainableAxonsAdapter<L extends Neurons, R extends Neurons>
 		return delegated.getDetachedAxonWeights();
 	}
 
+	@Override
+	public Optional<Matrix> getConnectionWeightsGradient(NeuronsActivation leftToRightInput,
+			NeuronsActivation rightToLeftInput, AxonsContext axonsContext) {
+		return delegated.getConnectionWeightsGradient(leftToRightInput, rightToLeftInput, axonsContext);
+	}
+
 }
@@ -50,11 +50,13 @@ public class ImageNeuronsActivationImpl implements ImageNeuronsActivation {
 			throw new UnsupportedOperationException("Format not yet supported:" + format);
 		}
 		this.neurons = neurons;
+		// The images outlive the activations matrix, so wrap data which closing the matrix will not release
+		float[] data = activations.softDup().getRowByRowArray();
 		if (neurons.getDepth() == 1) {
-			images = new SingleChannelImages(activations.getRowByRowArray(), 0, neurons.getHeight(), neurons.getWidth(),
+			images = new SingleChannelImages(data, 0, neurons.getHeight(), neurons.getWidth(),
 					0, 0, activations.getColumns());
 		} else {
-			images = new MultiChannelImages(activations.getRowByRowArray(), neurons.getDepth(), neurons.getHeight(),
+			images = new MultiChannelImages(data, neurons.getDepth(), neurons.getHeight(),
 					neurons.getWidth(), 0, 0, activations.getColumns());
 		}
 		setImmutable(immutable);
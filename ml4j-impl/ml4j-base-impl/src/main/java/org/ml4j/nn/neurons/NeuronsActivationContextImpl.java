@@ -31,11 +31,28 @@ public class NeuronsActivationContextImpl implements NeuronsActivationContext {
 	private transient InheritableThreadLocal<MatrixFactory> matrixFactory;
 	private transient InheritableThreadLocal<Boolean> isTrainingContext;
 
+	// The values most recently set, seen by threads which have not set their own -
+	// such as pooled threads created before this context
+	private transient volatile MatrixFactory defaultMatrixFactory;
+	private transient volatile Boolean defaultIsTrainingContext;
+
 	public NeuronsActivationContextImpl(MatrixFactory matrixFactory, boolean isTrainingContext) {
-		this.matrixFactory = new InheritableThreadLocal<>();
-		this.matrixFactory.set(matrixFactory);
-		this.isTrainingContext = new InheritableThreadLocal<>();
-		this.isTrainingContext.set(isTrainingContext);
+		this.defaultMatrixFactory = matrixFactory;
+		this.defaultIsTrainingContext = isTrainingContext;
+		this.matrixFactory = new InheritableThreadLocal<MatrixFactory>() {
+
+			@Override
+			protected MatrixFactory initialValue() {
+				return defaultMatrixFactory;
+			}
+		};
+		this.isTrainingContext = new InheritableThreadLocal<Boolean>() {
+
+			@Override
+			protected Boolean initialValue() {
+				return defaultIsTrainingContext;
+			}
+		};
 	}
 
 	@Override
@@ -50,11 +67,13 @@ public class NeuronsActivationContextImpl implements NeuronsActivationContext {
 
 	@Override
 	public void setMatrixFactory(MatrixFactory matrixFactory) {
+		this.defaultMatrixFactory = matrixFactory;
 		this.matrixFactory.set(matrixFactory);
 	}
 
 	@Override
 	public void setTrainingContext(Boolean trainingContext) {
+		this.defaultIsTrainingContext = trainingContext;
 		this.isTrainingContext.set(trainingContext);
 	}
 
@@ -1,6 +1,7 @@
 package org.ml4j.nn.neurons;
 
 import org.ml4j.EditableMatrix;
+import org.ml4j.FloatArrayKernel;
 import org.ml4j.FloatModifier;
 import org.ml4j.FloatPredicate;
 import org.ml4j.InterrimMatrix;
@@ -77,6 +78,10 @@ public class NeuronsActivationImpl implements NeuronsActivation {
 	@Override
 	public void applyValueModifier(FloatModifier modifier) {
 		EditableMatrix editableActivations = activations.asEditableMatrix();
+		if (modifier instanceof FloatArrayKernel) {
+			editableActivations.applyi((FloatArrayKernel) modifier);
+			return;
+		}
 		for (int i = 0; i < activations.getLength(); i++) {
 			editableActivations.put(i, modifier.acceptAndModify(activations.get(i)));
 		}
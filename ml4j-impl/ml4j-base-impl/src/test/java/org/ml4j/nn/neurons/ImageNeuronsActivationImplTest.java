@@ -0,0 +1,37 @@
+package org.ml4j.nn.neurons;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.ml4j.MatrixFactory;
+import org.ml4j.floatarray.PooledFloatArrayFactory;
+import org.ml4j.jblas.JBlasRowMajorMatrixFactory;
+import org.ml4j.jblas.PooledFloatMatrixFactory;
+import org.ml4j.nn.neurons.format.ImageNeuronsActivationFormat;
+import org.ml4j.nn.neurons.format.features.DimensionScope;
+
+public class ImageNeuronsActivationImplTest {
+
+	private PooledFloatArrayFactory floatArrayFactory;
+	private MatrixFactory matrixFactory;
+
+	@BeforeEach
+	public void setUp() {
+		floatArrayFactory = new PooledFloatArrayFactory(4, 2, 2);
+		matrixFactory = new JBlasRowMajorMatrixFactory(new PooledFloatMatrixFactory(floatArrayFactory),
+				floatArrayFactory);
+	}
+
+	@Test
+	public void testImageViewDataIsNotReleasedWhenActivationIsClosed() {
+		Neurons3D neurons = new Neurons3D(2, 2, 2, false);
+		NeuronsActivation activation = new NeuronsActivationImpl(neurons, matrixFactory.createOnes(8, 4).mul(2f),
+				ImageNeuronsActivationFormat.ML4J_DEFAULT_IMAGE_FORMAT);
+		ImageNeuronsActivation imageActivation = activation.asImageNeuronsActivation(neurons, DimensionScope.ANY);
+		activation.close();
+		Assertions.assertEquals(0, floatArrayFactory.getReleaseCount());
+
+		matrixFactory.createZeros(8, 4);
+		Assertions.assertEquals(64f, imageActivation.getActivations(new JBlasRowMajorMatrixFactory()).sum());
+	}
+}
@@ -67,9 +67,9 @@ public class LabeledDataSetImpl<E, L> implements LabeledDataSet<E, L> {
 	@Override
 	public BatchedLabeledDataSet<E, L> toBatchedLabeledDataSet(int batchSize) {
 
-		Stream<DataBatch<LabeledData<E, L>>> dataBatchStream = StreamUtil.partition(stream(), batchSize);
-
-		return new BatchedLabeledDataSetImpl<E, L>(() -> dataBatchStream.map(batchOfLabeledData -> batchOfLabeledData));
+		// Partition a new stream each time the batches are streamed, so the batches
+		// can be streamed once per epoch
+		return new BatchedLabeledDataSetImpl<E, L>(() -> StreamUtil.partition(stream(), batchSize));
 	}
 
 	@Override
@@ -0,0 +1,157 @@
+/*
+ * Copyright 2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.ml4j.nn.datasets;
+
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import java.util.function.ToIntFunction;
+import java.util.stream.Stream;
+
+import org.ml4j.nn.datasets.util.StreamUtil;
+
+/**
+ * Samples the examples of a labeled data set in a new order each time it is
+ * streamed, so that each epoch of training sees differently composed batches.
+ *
+ * Examples are shuffled with a buffer of bounded size, and can optionally be
+ * stratified by label so that each batch has close to the class proportions of
+ * the data set. The order of each epoch is determined by the seed and the
+ * number of epochs sampled before it.
+ *
+ * Batches of sampled examples can be emitted in parallel with their
+ * consumption, by a background producer which samples and assembles the next
+ * batches while the consumer trains on earlier ones.
+ *
+ * For example, to stratify one-hot labels for batches of 32:
+ *
+ * <pre>
+ * new LabeledDataSetSampler&lt;float[], float[]&gt;(seed).withShuffleBufferSize(10000)
+ * 		.withStratification(labelMapper::getClassIndex, 10000).withParallelBatchEmission(4)
+ * 		.toBatchedLabeledDataSet(dataSet, 32)
+ * </pre>
+ *
+ * @author Michael Lavelle
+ */
+public class LabeledDataSetSampler<E, L> {
+
+	private long seed;
+	private int shuffleBufferSize;
+	private ToIntFunction<L> classIndex;
+	private int stratificationBufferSize;
+	private int batchQueueDepth;
+	private AtomicLong epoch;
+
+	public LabeledDataSetSampler(long seed) {
+		this.seed = seed;
+		this.epoch = new AtomicLong();
+	}
+
+	/**
+	 * @param shuffleBufferSize The maximum number of examples to buffer when
+	 *                          shuffling, or 0 to leave examples in stream order.
+	 * @return This sampler.
+	 */
+	public LabeledDataSetSampler<E, L> withShuffleBufferSize(int shuffleBufferSize) {
+		if (shuffleBufferSize < 0) {
+			throw new IllegalArgumentException("Shuffle buffer size must not be negative");
+		}
+		this.shuffleBufferSize = shuffleBufferSize;
+		return this;
+	}
+
+	/**
+	 * @param classIndex The class index of a label - for one-hot labels this is
+	 *                   SoftmaxClassIndexLabelMapper::getClassIndex.
+	 * @param bufferSize The maximum number of examples to buffer when
+	 *                   stratifying.
+	 * @return This sampler.
+	 */
+	public LabeledDataSetSampler<E, L> withStratification(ToIntFunction<L> classIndex, int bufferSize) {
+		if (bufferSize <= 0) {
+			throw new IllegalArgumentException("Stratification buffer size must be positive");
+		}
+		this.classIndex = classIndex;
+		this.stratificationBufferSize = bufferSize;
+		return this;
+	}
+
+	/**
+	 * @param batchQueueDepth The maximum number of batches to emit ahead of the
+	 *                        consumer from a background producer, or 0 to emit
+	 *                        batches on the consuming thread.
+	 * @return This sampler.
+	 */
+	public LabeledDataSetSampler<E, L> withParallelBatchEmission(int batchQueueDepth) {
+		if (batchQueueDepth < 0) {
+			throw new IllegalArgumentException("Batch queue depth must not be negative");
+		}
+		this.batchQueueDepth = batchQueueDepth;
+		return this;
+	}
+
+	/**
+	 * @param labeledDataSet The data set to sample.
+	 * @param batchSize      The maximum number of examples in each batch.
+	 * @return The batches of the sampled examples of the data set, sampled in a
+	 *         new order each time the batches are streamed.
+	 */
+	public BatchedLabeledDataSet<E, L> toBatchedLabeledDataSet(LabeledDataSet<E, L> labeledDataSet,
+			int batchSize) {
+		if (batchSize <= 0) {
+			throw new IllegalArgumentException("Batch size must be positive");
+		}
+		Supplier<Stream<DataBatch<LabeledData<E, L>>>> batches = () -> StreamUtil
+				.partition(sample(labeledDataSet.stream()), batchSize);
+		if (batchQueueDepth > 0) {
+			return new BatchedLabeledDataSetImpl<>(() -> StreamUtil.prefetch(batches, batchQueueDepth));
+		} else {
+			return new BatchedLabeledDataSetImpl<>(batches);
+		}
+	}
+
+	/**
+	 * @param labeledDataSet The data set to sample.
+	 * @return Supplier of the sampled examples of the data set, in a new order
+	 *         each time a stream is supplied.
+	 */
+	public Supplier<Stream<LabeledData<E, L>>> sample(LabeledDataSet<E, L> labeledDataSet) {
+		return () -> sample(labeledDataSet.stream());
+	}
+
+	/**
+	 * @param labeledData The examples of one epoch.
+	 * @return The sampled examples for the epoch.
+	 */
+	public Stream<LabeledData<E, L>> sample(Stream<LabeledData<E, L>> labeledData) {
+		Random random = new Random(seed * 31 + epoch.getAndIncrement());
+		Stream<LabeledData<E, L>> sampled = labeledData;
+		if (shuffleBufferSize > 0) {
+			sampled = StreamUtil.shuffle(sampled, shuffleBufferSize, random);
+		}
+		if (classIndex != null) {
+			// Stratify after shuffling, which would otherwise undo the stratification
+			sampled = StreamUtil.stratify(sampled, l -> classIndex.applyAsInt(l.getLabel()),
+					stratificationBufferSize, random);
+		}
+		return sampled;
+	}
+
+	/**
+	 * @return The number of epochs sampled so far.
+	 */
+	public long getEpoch() {
+		return epoch.get();
+	}
+}
@@ -28,6 +28,23 @@ public class SoftmaxClassIndexLabelMapper implements FeatureExtractor<Integer> {
 		return floatArray;
 	}
 
+	/**
+	 * @param features The softmax features of a label.
+	 * @return The index of the class with the greatest activation.
+	 */
+	public int getClassIndex(float[] features) {
+		if (features.length != totalClasses) {
+			throw new IllegalArgumentException("Expected " + totalClasses + " features but found " + features.length);
+		}
+		int classIndex = 0;
+		for (int i = 1; i < features.length; i++) {
+			if (features[i] > features[classIndex]) {
+				classIndex = i;
+			}
+		}
+		return classIndex;
+	}
+
 	@Override
 	public int getFeatureCount() {
 		return totalClasses;
@@ -0,0 +1,150 @@
+/*
+ * Copyright 2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.ml4j.nn.datasets.floatarray;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+
+/**
+ * The fixed length header of the binary labeled float array format.
+ *
+ * The header is followed by one record per example, each record being the
+ * features of the example followed by its label features, as contiguous little
+ * endian floats.
+ *
+ * @author Michael Lavelle
+ */
+public class FloatArrayBinaryHeader {
+
+	/**
+	 * The length of the header in bytes, chosen so that records are aligned.
+	 */
+	public static final int HEADER_LENGTH = 32;
+
+	/**
+	 * The byte order of the header and records.
+	 */
+	public static final ByteOrder BYTE_ORDER = ByteOrder.LITTLE_ENDIAN;
+
+	private static final int MAGIC = 0x4D4C344A;
+	private static final int VERSION = 1;
+	private static final int FLOAT32_DTYPE = 1;
+
+	private int featureCount;
+	private int labelFeatureCount;
+	private long exampleCount;
+
+	public FloatArrayBinaryHeader(int featureCount, int labelFeatureCount, long exampleCount) {
+		this.featureCount = featureCount;
+		this.labelFeatureCount = labelFeatureCount;
+		this.exampleCount = exampleCount;
+		if (featureCount <= 0) {
+			throw new IllegalArgumentException("Feature count must be positive");
+		}
+		if (labelFeatureCount <= 0) {
+			throw new IllegalArgumentException("Label feature count must be positive");
+		}
+		if (exampleCount < 0) {
+			throw new IllegalArgumentException("Example count must not be negative");
+		}
+	}
+
+	public int getFeatureCount() {
+		return featureCount;
+	}
+
+	public int getLabelFeatureCount() {
+		return labelFeatureCount;
+	}
+
+	public long getExampleCount() {
+		return exampleCount;
+	}
+
+	/**
+	 * @return The number of floats in each record.
+	 */
+	public int getRecordLength() {
+		return featureCount + labelFeatureCount;
+	}
+
+	/**
+	 * @return The number of bytes in each record.
+	 */
+	public int getRecordBytes() {
+		return getRecordLength() * Float.BYTES;
+	}
+
+	/**
+	 * Read the header from the start of the channel.
+	 *
+	 * @param channel The channel.
+	 * @return The header.
+	 * @throws IOException If the header cannot be read, or is not a header of
+	 *                     this format.
+	 */
+	public static FloatArrayBinaryHeader read(FileChannel channel) throws IOException {
+		ByteBuffer buffer = ByteBuffer.allocate(HEADER_LENGTH).order(BYTE_ORDER);
+		while (buffer.hasRemaining()) {
+			if (channel.read(buffer, buffer.position()) < 0) {
+				throw new IOException("Truncated header");
+			}
+		}
+		buffer.flip();
+		if (buffer.getInt() != MAGIC) {
+			throw new IOException("Not a binary float array data set");
+		}
+		int version = buffer.getInt();
+		if (version != VERSION) {
+			throw new IOException("Unsupported version:" + version);
+		}
+		int dtype = buffer.getInt();
+		if (dtype != FLOAT32_DTYPE) {
+			throw new IOException("Unsupported dtype:" + dtype);
+		}
+		int featureCount = buffer.getInt();
+		int labelFeatureCount = buffer.getInt();
+		buffer.getInt();
+		long exampleCount = buffer.getLong();
+		FloatArrayBinaryHeader header = new FloatArrayBinaryHeader(featureCount, labelFeatureCount, exampleCount);
+		if (channel.size() < HEADER_LENGTH + exampleCount * header.getRecordBytes()) {
+			throw new IOException("Truncated records");
+		}
+		return header;
+	}
+
+	/**
+	 * Write the header to the start of the channel.
+	 *
+	 * @param channel The channel.
+	 * @throws IOException If the header cannot be written.
+	 */
+	public void write(FileChannel channel) throws IOException {
+		ByteBuffer buffer = ByteBuffer.allocate(HEADER_LENGTH).order(BYTE_ORDER);
+		buffer.putInt(MAGIC).putInt(VERSION).putInt(FLOAT32_DTYPE).putInt(featureCount).putInt(labelFeatureCount)
+				.putInt(0).putLong(exampleCount);
+		buffer.flip();
+		while (buffer.hasRemaining()) {
+			channel.write(buffer, buffer.position());
+		}
+	}
+
+	@Override
+	public String toString() {
+		return "FloatArrayBinaryHeader [featureCount=" + featureCount + ", labelFeatureCount=" + labelFeatureCount
+				+ ", exampleCount=" + exampleCount + "]";
+	}
+}
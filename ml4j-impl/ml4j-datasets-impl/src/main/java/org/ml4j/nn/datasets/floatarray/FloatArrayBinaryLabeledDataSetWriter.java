@@ -0,0 +1,137 @@
+/*
+ * Copyright 2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.ml4j.nn.datasets.floatarray;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.stream.Stream;
+
+import org.ml4j.nn.datasets.LabeledData;
+
+/**
+ * Writes labeled float arrays in the binary format described by
+ * FloatArrayBinaryHeader, for reading by FloatArrayMappedLabeledDataSetImpl.
+ *
+ * The example count in the header is written when the writer is closed.
+ *
+ * @author Michael Lavelle
+ */
+public class FloatArrayBinaryLabeledDataSetWriter implements Closeable {
+
+	private static final int BUFFER_BYTES = 1 << 20;
+
+	private FileChannel channel;
+	private ByteBuffer buffer;
+	private int featureCount;
+	private int labelFeatureCount;
+	private long exampleCount;
+
+	public FloatArrayBinaryLabeledDataSetWriter(File file, int featureCount, int labelFeatureCount)
+			throws IOException {
+		// Validate the counts before creating the file
+		new FloatArrayBinaryHeader(featureCount, labelFeatureCount, 0);
+		this.featureCount = featureCount;
+		this.labelFeatureCount = labelFeatureCount;
+		this.channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+				StandardOpenOption.TRUNCATE_EXISTING);
+		this.channel.position(FloatArrayBinaryHeader.HEADER_LENGTH);
+		this.buffer = ByteBuffer.allocateDirect(BUFFER_BYTES).order(FloatArrayBinaryHeader.BYTE_ORDER);
+	}
+
+	/**
+	 * Append an example.
+	 *
+	 * @param data  The features of the example.
+	 * @param label The label features of the example.
+	 * @throws IOException If the example cannot be written.
+	 */
+	public void write(float[] data, float[] label) throws IOException {
+		if (channel == null) {
+			throw new IllegalStateException("Writer has been closed");
+		}
+		if (data.length != featureCount) {
+			throw new IllegalArgumentException("Expected " + featureCount + " features but found " + data.length);
+		}
+		if (label.length != labelFeatureCount) {
+			throw new IllegalArgumentException(
+					"Expected " + labelFeatureCount + " label features but found " + label.length);
+		}
+		put(data);
+		put(label);
+		exampleCount++;
+	}
+
+	/**
+	 * Append each of the examples of a stream.
+	 *
+	 * @param labeledData The examples.
+	 * @throws IOException If an example cannot be written.
+	 */
+	public void write(Stream<LabeledData<float[], float[]>> labeledData) throws IOException {
+		try {
+			labeledData.forEach(l -> {
+				try {
+					write(l.getData(), l.getLabel());
+				} catch (IOException e) {
+					throw new UncheckedIOException(e);
+				}
+			});
+		} catch (UncheckedIOException e) {
+			throw e.getCause();
+		}
+	}
+
+	public long getExampleCount() {
+		return exampleCount;
+	}
+
+	private void put(float[] values) throws IOException {
+		int offset = 0;
+		while (offset < values.length) {
+			if (buffer.remaining() < Float.BYTES) {
+				flush();
+			}
+			int count = Math.min(values.length - offset, buffer.remaining() / Float.BYTES);
+			buffer.asFloatBuffer().put(values, offset, count);
+			buffer.position(buffer.position() + count * Float.BYTES);
+			offset += count;
+		}
+	}
+
+	private void flush() throws IOException {
+		buffer.flip();
+		while (buffer.hasRemaining()) {
+			channel.write(buffer);
+		}
+		buffer.clear();
+	}
+
+	@Override
+	public void close() throws IOException {
+		if (channel != null) {
+			try {
+				flush();
+				new FloatArrayBinaryHeader(featureCount, labelFeatureCount, exampleCount).write(channel);
+			} finally {
+				channel.close();
+				channel = null;
+			}
+		}
+	}
+}
@@ -13,6 +13,7 @@
  */
 package org.ml4j.nn.datasets.floatarray;
 
+import java.util.Arrays;
 import java.util.stream.Stream;
 
 import org.ml4j.Matrix;
@@ -24,8 +25,6 @@ import org.ml4j.nn.neurons.NeuronsActivationFeatureOrientation;
 import org.ml4j.nn.neurons.NeuronsActivationImpl;
 import org.ml4j.nn.neurons.format.NeuronsActivationFormat;
 
-import com.codepoetics.protonpack.StreamUtils;
-
 public class FloatArrayDataBatchImpl extends DataBatchImpl<float[]> implements FloatArrayDataBatch {
 
 	private int featureCount;
@@ -56,43 +55,34 @@ public class FloatArrayDataBatchImpl extends DataBatchImpl<float[]> implements F
 	}
 
 	public Matrix getAsMatrix(MatrixFactory matrixFactory) {
-
-		Matrix data = matrixFactory.createMatrix(batchSize, featureCount);
-
-		StreamUtils.zipWithIndex(stream())
-				.forEach(d -> addToMatrix(matrixFactory, data, d.getValue(), featureCount, (int) d.getIndex()));
-
-		return data.transpose();
+		return matrixFactory.createMatrixFromColumns(featureCount, toExampleArrays());
 	}
 
-	private void addToMatrix(MatrixFactory matrixFactory, Matrix matrix, float[] data, int featureCount, int row) {
-		matrix.asEditableMatrix().putRow(row, matrixFactory.createMatrixFromRowsByRowsArray(1, featureCount, data));
+	private float[][] toExampleArrays() {
+		float[][] examples = stream().toArray(float[][]::new);
+		if (examples.length > batchSize) {
+			throw new IllegalStateException();
+		}
+		if (examples.length < batchSize) {
+			// Examples not yet added to the batch remain as zeros
+			int exampleCount = examples.length;
+			examples = Arrays.copyOf(examples, batchSize);
+			Arrays.fill(examples, exampleCount, batchSize, new float[featureCount]);
+		}
+		return examples;
 	}
 
 	@Override
 	public NeuronsActivation toNeuronsActivation(MatrixFactory matrixFactory,
 			NeuronsActivationFormat<?> format) {
 
+		// Each example is written straight into its position in the backing array
+		// of the activations, without intermediate matrices
 		Matrix dataMatrix = format.getFeatureOrientation() == NeuronsActivationFeatureOrientation.ROWS_SPAN_FEATURE_SET
-				? matrixFactory.createMatrix(featureCount, batchSize)
-				: matrixFactory.createMatrix(batchSize, featureCount);
-
-		Stream<float[]> floatStream = stream();
-		if (format.getFeatureOrientation() == NeuronsActivationFeatureOrientation.ROWS_SPAN_FEATURE_SET) {
-			StreamUtils.zipWithIndex(floatStream)
-					.forEach(e -> dataMatrix.asEditableMatrix().putColumn((int) e.getIndex(),
-							matrixFactory.createMatrixFromRowsByRowsArray(featureCount, 1, e.getValue())));
-			return new NeuronsActivationImpl(new Neurons(dataMatrix.getRows(), false), dataMatrix, format);
-
-		} else {
-			StreamUtils.zipWithIndex(floatStream).forEach(e -> dataMatrix.asEditableMatrix().putRow((int) e.getIndex(),
-					matrixFactory.createMatrixFromRowsByRowsArray(featureCount, 1, e.getValue())));
-
-			return new NeuronsActivationImpl(new Neurons(dataMatrix.getColumns(), false), dataMatrix,
-					format);
-
-		}
+				? matrixFactory.createMatrixFromColumns(featureCount, toExampleArrays())
+				: matrixFactory.createMatrixFromRows(featureCount, toExampleArrays());
 
+		return new NeuronsActivationImpl(new Neurons(featureCount, false), dataMatrix, format);
 	}
 
 }
@@ -0,0 +1,109 @@
+/*
+ * Copyright 2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.ml4j.nn.datasets.floatarray;
+
+import java.nio.FloatBuffer;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import org.ml4j.Matrix;
+import org.ml4j.MatrixFactory;
+import org.ml4j.nn.datasets.DataBatch;
+import org.ml4j.nn.datasets.DataBatchImpl;
+import org.ml4j.nn.datasets.LabeledData;
+import org.ml4j.nn.datasets.LabeledDataImpl;
+import org.ml4j.nn.neurons.Neurons;
+import org.ml4j.nn.neurons.NeuronsActivation;
+import org.ml4j.nn.neurons.NeuronsActivationFeatureOrientation;
+import org.ml4j.nn.neurons.NeuronsActivationImpl;
+import org.ml4j.nn.neurons.format.NeuronsActivationFormat;
+
+/**
+ * A batch of examples backed by a view of their records, which are only copied
+ * when the batch is converted to float arrays or to activations.
+ *
+ * @author Michael Lavelle
+ */
+class FloatArrayMappedBatch {
+
+	private FloatBuffer records;
+	private int size;
+	private int featureCount;
+	private int labelFeatureCount;
+
+	FloatArrayMappedBatch(FloatBuffer records, int size, int featureCount, int labelFeatureCount) {
+		this.records = records;
+		this.size = size;
+		this.featureCount = featureCount;
+		this.labelFeatureCount = labelFeatureCount;
+		if (records.remaining() != size * (featureCount + labelFeatureCount)) {
+			throw new IllegalArgumentException();
+		}
+	}
+
+	int size() {
+		return size;
+	}
+
+	LabeledData<float[], float[]> get(int index) {
+		FloatBuffer record = records.duplicate();
+		record.position(index * (featureCount + labelFeatureCount));
+		float[] data = new float[featureCount];
+		float[] label = new float[labelFeatureCount];
+		record.get(data);
+		record.get(label);
+		return new LabeledDataImpl<>(data, label);
+	}
+
+	Stream<LabeledData<float[], float[]>> stream() {
+		return IntStream.range(0, size).mapToObj(this::get);
+	}
+
+	DataBatch<LabeledData<float[], float[]>> toDataBatch() {
+		return new DataBatchImpl<>(stream(), size);
+	}
+
+	LabeledData<NeuronsActivation, NeuronsActivation> toNeuronsActivations(MatrixFactory matrixFactory,
+			NeuronsActivationFormat<?> format) {
+		return new LabeledDataImpl<>(toNeuronsActivation(matrixFactory, format, 0, featureCount),
+				toNeuronsActivation(matrixFactory, format, featureCount, labelFeatureCount));
+	}
+
+	/**
+	 * Copy a range of features of each record directly into the activations.
+	 */
+	private NeuronsActivation toNeuronsActivation(MatrixFactory matrixFactory, NeuronsActivationFormat<?> format,
+			int offset, int count) {
+		int recordLength = featureCount + labelFeatureCount;
+		float[] values = new float[size * count];
+		if (format.getFeatureOrientation() == NeuronsActivationFeatureOrientation.ROWS_SPAN_FEATURE_SET) {
+			for (int e = 0; e < size; e++) {
+				int recordOffset = e * recordLength + offset;
+				for (int f = 0; f < count; f++) {
+					values[f * size + e] = records.get(recordOffset + f);
+				}
+			}
+			Matrix activations = matrixFactory.createMatrixFromRowsByRowsArray(count, size, values);
+			return new NeuronsActivationImpl(new Neurons(count, false), activations, format);
+		} else {
+			FloatBuffer record = records.duplicate();
+			for (int e = 0; e < size; e++) {
+				record.position(e * recordLength + offset);
+				record.get(values, e * count, count);
+			}
+			Matrix activations = matrixFactory.createMatrixFromRowsByRowsArray(size, count, values);
+			return new NeuronsActivationImpl(new Neurons(count, false), activations, format);
+		}
+	}
+}
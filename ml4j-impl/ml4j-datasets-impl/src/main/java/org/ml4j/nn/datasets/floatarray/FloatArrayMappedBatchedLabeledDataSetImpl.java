@@ -0,0 +1,47 @@
+/*
+ * Copyright 2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.ml4j.nn.datasets.floatarray;
+
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+import org.ml4j.MatrixFactory;
+import org.ml4j.nn.datasets.neuronsactivation.NeuronsActivationLabeledDataSet;
+import org.ml4j.nn.datasets.neuronsactivation.NeuronsActivationLabeledDataSetImpl;
+import org.ml4j.nn.neurons.format.NeuronsActivationFormat;
+
+/**
+ * Batches of a memory mapped data set, which are converted to activations
+ * directly from the mapped records without intermediate float arrays.
+ *
+ * @author Michael Lavelle
+ */
+class FloatArrayMappedBatchedLabeledDataSetImpl extends FloatArrayBatchedLabeledDataSetImpl {
+
+	private Supplier<Stream<FloatArrayMappedBatch>> batchSupplier;
+
+	FloatArrayMappedBatchedLabeledDataSetImpl(Supplier<Stream<FloatArrayMappedBatch>> batchSupplier,
+			int featureCount, int labelFeatureCount) {
+		super(() -> batchSupplier.get().map(FloatArrayMappedBatch::toDataBatch), featureCount, labelFeatureCount);
+		this.batchSupplier = batchSupplier;
+	}
+
+	@Override
+	public NeuronsActivationLabeledDataSet toNeuronsActivationLabeledDataSet(MatrixFactory matrixFactory,
+			NeuronsActivationFormat<?> format) {
+		return new NeuronsActivationLabeledDataSetImpl(
+				() -> batchSupplier.get().map(batch -> batch.toNeuronsActivations(matrixFactory, format)));
+	}
+
+}
@@ -0,0 +1,119 @@
+/*
+ * Copyright 2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.ml4j.nn.datasets.floatarray;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.FloatBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * A read-only memory mapping of the records of a binary labeled float array
+ * file.
+ *
+ * As a single mapping is limited to 2GB the records are mapped as a sequence
+ * of chunks, each of a whole number of records, which are mapped on first use
+ * and then shared by all views of the file.
+ *
+ * @author Michael Lavelle
+ */
+class FloatArrayMappedFile {
+
+	static final long DEFAULT_MAXIMUM_CHUNK_BYTES = Integer.MAX_VALUE;
+
+	private File file;
+	private FloatArrayBinaryHeader header;
+	private long examplesPerChunk;
+	private FloatBuffer[] chunks;
+
+	FloatArrayMappedFile(File file, long maximumChunkBytes) {
+		this.file = file;
+		try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+			this.header = FloatArrayBinaryHeader.read(channel);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+		this.examplesPerChunk = Math.min(maximumChunkBytes, DEFAULT_MAXIMUM_CHUNK_BYTES) / header.getRecordBytes();
+		if (examplesPerChunk == 0) {
+			throw new IllegalArgumentException("Records of " + header.getRecordBytes() + " bytes are too large to map");
+		}
+		long chunkCount = (header.getExampleCount() + examplesPerChunk - 1) / examplesPerChunk;
+		this.chunks = new FloatBuffer[(int) chunkCount];
+	}
+
+	FloatArrayBinaryHeader getHeader() {
+		return header;
+	}
+
+	/**
+	 * Obtain the records of a contiguous range of examples.
+	 *
+	 * @param firstExample The index of the first example.
+	 * @param exampleCount The number of examples.
+	 * @return A view of the records within the mapping, or a copy of the records
+	 *         if the range spans more than one chunk.
+	 */
+	FloatBuffer getRecords(long firstExample, int exampleCount) {
+		int recordLength = header.getRecordLength();
+		if ((long) exampleCount * recordLength > Integer.MAX_VALUE) {
+			throw new IllegalArgumentException("Too many examples requested:" + exampleCount);
+		}
+		int offset = (int) (firstExample % examplesPerChunk);
+		if (offset + exampleCount <= examplesPerChunk) {
+			return slice(getChunk((int) (firstExample / examplesPerChunk)), offset * recordLength,
+					exampleCount * recordLength);
+		}
+		FloatBuffer records = FloatBuffer.allocate(exampleCount * recordLength);
+		long example = firstExample;
+		int remaining = exampleCount;
+		while (remaining > 0) {
+			offset = (int) (example % examplesPerChunk);
+			int count = (int) Math.min(remaining, examplesPerChunk - offset);
+			records.put(slice(getChunk((int) (example / examplesPerChunk)), offset * recordLength,
+					count * recordLength));
+			example += count;
+			remaining -= count;
+		}
+		records.flip();
+		return records;
+	}
+
+	private FloatBuffer slice(FloatBuffer chunk, int position, int length) {
+		FloatBuffer view = chunk.duplicate();
+		view.position(position);
+		view.limit(position + length);
+		return view.slice();
+	}
+
+	private synchronized FloatBuffer getChunk(int chunkIndex) {
+		if (chunks[chunkIndex] == null) {
+			long firstExample = chunkIndex * examplesPerChunk;
+			long exampleCount = Math.min(examplesPerChunk, header.getExampleCount() - firstExample);
+			try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+				// The mapping remains valid once the channel is closed
+				chunks[chunkIndex] = channel
+						.map(MapMode.READ_ONLY,
+								FloatArrayBinaryHeader.HEADER_LENGTH + firstExample * header.getRecordBytes(),
+								exampleCount * header.getRecordBytes())
+						.order(FloatArrayBinaryHeader.BYTE_ORDER).asFloatBuffer();
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		}
+		return chunks[chunkIndex];
+	}
+}
@@ -0,0 +1,148 @@
+/*
+ * Copyright 2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.ml4j.nn.datasets.floatarray;
+
+import java.io.File;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+import org.ml4j.nn.datasets.DataSet;
+import org.ml4j.nn.datasets.DataSetImpl;
+import org.ml4j.nn.datasets.FeatureExtractionErrorMode;
+import org.ml4j.nn.datasets.FeatureExtractor;
+import org.ml4j.nn.datasets.LabeledData;
+
+/**
+ * A labeled data set read from a file written by
+ * FloatArrayBinaryLabeledDataSetWriter, which is memory mapped rather than
+ * deserialized.
+ *
+ * Examples can be accessed randomly by index, and contiguous ranges of
+ * examples can be taken as data sets in their own right to shard the file
+ * without reading it. Batches are views of the mapped records, which are
+ * copied only once when converted to activations.
+ *
+ * @author Michael Lavelle
+ */
+public class FloatArrayMappedLabeledDataSetImpl implements FloatArrayLabeledDataSet {
+
+	private FloatArrayMappedFile mappedFile;
+	private int featureCount;
+	private int labelFeatureCount;
+	private long firstExample;
+	private long exampleCount;
+
+	public FloatArrayMappedLabeledDataSetImpl(File file) {
+		this(file, FloatArrayMappedFile.DEFAULT_MAXIMUM_CHUNK_BYTES);
+	}
+
+	FloatArrayMappedLabeledDataSetImpl(File file, long maximumChunkBytes) {
+		this(new FloatArrayMappedFile(file, maximumChunkBytes), 0, -1);
+	}
+
+	private FloatArrayMappedLabeledDataSetImpl(FloatArrayMappedFile mappedFile, long firstExample,
+			long exampleCount) {
+		this.mappedFile = mappedFile;
+		this.featureCount = mappedFile.getHeader().getFeatureCount();
+		this.labelFeatureCount = mappedFile.getHeader().getLabelFeatureCount();
+		this.firstExample = firstExample;
+		this.exampleCount = exampleCount < 0 ? mappedFile.getHeader().getExampleCount() : exampleCount;
+	}
+
+	public int getFeatureCount() {
+		return featureCount;
+	}
+
+	public int getLabelFeatureCount() {
+		return labelFeatureCount;
+	}
+
+	public long getExampleCount() {
+		return exampleCount;
+	}
+
+	/**
+	 * @param index The index of the example within this data set.
+	 * @return The example.
+	 */
+	public LabeledData<float[], float[]> get(long index) {
+		if (index < 0 || index >= exampleCount) {
+			throw new IndexOutOfBoundsException("Index:" + index + ", Size:" + exampleCount);
+		}
+		return getBatch(index, 1).get(0);
+	}
+
+	/**
+	 * @param fromExample The index of the first example of the range, inclusive.
+	 * @param toExample   The index of the last example of the range, exclusive.
+	 * @return A data set of the range of examples, sharing this data set's
+	 *         mapping.
+	 */
+	public FloatArrayMappedLabeledDataSetImpl getRange(long fromExample, long toExample) {
+		if (fromExample < 0 || toExample > exampleCount || fromExample > toExample) {
+			throw new IllegalArgumentException(
+					"Invalid range:" + fromExample + " to " + toExample + " of " + exampleCount + " examples");
+		}
+		return new FloatArrayMappedLabeledDataSetImpl(mappedFile, firstExample + fromExample,
+				toExample - fromExample);
+	}
+
+	private FloatArrayMappedBatch getBatch(long index, int size) {
+		return new FloatArrayMappedBatch(mappedFile.getRecords(firstExample + index, size), size, featureCount,
+				labelFeatureCount);
+	}
+
+	private Stream<FloatArrayMappedBatch> batches(int batchSize) {
+		long batchCount = (exampleCount + batchSize - 1) / batchSize;
+		return LongStream.range(0, batchCount).mapToObj(
+				b -> getBatch(b * batchSize, (int) Math.min(batchSize, exampleCount - b * batchSize)));
+	}
+
+	@Override
+	public DataSet<float[]> getDataSet() {
+		return new DataSetImpl<>(() -> stream().map(l -> l.getData()));
+	}
+
+	@Override
+	public DataSet<float[]> getLabelsSet() {
+		return new DataSetImpl<>(() -> stream().map(l -> l.getLabel()));
+	}
+
+	@Override
+	public Stream<float[]> getLabels() {
+		return stream().map(l -> l.getLabel());
+	}
+
+	@Override
+	public Stream<LabeledData<float[], float[]>> stream() {
+		return LongStream.range(0, exampleCount).mapToObj(this::get);
+	}
+
+	@Override
+	public FloatArrayBatchedLabeledDataSet toBatchedLabeledDataSet(int batchSize) {
+		if (batchSize <= 0) {
+			throw new IllegalArgumentException("Batch size must be positive");
+		}
+		return new FloatArrayMappedBatchedLabeledDataSetImpl(() -> batches(batchSize), featureCount,
+				labelFeatureCount);
+	}
+
+	@Override
+	public FloatArrayLabeledDataSet toFloatArrayLabeledDataSet(FeatureExtractor<float[]> featureExtractor,
+			FeatureExtractor<float[]> labelMapper, FeatureExtractionErrorMode featureExtractionErrorMode) {
+		return new FloatArrayLabeledDataSetImpl(this::stream, featureCount, labelFeatureCount)
+				.toFloatArrayLabeledDataSet(featureExtractor, labelMapper, featureExtractionErrorMode);
+	}
+
+}
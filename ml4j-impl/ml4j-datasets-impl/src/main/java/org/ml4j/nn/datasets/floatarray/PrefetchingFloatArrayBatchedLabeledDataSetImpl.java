@@ -0,0 +1,106 @@
+/*
+ * Copyright 2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.ml4j.nn.datasets.floatarray;
+
+import java.util.concurrent.Executor;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+import org.ml4j.MatrixFactory;
+import org.ml4j.nn.datasets.BatchedDataSet;
+import org.ml4j.nn.datasets.BatchedDataSetImpl;
+import org.ml4j.nn.datasets.DataBatch;
+import org.ml4j.nn.datasets.FeatureExtractionErrorMode;
+import org.ml4j.nn.datasets.FeatureExtractor;
+import org.ml4j.nn.datasets.LabeledData;
+import org.ml4j.nn.datasets.neuronsactivation.NeuronsActivationLabeledDataSet;
+import org.ml4j.nn.datasets.neuronsactivation.NeuronsActivationLabeledDataSetImpl;
+import org.ml4j.nn.datasets.util.PrefetchingIterator;
+import org.ml4j.nn.datasets.util.StreamUtil;
+import org.ml4j.nn.neurons.format.NeuronsActivationFormat;
+
+/**
+ * Decorates a FloatArrayBatchedLabeledDataSet so that the next queueDepth
+ * batches are read, decoded and assembled into activations on a background
+ * producer while the current batch is being trained on.
+ *
+ * Each stream has its own producer, which blocks once queueDepth batches are
+ * waiting and stops when the stream is closed.
+ *
+ * @author Michael Lavelle
+ */
+public class PrefetchingFloatArrayBatchedLabeledDataSetImpl implements FloatArrayBatchedLabeledDataSet {
+
+	private FloatArrayBatchedLabeledDataSet batchedDataSet;
+	private int queueDepth;
+	private Executor executor;
+
+	public PrefetchingFloatArrayBatchedLabeledDataSetImpl(FloatArrayBatchedLabeledDataSet batchedDataSet,
+			int queueDepth) {
+		this(batchedDataSet, queueDepth, PrefetchingIterator.getDefaultExecutor());
+	}
+
+	/**
+	 * @param batchedDataSet The batched data set to prefetch.
+	 * @param queueDepth     The maximum number of batches to prefetch.
+	 * @param executor       The executor on which the producers run.
+	 */
+	public PrefetchingFloatArrayBatchedLabeledDataSetImpl(FloatArrayBatchedLabeledDataSet batchedDataSet,
+			int queueDepth, Executor executor) {
+		this.batchedDataSet = batchedDataSet;
+		this.queueDepth = queueDepth;
+		this.executor = executor;
+		if (queueDepth < 1) {
+			throw new IllegalArgumentException("Queue depth must be positive");
+		}
+	}
+
+	private <T> Stream<T> prefetch(Supplier<Stream<T>> source) {
+		return StreamUtil.prefetch(source, queueDepth, executor);
+	}
+
+	@Override
+	public Stream<DataBatch<LabeledData<float[], float[]>>> stream() {
+		return prefetch(batchedDataSet::stream);
+	}
+
+	@Override
+	public NeuronsActivationLabeledDataSet toNeuronsActivationLabeledDataSet(MatrixFactory matrixFactory,
+			NeuronsActivationFormat<?> format) {
+		return new NeuronsActivationLabeledDataSetImpl(
+				() -> prefetch(() -> batchedDataSet.toNeuronsActivationLabeledDataSet(matrixFactory, format).stream()));
+	}
+
+	@Override
+	public FloatArrayBatchedLabeledDataSet toFloatArrayBatchedLabeledDataSet(
+			FeatureExtractor<float[]> featureExtractor, FeatureExtractor<float[]> labelMapper,
+			FeatureExtractionErrorMode featureExtractionErrorMode) {
+		return new PrefetchingFloatArrayBatchedLabeledDataSetImpl(batchedDataSet
+				.toFloatArrayBatchedLabeledDataSet(featureExtractor, labelMapper, featureExtractionErrorMode),
+				queueDepth, executor);
+	}
+
+	@Override
+	public FloatArrayBatchedDataSet toFloatArrayBatchedDataSet(
+			FeatureExtractor<LabeledData<float[], float[]>> featureExtractor,
+			FeatureExtractionErrorMode featureExtractionErrorMode) {
+		return batchedDataSet.toFloatArrayBatchedDataSet(featureExtractor, featureExtractionErrorMode);
+	}
+
+	@Override
+	public BatchedDataSet<DataBatch<LabeledData<float[], float[]>>> toBatchedDataSet(int batchSize) {
+		return new BatchedDataSetImpl<>(() -> StreamUtil.partition(stream(), batchSize));
+	}
+
+}
@@ -0,0 +1,70 @@
+/*
+ * Copyright 2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.ml4j.nn.datasets.util;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.function.BiConsumer;
+import java.util.function.IntFunction;
+
+/**
+ * Groups the elements of an iterator into batches, the last of which may be
+ * smaller than the batch size.
+ *
+ * Each batch is a new instance created by the batch factory, so no accumulator
+ * is shared between batches, and emitted batches can be consumed in parallel.
+ *
+ * @author Michael Lavelle
+ */
+class PartitioningIterator<T, B> implements Iterator<B> {
+
+	private Iterator<T> source;
+	private int batchSize;
+	private IntFunction<B> batchFactory;
+	private BiConsumer<B, T> accumulator;
+
+	/**
+	 * @param source       The elements to group.
+	 * @param batchSize    The maximum number of elements in each batch.
+	 * @param batchFactory Creates an empty batch, given the batch size.
+	 * @param accumulator  Adds an element to a batch.
+	 */
+	PartitioningIterator(Iterator<T> source, int batchSize, IntFunction<B> batchFactory,
+			BiConsumer<B, T> accumulator) {
+		this.source = source;
+		this.batchSize = batchSize;
+		this.batchFactory = batchFactory;
+		this.accumulator = accumulator;
+		if (batchSize <= 0) {
+			throw new IllegalArgumentException("Batch size must be positive");
+		}
+	}
+
+	@Override
+	public boolean hasNext() {
+		return source.hasNext();
+	}
+
+	@Override
+	public B next() {
+		if (!hasNext()) {
+			throw new NoSuchElementException();
+		}
+		B batch = batchFactory.apply(batchSize);
+		for (int size = 0; size < batchSize && source.hasNext(); size++) {
+			accumulator.accept(batch, source.next());
+		}
+		return batch;
+	}
+}
@@ -0,0 +1,166 @@
+/*
+ * Copyright 2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.ml4j.nn.datasets.util;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Iterates over the elements of a stream which are pulled ahead of the consumer
+ * by a background producer, into a bounded queue.
+ *
+ * The producer blocks once the queue is full, so at most queueDepth elements
+ * are prefetched, and stops as soon as the iterator is closed. Any exception
+ * thrown by the stream is rethrown to the consumer in place of the element it
+ * failed to produce.
+ *
+ * @author Michael Lavelle
+ */
+public class PrefetchingIterator<T> implements Iterator<T>, AutoCloseable {
+
+	private static final ExecutorService DEFAULT_EXECUTOR = Executors.newCachedThreadPool(r -> {
+		Thread thread = new Thread(r, "ml4j-prefetch");
+		thread.setDaemon(true);
+		return thread;
+	});
+
+	private static final long CLOSED_CHECK_INTERVAL_MILLIS = 100;
+
+	private static final Object END = new Object();
+
+	private BlockingQueue<Object> queue;
+	private volatile boolean closed;
+	private Object next;
+
+	public PrefetchingIterator(Supplier<Stream<T>> source, int queueDepth) {
+		this(source, queueDepth, DEFAULT_EXECUTOR);
+	}
+
+	/**
+	 * @param source     Supplier of the stream, which is opened and closed by the
+	 *                   producer.
+	 * @param queueDepth The maximum number of elements to prefetch.
+	 * @param executor   The executor on which the producer runs, for the lifetime
+	 *                   of the stream.
+	 */
+	public PrefetchingIterator(Supplier<Stream<T>> source, int queueDepth, Executor executor) {
+		if (queueDepth < 1) {
+			throw new IllegalArgumentException("Queue depth must be positive");
+		}
+		this.queue = new ArrayBlockingQueue<>(queueDepth);
+		executor.execute(() -> produce(source));
+	}
+
+	private void produce(Supplier<Stream<T>> source) {
+		try {
+			try (Stream<T> stream = source.get()) {
+				Iterator<T> iterator = stream.iterator();
+				while (!closed && iterator.hasNext()) {
+					T element = iterator.next();
+					if (element == null) {
+						throw new IllegalStateException("Prefetched elements cannot be null");
+					}
+					enqueue(element);
+				}
+			}
+			enqueue(END);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		} catch (RuntimeException | Error e) {
+			try {
+				enqueue(new Failure(e));
+			} catch (InterruptedException e1) {
+				Thread.currentThread().interrupt();
+			}
+		}
+	}
+
+	private void enqueue(Object element) throws InterruptedException {
+		// Poll for closure rather than rely on interruption, as the producer's
+		// thread may be pooled
+		while (!queue.offer(element, CLOSED_CHECK_INTERVAL_MILLIS, TimeUnit.MILLISECONDS)) {
+			if (closed) {
+				return;
+			}
+		}
+	}
+
+	/**
+	 * @return The shared pool of daemon threads on which producers run by
+	 *         default.
+	 */
+	public static Executor getDefaultExecutor() {
+		return DEFAULT_EXECUTOR;
+	}
+
+	@Override
+	public boolean hasNext() {
+		if (closed) {
+			return false;
+		}
+		if (next == null) {
+			try {
+				next = queue.take();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new IllegalStateException("Interrupted when waiting for prefetched element", e);
+			}
+		}
+		if (next instanceof Failure) {
+			Throwable cause = ((Failure) next).cause;
+			if (cause instanceof Error) {
+				throw (Error) cause;
+			}
+			throw (RuntimeException) cause;
+		}
+		return next != END;
+	}
+
+	@SuppressWarnings("unchecked")
+	@Override
+	public T next() {
+		if (!hasNext()) {
+			throw new NoSuchElementException();
+		}
+		T element = (T) next;
+		next = null;
+		return element;
+	}
+
+	/**
+	 * Stop the producer and discard any prefetched elements.
+	 */
+	@Override
+	public void close() {
+		closed = true;
+		queue.clear();
+	}
+
+	private static class Failure {
+
+		private Throwable cause;
+
+		private Failure(Throwable cause) {
+			this.cause = cause;
+		}
+	}
+}
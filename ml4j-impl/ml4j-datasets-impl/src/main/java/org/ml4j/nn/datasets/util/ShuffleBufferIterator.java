@@ -0,0 +1,81 @@
+/*
+ * Copyright 2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.ml4j.nn.datasets.util;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Random;
+
+/**
+ * Shuffles the elements of an iterator using a buffer of bounded size.
+ *
+ * Each element returned is chosen at random from the buffer and replaced by the
+ * next element of the source, so elements are displaced by up to around the
+ * buffer size. A buffer at least as large as the source gives a uniform
+ * shuffle.
+ *
+ * @author Michael Lavelle
+ */
+class ShuffleBufferIterator<T> implements Iterator<T> {
+
+	private Iterator<T> source;
+	private int bufferSize;
+	private Random random;
+	private List<T> buffer;
+
+	ShuffleBufferIterator(Iterator<T> source, int bufferSize, Random random) {
+		this.source = source;
+		this.bufferSize = bufferSize;
+		this.random = random;
+		if (bufferSize <= 0) {
+			throw new IllegalArgumentException("Buffer size must be positive");
+		}
+		this.buffer = new ArrayList<>(Math.min(bufferSize, 1 << 16));
+	}
+
+	private void fill() {
+		while (buffer.size() < bufferSize && source.hasNext()) {
+			buffer.add(source.next());
+		}
+	}
+
+	@Override
+	public boolean hasNext() {
+		fill();
+		return !buffer.isEmpty();
+	}
+
+	@Override
+	public T next() {
+		if (!hasNext()) {
+			throw new NoSuchElementException();
+		}
+		return removeRandomElement(buffer, random);
+	}
+
+	/**
+	 * Remove an element chosen at random, replacing it with the last element of
+	 * the list.
+	 */
+	static <T> T removeRandomElement(List<T> list, Random random) {
+		int index = random.nextInt(list.size());
+		int lastIndex = list.size() - 1;
+		T element = list.get(index);
+		list.set(index, list.get(lastIndex));
+		list.remove(lastIndex);
+		return element;
+	}
+}
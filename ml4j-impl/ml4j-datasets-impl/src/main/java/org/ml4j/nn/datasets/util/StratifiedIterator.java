@@ -0,0 +1,105 @@
+/*
+ * Copyright 2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.ml4j.nn.datasets.util;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.function.ToIntFunction;
+
+/**
+ * Reorders the elements of an iterator so that every run of consecutive
+ * elements, and therefore every batch, has close to the class proportions of
+ * the elements read so far.
+ *
+ * Elements are held in a buffer of bounded size, split by class. Each element
+ * returned is taken at random from the class which is furthest below its share
+ * of the elements returned so far.
+ *
+ * @author Michael Lavelle
+ */
+class StratifiedIterator<T> implements Iterator<T> {
+
+	private Iterator<T> source;
+	private ToIntFunction<T> classIndex;
+	private int bufferSize;
+	private Random random;
+	private Map<Integer, ClassBuffer<T>> classBuffers;
+	private int bufferedCount;
+	private long seenCount;
+	private long returnedCount;
+
+	StratifiedIterator(Iterator<T> source, ToIntFunction<T> classIndex, int bufferSize, Random random) {
+		this.source = source;
+		this.classIndex = classIndex;
+		this.bufferSize = bufferSize;
+		this.random = random;
+		this.classBuffers = new TreeMap<>();
+		if (bufferSize <= 0) {
+			throw new IllegalArgumentException("Buffer size must be positive");
+		}
+	}
+
+	private void fill() {
+		while (bufferedCount < bufferSize && source.hasNext()) {
+			T element = source.next();
+			ClassBuffer<T> classBuffer = classBuffers.computeIfAbsent(classIndex.applyAsInt(element),
+					c -> new ClassBuffer<>());
+			classBuffer.elements.add(element);
+			classBuffer.seenCount++;
+			seenCount++;
+			bufferedCount++;
+		}
+	}
+
+	@Override
+	public boolean hasNext() {
+		fill();
+		return bufferedCount > 0;
+	}
+
+	@Override
+	public T next() {
+		if (!hasNext()) {
+			throw new NoSuchElementException();
+		}
+		ClassBuffer<T> selected = null;
+		double selectedDeficit = Double.NEGATIVE_INFINITY;
+		for (ClassBuffer<T> classBuffer : classBuffers.values()) {
+			if (!classBuffer.elements.isEmpty()) {
+				double deficit = (double) classBuffer.seenCount / seenCount * (returnedCount + 1)
+						- classBuffer.returnedCount;
+				if (deficit > selectedDeficit) {
+					selected = classBuffer;
+					selectedDeficit = deficit;
+				}
+			}
+		}
+		selected.returnedCount++;
+		returnedCount++;
+		bufferedCount--;
+		return ShuffleBufferIterator.removeRandomElement(selected.elements, random);
+	}
+
+	private static class ClassBuffer<T> {
+
+		private List<T> elements = new ArrayList<>();
+		private long seenCount;
+		private long returnedCount;
+	}
+}
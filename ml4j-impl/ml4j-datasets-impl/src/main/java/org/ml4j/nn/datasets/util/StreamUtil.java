@@ -18,19 +18,21 @@ import java.io.EOFException;
 import java.io.IOException;
 import java.io.ObjectInputStream;
 import java.io.UncheckedIOException;
-import java.util.ArrayList;
-import java.util.List;
-import java.util.Objects;
-import java.util.function.Function;
+import java.util.Iterator;
+import java.util.Random;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.Executor;
+import java.util.function.BiConsumer;
+import java.util.function.IntFunction;
 import java.util.function.Supplier;
+import java.util.function.ToIntFunction;
 import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
-import org.ml4j.images.Image;
 import org.ml4j.nn.datasets.DataBatch;
 import org.ml4j.nn.datasets.DataBatchImpl;
-import org.ml4j.nn.datasets.LabeledData;
 import org.ml4j.nn.datasets.LabeledDataBatchImpl;
-import org.ml4j.nn.datasets.LabeledDataImpl;
 import org.ml4j.nn.datasets.LabeledDataSet;
 import org.ml4j.nn.datasets.images.ImagesBatch;
 import org.ml4j.nn.datasets.images.ImagesBatchImpl;
@@ -42,93 +44,95 @@ import org.ml4j.nn.datasets.images.LabeledImagesDataSet;
 public class StreamUtil {
 
 	public static <T> Stream<DataBatch<T>> partition(Stream<T> stream, int batchSize) {
-		List<DataBatch<T>> currentBatch = new ArrayList<>(); // just to make it mutable
-		currentBatch.add(new DataBatchImpl<T>(batchSize));
-		return Stream.concat(stream.sequential().map(new Function<T, DataBatch<T>>() {
-			public DataBatch<T> apply(T t) {
-				currentBatch.get(0).add(t);
-				return currentBatch.get(0).size() == batchSize ? currentBatch.set(0, new DataBatchImpl<>(batchSize))
-						: null;
-			}
-		}), Stream.generate(() -> currentBatch.get(0).isEmpty() ? null : currentBatch.get(0)).limit(1))
-				.filter(Objects::nonNull);
+		return partition(stream, batchSize, DataBatchImpl<T>::new, DataBatch::add);
+	}
+
+	private static <T, B> Stream<B> partition(Stream<T> stream, int batchSize, IntFunction<B> batchFactory,
+			BiConsumer<B, T> accumulator) {
+		return toStream(new PartitioningIterator<>(stream.iterator(), batchSize, batchFactory, accumulator),
+				stream::close);
 	}
 
-	/*
-	 * public static <T, L> Stream<LabeledDataBatch<T, L>>
-	 * partition(LabeledDataSet<T, L> labeledDataSet, int batchSize){
-	 * List<LabeledDataBatch<T, L>> currentBatch = new ArrayList<>(); //just to make
-	 * it mutable currentBatch.add(new LabeledDataBatchImpl<T, L>(batchSize));
-	 * return Stream.concat(labeledDataSet.getLabeledData() .sequential() .map(new
-	 * Function<LabeledData<T, L>, LabeledDataBatch<T, L>>(){ public
-	 * LabeledDataBatch<T, L> apply(LabeledData<T, L> t){
-	 * currentBatch.get(0).add(t); return currentBatch.get(0).size() == batchSize ?
-	 * currentBatch.set(0,new LabeledDataBatchImpl<>(batchSize)): null; } }),
-	 * Stream.generate(()->currentBatch.get(0).isEmpty()?null:currentBatch.get(0))
-	 * .limit(1) ).filter(Objects::nonNull); }
+	/**
+	 * Shuffle the elements of a stream using a buffer of bounded size.
+	 *
+	 * @param stream     The stream to shuffle.
+	 * @param bufferSize The maximum number of elements to buffer - a buffer at
+	 *                   least as large as the stream gives a uniform shuffle.
+	 * @param random     The source of randomness.
+	 * @return A stream of the shuffled elements.
 	 */
+	public static <T> Stream<T> shuffle(Stream<T> stream, int bufferSize, Random random) {
+		return toStream(new ShuffleBufferIterator<>(stream.iterator(), bufferSize, random), stream::close);
+	}
 
-	/*
-	 * public static <T, L> Stream<FloatArrayLabeledDataBatch>
-	 * partition2(LabeledDataSet<T, L> labeledDataSet, FeatureExtractor<T>
-	 * featureExtractor, LabelMapper<L> labelMapper, int batchSize){
-	 * List<FloatArrayLabeledDataBatch> currentBatch = new ArrayList<>(); //just to
-	 * make it mutable currentBatch.add(new FloatArrayLabeledDataBatchImpl<T,
-	 * L>(batchSize)); return Stream.concat(labeledDataSet.getLabeledData()
-	 * .sequential() .map(new Function<LabeledData<T, L>,
-	 * FloatArrayLabeledDataBatch>(){ public FloatArrayLabeledDataBatch
-	 * apply(LabeledData<T, L> t){ currentBatch.get(0).add(new
-	 * LabeledDataImpl<>(featureExtractor.getFeatures(t.getData()),
-	 * labelMapper.getAsFloatArray(t.getLabel()))); return
-	 * currentBatch.get(0).size() == batchSize ? currentBatch.set(0,new
-	 * FloatArrayLabeledDataBatchImpl<>(batchSize)): null; } }),
-	 * Stream.generate(()->currentBatch.get(0).isEmpty()?null:currentBatch.get(0))
-	 * .limit(1) ).filter(Objects::nonNull); }
+	/**
+	 * Reorder the elements of a stream so that consecutive elements have close to
+	 * the class proportions of the stream, using a buffer of bounded size.
+	 *
+	 * @param stream     The stream to stratify.
+	 * @param classIndex Obtains the class index of an element.
+	 * @param bufferSize The maximum number of elements to buffer.
+	 * @param random     The source of randomness used to choose between elements
+	 *                   of the same class.
+	 * @return A stream of the stratified elements.
 	 */
+	public static <T> Stream<T> stratify(Stream<T> stream, ToIntFunction<T> classIndex, int bufferSize,
+			Random random) {
+		return toStream(new StratifiedIterator<>(stream.iterator(), classIndex, bufferSize, random), stream::close);
+	}
 
 	public static <T, L> Stream<LabeledImagesDataBatch<L>> partition3(LabeledImagesDataSet<L> labeledDataSet,
 			int batchSize) {
-		List<LabeledImagesDataBatchImpl<L>> currentBatch = new ArrayList<>(); // just to make it mutable
-		currentBatch.add(new LabeledImagesDataBatchImpl<L>(batchSize));
-		return Stream.concat(labeledDataSet.stream().sequential()
-				.map(new Function<LabeledData<Supplier<Image>, L>, LabeledImagesDataBatch<L>>() {
-					public LabeledImagesDataBatch<L> apply(LabeledData<Supplier<Image>, L> t) {
-						currentBatch.get(0).add(new LabeledDataImpl<Supplier<Image>, L>(t.getData(), t.getLabel()));
-						return currentBatch.get(0).size() == batchSize
-								? currentBatch.set(0, new LabeledImagesDataBatchImpl<>(batchSize))
-								: null;
-					}
-				}), Stream.generate(() -> currentBatch.get(0).isEmpty() ? null : currentBatch.get(0)).limit(1))
-				.filter(Objects::nonNull);
+		return partition(labeledDataSet.stream(), batchSize, LabeledImagesDataBatchImpl<L>::new,
+				(batch, labeledData) -> batch.add(labeledData.getData(), labeledData.getLabel()));
 	}
 
 	public static <T, L> Stream<ImagesBatch> partition4(ImagesDataSet imagesDataSet, int batchSize) {
-		List<ImagesBatchImpl> currentBatch = new ArrayList<>(); // just to make it mutable
-		currentBatch.add(new ImagesBatchImpl(batchSize));
-		return Stream.concat(imagesDataSet.stream().sequential().map(new Function<Supplier<Image>, ImagesBatch>() {
-			public ImagesBatch apply(Supplier<Image> t) {
-				currentBatch.get(0).add(t);
-				return currentBatch.get(0).size() == batchSize ? currentBatch.set(0, new ImagesBatchImpl(batchSize))
-						: null;
-			}
-		}), Stream.generate(() -> currentBatch.get(0).isEmpty() ? null : currentBatch.get(0)).limit(1))
-				.filter(Objects::nonNull);
+		return partition(imagesDataSet.stream(), batchSize, ImagesBatchImpl::new, ImagesBatch::add);
 	}
 
 	public static <T, L> Stream<LabeledDataBatchImpl<T, L>> partition4(LabeledDataSet<T, L> labeledDataSet,
 			int batchSize) {
-		List<LabeledDataBatchImpl<T, L>> currentBatch = new ArrayList<>(); // just to make it mutable
-		currentBatch.add(new LabeledDataBatchImpl<>(batchSize));
-		return Stream.concat(
-				labeledDataSet.stream().sequential().map(new Function<LabeledData<T, L>, LabeledDataBatchImpl<T, L>>() {
-					public LabeledDataBatchImpl<T, L> apply(LabeledData<T, L> t) {
-						currentBatch.get(0).add(t);
-						return currentBatch.get(0).size() == batchSize
-								? currentBatch.set(0, new LabeledDataBatchImpl<T, L>(batchSize))
-								: null;
-					}
-				}), Stream.generate(() -> currentBatch.get(0).isEmpty() ? null : currentBatch.get(0)).limit(1))
-				.filter(Objects::nonNull);
+		return partition(labeledDataSet.stream(), batchSize, LabeledDataBatchImpl<T, L>::new,
+				(batch, labeledData) -> batch.add(labeledData.getData(), labeledData.getLabel()));
+	}
+
+	/**
+	 * Prefetch the elements of a stream on a background producer, so that they are
+	 * produced while the consumer processes earlier elements.
+	 *
+	 * The producer starts immediately, and the returned stream must be closed to
+	 * stop it if not fully consumed.
+	 *
+	 * @param source     Supplier of the stream to prefetch.
+	 * @param queueDepth The maximum number of elements to prefetch.
+	 * @param executor   The executor on which the producer runs.
+	 * @return A stream of the prefetched elements, in their original order.
+	 */
+	public static <T> Stream<T> prefetch(Supplier<Stream<T>> source, int queueDepth, Executor executor) {
+		return toStream(new PrefetchingIterator<>(source, queueDepth, executor));
+	}
+
+	/**
+	 * Prefetch the elements of a stream on a shared pool of daemon producers.
+	 *
+	 * @param source     Supplier of the stream to prefetch.
+	 * @param queueDepth The maximum number of elements to prefetch.
+	 * @return A stream of the prefetched elements, in their original order.
+	 */
+	public static <T> Stream<T> prefetch(Supplier<Stream<T>> source, int queueDepth) {
+		return toStream(new PrefetchingIterator<>(source, queueDepth));
+	}
+
+	private static <T> Stream<T> toStream(PrefetchingIterator<T> iterator) {
+		return toStream(iterator, iterator::close);
+	}
+
+	private static <T> Stream<T> toStream(Iterator<T> iterator, Runnable closeHandler) {
+		return StreamSupport
+				.stream(Spliterators.spliteratorUnknownSize(iterator, Spliterator.ORDERED | Spliterator.NONNULL), false)
+				.onClose(closeHandler);
 	}
 
 	public static <T> Stream<T> toStream(final ObjectInputStream stream, final Class<T> cls) {
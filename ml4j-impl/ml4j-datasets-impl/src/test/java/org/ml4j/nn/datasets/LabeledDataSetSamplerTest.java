@@ -0,0 +1,81 @@
+package org.ml4j.nn.datasets;
+
+import java.util.List;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class LabeledDataSetSamplerTest {
+
+	private SoftmaxClassIndexLabelMapper labelMapper = new SoftmaxClassIndexLabelMapper(3);
+
+	private LabeledDataSet<float[], float[]> createDataSet() {
+		// Ordered by class, with class proportions of 1:1:2
+		return new LabeledDataSetImpl<>(() -> IntStream.range(0, 120).mapToObj(
+				i -> new LabeledDataImpl<>(new float[] { i }, labelMapper.getFeatures(i < 30 ? 0 : i < 60 ? 1 : 2))));
+	}
+
+	private List<Integer> getOrder(Stream<LabeledData<float[], float[]>> stream) {
+		return stream.map(l -> (int) l.getData()[0]).collect(Collectors.toList());
+	}
+
+	@Test
+	public void testEachEpochIsShuffledDifferently() {
+		Supplier<Stream<LabeledData<float[], float[]>>> sampled = new LabeledDataSetSampler<float[], float[]>(1)
+				.withShuffleBufferSize(120).sample(createDataSet());
+		List<Integer> firstEpoch = getOrder(sampled.get());
+		List<Integer> secondEpoch = getOrder(sampled.get());
+		Assertions.assertNotEquals(firstEpoch, secondEpoch);
+		Assertions.assertEquals(getOrder(createDataSet().stream()),
+				secondEpoch.stream().sorted().collect(Collectors.toList()));
+
+		// The same seed gives the same epochs
+		Assertions.assertEquals(firstEpoch, getOrder(new LabeledDataSetSampler<float[], float[]>(1)
+				.withShuffleBufferSize(120).sample(createDataSet()).get()));
+	}
+
+	@Test
+	public void testStratifiedBatches() {
+		LabeledDataSetSampler<float[], float[]> sampler = new LabeledDataSetSampler<float[], float[]>(1)
+				.withShuffleBufferSize(16).withStratification(labelMapper::getClassIndex, 120);
+		List<DataBatch<LabeledData<float[], float[]>>> batches = new LabeledDataSetImpl<>(
+				sampler.sample(createDataSet())).toBatchedLabeledDataSet(8).stream().collect(Collectors.toList());
+		Assertions.assertEquals(15, batches.size());
+		for (DataBatch<LabeledData<float[], float[]>> batch : batches) {
+			int[] classCounts = new int[3];
+			batch.stream().forEach(l -> classCounts[labelMapper.getClassIndex(l.getLabel())]++);
+			Assertions.assertArrayEquals(new int[] { 2, 2, 4 }, classCounts);
+		}
+	}
+
+	@Test
+	public void testParallelBatchEmissionMatchesSequentialBatches() {
+		BatchedLabeledDataSet<float[], float[]> sequential = new LabeledDataSetSampler<float[], float[]>(1)
+				.withShuffleBufferSize(120).toBatchedLabeledDataSet(createDataSet(), 8);
+		BatchedLabeledDataSet<float[], float[]> parallel = new LabeledDataSetSampler<float[], float[]>(1)
+				.withShuffleBufferSize(120).withParallelBatchEmission(2).toBatchedLabeledDataSet(createDataSet(), 8);
+		for (int epoch = 0; epoch < 2; epoch++) {
+			List<List<Integer>> sequentialBatches = getBatchOrders(sequential);
+			Assertions.assertEquals(15, sequentialBatches.size());
+			Assertions.assertEquals(sequentialBatches, getBatchOrders(parallel));
+		}
+		Assertions.assertNotEquals(getBatchOrders(sequential), getBatchOrders(sequential));
+	}
+
+	private List<List<Integer>> getBatchOrders(BatchedLabeledDataSet<float[], float[]> batchedDataSet) {
+		try (Stream<DataBatch<LabeledData<float[], float[]>>> batches = batchedDataSet.stream()) {
+			return batches.map(batch -> getOrder(batch.stream())).collect(Collectors.toList());
+		}
+	}
+
+	@Test
+	public void testGetClassIndex() {
+		Assertions.assertEquals(2, labelMapper.getClassIndex(labelMapper.getFeatures(2)));
+		Assertions.assertEquals(1, labelMapper.getClassIndex(new float[] { 0.2f, 0.5f, 0.3f }));
+		Assertions.assertThrows(IllegalArgumentException.class, () -> labelMapper.getClassIndex(new float[2]));
+	}
+}
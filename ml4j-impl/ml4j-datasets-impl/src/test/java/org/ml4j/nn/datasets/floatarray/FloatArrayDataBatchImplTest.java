@@ -0,0 +1,52 @@
+package org.ml4j.nn.datasets.floatarray;
+
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.ml4j.Matrix;
+import org.ml4j.MatrixFactory;
+import org.ml4j.jblas.JBlasRowMajorMatrixFactory;
+import org.ml4j.nn.neurons.NeuronsActivation;
+import org.ml4j.nn.neurons.format.NeuronsActivationFormat;
+
+public class FloatArrayDataBatchImplTest {
+
+	private MatrixFactory matrixFactory = new JBlasRowMajorMatrixFactory();
+
+	private FloatArrayDataBatch createBatch() {
+		return new FloatArrayDataBatchImpl(Stream.of(new float[] { 1, 2, 3 }, new float[] { 4, 5, 6 }), 3, 2);
+	}
+
+	@Test
+	public void testRowsSpanFeatureSet() {
+		NeuronsActivation activation = createBatch().toNeuronsActivation(matrixFactory,
+				NeuronsActivationFormat.ROWS_SPAN_FEATURE_SET);
+		Matrix activations = activation.getActivations(matrixFactory);
+		Assertions.assertEquals(3, activation.getNeurons().getNeuronCountExcludingBias());
+		Assertions.assertEquals(3, activations.getRows());
+		Assertions.assertEquals(2, activations.getColumns());
+		Assertions.assertArrayEquals(new float[] { 1, 4, 2, 5, 3, 6 }, activations.getRowByRowArray());
+		Assertions.assertArrayEquals(activations.getRowByRowArray(),
+				createBatch().getAsMatrix(matrixFactory).getRowByRowArray());
+	}
+
+	@Test
+	public void testColumnsSpanFeatureSet() {
+		NeuronsActivation activation = createBatch().toNeuronsActivation(matrixFactory,
+				NeuronsActivationFormat.COLUMNS_SPAN_FEATURE_SET);
+		Matrix activations = activation.getActivations(matrixFactory);
+		Assertions.assertEquals(3, activation.getNeurons().getNeuronCountExcludingBias());
+		Assertions.assertEquals(2, activations.getRows());
+		Assertions.assertEquals(3, activations.getColumns());
+		Assertions.assertArrayEquals(new float[] { 1, 2, 3, 4, 5, 6 }, activations.getRowByRowArray());
+	}
+
+	@Test
+	public void testExamplesNotYetAddedAreZeros() {
+		FloatArrayDataBatch batch = new FloatArrayDataBatchImpl(3, 2);
+		batch.add(new float[] { 1, 2, 3 });
+		Assertions.assertArrayEquals(new float[] { 1, 0, 2, 0, 3, 0 },
+				batch.getAsMatrix(matrixFactory).getRowByRowArray());
+	}
+}
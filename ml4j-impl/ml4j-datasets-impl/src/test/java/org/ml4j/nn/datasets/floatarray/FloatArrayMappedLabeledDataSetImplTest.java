@@ -0,0 +1,127 @@
+package org.ml4j.nn.datasets.floatarray;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.ml4j.Matrix;
+import org.ml4j.MatrixFactory;
+import org.ml4j.jblas.JBlasRowMajorMatrixFactory;
+import org.ml4j.nn.datasets.DataBatch;
+import org.ml4j.nn.datasets.LabeledData;
+import org.ml4j.nn.neurons.NeuronsActivation;
+import org.ml4j.nn.neurons.format.NeuronsActivationFormat;
+
+public class FloatArrayMappedLabeledDataSetImplTest {
+
+	private static final int FEATURE_COUNT = 3;
+	private static final int LABEL_FEATURE_COUNT = 2;
+	private static final int EXAMPLES = 10;
+
+	@TempDir
+	File directory;
+
+	private File file;
+
+	private MatrixFactory matrixFactory = new JBlasRowMajorMatrixFactory();
+
+	@BeforeEach
+	public void setUp() throws IOException {
+		file = new File(directory, "data.bin");
+		try (FloatArrayBinaryLabeledDataSetWriter writer = new FloatArrayBinaryLabeledDataSetWriter(file,
+				FEATURE_COUNT, LABEL_FEATURE_COUNT)) {
+			for (int e = 0; e < EXAMPLES; e++) {
+				writer.write(getData(e), getLabel(e));
+			}
+		}
+	}
+
+	private float[] getData(int example) {
+		return new float[] { example, example + 0.1f, example + 0.2f };
+	}
+
+	private float[] getLabel(int example) {
+		return new float[] { -example, example * 2 };
+	}
+
+	@Test
+	public void testStreamMatchesWrittenExamples() {
+		FloatArrayMappedLabeledDataSetImpl dataSet = new FloatArrayMappedLabeledDataSetImpl(file);
+		Assertions.assertEquals(FEATURE_COUNT, dataSet.getFeatureCount());
+		Assertions.assertEquals(LABEL_FEATURE_COUNT, dataSet.getLabelFeatureCount());
+		Assertions.assertEquals(EXAMPLES, dataSet.getExampleCount());
+		List<LabeledData<float[], float[]>> examples = dataSet.stream().collect(Collectors.toList());
+		Assertions.assertEquals(EXAMPLES, examples.size());
+		for (int e = 0; e < EXAMPLES; e++) {
+			Assertions.assertArrayEquals(getData(e), examples.get(e).getData());
+			Assertions.assertArrayEquals(getLabel(e), examples.get(e).getLabel());
+		}
+	}
+
+	@Test
+	public void testRandomAccessAndRanges() {
+		FloatArrayMappedLabeledDataSetImpl dataSet = new FloatArrayMappedLabeledDataSetImpl(file);
+		Assertions.assertArrayEquals(getData(7), dataSet.get(7).getData());
+		FloatArrayMappedLabeledDataSetImpl range = dataSet.getRange(4, 9);
+		Assertions.assertEquals(5, range.getExampleCount());
+		Assertions.assertArrayEquals(getLabel(5), range.get(1).getLabel());
+		Assertions.assertEquals(5, range.getDataSet().stream().count());
+		Assertions.assertThrows(IndexOutOfBoundsException.class, () -> range.get(5));
+		Assertions.assertThrows(IllegalArgumentException.class, () -> dataSet.getRange(4, 11));
+	}
+
+	@Test
+	public void testBatchesSpanningChunks() {
+		// Three examples per chunk, so batches of four span chunk boundaries
+		FloatArrayMappedLabeledDataSetImpl dataSet = new FloatArrayMappedLabeledDataSetImpl(file,
+				3 * (FEATURE_COUNT + LABEL_FEATURE_COUNT) * Float.BYTES);
+		List<DataBatch<LabeledData<float[], float[]>>> batches = dataSet.toBatchedLabeledDataSet(4).stream()
+				.collect(Collectors.toList());
+		Assertions.assertEquals(3, batches.size());
+		Assertions.assertEquals(2, batches.get(2).size());
+		List<LabeledData<float[], float[]>> examples = batches.stream().flatMap(DataBatch::stream)
+				.collect(Collectors.toList());
+		for (int e = 0; e < EXAMPLES; e++) {
+			Assertions.assertArrayEquals(getData(e), examples.get(e).getData());
+			Assertions.assertArrayEquals(getLabel(e), examples.get(e).getLabel());
+		}
+	}
+
+	@Test
+	public void testNeuronsActivations() {
+		FloatArrayMappedLabeledDataSetImpl dataSet = new FloatArrayMappedLabeledDataSetImpl(file,
+				3 * (FEATURE_COUNT + LABEL_FEATURE_COUNT) * Float.BYTES);
+		List<LabeledData<NeuronsActivation, NeuronsActivation>> rowsSpanFeatures = dataSet
+				.toBatchedLabeledDataSet(4)
+				.toNeuronsActivationLabeledDataSet(matrixFactory, NeuronsActivationFormat.ROWS_SPAN_FEATURE_SET)
+				.stream().collect(Collectors.toList());
+		List<LabeledData<NeuronsActivation, NeuronsActivation>> columnsSpanFeatures = dataSet
+				.toBatchedLabeledDataSet(4)
+				.toNeuronsActivationLabeledDataSet(matrixFactory, NeuronsActivationFormat.COLUMNS_SPAN_FEATURE_SET)
+				.stream().collect(Collectors.toList());
+		Assertions.assertEquals(3, rowsSpanFeatures.size());
+		for (int b = 0; b < rowsSpanFeatures.size(); b++) {
+			Matrix data = rowsSpanFeatures.get(b).getData().getActivations(matrixFactory);
+			Matrix labels = rowsSpanFeatures.get(b).getLabel().getActivations(matrixFactory);
+			Matrix dataByExample = columnsSpanFeatures.get(b).getData().getActivations(matrixFactory);
+			Assertions.assertEquals(FEATURE_COUNT, data.getRows());
+			Assertions.assertEquals(LABEL_FEATURE_COUNT, labels.getRows());
+			Assertions.assertEquals(data.getColumns(), dataByExample.getRows());
+			for (int e = 0; e < data.getColumns(); e++) {
+				int example = b * 4 + e;
+				for (int f = 0; f < FEATURE_COUNT; f++) {
+					Assertions.assertEquals(getData(example)[f], data.get(f, e));
+					Assertions.assertEquals(getData(example)[f], dataByExample.get(e, f));
+				}
+				for (int f = 0; f < LABEL_FEATURE_COUNT; f++) {
+					Assertions.assertEquals(getLabel(example)[f], labels.get(f, e));
+				}
+			}
+		}
+	}
+}
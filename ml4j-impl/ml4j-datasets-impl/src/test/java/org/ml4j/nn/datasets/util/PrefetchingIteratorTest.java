@@ -0,0 +1,67 @@
+package org.ml4j.nn.datasets.util;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class PrefetchingIteratorTest {
+
+	@Test
+	public void testElementsArePrefetchedInOrder() {
+		List<Integer> elements = StreamUtil.prefetch(() -> IntStream.range(0, 100).boxed(), 3)
+				.collect(Collectors.toList());
+		Assertions.assertEquals(IntStream.range(0, 100).boxed().collect(Collectors.toList()), elements);
+	}
+
+	@Test
+	public void testPrefetchingIsBounded() throws InterruptedException {
+		AtomicInteger produced = new AtomicInteger();
+		CountDownLatch blocked = new CountDownLatch(1);
+		AtomicBoolean sourceClosed = new AtomicBoolean();
+		try (Stream<Integer> stream = StreamUtil.prefetch(() -> IntStream.range(0, 100).boxed().peek(i -> {
+			if (produced.incrementAndGet() == 4) {
+				blocked.countDown();
+			}
+		}).onClose(() -> sourceClosed.set(true)), 3)) {
+			Assertions.assertTrue(blocked.await(5, TimeUnit.SECONDS));
+			Thread.sleep(200);
+			// The queue holds three elements, and the producer waits with a fourth
+			Assertions.assertEquals(4, produced.get());
+			Assertions.assertEquals(Arrays.asList(0, 1), stream.limit(2).collect(Collectors.toList()));
+		}
+		long deadline = System.currentTimeMillis() + 5000;
+		while (!sourceClosed.get() && System.currentTimeMillis() < deadline) {
+			Thread.sleep(10);
+		}
+		Assertions.assertTrue(sourceClosed.get());
+		Assertions.assertTrue(produced.get() < 100);
+	}
+
+	@Test
+	public void testFailuresAreRethrownToConsumer() {
+		Stream<Integer> stream = StreamUtil.prefetch(() -> IntStream.range(0, 5).boxed().map(i -> {
+			if (i == 3) {
+				throw new IllegalArgumentException("Invalid element");
+			}
+			return i;
+		}), 2);
+		IllegalArgumentException exception = Assertions.assertThrows(IllegalArgumentException.class,
+				() -> stream.collect(Collectors.toList()));
+		Assertions.assertEquals("Invalid element", exception.getMessage());
+		stream.close();
+	}
+
+	@Test
+	public void testInvalidQueueDepth() {
+		Assertions.assertThrows(IllegalArgumentException.class, () -> StreamUtil.prefetch(() -> Stream.of(1), 0));
+	}
+}
@@ -0,0 +1,73 @@
+package org.ml4j.nn.datasets.util;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.ml4j.nn.datasets.DataBatch;
+import org.ml4j.nn.datasets.LabeledDataBatchImpl;
+import org.ml4j.nn.datasets.LabeledDataImpl;
+import org.ml4j.nn.datasets.LabeledDataSetImpl;
+
+public class StreamUtilTest {
+
+	@Test
+	public void testPartition() {
+		List<DataBatch<Integer>> batches = StreamUtil.partition(IntStream.range(0, 10).boxed(), 4)
+				.collect(Collectors.toList());
+		Assertions.assertEquals(3, batches.size());
+		Assertions.assertEquals(Arrays.asList(4, 5, 6, 7),
+				batches.get(1).stream().collect(Collectors.toList()));
+		Assertions.assertEquals(2, batches.get(2).size());
+		Assertions.assertEquals(0, StreamUtil.partition(IntStream.range(0, 0).boxed(), 4).count());
+	}
+
+	@Test
+	public void testPartitionLabeledDataSet() {
+		List<LabeledDataBatchImpl<Integer, Integer>> batches = StreamUtil
+				.partition4(new LabeledDataSetImpl<>(
+						() -> IntStream.range(0, 10).mapToObj(i -> new LabeledDataImpl<>(i, i % 2))), 4)
+				.collect(Collectors.toList());
+		Assertions.assertEquals(3, batches.size());
+		Assertions.assertEquals(Arrays.asList(4, 5, 6, 7),
+				batches.get(1).getDataSet().stream().collect(Collectors.toList()));
+		Assertions.assertEquals(Arrays.asList(0, 1), batches.get(2).getLabels().collect(Collectors.toList()));
+	}
+
+	@Test
+	public void testPartitionedBatchesCanBeConsumedInParallel() {
+		List<Integer> sums = StreamUtil.partition(IntStream.range(0, 1000).boxed(), 10).parallel()
+				.map(batch -> batch.stream().mapToInt(Integer::intValue).sum()).collect(Collectors.toList());
+		Assertions.assertEquals(100, sums.size());
+		for (int b = 0; b < sums.size(); b++) {
+			Assertions.assertEquals(100 * b + 45, sums.get(b).intValue());
+		}
+	}
+
+	@Test
+	public void testShuffleIsAPermutation() {
+		List<Integer> shuffled = StreamUtil.shuffle(IntStream.range(0, 100).boxed(), 16, new Random(1))
+				.collect(Collectors.toList());
+		Assertions.assertNotEquals(IntStream.range(0, 100).boxed().collect(Collectors.toList()), shuffled);
+		Assertions.assertEquals(IntStream.range(0, 100).boxed().collect(Collectors.toList()),
+				shuffled.stream().sorted().collect(Collectors.toList()));
+	}
+
+	@Test
+	public void testStratifiedBatchesHaveClassProportions() {
+		// Ordered by class, one quarter of class 1
+		List<Integer> classes = IntStream.range(0, 400).map(i -> i < 300 ? 0 : 1).boxed()
+				.collect(Collectors.toList());
+		List<DataBatch<Integer>> batches = StreamUtil
+				.partition(StreamUtil.stratify(classes.stream(), Integer::intValue, 400, new Random(1)), 8)
+				.collect(Collectors.toList());
+		Assertions.assertEquals(50, batches.size());
+		for (DataBatch<Integer> batch : batches) {
+			Assertions.assertEquals(2, batch.stream().filter(c -> c == 1).count());
+		}
+	}
+}
@@ -123,19 +123,14 @@ public class RestrictedBoltzmannMachineImpl implements RestrictedBoltzmannMachin
 
 			} else {
 				int miniBatchSize = trainingContext.getTrainingMiniBatchSize();
-				int numberOfTrainingElements = trainingActivations.getActivations(trainingContext.getMatrixFactory())
-						.getColumns();
+				Matrix activations = trainingActivations.getActivations(trainingContext.getMatrixFactory());
+				int numberOfTrainingElements = activations.getColumns();
 				int numberOfBatches = (numberOfTrainingElements - 1) / miniBatchSize + 1;
 				for (int batchIndex = 0; batchIndex < numberOfBatches; batchIndex++) {
 					int startColumnIndex = batchIndex * miniBatchSize;
-					int endColumnIndex = Math.min(startColumnIndex + miniBatchSize - 1, numberOfTrainingElements - 1);
-					int[] colIndexes = new int[endColumnIndex - startColumnIndex + 1];
-					for (int c = startColumnIndex; c <= endColumnIndex; c++) {
-						colIndexes[c - startColumnIndex] = c;
-					}
+					int endColumnIndex = Math.min(startColumnIndex + miniBatchSize, numberOfTrainingElements);
 
-					Matrix dataBatch = trainingActivations.getActivations(trainingContext.getMatrixFactory())
-							.getColumns(colIndexes);
+					Matrix dataBatch = activations.getColumnRange(startColumnIndex, endColumnIndex);
 
 					NeuronsActivation batchDataActivations = new NeuronsActivationImpl(getLayer().getVisibleNeurons(),
 							dataBatch, trainingActivations.getFormat());
@@ -146,9 +141,6 @@ public class RestrictedBoltzmannMachineImpl implements RestrictedBoltzmannMachin
 					LOGGER.trace("Epoch:" + i + " batch " + batchIndex + " Average Reconstruction Error:"
 							+ getAverageReconstructionError(trainingContext.getMatrixFactory(), batchDataActivations,
 									lastReconstructions));
-
-					batchIndex++;
-
 				}
 				LOGGER.info("Epoch:" + i + " Average Reconstruction Error:"
 						+ getAverageReconstructionError(trainingContext.getMatrixFactory(), data, lastReconstructions));
@@ -221,8 +213,8 @@ public class RestrictedBoltzmannMachineImpl implements RestrictedBoltzmannMachin
 
 		Matrix weightAdjustment = adjustment.get(rows, columns);
 
-		Matrix leftToRightBiases = adjustment.getRow(0).getColumns(columns);
-		Matrix rightToLeftBiases = adjustment.getColumn(0).getRows(rows);
+		Matrix leftToRightBiases = adjustment.getRow(0).getColumnRange(1, adjustment.getColumns());
+		Matrix rightToLeftBiases = adjustment.getColumn(0).getRowRange(1, adjustment.getRows());
 
 		AxonWeightsAdjustment axonWeightsAdjustment = new AxonWeightsAdjustmentImpl(weightAdjustment.transpose(),
 				leftToRightBiases.transpose(), rightToLeftBiases);
@@ -36,7 +36,7 @@ public class DirectedLayerContextImpl extends DirectedComponentActivationContext
 	 */
 	private static final long serialVersionUID = 1L;
 	
-	private boolean withFreezeOut;
+	private volatile boolean withFreezeOut;
 	private DirectedLayer<?, ?> directedLayer;
 
 	/**
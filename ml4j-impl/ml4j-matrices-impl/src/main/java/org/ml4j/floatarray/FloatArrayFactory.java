@@ -7,4 +7,13 @@ public interface FloatArrayFactory extends Serializable {
 	float[] createFloatArray(int length);
 	float[][] createFloatArray(int rows, int columns);
 
+	/**
+	 * Hand back an array created by this factory which is no longer referenced
+	 * by the caller, so that it may be reused. A no-op unless the factory pools.
+	 *
+	 * @param array The array being released.
+	 */
+	default void release(float[] array) {
+		// No-op by default
+	}
 }
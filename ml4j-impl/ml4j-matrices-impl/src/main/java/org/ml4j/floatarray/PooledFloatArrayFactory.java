@@ -0,0 +1,210 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.ml4j.floatarray;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * FloatArrayFactory which recycles released arrays rather than allocating a
+ * new array for every request.
+ *
+ * Released arrays are bucketed by their exact length. Each thread first
+ * consults a small cache of its own, falling back to a bounded pool shared by
+ * all threads. Arrays shorter than the minimum pooled length are neither pooled
+ * nor counted in the metrics. Arrays handed out are always zero-filled, as with
+ * DefaultFloatArrayFactory.
+ *
+ * An array must only be released once, by its sole owner, and must not be
+ * accessed after it has been released.
+ *
+ * @author Michael Lavelle
+ */
+public class PooledFloatArrayFactory implements FloatArrayFactory {
+
+	/**
+	 * Default serialization id.
+	 */
+	private static final long serialVersionUID = 1L;
+
+	public static final int DEFAULT_MINIMUM_POOLED_LENGTH = 1024;
+	public static final int DEFAULT_MAXIMUM_SHARED_ARRAYS_PER_LENGTH = 16;
+	public static final int DEFAULT_MAXIMUM_THREAD_ARRAYS_PER_LENGTH = 2;
+
+	private final int minimumPooledLength;
+	private final int maximumSharedArraysPerLength;
+	private final int maximumThreadArraysPerLength;
+
+	private transient ConcurrentMap<Integer, Queue<float[]>> sharedPool;
+	private transient ThreadLocal<Map<Integer, Deque<float[]>>> threadPools;
+
+	private transient AtomicLong hitCount;
+	private transient AtomicLong missCount;
+	private transient AtomicLong releaseCount;
+	private transient AtomicLong discardCount;
+
+	public PooledFloatArrayFactory() {
+		this(DEFAULT_MINIMUM_POOLED_LENGTH, DEFAULT_MAXIMUM_SHARED_ARRAYS_PER_LENGTH,
+				DEFAULT_MAXIMUM_THREAD_ARRAYS_PER_LENGTH);
+	}
+
+	/**
+	 * @param minimumPooledLength          The length below which arrays are
+	 *                                     always allocated and never pooled.
+	 * @param maximumSharedArraysPerLength The maximum number of arrays of each
+	 *                                     length retained by the shared pool.
+	 * @param maximumThreadArraysPerLength The maximum number of arrays of each
+	 *                                     length retained by each thread.
+	 */
+	public PooledFloatArrayFactory(int minimumPooledLength, int maximumSharedArraysPerLength,
+			int maximumThreadArraysPerLength) {
+		if (minimumPooledLength < 1 || maximumSharedArraysPerLength < 1 || maximumThreadArraysPerLength < 0) {
+			throw new IllegalArgumentException("Invalid pool sizes");
+		}
+		this.minimumPooledLength = minimumPooledLength;
+		this.maximumSharedArraysPerLength = maximumSharedArraysPerLength;
+		this.maximumThreadArraysPerLength = maximumThreadArraysPerLength;
+		this.sharedPool = new ConcurrentHashMap<>();
+		this.threadPools = ThreadLocal.withInitial(HashMap::new);
+		this.hitCount = new AtomicLong();
+		this.missCount = new AtomicLong();
+		this.releaseCount = new AtomicLong();
+		this.discardCount = new AtomicLong();
+	}
+
+	@Override
+	public float[] createFloatArray(int length) {
+		if (length < minimumPooledLength) {
+			return new float[length];
+		}
+		float[] array = null;
+		Deque<float[]> threadPool = threadPools.get().get(length);
+		if (threadPool != null) {
+			array = threadPool.poll();
+		}
+		if (array == null) {
+			Queue<float[]> lengthPool = sharedPool.get(length);
+			if (lengthPool != null) {
+				array = lengthPool.poll();
+			}
+		}
+		if (array == null) {
+			missCount.incrementAndGet();
+			return new float[length];
+		}
+		hitCount.incrementAndGet();
+		Arrays.fill(array, 0f);
+		return array;
+	}
+
+	@Override
+	public float[][] createFloatArray(int rows, int columns) {
+		return new float[rows][columns];
+	}
+
+	@Override
+	public void release(float[] array) {
+		if (array == null || array.length < minimumPooledLength) {
+			return;
+		}
+		releaseCount.incrementAndGet();
+		Deque<float[]> threadPool = threadPools.get().computeIfAbsent(array.length, l -> new ArrayDeque<>());
+		if (threadPool.size() < maximumThreadArraysPerLength) {
+			threadPool.push(array);
+		} else if (!sharedPool
+				.computeIfAbsent(array.length, l -> new ArrayBlockingQueue<>(maximumSharedArraysPerLength))
+				.offer(array)) {
+			discardCount.incrementAndGet();
+		}
+	}
+
+	/**
+	 * @return The number of pooled-length arrays served from the pool.
+	 */
+	public long getHitCount() {
+		return hitCount.get();
+	}
+
+	/**
+	 * @return The number of pooled-length arrays which had to be allocated.
+	 */
+	public long getMissCount() {
+		return missCount.get();
+	}
+
+	/**
+	 * @return The number of pooled-length arrays released to this factory.
+	 */
+	public long getReleaseCount() {
+		return releaseCount.get();
+	}
+
+	/**
+	 * @return The number of released arrays dropped because the pool was full.
+	 */
+	public long getDiscardCount() {
+		return discardCount.get();
+	}
+
+	/**
+	 * @return The proportion of pooled-length requests served from the pool.
+	 */
+	public double getHitRatio() {
+		long hits = getHitCount();
+		long requests = hits + getMissCount();
+		return requests == 0 ? 0 : (double) hits / requests;
+	}
+
+	/**
+	 * Reset the hit, miss, release and discard counts.
+	 */
+	public void resetMetrics() {
+		hitCount.set(0);
+		missCount.set(0);
+		releaseCount.set(0);
+		discardCount.set(0);
+	}
+
+	/**
+	 * Drop the arrays held by the shared pool and by the calling thread.
+	 */
+	public void clear() {
+		sharedPool.clear();
+		threadPools.remove();
+	}
+
+	@Override
+	public String toString() {
+		return "PooledFloatArrayFactory [hits=" + getHitCount() + ", misses=" + getMissCount() + ", releases="
+				+ getReleaseCount() + ", discards=" + getDiscardCount() + "]";
+	}
+
+	/**
+	 * Pools are not serialized - a deserialized factory starts with empty pools.
+	 *
+	 * @return A new PooledFloatArrayFactory with the same configuration.
+	 */
+	private Object readResolve() {
+		return new PooledFloatArrayFactory(minimumPooledLength, maximumSharedArraysPerLength,
+				maximumThreadArraysPerLength);
+	}
+}
@@ -12,4 +12,13 @@ public interface FloatMatrixFactory extends Serializable {
 
 	FloatMatrix create(int rows, int columns, float[] data);
 
+	/**
+	 * Hand back a FloatMatrix whose data is no longer referenced elsewhere, so
+	 * that its data array may be reused. A no-op unless the factory pools.
+	 *
+	 * @param matrix The matrix being released.
+	 */
+	default void release(FloatMatrix matrix) {
+		// No-op by default
+	}
 }
@@ -0,0 +1,178 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.ml4j.images;
+
+
+/**
+ * Average pools images directly from their data, and scatters the gradients of
+ * the averages back onto the images, without an im2col reformat in either
+ * direction.
+ *
+ * The bounds of each window, clipped to the unpadded image, and the reciprocal
+ * of the number of image elements it covers are computed once for the geometry,
+ * so padding does not count towards an average. The examples of each element
+ * are contiguous, so the innermost loops run over examples. Each channel, and
+ * each block of examples when there are few channels, is run as a separate tile
+ * on the BranchScheduler of the context, as configured by
+ * ImageContainerParallelism.
+ *
+ * @author Michael Lavelle
+ */
+public class AveragePoolingWindows {
+
+	/**
+	 * The minimum number of examples in a tile when the examples of a channel are
+	 * split across tiles.
+	 */
+	private static final int MINIMUM_EXAMPLES_PER_TILE = 16;
+
+	private int channels;
+	private int height;
+	private int width;
+	private int outputHeight;
+	private int outputWidth;
+	private int[] heightStarts;
+	private int[] heightEnds;
+	private int[] widthStarts;
+	private int[] widthEnds;
+	private float[] reciprocalCounts;
+
+	public AveragePoolingWindows(int channels, int height, int width, int filterHeight, int filterWidth,
+			int strideHeight, int strideWidth, int paddingHeight, int paddingWidth) {
+		if (channels < 1 || height < 1 || width < 1 || filterHeight < 1 || filterWidth < 1 || strideHeight < 1
+				|| strideWidth < 1 || paddingHeight < 0 || paddingWidth < 0) {
+			throw new IllegalArgumentException("Invalid average pooling geometry");
+		}
+		if (filterHeight > height + 2 * paddingHeight || filterWidth > width + 2 * paddingWidth) {
+			throw new IllegalArgumentException("Filter is larger than the padded image");
+		}
+		this.channels = channels;
+		this.height = height;
+		this.width = width;
+		this.outputHeight = (height + 2 * paddingHeight - filterHeight) / strideHeight + 1;
+		this.outputWidth = (width + 2 * paddingWidth - filterWidth) / strideWidth + 1;
+		this.heightStarts = new int[outputHeight];
+		this.heightEnds = new int[outputHeight];
+		for (int h = 0; h < outputHeight; h++) {
+			heightStarts[h] = Math.max(0, h * strideHeight - paddingHeight);
+			heightEnds[h] = Math.min(height, h * strideHeight - paddingHeight + filterHeight);
+		}
+		this.widthStarts = new int[outputWidth];
+		this.widthEnds = new int[outputWidth];
+		for (int w = 0; w < outputWidth; w++) {
+			widthStarts[w] = Math.max(0, w * strideWidth - paddingWidth);
+			widthEnds[w] = Math.min(width, w * strideWidth - paddingWidth + filterWidth);
+		}
+		this.reciprocalCounts = new float[outputHeight * outputWidth];
+		for (int h = 0; h < outputHeight; h++) {
+			for (int w = 0; w < outputWidth; w++) {
+				int count = Math.max(0, heightEnds[h] - heightStarts[h]) * Math.max(0, widthEnds[w] - widthStarts[w]);
+				// A window entirely within the padding averages to zero
+				reciprocalCounts[h * outputWidth + w] = 1f / Math.max(1, count);
+			}
+		}
+	}
+
+	public int getOutputHeight() {
+		return outputHeight;
+	}
+
+	public int getOutputWidth() {
+		return outputWidth;
+	}
+
+	/**
+	 * Writes the average of each window of the images.
+	 *
+	 * @param input       The unpadded data of the images.
+	 * @param inputStart  The index of the images within the input.
+	 * @param output      The data of the averages, with zeros where they are to be
+	 *                    written.
+	 * @param outputStart The index at which to write the averages.
+	 * @param examples    The number of examples.
+	 */
+	public void pool(float[] input, int inputStart, float[] output, int outputStart, int examples) {
+		forEachTile(examples, (channel, startExample, endExample) -> {
+			int inputChannelStart = inputStart + channel * height * width * examples;
+			int outputIndex = outputStart + channel * outputHeight * outputWidth * examples;
+			for (int oh = 0; oh < outputHeight; oh++) {
+				for (int ow = 0; ow < outputWidth; ow++) {
+					for (int h = heightStarts[oh]; h < heightEnds[oh]; h++) {
+						for (int w = widthStarts[ow]; w < widthEnds[ow]; w++) {
+							int inputIndex = inputChannelStart + (h * width + w) * examples;
+							for (int n = startExample; n < endExample; n++) {
+								output[outputIndex + n] += input[inputIndex + n];
+							}
+						}
+					}
+					float reciprocalCount = reciprocalCounts[oh * outputWidth + ow];
+					for (int n = startExample; n < endExample; n++) {
+						output[outputIndex + n] *= reciprocalCount;
+					}
+					outputIndex += examples;
+				}
+			}
+		});
+	}
+
+	/**
+	 * Adds the share of the gradient of each average to each image element in its
+	 * window.
+	 *
+	 * @param gradient      The data of the gradients of the averages.
+	 * @param gradientStart The index of the gradients within their data.
+	 * @param output        The unpadded data of the gradients of the images, to
+	 *                      which the shares are added.
+	 * @param outputStart   The index of the gradients of the images.
+	 * @param examples      The number of examples.
+	 */
+	public void scatter(float[] gradient, int gradientStart, float[] output, int outputStart, int examples) {
+		forEachTile(examples, (channel, startExample, endExample) -> {
+			int gradientIndex = gradientStart + channel * outputHeight * outputWidth * examples;
+			int outputChannelStart = outputStart + channel * height * width * examples;
+			for (int oh = 0; oh < outputHeight; oh++) {
+				for (int ow = 0; ow < outputWidth; ow++) {
+					float reciprocalCount = reciprocalCounts[oh * outputWidth + ow];
+					for (int h = heightStarts[oh]; h < heightEnds[oh]; h++) {
+						for (int w = widthStarts[ow]; w < widthEnds[ow]; w++) {
+							int outputIndex = outputChannelStart + (h * width + w) * examples;
+							for (int n = startExample; n < endExample; n++) {
+								output[outputIndex + n] += gradient[gradientIndex + n] * reciprocalCount;
+							}
+						}
+					}
+					gradientIndex += examples;
+				}
+			}
+		});
+	}
+
+	private void forEachTile(int examples, Tile tile) {
+		int parallelism = ImageContainerParallelism.getParallelism();
+		int exampleBlocks = channels >= parallelism ? 1
+				: Math.max(1, Math.min((parallelism + channels - 1) / channels, examples / MINIMUM_EXAMPLES_PER_TILE));
+		int examplesPerBlock = (examples + exampleBlocks - 1) / exampleBlocks;
+		// Each tile reads and writes its own channel and examples only
+		ImageContainerParallelism.forEachTile(channels * exampleBlocks, (long) channels * height * width * examples,
+				i -> {
+					int startExample = (i % exampleBlocks) * examplesPerBlock;
+					tile.run(i / exampleBlocks, startExample, Math.min(examples, startExample + examplesPerBlock));
+				});
+	}
+
+	private interface Tile {
+
+		void run(int channel, int startExample, int endExample);
+	}
+}
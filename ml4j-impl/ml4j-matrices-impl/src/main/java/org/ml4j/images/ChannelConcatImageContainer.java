@@ -106,54 +106,48 @@ public abstract class ChannelConcatImageContainer<I extends ImageContainer<I>> e
 			int strideHeight, int strideWidth, int channels) {
 		int windowSpanWidth = width + 2 * paddingWidth - filterWidth + 1;
 		int windowSpanHeight = height + 2 * paddingHeight - filterHeight + 1;
-		int windowWidth = strideWidth == 1 ? windowSpanWidth : (windowSpanWidth + 1) / strideWidth;
-		int windowHeight = strideHeight == 1 ? windowSpanHeight : (windowSpanHeight + 1) / strideHeight;
-		for (I subImage : channelConcatImages) {
-			subImage.populateIm2colConvExport(data, startIndex, filterHeight, filterWidth, strideHeight, strideWidth,
-					channels);
-			startIndex = startIndex
-					+ windowWidth * windowHeight * examples * filterHeight * filterWidth * subImage.getChannels();
-		}
+		int windowWidth = strideWidth == 1 ? windowSpanWidth : (windowSpanWidth - 1) / strideWidth + 1;
+		int windowHeight = strideHeight == 1 ? windowSpanHeight : (windowSpanHeight - 1) / strideHeight + 1;
+		int length = windowWidth * windowHeight * examples * filterHeight * filterWidth;
+		forEachSubImage(channelConcatImages, startIndex, length, length,
+				(subImage, subImageStartIndex) -> subImage.populateIm2colConvExport(data, subImageStartIndex,
+						filterHeight, filterWidth, strideHeight, strideWidth, channels));
 	}
 
 	public void populateIm2colPoolExport(float[] data, int startIndex, int filterHeight, int filterWidth,
 			int strideHeight, int strideWidth, int channels) {
 		int windowSpanWidth = width + 2 * paddingWidth - filterWidth + 1;
 		int windowSpanHeight = height + 2 * paddingHeight - filterHeight + 1;
-		int windowWidth = strideWidth == 1 ? windowSpanWidth : (windowSpanWidth + 1) / strideWidth;
-		int windowHeight = strideHeight == 1 ? windowSpanHeight : (windowSpanHeight + 1) / strideHeight;
-		for (I subImage : channelConcatImages) {
-			subImage.populateIm2colPoolExport(data, startIndex, filterHeight, filterWidth, strideHeight, strideWidth,
-					channels);
-			startIndex = startIndex + examples * subImage.getChannels() * windowWidth * windowHeight;
-		}
+		int windowWidth = strideWidth == 1 ? windowSpanWidth : (windowSpanWidth - 1) / strideWidth + 1;
+		int windowHeight = strideHeight == 1 ? windowSpanHeight : (windowSpanHeight - 1) / strideHeight + 1;
+		forEachSubImage(channelConcatImages, startIndex, examples * windowWidth * windowHeight,
+				(long) examples * windowWidth * windowHeight * filterHeight * filterWidth,
+				(subImage, subImageStartIndex) -> subImage.populateIm2colPoolExport(data, subImageStartIndex,
+						filterHeight, filterWidth, strideHeight, strideWidth, channels));
 	}
 
 	public void populateIm2colConvImport(float[] data, int startIndex, int filterHeight, int filterWidth,
 			int strideHeight, int strideWidth, int channels) {
 		int windowSpanWidth = width + 2 * paddingWidth - filterWidth + 1;
 		int windowSpanHeight = height + 2 * paddingHeight - filterHeight + 1;
-		int windowWidth = strideWidth == 1 ? windowSpanWidth : (windowSpanWidth + 1) / strideWidth;
-		int windowHeight = strideHeight == 1 ? windowSpanHeight : (windowSpanHeight + 1) / strideHeight;
-		for (I subImage : channelConcatImages) {
-			subImage.populateIm2colConvImport(data, startIndex, filterHeight, filterWidth, strideHeight, strideWidth,
-					channels);
-			startIndex = startIndex
-					+ windowWidth * windowHeight * examples * filterHeight * filterWidth * subImage.getChannels();
-		}
+		int windowWidth = strideWidth == 1 ? windowSpanWidth : (windowSpanWidth - 1) / strideWidth + 1;
+		int windowHeight = strideHeight == 1 ? windowSpanHeight : (windowSpanHeight - 1) / strideHeight + 1;
+		int length = windowWidth * windowHeight * examples * filterHeight * filterWidth;
+		forEachSubImage(channelConcatImages, startIndex, length, length,
+				(subImage, subImageStartIndex) -> subImage.populateIm2colConvImport(data, subImageStartIndex,
+						filterHeight, filterWidth, strideHeight, strideWidth, channels));
 	}
 
 	public void populateIm2colPoolImport(float[] data, int startIndex, int filterHeight, int filterWidth,
 			int strideHeight, int strideWidth, int channels) {
 		int windowSpanWidth = width + 2 * paddingWidth - filterWidth + 1;
 		int windowSpanHeight = height + 2 * paddingHeight - filterHeight + 1;
-		int windowWidth = strideWidth == 1 ? windowSpanWidth : (windowSpanWidth + 1) / strideWidth;
-		int windowHeight = strideHeight == 1 ? windowSpanHeight : (windowSpanHeight + 1) / strideHeight;
-		for (I subImage : channelConcatImages) {
-			subImage.populateIm2colPoolImport(data, startIndex, filterHeight, filterWidth, strideHeight, strideWidth,
-					channels);
-			startIndex = startIndex + examples * subImage.getChannels() * windowWidth * windowHeight;
-		}
+		int windowWidth = strideWidth == 1 ? windowSpanWidth : (windowSpanWidth - 1) / strideWidth + 1;
+		int windowHeight = strideHeight == 1 ? windowSpanHeight : (windowSpanHeight - 1) / strideHeight + 1;
+		forEachSubImage(channelConcatImages, startIndex, examples * windowWidth * windowHeight,
+				(long) examples * windowWidth * windowHeight * filterHeight * filterWidth,
+				(subImage, subImageStartIndex) -> subImage.populateIm2colPoolImport(data, subImageStartIndex,
+						filterHeight, filterWidth, strideHeight, strideWidth, channels));
 	}
 
 	@Override
@@ -1,9 +1,14 @@
 package org.ml4j.images;
 
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.ObjIntConsumer;
+
 import org.ml4j.FloatModifier;
 import org.ml4j.FloatPredicate;
 import org.ml4j.Matrix;
 import org.ml4j.MatrixFactory;
+import org.ml4j.jblas.JBlasRowMajorMatrixFactory;
 
 public abstract class ImageContainerBase<I extends ImageContainer<I>> implements ImageContainer<I> {
 
@@ -13,7 +18,7 @@ public abstract class ImageContainerBase<I extends ImageContainer<I>> implements
 	protected int paddingWidth = 0;
 	protected int examples;
 
-	public ImageContainerBase(int width, int height, int paddingHeight, int paddingWidth, int examples) {
+	public ImageContainerBase(int height, int width, int paddingHeight, int paddingWidth, int examples) {
 		this.width = width;
 		this.height = height;
 		this.paddingHeight = paddingHeight;
@@ -78,21 +83,64 @@ public abstract class ImageContainerBase<I extends ImageContainer<I>> implements
 	public abstract void populateIm2colPoolImport(float[] data, int startIndex, int filterHeight, int filterWidth,
 			int strideHeight, int strideWidth, int channels);
 
+	/**
+	 * Reformat each of the given sub-images, whose target regions are consecutive
+	 * and disjoint, as a separate tile which may be run in parallel.
+	 *
+	 * @param subImages                     The sub-images.
+	 * @param startIndex                    The start index of the first
+	 *                                      sub-image's target region.
+	 * @param startIndexIncrementPerChannel The start index increment per channel
+	 *                                      of each sub-image.
+	 * @param lengthPerChannel              The number of floats copied per
+	 *                                      channel.
+	 * @param reformat                      Reformats a sub-image given the start
+	 *                                      index of its target region.
+	 */
+	protected static <S extends ImageContainer<?>> void forEachSubImage(List<S> subImages, int startIndex,
+			int startIndexIncrementPerChannel, long lengthPerChannel, ObjIntConsumer<S> reformat) {
+		int[] subImageStartIndexes = new int[subImages.size()];
+		int channels = 0;
+		for (int i = 0; i < subImageStartIndexes.length; i++) {
+			subImageStartIndexes[i] = startIndex + channels * startIndexIncrementPerChannel;
+			channels = channels + subImages.get(i).getChannels();
+		}
+		ImageContainerParallelism.forEachTile(subImageStartIndexes.length, lengthPerChannel * channels,
+				i -> reformat.accept(subImages.get(i), subImageStartIndexes[i]));
+	}
+
 	public abstract I dup();
 
 	public abstract I softDup();
 
+	/**
+	 * Populate a new data array and wrap it as a matrix. The array is populated
+	 * before it is wrapped, as only some factories' matrices write through to the
+	 * array returned by getRowByRowArray. The array is obtained from, and released
+	 * on close to, the FloatArrayFactory of a JBlasRowMajorMatrixFactory.
+	 */
+	private Matrix createExportMatrix(MatrixFactory matrixFactory, int rows, int columns, Consumer<float[]> populate) {
+		if (matrixFactory instanceof JBlasRowMajorMatrixFactory) {
+			JBlasRowMajorMatrixFactory jblasMatrixFactory = (JBlasRowMajorMatrixFactory) matrixFactory;
+			float[] data = jblasMatrixFactory.getFloatArrayFactory().createFloatArray(rows * columns);
+			populate.accept(data);
+			return jblasMatrixFactory.createRecyclableMatrixFromRowsByRowsArray(rows, columns, data);
+		}
+		float[] data = new float[rows * columns];
+		populate.accept(data);
+		return matrixFactory.createMatrixFromRowsByRowsArray(rows, columns, data);
+	}
+
 	@Override
 	public Matrix im2colConvExport(MatrixFactory matrixFactory, int filterHeight, int filterWidth, int strideHeight,
 			int strideWidth) {
 		int windowSpanWidth = width + 2 * paddingWidth - filterWidth + 1;
 		int windowSpanHeight = height + 2 * paddingHeight - filterHeight + 1;
-		int windowWidth = strideWidth == 1 ? windowSpanWidth : (windowSpanWidth + 1) / strideWidth;
-		int windowHeight = strideHeight == 1 ? windowSpanHeight : (windowSpanHeight + 1) / strideHeight;
-		float[] data = new float[getChannels() * filterWidth * filterHeight * windowWidth * windowHeight * examples];
-		populateIm2colConvExport(data, getStartIndex(), filterHeight, filterWidth, strideHeight, strideWidth, getChannels());
-		return matrixFactory.createMatrixFromRowsByRowsArray(getChannels() * filterWidth * filterHeight,
-				windowWidth * windowHeight * examples, data);
+		int windowWidth = strideWidth == 1 ? windowSpanWidth : (windowSpanWidth - 1) / strideWidth + 1;
+		int windowHeight = strideHeight == 1 ? windowSpanHeight : (windowSpanHeight - 1) / strideHeight + 1;
+		return createExportMatrix(matrixFactory, getChannels() * filterWidth * filterHeight,
+				windowWidth * windowHeight * examples, data -> populateIm2colConvExport(data, getStartIndex(),
+						filterHeight, filterWidth, strideHeight, strideWidth, getChannels()));
 	}
 
 	@Override
@@ -105,10 +153,8 @@ public abstract class ImageContainerBase<I extends ImageContainer<I>> implements
 
 	@Override
 	public Matrix spaceToDepthExport(MatrixFactory matrixFactory, int blockHeight, int blockWidth) {
-		float[] data = new float[getDataLength()];
-		populateSpaceToDepthExport(data, getStartIndex(), blockHeight, blockHeight);
-		return matrixFactory.createMatrixFromRowsByRowsArray(getDataLength() / examples,
-				examples, data);
+		return createExportMatrix(matrixFactory, getDataLength() / examples, examples,
+				data -> populateSpaceToDepthExport(data, getStartIndex(), blockHeight, blockWidth));
 	}
 
 	@Override
@@ -122,12 +168,11 @@ public abstract class ImageContainerBase<I extends ImageContainer<I>> implements
 			int strideWidth) {
 		int windowSpanWidth = width + 2 * paddingWidth - filterWidth + 1;
 		int windowSpanHeight = height + 2 * paddingHeight - filterHeight + 1;
-		int windowWidth = strideWidth == 1 ? windowSpanWidth : (windowSpanWidth + 1) / strideWidth;
-		int windowHeight = strideHeight == 1 ? windowSpanHeight : (windowSpanHeight + 1) / strideHeight;
-		float[] data = new float[getChannels() * filterWidth * filterHeight * windowWidth * windowHeight * examples];
-		populateIm2colPoolExport(data, getStartIndex(), filterHeight, filterWidth, strideHeight, strideWidth, getChannels());
-		return matrixFactory.createMatrixFromRowsByRowsArray(filterWidth * filterHeight,
-				windowWidth * windowHeight * examples * getChannels(), data);
+		int windowWidth = strideWidth == 1 ? windowSpanWidth : (windowSpanWidth - 1) / strideWidth + 1;
+		int windowHeight = strideHeight == 1 ? windowSpanHeight : (windowSpanHeight - 1) / strideHeight + 1;
+		return createExportMatrix(matrixFactory, filterWidth * filterHeight,
+				windowWidth * windowHeight * examples * getChannels(), data -> populateIm2colPoolExport(data,
+						getStartIndex(), filterHeight, filterWidth, strideHeight, strideWidth, getChannels()));
 	}
 
 	@Override
@@ -0,0 +1,139 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.ml4j.images;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.IntConsumer;
+import java.util.function.Supplier;
+
+import org.ml4j.nn.components.BranchScheduler;
+
+/**
+ * Configures and runs the parallel im2col and col2im reformats of the image
+ * containers.
+ *
+ * A reformat is split into independent tiles, one per channel or per filter
+ * position, each of which writes to a region of the target that no other tile
+ * writes to. The tiles are run on the BranchScheduler of the context within
+ * which the reformat is performed, unless the reformat is too small for the
+ * parallelism to pay for itself. Reformats performed outside of such a context
+ * run on the calling thread.
+ *
+ * @author Michael Lavelle
+ */
+public final class ImageContainerParallelism {
+
+	/**
+	 * The default minimum number of floats a reformat must copy before its tiles
+	 * are run in parallel.
+	 */
+	public static final int DEFAULT_MINIMUM_PARALLEL_LENGTH = 1 << 15;
+
+	/**
+	 * The BranchScheduler of the context within which the current thread is
+	 * performing reformats.
+	 */
+	private static final ThreadLocal<BranchScheduler> BRANCH_SCHEDULER = new ThreadLocal<>();
+
+	private static volatile int minimumParallelLength = DEFAULT_MINIMUM_PARALLEL_LENGTH;
+
+	private ImageContainerParallelism() {
+	}
+
+	/**
+	 * @return The BranchScheduler on which reformats of the current thread are
+	 *         run, or null if they are run on the calling thread.
+	 */
+	public static BranchScheduler getBranchScheduler() {
+		return BRANCH_SCHEDULER.get();
+	}
+
+	/**
+	 * Perform reformats with their tiles run on the given BranchScheduler.
+	 *
+	 * @param branchScheduler The BranchScheduler of the context, or null to run
+	 *                        tiles on the calling thread.
+	 * @param reformats       Performs the reformats.
+	 * @return The result of the reformats.
+	 */
+	public static <T> T withBranchScheduler(BranchScheduler branchScheduler, Supplier<T> reformats) {
+		BranchScheduler previousBranchScheduler = BRANCH_SCHEDULER.get();
+		BRANCH_SCHEDULER.set(branchScheduler);
+		try {
+			return reformats.get();
+		} finally {
+			if (previousBranchScheduler == null) {
+				BRANCH_SCHEDULER.remove();
+			} else {
+				BRANCH_SCHEDULER.set(previousBranchScheduler);
+			}
+		}
+	}
+
+	/**
+	 * @return The minimum number of floats a reformat must copy before its tiles
+	 *         are run in parallel.
+	 */
+	public static int getMinimumParallelLength() {
+		return minimumParallelLength;
+	}
+
+	/**
+	 * @param minimumParallelLength The minimum number of floats a reformat must
+	 *                              copy before its tiles are run in parallel.
+	 */
+	public static void setMinimumParallelLength(int minimumParallelLength) {
+		if (minimumParallelLength < 0) {
+			throw new IllegalArgumentException("Minimum parallel length must not be negative");
+		}
+		ImageContainerParallelism.minimumParallelLength = minimumParallelLength;
+	}
+
+	/**
+	 * @return The number of tiles which may usefully run at once on the current
+	 *         thread's BranchScheduler.
+	 */
+	static int getParallelism() {
+		return BRANCH_SCHEDULER.get() == null ? 1 : Runtime.getRuntime().availableProcessors();
+	}
+
+	/**
+	 * Run each of the tiles of a reformat, in parallel if the reformat is large
+	 * enough and the current thread has a BranchScheduler.
+	 *
+	 * @param tileCount The number of tiles.
+	 * @param length    The total number of floats copied by the reformat.
+	 * @param tile      Runs the tile with the given index. Tiles must not write to
+	 *                  overlapping regions.
+	 */
+	static void forEachTile(int tileCount, long length, IntConsumer tile) {
+		BranchScheduler branchScheduler = BRANCH_SCHEDULER.get();
+		if (branchScheduler == null || tileCount < 2 || length < minimumParallelLength) {
+			for (int i = 0; i < tileCount; i++) {
+				tile.accept(i);
+			}
+		} else {
+			List<Supplier<Void>> tiles = new ArrayList<>(tileCount);
+			for (int i = 0; i < tileCount; i++) {
+				int tileIndex = i;
+				tiles.add(() -> {
+					tile.accept(tileIndex);
+					return null;
+				});
+			}
+			branchScheduler.invokeAll(tiles);
+		}
+	}
+}
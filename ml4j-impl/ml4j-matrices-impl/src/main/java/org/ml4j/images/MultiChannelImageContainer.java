@@ -2,6 +2,7 @@ package org.ml4j.images;
 
 import java.util.List;
 
+import org.ml4j.FloatArrayKernel;
 import org.ml4j.FloatModifier;
 import org.ml4j.FloatPredicate;
 
@@ -35,7 +36,7 @@ public abstract class MultiChannelImageContainer<I extends ImageContainer<I>> ex
 	}
 
 	public void populateData(float[] data, int startIndex) {
-		if (paddingHeight == 0 && paddingWidth == 0 && startIndex == 0) {
+		if (paddingHeight == 0 && paddingWidth == 0) {
 			System.arraycopy(this.data, this.startIndex, data, startIndex, getDataLength());
 		} else {
 			populateDataSubImage(data, startIndex, 0, 0, height, width, 1, 1, false);
@@ -96,14 +97,12 @@ public abstract class MultiChannelImageContainer<I extends ImageContainer<I>> ex
 			int strideHeight, int strideWidth, int channels) {
 		int windowSpanWidth = width + 2 * paddingWidth - filterWidth + 1;
 		int windowSpanHeight = height + 2 * paddingHeight - filterHeight + 1;
-		int windowWidth = strideWidth == 1 ? windowSpanWidth : (windowSpanWidth + 1) / strideWidth;
-		int windowHeight = strideHeight == 1 ? windowSpanHeight : (windowSpanHeight + 1) / strideHeight;
-		for (ImageContainer<?> subImage : getChannelConcatImages()) {
-			subImage.populateIm2colConvExport(data, startIndex, filterHeight, filterWidth, strideHeight, strideWidth,
-					channels);
-			startIndex = startIndex
-					+ windowWidth * windowHeight * examples * filterHeight * filterWidth * subImage.getChannels();
-		}
+		int windowWidth = strideWidth == 1 ? windowSpanWidth : (windowSpanWidth - 1) / strideWidth + 1;
+		int windowHeight = strideHeight == 1 ? windowSpanHeight : (windowSpanHeight - 1) / strideHeight + 1;
+		int length = windowWidth * windowHeight * examples * filterHeight * filterWidth;
+		forEachSubImage(getChannelConcatImages(), startIndex, length, length,
+				(subImage, subImageStartIndex) -> subImage.populateIm2colConvExport(data, subImageStartIndex,
+						filterHeight, filterWidth, strideHeight, strideWidth, channels));
 	}
 
 	@Override
@@ -111,14 +110,12 @@ public abstract class MultiChannelImageContainer<I extends ImageContainer<I>> ex
 			int strideHeight, int strideWidth, int channels) {
 		int windowSpanWidth = width + 2 * paddingWidth - filterWidth + 1;
 		int windowSpanHeight = height + 2 * paddingHeight - filterHeight + 1;
-		int windowWidth = strideWidth == 1 ? windowSpanWidth : (windowSpanWidth + 1) / strideWidth;
-		int windowHeight = strideHeight == 1 ? windowSpanHeight : (windowSpanHeight + 1) / strideHeight;
-		for (ImageContainer<?> subImage : getChannelConcatImages()) {
-			subImage.populateIm2colConvImport(data, startIndex, filterHeight, filterWidth, strideHeight, strideWidth,
-					channels);
-			startIndex = startIndex
-					+ windowWidth * windowHeight * examples * filterHeight * filterWidth * subImage.getChannels();
-		}
+		int windowWidth = strideWidth == 1 ? windowSpanWidth : (windowSpanWidth - 1) / strideWidth + 1;
+		int windowHeight = strideHeight == 1 ? windowSpanHeight : (windowSpanHeight - 1) / strideHeight + 1;
+		int length = windowWidth * windowHeight * examples * filterHeight * filterWidth;
+		forEachSubImage(getChannelConcatImages(), startIndex, length, length,
+				(subImage, subImageStartIndex) -> subImage.populateIm2colConvImport(data, subImageStartIndex,
+						filterHeight, filterWidth, strideHeight, strideWidth, channels));
 	}
 
 	@Override
@@ -126,13 +123,12 @@ public abstract class MultiChannelImageContainer<I extends ImageContainer<I>> ex
 			int strideHeight, int strideWidth, int channels) {
 		int windowSpanWidth = width + 2 * paddingWidth - filterWidth + 1;
 		int windowSpanHeight = height + 2 * paddingHeight - filterHeight + 1;
-		int windowWidth = strideWidth == 1 ? windowSpanWidth : (windowSpanWidth + 1) / strideWidth;
-		int windowHeight = strideHeight == 1 ? windowSpanHeight : (windowSpanHeight + 1) / strideHeight;
-		for (ImageContainer<?> subImage : getChannelConcatImages()) {
-			subImage.populateIm2colPoolExport(data, startIndex, filterHeight, filterWidth, strideHeight, strideWidth,
-					channels);
-			startIndex = startIndex + examples * subImage.getChannels() * windowWidth * windowHeight;
-		}
+		int windowWidth = strideWidth == 1 ? windowSpanWidth : (windowSpanWidth - 1) / strideWidth + 1;
+		int windowHeight = strideHeight == 1 ? windowSpanHeight : (windowSpanHeight - 1) / strideHeight + 1;
+		forEachSubImage(getChannelConcatImages(), startIndex, examples * windowWidth * windowHeight,
+				(long) examples * windowWidth * windowHeight * filterHeight * filterWidth,
+				(subImage, subImageStartIndex) -> subImage.populateIm2colPoolExport(data, subImageStartIndex,
+						filterHeight, filterWidth, strideHeight, strideWidth, channels));
 	}
 
 	@Override
@@ -140,13 +136,12 @@ public abstract class MultiChannelImageContainer<I extends ImageContainer<I>> ex
 			int strideHeight, int strideWidth, int channels) {
 		int windowSpanWidth = width + 2 * paddingWidth - filterWidth + 1;
 		int windowSpanHeight = height + 2 * paddingHeight - filterHeight + 1;
-		int windowWidth = strideWidth == 1 ? windowSpanWidth : (windowSpanWidth + 1) / strideWidth;
-		int windowHeight = strideHeight == 1 ? windowSpanHeight : (windowSpanHeight + 1) / strideHeight;
-		for (ImageContainer<?> subImage : getChannelConcatImages()) {
-			subImage.populateIm2colPoolImport(data, startIndex, filterHeight, filterWidth, strideHeight, strideWidth,
-					channels);
-			startIndex = startIndex + examples * subImage.getChannels() * windowWidth * windowHeight;
-		}
+		int windowWidth = strideWidth == 1 ? windowSpanWidth : (windowSpanWidth - 1) / strideWidth + 1;
+		int windowHeight = strideHeight == 1 ? windowSpanHeight : (windowSpanHeight - 1) / strideHeight + 1;
+		forEachSubImage(getChannelConcatImages(), startIndex, examples * windowWidth * windowHeight,
+				(long) examples * windowWidth * windowHeight * filterHeight * filterWidth,
+				(subImage, subImageStartIndex) -> subImage.populateIm2colPoolImport(data, subImageStartIndex,
+						filterHeight, filterWidth, strideHeight, strideWidth, channels));
 	}
 	
 	
@@ -185,6 +180,10 @@ public abstract class MultiChannelImageContainer<I extends ImageContainer<I>> ex
 
 	@Override
 	public void applyValueModifier(FloatModifier modifier) {
+		if (modifier instanceof FloatArrayKernel) {
+			((FloatArrayKernel) modifier).apply(data, startIndex, startIndex + getDataLength());
+			return;
+		}
 		for (int i = startIndex; i < getDataLength() + startIndex; i++) {
 			data[i] = modifier.acceptAndModify(data[i]);
 		}
@@ -1,6 +1,7 @@
 package org.ml4j.images;
 
 import org.jblas.JavaBlas;
+import org.ml4j.FloatArrayKernel;
 import org.ml4j.FloatModifier;
 import org.ml4j.FloatPredicate;
 
@@ -59,28 +60,26 @@ public abstract class SingleChannelImageContainer<I extends ImageContainer<I>> e
 	public void populateDataSubImage(float[] data, int startIndex, int startHeight, int startWidth, int height,
 			int width, int strideHeight, int strideWidth, boolean forIm2col2) {
 		int startH = startHeight - paddingHeight;
-		for (int sourceH = startH; sourceH < startH + this.height; sourceH += strideHeight) {
+		for (int sourceH = startH; sourceH < this.height; sourceH += strideHeight) {
 			int targetH = (sourceH - startH) / strideHeight;
 			if (sourceH >= 0 && targetH >= 0 && sourceH < this.height && targetH < height) {
 				if (strideWidth == 1) {
 					int startW2 = Math.max(startWidth - paddingWidth, 0);
-					int widthToCopy = Math.min(width - paddingWidth + (forIm2col2 ? 0 : startWidth),
-							this.width - startW2);
 					int startW = Math.max(paddingWidth - startWidth, 0);
+					int widthToCopy = Math.min(width, this.width - startWidth + paddingWidth) - startW;
 					System.arraycopy(this.data, this.startIndex + sourceH * this.width * examples + startW2 * examples,
 							data, startIndex + targetH * width * examples + startW * examples,
 							examples * (widthToCopy));
 				} else {
 					int widthToCopy = 1;
 					int startW2 = startWidth - paddingWidth;
-					int startW = Math.max(paddingWidth - startWidth, 0);
 					for (int w = startW2; w < this.width; w += strideWidth) {
-						if (w >= 0) {
+						int targetW = (w - startW2) / strideWidth;
+						if (w >= 0 && targetW < width) {
 							System.arraycopy(this.data,
 									this.startIndex + sourceH * this.width * examples + w * examples, data,
-									startIndex + targetH * width * examples + startW * examples,
+									startIndex + targetH * width * examples + targetW * examples,
 									examples * (widthToCopy));
-							startW = startW + 1;
 						}
 
 					}
@@ -93,27 +92,25 @@ public abstract class SingleChannelImageContainer<I extends ImageContainer<I>> e
 	public void populateDataSubImageReverse(float[] data, int startIndex, int startHeight, int startWidth, int height,
 			int width, int strideHeight, int strideWidth, boolean forIm2col2) {
 		int startH = startHeight - paddingHeight;
-		for (int sourceH = startH; sourceH < startH + this.height; sourceH += strideHeight) {
+		for (int sourceH = startH; sourceH < this.height; sourceH += strideHeight) {
 			int targetH = (sourceH - startH) / strideHeight;
 			if (sourceH >= 0 && targetH >= 0 && sourceH < this.height && targetH < height) {
 				if (strideWidth == 1) {
 					int startW2 = Math.max(startWidth - paddingWidth, 0);
-					int widthToCopy = Math.min(width - paddingWidth + (forIm2col2 ? 0 : startWidth),
-							this.width - startW2);
 					int startW = Math.max(paddingWidth - startWidth, 0);
+					int widthToCopy = Math.min(width, this.width - startWidth + paddingWidth) - startW;
 					JavaBlas.raxpy(examples * widthToCopy, 1, data,
 							startIndex + targetH * width * examples + startW * examples, 1, this.data,
 							this.startIndex + sourceH * this.width * examples + startW2 * examples, 1);
 				} else {
 					int widthToCopy = 1;
 					int startW2 = startWidth - paddingWidth;
-					int startW = Math.max(paddingWidth - startWidth, 0);
 					for (int w = startW2; w < this.width; w += strideWidth) {
-						if (w >= 0) {
+						int targetW = (w - startW2) / strideWidth;
+						if (w >= 0 && targetW < width) {
 							JavaBlas.raxpy(examples * widthToCopy, 1, data,
-									startIndex + targetH * width * examples + startW * examples, 1, this.data,
+									startIndex + targetH * width * examples + targetW * examples, 1, this.data,
 									this.startIndex + sourceH * this.width * examples + w * examples, 1);
-							startW = startW + 1;
 						}
 
 					}
@@ -137,15 +134,15 @@ public abstract class SingleChannelImageContainer<I extends ImageContainer<I>> e
 			int strideHeight, int strideWidth, int channels) {
 		int windowSpanWidth = width + 2 * paddingWidth - filterWidth + 1;
 		int windowSpanHeight = height + 2 * paddingHeight - filterHeight + 1;
-		int windowWidth = strideWidth == 1 ? windowSpanWidth : (windowSpanWidth + 1) / strideWidth;
-		int windowHeight = strideHeight == 1 ? windowSpanHeight : (windowSpanHeight + 1) / strideHeight;
-		for (int h = 0; h < filterHeight; h++) {
-			for (int w = 0; w < filterWidth; w++) {
-				populateDataSubImage(data, startIndex, h, w, windowHeight, windowWidth, strideHeight, strideWidth,
-						false);
-				startIndex = startIndex + getSubImageDataLength(windowHeight, windowWidth);
-			}
-		}
+		int windowWidth = strideWidth == 1 ? windowSpanWidth : (windowSpanWidth - 1) / strideWidth + 1;
+		int windowHeight = strideHeight == 1 ? windowSpanHeight : (windowSpanHeight - 1) / strideHeight + 1;
+		// Each filter position is exported to its own block of rows, so can be run as
+		// a separate tile
+		int subImageDataLength = getSubImageDataLength(windowHeight, windowWidth);
+		ImageContainerParallelism.forEachTile(filterHeight * filterWidth,
+				(long) subImageDataLength * filterHeight * filterWidth,
+				i -> populateDataSubImage(data, startIndex + i * subImageDataLength, i / filterWidth, i % filterWidth,
+						windowHeight, windowWidth, strideHeight, strideWidth, false));
 	}
 
 	@Override
@@ -153,8 +150,10 @@ public abstract class SingleChannelImageContainer<I extends ImageContainer<I>> e
 			int strideHeight, int strideWidth, int channels) {
 		int windowSpanWidth = width + 2 * paddingWidth - filterWidth + 1;
 		int windowSpanHeight = height + 2 * paddingHeight - filterHeight + 1;
-		int windowWidth = strideWidth == 1 ? windowSpanWidth : (windowSpanWidth + 1) / strideWidth;
-		int windowHeight = strideHeight == 1 ? windowSpanHeight : (windowSpanHeight + 1) / strideHeight;
+		int windowWidth = strideWidth == 1 ? windowSpanWidth : (windowSpanWidth - 1) / strideWidth + 1;
+		int windowHeight = strideHeight == 1 ? windowSpanHeight : (windowSpanHeight - 1) / strideHeight + 1;
+		// Filter positions accumulate into overlapping regions of this image, so are
+		// imported serially - imports are parallelised across channels instead
 		for (int h = 0; h < filterHeight; h++) {
 			for (int w = 0; w < filterWidth; w++) {
 				populateDataSubImageReverse(data, startIndex, h, w, windowHeight, windowWidth, strideHeight,
@@ -169,15 +168,15 @@ public abstract class SingleChannelImageContainer<I extends ImageContainer<I>> e
 			int strideHeight, int strideWidth, int channels) {
 		int windowSpanWidth = width + 2 * paddingWidth - filterWidth + 1;
 		int windowSpanHeight = height + 2 * paddingHeight - filterHeight + 1;
-		int windowWidth = strideWidth == 1 ? windowSpanWidth : (windowSpanWidth + 1) / strideWidth;
-		int windowHeight = strideHeight == 1 ? windowSpanHeight : (windowSpanHeight + 1) / strideHeight;
-		for (int h = 0; h < filterHeight; h++) {
-			for (int w = 0; w < filterWidth; w++) {
-				populateDataSubImage(data, startIndex, h, w, windowHeight, windowWidth, strideHeight, strideWidth,
-						true);
-				startIndex = startIndex + getSubImageDataLength(windowHeight, windowWidth) * channels;
-			}
-		}
+		int windowWidth = strideWidth == 1 ? windowSpanWidth : (windowSpanWidth - 1) / strideWidth + 1;
+		int windowHeight = strideHeight == 1 ? windowSpanHeight : (windowSpanHeight - 1) / strideHeight + 1;
+		// Each filter position is exported to its own row, so can be run as a
+		// separate tile
+		int subImageDataLength = getSubImageDataLength(windowHeight, windowWidth);
+		ImageContainerParallelism.forEachTile(filterHeight * filterWidth,
+				(long) subImageDataLength * filterHeight * filterWidth,
+				i -> populateDataSubImage(data, startIndex + i * subImageDataLength * channels, i / filterWidth,
+						i % filterWidth, windowHeight, windowWidth, strideHeight, strideWidth, true));
 	}
 
 	@Override
@@ -185,8 +184,8 @@ public abstract class SingleChannelImageContainer<I extends ImageContainer<I>> e
 			int strideHeight, int strideWidth, int channels) {
 		int windowSpanWidth = width + 2 * paddingWidth - filterWidth + 1;
 		int windowSpanHeight = height + 2 * paddingHeight - filterHeight + 1;
-		int windowWidth = strideWidth == 1 ? windowSpanWidth : (windowSpanWidth + 1) / strideWidth;
-		int windowHeight = strideHeight == 1 ? windowSpanHeight : (windowSpanHeight + 1) / strideHeight;
+		int windowWidth = strideWidth == 1 ? windowSpanWidth : (windowSpanWidth - 1) / strideWidth + 1;
+		int windowHeight = strideHeight == 1 ? windowSpanHeight : (windowSpanHeight - 1) / strideHeight + 1;
 		for (int h = 0; h < filterHeight; h++) {
 			for (int w = 0; w < filterWidth; w++) {
 				populateDataSubImageReverse(data, startIndex, h, w, windowHeight, windowWidth, strideHeight,
@@ -229,6 +228,10 @@ public abstract class SingleChannelImageContainer<I extends ImageContainer<I>> e
 
 	@Override
 	public void applyValueModifier(FloatModifier modifier) {
+		if (modifier instanceof FloatArrayKernel) {
+			((FloatArrayKernel) modifier).apply(data, startIndex, startIndex + getDataLength());
+			return;
+		}
 		for (int i = startIndex; i < startIndex + getDataLength(); i++) {
 			data[i] = modifier.acceptAndModify(data[i]);
 		}
@@ -0,0 +1,392 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.ml4j.images;
+
+import org.ml4j.FloatModifier;
+import org.ml4j.FloatPredicate;
+import org.ml4j.Matrix;
+import org.ml4j.MatrixFactory;
+
+/**
+ * A view of images with each block of spatial positions moved into channels
+ * (space to depth), or of channels moved back into blocks of spatial positions
+ * (depth to space), over the data of the images without copying it.
+ *
+ * The space to depth layout is that of spaceToDepthExport - the channels for
+ * the block position (h, w) of the channel c of the space images are at
+ * (h * blockWidth + w) * channels + c. Both layouts keep the examples of each
+ * element contiguous, so the data is remapped in runs of examples.
+ *
+ * The data is remapped at most once. populateData remaps directly into its
+ * target, but the first time the view is otherwise read as contiguous data,
+ * reformatted or modified, it is materialised into data of its own, which is
+ * then used for all further operations. Modifications therefore never reach
+ * the viewed images.
+ *
+ * @author Michael Lavelle
+ */
+public class SpaceToDepthImages implements Images {
+
+	private float[] data;
+	private int startIndex;
+	private int spaceChannels;
+	private int spaceHeight;
+	private int spaceWidth;
+	private int blockHeight;
+	private int blockWidth;
+	private int examples;
+	private boolean spaceToDepth;
+	private int paddingHeight;
+	private int paddingWidth;
+	private boolean closed;
+	private MultiChannelImages materialised;
+
+	private SpaceToDepthImages(float[] data, int startIndex, int spaceChannels, int spaceHeight, int spaceWidth,
+			int blockHeight, int blockWidth, int examples, boolean spaceToDepth, int paddingHeight,
+			int paddingWidth) {
+		if (data == null) {
+			throw new IllegalArgumentException();
+		}
+		if (blockHeight < 1 || blockWidth < 1 || spaceHeight % blockHeight != 0 || spaceWidth % blockWidth != 0) {
+			throw new IllegalArgumentException("Image dimensions must be multiples of the block dimensions");
+		}
+		if (startIndex < 0 || startIndex + spaceChannels * spaceHeight * spaceWidth * examples > data.length) {
+			throw new IllegalArgumentException("Data is too short for the images");
+		}
+		this.data = data;
+		this.startIndex = startIndex;
+		this.spaceChannels = spaceChannels;
+		this.spaceHeight = spaceHeight;
+		this.spaceWidth = spaceWidth;
+		this.blockHeight = blockHeight;
+		this.blockWidth = blockWidth;
+		this.examples = examples;
+		this.spaceToDepth = spaceToDepth;
+		this.paddingHeight = paddingHeight;
+		this.paddingWidth = paddingWidth;
+	}
+
+	private SpaceToDepthImages(SpaceToDepthImages images) {
+		this.data = images.data;
+		this.startIndex = images.startIndex;
+		this.spaceChannels = images.spaceChannels;
+		this.spaceHeight = images.spaceHeight;
+		this.spaceWidth = images.spaceWidth;
+		this.blockHeight = images.blockHeight;
+		this.blockWidth = images.blockWidth;
+		this.examples = images.examples;
+		this.spaceToDepth = images.spaceToDepth;
+		this.paddingHeight = images.paddingHeight;
+		this.paddingWidth = images.paddingWidth;
+		this.materialised = images.materialised;
+	}
+
+	/**
+	 * @param data        The data of the space images.
+	 * @param startIndex  The index of the space images within the data.
+	 * @param channels    The number of channels of the space images.
+	 * @param height      The height of the space images.
+	 * @param width       The width of the space images.
+	 * @param blockHeight The height of the blocks moved into channels.
+	 * @param blockWidth  The width of the blocks moved into channels.
+	 * @param examples    The number of examples.
+	 * @return A view of the space images with blockHeight * blockWidth times as
+	 *         many channels.
+	 */
+	public static SpaceToDepthImages spaceToDepth(float[] data, int startIndex, int channels, int height, int width,
+			int blockHeight, int blockWidth, int examples) {
+		return new SpaceToDepthImages(data, startIndex, channels, height, width, blockHeight, blockWidth, examples,
+				true, 0, 0);
+	}
+
+	/**
+	 * @param data        The data of the depth images, in the layout of
+	 *                    spaceToDepthExport.
+	 * @param startIndex  The index of the depth images within the data.
+	 * @param channels    The number of channels of the space images.
+	 * @param height      The height of the space images.
+	 * @param width       The width of the space images.
+	 * @param blockHeight The height of the blocks moved out of channels.
+	 * @param blockWidth  The width of the blocks moved out of channels.
+	 * @param examples    The number of examples.
+	 * @return A view of the depth images as space images of the given
+	 *         dimensions.
+	 */
+	public static SpaceToDepthImages depthToSpace(float[] data, int startIndex, int channels, int height, int width,
+			int blockHeight, int blockWidth, int examples) {
+		return new SpaceToDepthImages(data, startIndex, channels, height, width, blockHeight, blockWidth, examples,
+				false, 0, 0);
+	}
+
+	/**
+	 * Copies the space images to the depth images, or the depth images to the
+	 * space images, in runs of examples.
+	 */
+	private void rearrange(float[] space, int spaceStart, float[] depth, int depthStart, boolean toDepth) {
+		int depthHeight = spaceHeight / blockHeight;
+		int depthWidth = spaceWidth / blockWidth;
+		// Each tile reads and writes the elements of one channel of the space images
+		ImageContainerParallelism.forEachTile(spaceChannels, getDataLength(), c -> {
+			for (int h = 0; h < blockHeight; h++) {
+				for (int w = 0; w < blockWidth; w++) {
+					int depthIndex = depthStart
+							+ ((h * blockWidth + w) * spaceChannels + c) * depthHeight * depthWidth * examples;
+					for (int dh = 0; dh < depthHeight; dh++) {
+						int spaceIndex = spaceStart + ((c * spaceHeight + dh * blockHeight + h) * spaceWidth + w)
+								* examples;
+						for (int dw = 0; dw < depthWidth; dw++) {
+							if (toDepth) {
+								System.arraycopy(space, spaceIndex, depth, depthIndex, examples);
+							} else {
+								System.arraycopy(depth, depthIndex, space, spaceIndex, examples);
+							}
+							spaceIndex += blockWidth * examples;
+							depthIndex += examples;
+						}
+					}
+				}
+			}
+		});
+	}
+
+	private void populateUnpaddedData(float[] target, int targetStartIndex) {
+		if (spaceToDepth) {
+			rearrange(data, startIndex, target, targetStartIndex, true);
+		} else {
+			rearrange(target, targetStartIndex, data, startIndex, false);
+		}
+	}
+
+	/**
+	 * @return The unpadded images materialised from the view, remapping the
+	 *         viewed data the first time only.
+	 */
+	private MultiChannelImages getMaterialised() {
+		if (materialised == null) {
+			float[] materialisedData = new float[getDataLength()];
+			populateUnpaddedData(materialisedData, 0);
+			materialised = new MultiChannelImages(materialisedData, getChannels(), getHeight(), getWidth(), 0, 0,
+					examples);
+			// The viewed data is no longer read
+			data = null;
+		}
+		return materialised;
+	}
+
+	/**
+	 * @return The materialised images, with the padding of this view.
+	 */
+	private MultiChannelImages getPaddedMaterialised() {
+		MultiChannelImages images = getMaterialised();
+		if (paddingHeight == 0 && paddingWidth == 0) {
+			return images;
+		}
+		MultiChannelImages paddedImages = images.softDup();
+		paddedImages.setPaddingHeight(paddingHeight);
+		paddedImages.setPaddingWidth(paddingWidth);
+		return paddedImages;
+	}
+
+	@Override
+	public int getChannels() {
+		return spaceToDepth ? spaceChannels * blockHeight * blockWidth : spaceChannels;
+	}
+
+	@Override
+	public int getHeight() {
+		return spaceToDepth ? spaceHeight / blockHeight : spaceHeight;
+	}
+
+	@Override
+	public int getWidth() {
+		return spaceToDepth ? spaceWidth / blockWidth : spaceWidth;
+	}
+
+	@Override
+	public int getExamples() {
+		return examples;
+	}
+
+	@Override
+	public int getPaddingHeight() {
+		return paddingHeight;
+	}
+
+	@Override
+	public int getPaddingWidth() {
+		return paddingWidth;
+	}
+
+	@Override
+	public void setPaddingHeight(int paddingHeight) {
+		this.paddingHeight = paddingHeight;
+	}
+
+	@Override
+	public void setPaddingWidth(int paddingWidth) {
+		this.paddingWidth = paddingWidth;
+	}
+
+	@Override
+	public boolean isClosed() {
+		return closed;
+	}
+
+	@Override
+	public void close() {
+		// The viewed data is not owned by this view, so is only released
+		this.closed = true;
+		this.data = null;
+		this.materialised = null;
+	}
+
+	@Override
+	public int getDataLength() {
+		return spaceChannels * spaceHeight * spaceWidth * examples;
+	}
+
+	@Override
+	public int getSubImageDataLength(int height, int width) {
+		return height * width * examples * getChannels();
+	}
+
+	@Override
+	public void populateData(float[] data, int startIndex) {
+		if (materialised == null && paddingHeight == 0 && paddingWidth == 0) {
+			populateUnpaddedData(data, startIndex);
+		} else {
+			getPaddedMaterialised().populateData(data, startIndex);
+		}
+	}
+
+	@Override
+	public float[] getData() {
+		return getPaddedMaterialised().getData();
+	}
+
+	@Override
+	public Images dup() {
+		return getPaddedMaterialised().dup();
+	}
+
+	@Override
+	public SpaceToDepthImages softDup() {
+		return new SpaceToDepthImages(this);
+	}
+
+	@Override
+	public Images getChannels(int channelRangeStart, int channelRangeEnd) {
+		return getPaddedMaterialised().getChannels(channelRangeStart, channelRangeEnd);
+	}
+
+	@Override
+	public void applyValueModifier(FloatPredicate condition, FloatModifier modifier) {
+		getMaterialised().applyValueModifier(condition, modifier);
+	}
+
+	@Override
+	public void applyValueModifier(FloatModifier modifier) {
+		getMaterialised().applyValueModifier(modifier);
+	}
+
+	@Override
+	public void populateDataSubImage(float[] data, int startIndex, int startHeight, int startWidth, int height,
+			int width, int strideHeight, int strideWidth, boolean pooling) {
+		getPaddedMaterialised().populateDataSubImage(data, startIndex, startHeight, startWidth, height, width,
+				strideHeight, strideWidth, pooling);
+	}
+
+	@Override
+	public void populateDataSubImageReverse(float[] data, int startIndex, int startHeight, int startWidth,
+			int height, int width, int strideHeight, int strideWidth, boolean pooling) {
+		getPaddedMaterialised().populateDataSubImageReverse(data, startIndex, startHeight, startWidth, height, width,
+				strideHeight, strideWidth, pooling);
+	}
+
+	@Override
+	public void populateIm2colConvExport(float[] data, int startIndex, int filterHeight, int filterWidth,
+			int strideHeight, int strideWidth, int channels) {
+		getPaddedMaterialised().populateIm2colConvExport(data, startIndex, filterHeight, filterWidth, strideHeight,
+				strideWidth, channels);
+	}
+
+	@Override
+	public void populateIm2colConvImport(float[] data, int startIndex, int filterHeight, int filterWidth,
+			int strideHeight, int strideWidth, int channels) {
+		getPaddedMaterialised().populateIm2colConvImport(data, startIndex, filterHeight, filterWidth, strideHeight,
+				strideWidth, channels);
+	}
+
+	@Override
+	public void populateIm2colPoolExport(float[] data, int startIndex, int filterHeight, int filterWidth,
+			int strideHeight, int strideWidth, int channels) {
+		getPaddedMaterialised().populateIm2colPoolExport(data, startIndex, filterHeight, filterWidth, strideHeight,
+				strideWidth, channels);
+	}
+
+	@Override
+	public void populateIm2colPoolImport(float[] data, int startIndex, int filterHeight, int filterWidth,
+			int strideHeight, int strideWidth, int channels) {
+		getPaddedMaterialised().populateIm2colPoolImport(data, startIndex, filterHeight, filterWidth, strideHeight,
+				strideWidth, channels);
+	}
+
+	@Override
+	public void populateSpaceToDepthExport(float[] data, int startIndex, int blockHeight, int blockWidth) {
+		getPaddedMaterialised().populateSpaceToDepthExport(data, startIndex, blockHeight, blockWidth);
+	}
+
+	@Override
+	public void populateSpaceToDepthImport(float[] data, int startIndex, int blockHeight, int blockWidth) {
+		getPaddedMaterialised().populateSpaceToDepthImport(data, startIndex, blockHeight, blockWidth);
+	}
+
+	@Override
+	public Matrix spaceToDepthExport(MatrixFactory matrixFactory, int heightFactor, int widthFactor) {
+		return getPaddedMaterialised().spaceToDepthExport(matrixFactory, heightFactor, widthFactor);
+	}
+
+	@Override
+	public void spaceToDepthImport(MatrixFactory matrixFactory, Matrix matrix, int heightFactor, int widthFactor) {
+		getPaddedMaterialised().spaceToDepthImport(matrixFactory, matrix, heightFactor, widthFactor);
+	}
+
+	@Override
+	public Matrix im2colConvExport(MatrixFactory matrixFactory, int filterHeight, int filterWidth, int strideHeight,
+			int strideWidth) {
+		return getPaddedMaterialised().im2colConvExport(matrixFactory, filterHeight, filterWidth, strideHeight,
+				strideWidth);
+	}
+
+	@Override
+	public void im2colConvImport(MatrixFactory matrixFactory, Matrix matrix, int filterHeight, int filterWidth,
+			int strideHeight, int strideWidth) {
+		getPaddedMaterialised().im2colConvImport(matrixFactory, matrix, filterHeight, filterWidth, strideHeight,
+				strideWidth);
+	}
+
+	@Override
+	public Matrix im2colPoolExport(MatrixFactory matrixFactory, int filterHeight, int filterWidth, int strideHeight,
+			int strideWidth) {
+		return getPaddedMaterialised().im2colPoolExport(matrixFactory, filterHeight, filterWidth, strideHeight,
+				strideWidth);
+	}
+
+	@Override
+	public void im2colPoolImport(MatrixFactory matrixFactory, Matrix matrix, int filterHeight, int filterWidth,
+			int strideHeight, int strideWidth) {
+		getPaddedMaterialised().im2colPoolImport(matrixFactory, matrix, filterHeight, filterWidth, strideHeight,
+				strideWidth);
+	}
+}
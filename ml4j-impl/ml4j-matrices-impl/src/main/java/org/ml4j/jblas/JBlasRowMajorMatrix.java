@@ -17,6 +17,7 @@ package org.ml4j.jblas;
 import org.jblas.FloatMatrix;
 import org.jblas.MatrixFunctions;
 import org.ml4j.EditableMatrix;
+import org.ml4j.FloatArrayKernel;
 import org.ml4j.InterrimMatrix;
 import org.ml4j.Matrix;
 import org.ml4j.floatarray.FloatArrayFactory;
@@ -40,6 +41,12 @@ public class JBlasRowMajorMatrix implements Matrix, EditableMatrix, InterrimMatr
 	protected boolean immutable;
 	protected JBlasRowMajorMatrixFactory jblasRowMajorMatrixFactory;
 
+	/**
+	 * Whether this matrix is the sole owner of its data array, and so releases it
+	 * to the FloatMatrixFactory on close.
+	 */
+	protected boolean recyclable;
+
 	public JBlasRowMajorMatrix(JBlasRowMajorMatrixFactory jblasRowMajorMatrixFactory, FloatMatrixFactory floatMatrixFactory, FloatArrayFactory floatArrayFactory, 
 			FloatMatrix matrix, boolean immutable) {
 		this.matrix = matrix;
@@ -71,12 +78,26 @@ public class JBlasRowMajorMatrix implements Matrix, EditableMatrix, InterrimMatr
 		return jblasRowMajorMatrixFactory.createJBlasMatrix(matrix, immutable);
 	}
 
+	/**
+	 * Create a new matrix which is the sole owner of the data of the provided
+	 * FloatMatrix, releasing it to the FloatMatrixFactory when closed.
+	 * 
+	 * @param matrix    The newly created FloatMatrix.
+	 * @param immutable Whether the matrix is immutable.
+	 * @return The new matrix.
+	 */
+	protected Matrix createRecyclableJBlasMatrix(FloatMatrix matrix, boolean immutable) {
+		return jblasRowMajorMatrixFactory.createRecyclableJBlasMatrix(matrix, immutable);
+	}
+
 	@Override
 	public Matrix add(Matrix other) {
 		if (other.getRows() != this.getRows()) {
 			throw new IllegalArgumentException("Rows do not match");
 		}
-		return createJBlasMatrix(getMatrix().add(createJBlasFloatMatrix(other)), false);
+		return createRecyclableJBlasMatrix(
+				getMatrix().addi(createJBlasFloatMatrix(other), floatMatrixFactory.create(getColumns(), getRows())),
+				false);
 	}
 
 	@Override
@@ -84,7 +105,7 @@ public class JBlasRowMajorMatrix implements Matrix, EditableMatrix, InterrimMatr
 		if (other.getRows() != this.getRows()) {
 			throw new IllegalArgumentException("Rows do not match");
 		}
-		return createJBlasMatrix(getMatrix().addRowVector(createJBlasFloatMatrix(other)), false);
+		return createRecyclableJBlasMatrix(getMatrix().addRowVector(createJBlasFloatMatrix(other)), false);
 	}
 
 	@Override
@@ -92,17 +113,17 @@ public class JBlasRowMajorMatrix implements Matrix, EditableMatrix, InterrimMatr
 		if (other.getColumns() != this.getColumns()) {
 			throw new IllegalArgumentException("Columns do not match");
 		}
-		return createJBlasMatrix(getMatrix().addColumnVector(createJBlasFloatMatrix(other)), false);
+		return createRecyclableJBlasMatrix(getMatrix().addColumnVector(createJBlasFloatMatrix(other)), false);
 	}
 
 	@Override
 	public Matrix add(float value) {
-		return createJBlasMatrix(getMatrix().addi(value, floatMatrixFactory.create(getColumns(), getRows())), false);
+		return createRecyclableJBlasMatrix(getMatrix().addi(value, floatMatrixFactory.create(getColumns(), getRows())), false);
 	}
 
 	@Override
 	public Matrix sub(float value) {
-		return createJBlasMatrix(getMatrix().subi(value, floatMatrixFactory.create(getColumns(), getRows())), false);
+		return createRecyclableJBlasMatrix(getMatrix().subi(value, floatMatrixFactory.create(getColumns(), getRows())), false);
 	}
 
 	@Override
@@ -155,12 +176,12 @@ public class JBlasRowMajorMatrix implements Matrix, EditableMatrix, InterrimMatr
 
 	@Override
 	public Matrix div(float value) {
-		return createJBlasMatrix(getMatrix().divi(value, floatMatrixFactory.create(getColumns(), getRows())), false);
+		return createRecyclableJBlasMatrix(getMatrix().divi(value, floatMatrixFactory.create(getColumns(), getRows())), false);
 	}
 
 	@Override
 	public Matrix div(Matrix other) {
-		return createJBlasMatrix(
+		return createRecyclableJBlasMatrix(
 				getMatrix().divi(createJBlasFloatMatrix(other), floatMatrixFactory.create(getColumns(), getRows())),
 				false);
 	}
@@ -207,7 +228,7 @@ public class JBlasRowMajorMatrix implements Matrix, EditableMatrix, InterrimMatr
 	}
 
 	public Matrix get(int[] rows, int[] cols) {
-		return createJBlasMatrix(getMatrix().get(cols, rows), false);
+		return createRecyclableJBlasMatrix(getMatrix().get(cols, rows), false);
 	}
 
 	@Override
@@ -216,7 +237,7 @@ public class JBlasRowMajorMatrix implements Matrix, EditableMatrix, InterrimMatr
 	}
 
 	public Matrix getColumns(int[] cols) {
-		return createJBlasMatrix(getMatrix().getRows(cols), false);
+		return createRecyclableJBlasMatrix(getMatrix().getRows(cols), false);
 	}
 
 	@Override
@@ -225,7 +246,7 @@ public class JBlasRowMajorMatrix implements Matrix, EditableMatrix, InterrimMatr
 	}
 
 	public Matrix getRowRange(int avalue, int bvalue, int cvalue) {
-		return createJBlasMatrix(getMatrix().getColumnRange(avalue, bvalue, cvalue), false);
+		return createRecyclableJBlasMatrix(getMatrix().getColumnRange(avalue, bvalue, cvalue), false);
 	}
 
 	@Override
@@ -235,7 +256,58 @@ public class JBlasRowMajorMatrix implements Matrix, EditableMatrix, InterrimMatr
 
 	@Override
 	public Matrix getRows(int[] rows) {
-		return createJBlasMatrix(getMatrix().getColumns(rows), false);
+		return createRecyclableJBlasMatrix(getMatrix().getColumns(rows), false);
+	}
+
+	/**
+	 * Only a range spanning the whole matrix is a view. A FloatMatrix has no
+	 * offset into its data, and both BLAS calls and getRowByRowArray callers
+	 * assume the data starts at zero and spans the whole array, so any partial
+	 * range is copied.
+	 */
+	@Override
+	public Matrix getColumnRange(int startColumnIndex, int endColumnIndex) {
+		int columns = getColumns();
+		validateRange(startColumnIndex, endColumnIndex, columns);
+		if (startColumnIndex == 0 && endColumnIndex == columns) {
+			return softDup();
+		}
+		// Each row's columns are contiguous in the row-by-row data, so the range is
+		// copied one row segment at a time
+		int rows = getRows();
+		int rangeColumns = endColumnIndex - startColumnIndex;
+		float[] data = getMatrix().data;
+		FloatMatrix range = floatMatrixFactory.create(rangeColumns, rows);
+		for (int r = 0; r < rows; r++) {
+			System.arraycopy(data, r * columns + startColumnIndex, range.data, r * rangeColumns, rangeColumns);
+		}
+		return createRecyclableJBlasMatrix(range, false);
+	}
+
+	/**
+	 * Only a range spanning the whole matrix is a view. A partial range is
+	 * contiguous in the row-by-row data, but is still copied, for the same reason
+	 * as partial column ranges.
+	 */
+	@Override
+	public Matrix getRowRange(int startRowIndex, int endRowIndex) {
+		int rows = getRows();
+		validateRange(startRowIndex, endRowIndex, rows);
+		if (startRowIndex == 0 && endRowIndex == rows) {
+			return softDup();
+		}
+		// A range of rows is a single contiguous block of the row-by-row data
+		int columns = getColumns();
+		FloatMatrix range = floatMatrixFactory.create(columns, endRowIndex - startRowIndex);
+		System.arraycopy(getMatrix().data, startRowIndex * columns, range.data, 0, range.length);
+		return createRecyclableJBlasMatrix(range, false);
+	}
+
+	private void validateRange(int startIndex, int endIndex, int length) {
+		if (startIndex < 0 || endIndex > length || startIndex >= endIndex) {
+			throw new IllegalArgumentException(
+					"Invalid range [" + startIndex + ", " + endIndex + ") for length " + length);
+		}
 	}
 
 	public Matrix mmul(Matrix other, Matrix target) {
@@ -249,41 +321,41 @@ public class JBlasRowMajorMatrix implements Matrix, EditableMatrix, InterrimMatr
 		FloatMatrix o = createJBlasFloatMatrix(other);
 		FloatMatrix t = getMatrix();
 
-		return createJBlasMatrix(o.mmuli(t, floatMatrixFactory.create(other.getColumns(), getRows())), false);
+		return createRecyclableJBlasMatrix(o.mmuli(t, floatMatrixFactory.create(other.getColumns(), getRows())), false);
 
 	}
 	
 
 	@Override
 	public Matrix mul(float value) {
-		return createJBlasMatrix(getMatrix().mul(value), false);
+		return createRecyclableJBlasMatrix(getMatrix().muli(value, floatMatrixFactory.create(getColumns(), getRows())), false);
 	}
 
 	@Override
 	public Matrix mul(Matrix other) {
-		return createJBlasMatrix(
+		return createRecyclableJBlasMatrix(
 				getMatrix().muli(createJBlasFloatMatrix(other), floatMatrixFactory.create(getColumns(), getRows())),
 				false);
 	}
 
 	@Override
 	public Matrix mulColumnVector(Matrix other) {
-		return createJBlasMatrix(getMatrix().mulRowVector(createJBlasFloatMatrix(other)), false);
+		return createRecyclableJBlasMatrix(getMatrix().mulRowVector(createJBlasFloatMatrix(other)), false);
 	}
 
 	@Override
 	public Matrix mulRowVector(Matrix other) {
-		return createJBlasMatrix(getMatrix().mulColumnVector(createJBlasFloatMatrix(other)), false);
+		return createRecyclableJBlasMatrix(getMatrix().mulColumnVector(createJBlasFloatMatrix(other)), false);
 	}
 
 	@Override
 	public Matrix divRowVector(Matrix other) {
-		return createJBlasMatrix(getMatrix().divColumnVector(createJBlasFloatMatrix(other)), false);
+		return createRecyclableJBlasMatrix(getMatrix().divColumnVector(createJBlasFloatMatrix(other)), false);
 	}
 
 	@Override
 	public Matrix divColumnVector(Matrix other) {
-		return createJBlasMatrix(getMatrix().divRowVector(createJBlasFloatMatrix(other)), false);
+		return createRecyclableJBlasMatrix(getMatrix().divRowVector(createJBlasFloatMatrix(other)), false);
 	}
 
 	@Override
@@ -349,12 +421,12 @@ public class JBlasRowMajorMatrix implements Matrix, EditableMatrix, InterrimMatr
 
 	@Override
 	public Matrix rowSums() {
-		return createJBlasMatrix(getMatrix().columnSums(), false);
+		return createRecyclableJBlasMatrix(getMatrix().columnSums(), false);
 	}
 
 	@Override
 	public Matrix columnSums() {
-		return createJBlasMatrix(getMatrix().rowSums(), false);
+		return createRecyclableJBlasMatrix(getMatrix().rowSums(), false);
 	}
 
 	@Override
@@ -362,7 +434,7 @@ public class JBlasRowMajorMatrix implements Matrix, EditableMatrix, InterrimMatr
 		if (other.getRows() != this.getRows()) {
 			throw new IllegalArgumentException("Rows do not match");
 		}
-		return createJBlasMatrix(
+		return createRecyclableJBlasMatrix(
 				getMatrix().subi(createJBlasFloatMatrix(other), floatMatrixFactory.create(getColumns(), getRows())),
 				false);
 
@@ -373,7 +445,7 @@ public class JBlasRowMajorMatrix implements Matrix, EditableMatrix, InterrimMatr
 		if (other.getRows() != this.getRows()) {
 			throw new IllegalArgumentException("Rows do not match");
 		}
-		return createJBlasMatrix(matrix.subRowVector(createJBlasFloatMatrix(other)), false);
+		return createRecyclableJBlasMatrix(matrix.subRowVector(createJBlasFloatMatrix(other)), false);
 	}
 
 	@Override
@@ -381,7 +453,7 @@ public class JBlasRowMajorMatrix implements Matrix, EditableMatrix, InterrimMatr
 		if (other.getRows() != this.getRows()) {
 			throw new IllegalArgumentException("Rows do not match");
 		}
-		return createJBlasMatrix(getMatrix().subColumnVector(createJBlasFloatMatrix(other)), false);
+		return createRecyclableJBlasMatrix(getMatrix().subColumnVector(createJBlasFloatMatrix(other)), false);
 	}
 
 	@Override
@@ -428,19 +500,19 @@ public class JBlasRowMajorMatrix implements Matrix, EditableMatrix, InterrimMatr
 
 	@Override
 	public Matrix transpose() {
-		return createJBlasMatrix(getMatrix().transpose(), false);
+		return createRecyclableJBlasMatrix(getMatrix().transpose(), false);
 	}
 
 	@Override
 	public Matrix appendHorizontally(Matrix other) {
 		FloatMatrix result = FloatMatrix.concatVertically(getMatrix(), createJBlasFloatMatrix(other));
-		return createJBlasMatrix(result, false);
+		return createRecyclableJBlasMatrix(result, false);
 	}
 
 	@Override
 	public Matrix appendVertically(Matrix other) {
 		FloatMatrix result = FloatMatrix.concatHorizontally(getMatrix(), createJBlasFloatMatrix(other));
-		return createJBlasMatrix(result, false);
+		return createRecyclableJBlasMatrix(result, false);
 	}
 
 	public Matrix asCudaMatrix() {
@@ -453,7 +525,10 @@ public class JBlasRowMajorMatrix implements Matrix, EditableMatrix, InterrimMatr
 
 	@Override
 	public Matrix dup() {
-		return createJBlasMatrix(getMatrix().dup(), false);
+		FloatMatrix dup = floatMatrixFactory.create(getColumns(), getRows());
+		// FloatMatrix.copy returns its argument rather than the copy
+		dup.copy(getMatrix());
+		return createRecyclableJBlasMatrix(dup, false);
 	}
 
 	@Override
@@ -462,18 +537,25 @@ public class JBlasRowMajorMatrix implements Matrix, EditableMatrix, InterrimMatr
 		return this;
 	}
 
+	@Override
+	public EditableMatrix applyi(FloatArrayKernel kernel) {
+		FloatMatrix floatMatrix = getMatrix();
+		kernel.apply(floatMatrix.data, 0, floatMatrix.length);
+		return this;
+	}
+
 	@Override
 	public Matrix getColumn(int columnIndex) {
-		return createJBlasMatrix(getMatrix().getRow(columnIndex), false);
+		return createRecyclableJBlasMatrix(getMatrix().getRow(columnIndex), false);
 	}
 
 	public Matrix getRow(int rowIndex) {
-		return createJBlasMatrix(getMatrix().getColumn(rowIndex), false);
+		return createRecyclableJBlasMatrix(getMatrix().getColumn(rowIndex), false);
 	}
 
 	public Matrix log() {
 		FloatMatrix result = MatrixFunctions.log(getMatrix());
-		return createJBlasMatrix(result, false);
+		return createRecyclableJBlasMatrix(result, false);
 	}
 
 	public Matrix logi() {
@@ -483,7 +565,7 @@ public class JBlasRowMajorMatrix implements Matrix, EditableMatrix, InterrimMatr
 
 	public Matrix pow(int value) {
 		FloatMatrix result = MatrixFunctions.pow(getMatrix(), value);
-		return createJBlasMatrix(result, false);
+		return createRecyclableJBlasMatrix(result, false);
 	}
 
 	public Matrix powi(int value) {
@@ -497,7 +579,7 @@ public class JBlasRowMajorMatrix implements Matrix, EditableMatrix, InterrimMatr
 				.expi(getMatrix().muli(-1, floatMatrixFactory.create(getColumns(), getRows())));
 		result.addi(1);
 		MatrixFunctions.powi(result, -1);
-		return createJBlasMatrix(result, false);
+		return createRecyclableJBlasMatrix(result, false);
 	}
 
 	public float[] toColumnByColumnArray() {
@@ -515,6 +597,9 @@ public class JBlasRowMajorMatrix implements Matrix, EditableMatrix, InterrimMatr
 	@Override
 	public void close() {
 		if (this.matrix != null) {
+			if (recyclable) {
+				floatMatrixFactory.release(matrix);
+			}
 			this.matrix = null;
 		}
 	}
@@ -537,6 +622,13 @@ public class JBlasRowMajorMatrix implements Matrix, EditableMatrix, InterrimMatr
 		return matrix;
 	}
 
+	/**
+	 * Returns the backing data array of this matrix rather than a copy.
+	 * 
+	 * If this matrix owns pooled data the array is released when the matrix is
+	 * closed, so callers which keep the array beyond the life of this matrix must
+	 * obtain it from a softDup(), which leaves the array with no owner to release it.
+	 */
 	@Override
 	public float[] getRowByRowArray() {
 		return getMatrix().data;
@@ -546,6 +638,9 @@ public class JBlasRowMajorMatrix implements Matrix, EditableMatrix, InterrimMatr
 		return toColumnByColumnArray();
 	}
 
+	/**
+	 * Returns the backing data array of this matrix - see getRowByRowArray().
+	 */
 	public float[] getData() {
 		return getMatrix().data;
 	}
@@ -571,6 +666,8 @@ public class JBlasRowMajorMatrix implements Matrix, EditableMatrix, InterrimMatr
 
 	@Override
 	public Matrix softDup() {
+		// The data array is now shared, so is no longer recyclable
+		this.recyclable = false;
 		return createJBlasMatrix(softDupFloatMatrix(getMatrix()), false);
 	}
 
@@ -16,6 +16,7 @@ package org.ml4j.jblas;
 
 import org.jblas.FloatMatrix;
 import org.ml4j.Matrix;
+import org.ml4j.MatrixAllocations;
 import org.ml4j.MatrixFactory;
 import org.ml4j.floatarray.DefaultFloatArrayFactory;
 import org.ml4j.floatarray.FloatArrayFactory;
@@ -41,14 +42,28 @@ public class JBlasRowMajorMatrixFactory implements MatrixFactory {
 		this.floatArrayFactory = new DefaultFloatArrayFactory();
 	}
 
+	/**
+	 * Constructs a factory with the provided FloatMatrixFactory and
+	 * FloatArrayFactory - eg. a PooledFloatMatrixFactory and
+	 * PooledFloatArrayFactory so that matrix data arrays are recycled when
+	 * matrices are closed.
+	 * 
+	 * @param floatMatrixFactory The FloatMatrixFactory.
+	 * @param floatArrayFactory  The FloatArrayFactory.
+	 */
+	public JBlasRowMajorMatrixFactory(FloatMatrixFactory floatMatrixFactory, FloatArrayFactory floatArrayFactory) {
+		this.floatMatrixFactory = floatMatrixFactory;
+		this.floatArrayFactory = floatArrayFactory;
+	}
+
 	@Override
 	public Matrix createOnes(int rows, int columns) {
-		return createJBlasMatrix(FloatMatrix.ones(columns, rows), false);
+		return createRecyclableJBlasMatrix(FloatMatrix.ones(columns, rows), false);
 	}
 
 	@Override
 	public Matrix createOnes(int length) {
-		return createJBlasMatrix(FloatMatrix.ones(length), false);
+		return createRecyclableJBlasMatrix(FloatMatrix.ones(length), false);
 	}
 
 	@Override
@@ -59,7 +74,7 @@ public class JBlasRowMajorMatrixFactory implements MatrixFactory {
 				translatedData[j][i] = data[i][j];
 			}
 		}
-		return createJBlasMatrix(floatMatrixFactory.create(translatedData), false);
+		return createRecyclableJBlasMatrix(floatMatrixFactory.create(translatedData), false);
 	}
 
 	@Override
@@ -78,22 +93,22 @@ public class JBlasRowMajorMatrixFactory implements MatrixFactory {
 				targetData[sourceDataIndex] = data[targetDataIndex];
 			}
 		}
-		return createJBlasMatrix(new FloatMatrix(cols, rows, targetData), false);
+		return createRecyclableJBlasMatrix(new FloatMatrix(cols, rows, targetData), false);
 	}
 
 	@Override
 	public Matrix createMatrix(int rows, int cols) {
-		return createJBlasMatrix(floatMatrixFactory.create(cols, rows), false);
+		return createRecyclableJBlasMatrix(floatMatrixFactory.create(cols, rows), false);
 	}
 
 	@Override
 	public Matrix createZeros(int rows, int cols) {
-		return createJBlasMatrix(floatMatrixFactory.create(cols, rows), false);
+		return createRecyclableJBlasMatrix(floatMatrixFactory.create(cols, rows), false);
 	}
 
 	@Override
 	public Matrix createRandn(int rows, int cols) {
-		return createJBlasMatrix(FloatMatrix.randn(cols, rows), false);
+		return createRecyclableJBlasMatrix(FloatMatrix.randn(cols, rows), false);
 	}
 
 	@Override
@@ -103,7 +118,7 @@ public class JBlasRowMajorMatrixFactory implements MatrixFactory {
 
 	@Override
 	public Matrix createRand(int rows, int cols) {
-		return createJBlasMatrix(FloatMatrix.rand(cols, rows), false);
+		return createRecyclableJBlasMatrix(FloatMatrix.rand(cols, rows), false);
 	}
 
 	@Override
@@ -115,11 +130,52 @@ public class JBlasRowMajorMatrixFactory implements MatrixFactory {
 		return new JBlasRowMajorMatrix(this, floatMatrixFactory, floatArrayFactory, matrix, immutable);
 	}
 
+	/**
+	 * Create a JBlasRowMajorMatrix which is the sole owner of the data of the
+	 * provided FloatMatrix, and so releases it to the FloatMatrixFactory on close.
+	 * 
+	 * As the data has been newly allocated for this matrix, this is where the
+	 * allocation is recorded - views and wrappers of existing arrays are not.
+	 * 
+	 * @param matrix    The FloatMatrix, whose data must not be referenced elsewhere.
+	 * @param immutable Whether the matrix is immutable.
+	 * @return The matrix.
+	 */
+	protected Matrix createRecyclableJBlasMatrix(FloatMatrix matrix, boolean immutable) {
+		MatrixAllocations.recordAllocation(matrix.length);
+		Matrix result = createJBlasMatrix(matrix, immutable);
+		if (result instanceof JBlasRowMajorMatrix) {
+			((JBlasRowMajorMatrix) result).recyclable = true;
+		}
+		return result;
+	}
+
 	@Override
 	public Matrix createMatrixFromRowsByRowsArray(int rows, int cols, float[] data) {
 		return createJBlasMatrix(new FloatMatrix(cols, rows, data), false);
 	}
 
+	/**
+	 * @return The FloatArrayFactory from which the data arrays of new matrices are
+	 *         obtained.
+	 */
+	public FloatArrayFactory getFloatArrayFactory() {
+		return floatArrayFactory;
+	}
+
+	/**
+	 * Create a matrix which takes ownership of a data array obtained from this
+	 * factory's FloatArrayFactory, releasing it on close.
+	 * 
+	 * @param rows The number of rows.
+	 * @param cols The number of columns.
+	 * @param data The row by row data, which must not be referenced elsewhere.
+	 * @return The matrix.
+	 */
+	public Matrix createRecyclableMatrixFromRowsByRowsArray(int rows, int cols, float[] data) {
+		return createRecyclableJBlasMatrix(floatMatrixFactory.create(cols, rows, data), false);
+	}
+
 	@Override
 	public Matrix createMatrix(float[] data) {
 		return createJBlasMatrix(new FloatMatrix(data), false);
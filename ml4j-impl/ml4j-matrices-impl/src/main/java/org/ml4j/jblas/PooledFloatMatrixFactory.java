@@ -0,0 +1,58 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.ml4j.jblas;
+
+import org.jblas.FloatMatrix;
+import org.ml4j.floatarray.FloatArrayFactory;
+import org.ml4j.floatmatrix.FloatMatrixFactory;
+
+/**
+ * FloatMatrixFactory which obtains the data arrays of new matrices from a
+ * (typically pooled) FloatArrayFactory, and returns them to it on release.
+ *
+ * @author Michael Lavelle
+ */
+public class PooledFloatMatrixFactory implements FloatMatrixFactory {
+
+	/**
+	 * Default serialization id.
+	 */
+	private static final long serialVersionUID = 1L;
+
+	private FloatArrayFactory floatArrayFactory;
+
+	public PooledFloatMatrixFactory(FloatArrayFactory floatArrayFactory) {
+		this.floatArrayFactory = floatArrayFactory;
+	}
+
+	@Override
+	public FloatMatrix create(float[][] data) {
+		return new FloatMatrix(data);
+	}
+
+	@Override
+	public FloatMatrix create(int rows, int columns) {
+		return new FloatMatrix(rows, columns, floatArrayFactory.createFloatArray(rows * columns));
+	}
+
+	@Override
+	public FloatMatrix create(int rows, int columns, float[] data) {
+		return new FloatMatrix(rows, columns, data);
+	}
+
+	@Override
+	public void release(FloatMatrix matrix) {
+		floatArrayFactory.release(matrix.data);
+	}
+}
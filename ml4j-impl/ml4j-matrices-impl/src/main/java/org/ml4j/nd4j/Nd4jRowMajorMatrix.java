@@ -425,6 +425,18 @@ public class Nd4jRowMajorMatrix implements Matrix, EditableMatrix, InterrimMatri
 		return createNd4jMatrix(getNd4jIndArray(asJBlasMatrix()).getColumns(cols), immutable);
 	}
 
+	@Override
+	public Matrix getColumnRange(int startColumnIndex, int endColumnIndex) {
+		return createNd4jMatrix(getNd4jIndArray(asJBlasMatrix().getColumnRange(startColumnIndex, endColumnIndex)),
+				immutable);
+	}
+
+	@Override
+	public Matrix getRowRange(int startRowIndex, int endRowIndex) {
+		return createNd4jMatrix(getNd4jIndArray(asJBlasMatrix().getRowRange(startRowIndex, endRowIndex)),
+				immutable);
+	}
+
 	@Override
 	public Matrix rowSums() {
 		return asJBlasMatrix().rowSums();
@@ -474,17 +486,13 @@ public class Nd4jRowMajorMatrix implements Matrix, EditableMatrix, InterrimMatri
 		}
 	}
 	
-	// The below methods are not yet implemented - TODO
-	
 	@Override
 	public Matrix softDup() {
-		// TODO
-		throw new UnsupportedOperationException("Not implemented yet");
-		// return createNd4jMatrix(softDupIndArray(matrix), immutable);
+		// Closing a matrix only drops its reference to the INDArray, so the array can be shared
+		return softDupIndArray(getIndArray());
 	}
 
 	public Nd4jRowMajorMatrix softDupIndArray(INDArray matrix) {
-		// TODO
 		return createNd4jMatrix(matrix, immutable);
 	}
 	
@@ -0,0 +1,71 @@
+package org.ml4j.floatarray;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class PooledFloatArrayFactoryTest {
+
+	@Test
+	public void testReleasedArrayIsReusedAndZeroed() {
+		PooledFloatArrayFactory factory = new PooledFloatArrayFactory(4, 2, 1);
+		float[] array = factory.createFloatArray(8);
+		array[3] = 5f;
+		factory.release(array);
+
+		float[] reused = factory.createFloatArray(8);
+		Assertions.assertSame(array, reused);
+		Assertions.assertEquals(0f, reused[3]);
+		Assertions.assertEquals(1, factory.getHitCount());
+		Assertions.assertEquals(1, factory.getMissCount());
+		Assertions.assertEquals(1, factory.getReleaseCount());
+	}
+
+	@Test
+	public void testArraysAreBucketedByLength() {
+		PooledFloatArrayFactory factory = new PooledFloatArrayFactory(4, 2, 1);
+		float[] array = factory.createFloatArray(8);
+		factory.release(array);
+
+		Assertions.assertEquals(16, factory.createFloatArray(16).length);
+		Assertions.assertEquals(0, factory.getHitCount());
+		Assertions.assertEquals(2, factory.getMissCount());
+	}
+
+	@Test
+	public void testShortArraysAreNotPooled() {
+		PooledFloatArrayFactory factory = new PooledFloatArrayFactory(4, 2, 1);
+		float[] array = factory.createFloatArray(2);
+		factory.release(array);
+
+		Assertions.assertNotSame(array, factory.createFloatArray(2));
+		Assertions.assertEquals(0, factory.getHitCount());
+		Assertions.assertEquals(0, factory.getMissCount());
+		Assertions.assertEquals(0, factory.getReleaseCount());
+	}
+
+	@Test
+	public void testReleasesBeyondCapacityAreDiscarded() {
+		PooledFloatArrayFactory factory = new PooledFloatArrayFactory(4, 1, 1);
+		factory.release(new float[8]);
+		factory.release(new float[8]);
+		factory.release(new float[8]);
+
+		Assertions.assertEquals(3, factory.getReleaseCount());
+		Assertions.assertEquals(1, factory.getDiscardCount());
+	}
+
+	@Test
+	public void testArrayReleasedOnOneThreadIsReusedOnAnother() throws InterruptedException {
+		PooledFloatArrayFactory factory = new PooledFloatArrayFactory(4, 2, 0);
+		float[] array = new float[8];
+		factory.release(array);
+
+		float[][] reused = new float[1][];
+		Thread thread = new Thread(() -> reused[0] = factory.createFloatArray(8));
+		thread.start();
+		thread.join();
+
+		Assertions.assertSame(array, reused[0]);
+		Assertions.assertEquals(1.0, factory.getHitRatio());
+	}
+}
@@ -0,0 +1,125 @@
+package org.ml4j.images;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.ml4j.nn.components.BranchScheduler;
+
+public class AveragePoolingWindowsTest {
+
+	private static final int CHANNELS = 3;
+	private static final int HEIGHT = 7;
+	private static final int WIDTH = 6;
+	private static final int EXAMPLES = 40;
+
+	private ForkJoinPool forkJoinPool = new ForkJoinPool(4);
+
+	private BranchScheduler branchScheduler = new BranchScheduler() {
+
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		public <T> List<T> invokeAll(List<Supplier<T>> branches) {
+			return forkJoinPool.submit(() -> branches.parallelStream().map(Supplier::get).collect(Collectors.toList()))
+					.join();
+		}
+	};
+
+	@AfterEach
+	public void tearDown() {
+		ImageContainerParallelism.setMinimumParallelLength(ImageContainerParallelism.DEFAULT_MINIMUM_PARALLEL_LENGTH);
+		forkJoinPool.shutdown();
+	}
+
+	private float[] createData(int length) {
+		Random random = new Random(1);
+		float[] data = new float[length];
+		for (int i = 0; i < data.length; i++) {
+			data[i] = random.nextFloat();
+		}
+		return data;
+	}
+
+	private float get(float[] data, int height, int width, int c, int h, int w, int n) {
+		return data[((c * height + h) * width + w) * EXAMPLES + n];
+	}
+
+	private void assertPoolAndScatter(int filter, int stride, int padding) {
+		AveragePoolingWindows windows = new AveragePoolingWindows(CHANNELS, HEIGHT, WIDTH, filter, filter, stride,
+				stride, padding, padding);
+		int outputHeight = windows.getOutputHeight();
+		int outputWidth = windows.getOutputWidth();
+		Assertions.assertEquals((HEIGHT + 2 * padding - filter) / stride + 1, outputHeight);
+		Assertions.assertEquals((WIDTH + 2 * padding - filter) / stride + 1, outputWidth);
+
+		float[] input = createData(CHANNELS * HEIGHT * WIDTH * EXAMPLES);
+		float[] output = new float[CHANNELS * outputHeight * outputWidth * EXAMPLES];
+		windows.pool(input, 0, output, 0, EXAMPLES);
+
+		float[] gradient = createData(output.length);
+		float[] inputGradient = new float[input.length];
+		windows.scatter(gradient, 0, inputGradient, 0, EXAMPLES);
+
+		float[] expectedInputGradient = new float[input.length];
+		for (int c = 0; c < CHANNELS; c++) {
+			for (int oh = 0; oh < outputHeight; oh++) {
+				for (int ow = 0; ow < outputWidth; ow++) {
+					for (int n = 0; n < EXAMPLES; n++) {
+						float sum = 0;
+						int count = 0;
+						for (int h = oh * stride - padding; h < oh * stride - padding + filter; h++) {
+							for (int w = ow * stride - padding; w < ow * stride - padding + filter; w++) {
+								if (h >= 0 && h < HEIGHT && w >= 0 && w < WIDTH) {
+									sum += get(input, HEIGHT, WIDTH, c, h, w, n);
+									count++;
+								}
+							}
+						}
+						Assertions.assertEquals(sum / count, get(output, outputHeight, outputWidth, c, oh, ow, n),
+								1e-5f);
+						float share = get(gradient, outputHeight, outputWidth, c, oh, ow, n) / count;
+						for (int h = oh * stride - padding; h < oh * stride - padding + filter; h++) {
+							for (int w = ow * stride - padding; w < ow * stride - padding + filter; w++) {
+								if (h >= 0 && h < HEIGHT && w >= 0 && w < WIDTH) {
+									expectedInputGradient[((c * HEIGHT + h) * WIDTH + w) * EXAMPLES + n] += share;
+								}
+							}
+						}
+					}
+				}
+			}
+		}
+		Assertions.assertArrayEquals(expectedInputGradient, inputGradient, 1e-5f);
+	}
+
+	@Test
+	public void testPoolAndScatter() {
+		assertPoolAndScatter(2, 2, 0);
+		assertPoolAndScatter(3, 1, 0);
+		assertPoolAndScatter(3, 2, 1);
+	}
+
+	@Test
+	public void testPoolAndScatterInParallelTiles() {
+		ImageContainerParallelism.setMinimumParallelLength(0);
+		ImageContainerParallelism.withBranchScheduler(branchScheduler, () -> {
+			assertPoolAndScatter(2, 2, 0);
+			assertPoolAndScatter(3, 2, 1);
+			return null;
+		});
+	}
+
+	@Test
+	public void testInvalidGeometryIsRejected() {
+		Assertions.assertThrows(IllegalArgumentException.class,
+				() -> new AveragePoolingWindows(CHANNELS, HEIGHT, WIDTH, 8, 2, 1, 1, 0, 0));
+		Assertions.assertThrows(IllegalArgumentException.class,
+				() -> new AveragePoolingWindows(CHANNELS, HEIGHT, WIDTH, 2, 2, 0, 1, 0, 0));
+	}
+}
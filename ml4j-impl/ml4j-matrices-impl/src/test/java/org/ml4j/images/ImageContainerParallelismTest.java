@@ -0,0 +1,119 @@
+package org.ml4j.images;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.ml4j.Matrix;
+import org.ml4j.MatrixFactory;
+import org.ml4j.jblas.JBlasRowMajorMatrixFactory;
+import org.ml4j.nn.components.BranchScheduler;
+
+public class ImageContainerParallelismTest {
+
+	private static final int CHANNELS = 3;
+	private static final int HEIGHT = 7;
+	private static final int WIDTH = 6;
+	private static final int EXAMPLES = 2;
+
+	private MatrixFactory matrixFactory = new JBlasRowMajorMatrixFactory();
+
+	private ForkJoinPool forkJoinPool = new ForkJoinPool(4);
+
+	private BranchScheduler branchScheduler = new BranchScheduler() {
+
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		public <T> List<T> invokeAll(List<Supplier<T>> branches) {
+			return forkJoinPool.submit(() -> branches.parallelStream().map(Supplier::get).collect(Collectors.toList()))
+					.join();
+		}
+	};
+
+	@AfterEach
+	public void tearDown() {
+		ImageContainerParallelism.setMinimumParallelLength(ImageContainerParallelism.DEFAULT_MINIMUM_PARALLEL_LENGTH);
+		forkJoinPool.shutdown();
+	}
+
+	private float[] createData() {
+		Random random = new Random(1);
+		float[] data = new float[CHANNELS * HEIGHT * WIDTH * EXAMPLES];
+		for (int i = 0; i < data.length; i++) {
+			data[i] = random.nextFloat();
+		}
+		return data;
+	}
+
+	private Images createImages(float[] data, int padding) {
+		return new MultiChannelImages(data, CHANNELS, HEIGHT, WIDTH, padding, padding, EXAMPLES);
+	}
+
+	private Images createChannelConcatImages(float[] data, int padding) {
+		MultiChannelImages images = new MultiChannelImages(data, CHANNELS, HEIGHT, WIDTH, padding, padding, EXAMPLES);
+		return new ChannelConcatImages(
+				Arrays.asList(images.getChannels(0, 1), images.getChannels(1, CHANNELS)), HEIGHT, WIDTH, padding,
+				padding, EXAMPLES);
+	}
+
+	private void assertParallelMatchesSerial(Function<float[], float[]> reformat) {
+		float[] serial = reformat.apply(createData());
+		ImageContainerParallelism.setMinimumParallelLength(0);
+		float[] parallel = ImageContainerParallelism.withBranchScheduler(branchScheduler,
+				() -> reformat.apply(createData()));
+		Assertions.assertNull(ImageContainerParallelism.getBranchScheduler());
+		Assertions.assertArrayEquals(serial, parallel);
+	}
+
+	@Test
+	public void testIm2colConvExport() {
+		assertParallelMatchesSerial(
+				data -> createImages(data, 1).im2colConvExport(matrixFactory, 3, 3, 2, 2).getRowByRowArray());
+		assertParallelMatchesSerial(data -> createChannelConcatImages(data, 0)
+				.im2colConvExport(matrixFactory, 2, 3, 1, 1).getRowByRowArray());
+	}
+
+	@Test
+	public void testIm2colPoolExport() {
+		assertParallelMatchesSerial(
+				data -> createImages(data, 0).im2colPoolExport(matrixFactory, 2, 2, 2, 2).getRowByRowArray());
+		assertParallelMatchesSerial(data -> createChannelConcatImages(data, 0)
+				.im2colPoolExport(matrixFactory, 3, 2, 1, 2).getRowByRowArray());
+	}
+
+	@Test
+	public void testIm2colConvImport() {
+		assertParallelMatchesSerial(data -> {
+			Images images = createImages(data, 1);
+			Matrix im2col = images.im2colConvExport(matrixFactory, 3, 3, 2, 2);
+			Images target = createImages(new float[data.length], 1);
+			target.im2colConvImport(matrixFactory, im2col, 3, 3, 2, 2);
+			return target.getData();
+		});
+	}
+
+	@Test
+	public void testIm2colPoolImport() {
+		assertParallelMatchesSerial(data -> {
+			Images images = createChannelConcatImages(data, 0);
+			Matrix im2col = images.im2colPoolExport(matrixFactory, 2, 2, 1, 1);
+			Images target = createChannelConcatImages(new float[data.length], 0);
+			target.im2colPoolImport(matrixFactory, im2col, 2, 2, 1, 1);
+			return target.getData();
+		});
+	}
+
+	@Test
+	public void testInvalidMinimumParallelLength() {
+		Assertions.assertThrows(IllegalArgumentException.class,
+				() -> ImageContainerParallelism.setMinimumParallelLength(-1));
+	}
+}
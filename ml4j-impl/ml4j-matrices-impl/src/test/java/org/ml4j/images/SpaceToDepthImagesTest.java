@@ -0,0 +1,133 @@
+package org.ml4j.images;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.util.Random;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.ml4j.Matrix;
+import org.ml4j.MatrixFactory;
+import org.ml4j.jblas.JBlasRowMajorMatrixFactory;
+
+public class SpaceToDepthImagesTest {
+
+	private static final int CHANNELS = 3;
+	private static final int HEIGHT = 6;
+	private static final int WIDTH = 4;
+	private static final int EXAMPLES = 5;
+
+	private MatrixFactory matrixFactory = new JBlasRowMajorMatrixFactory();
+
+	private float[] createData() {
+		Random random = new Random(1);
+		float[] data = new float[CHANNELS * HEIGHT * WIDTH * EXAMPLES];
+		for (int i = 0; i < data.length; i++) {
+			data[i] = random.nextFloat();
+		}
+		return data;
+	}
+
+	@Test
+	public void testSpaceToDepthMatchesExport() {
+		float[] data = createData();
+		Matrix exported = new MultiChannelImages(data, CHANNELS, HEIGHT, WIDTH, 0, 0, EXAMPLES)
+				.spaceToDepthExport(matrixFactory, 3, 2);
+
+		SpaceToDepthImages images = SpaceToDepthImages.spaceToDepth(data, 0, CHANNELS, HEIGHT, WIDTH, 3, 2,
+				EXAMPLES);
+		Assertions.assertEquals(CHANNELS * 6, images.getChannels());
+		Assertions.assertEquals(HEIGHT / 3, images.getHeight());
+		Assertions.assertEquals(WIDTH / 2, images.getWidth());
+		Assertions.assertArrayEquals(exported.getRowByRowArray(), images.getData());
+
+		float[] offsetData = new float[data.length + 7];
+		images.populateData(offsetData, 7);
+		Assertions.assertEquals(exported.getRowByRowArray()[data.length - 1], offsetData[offsetData.length - 1]);
+	}
+
+	private static Object createCopyingProxy(Class<?> type, Object target) {
+		return Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] { type }, (proxy, method, args) -> {
+			Object result;
+			try {
+				result = method.invoke(target, args);
+			} catch (InvocationTargetException e) {
+				throw e.getCause();
+			}
+			if (result instanceof float[] && method.getName().equals("getRowByRowArray")) {
+				return ((float[]) result).clone();
+			}
+			return result instanceof Matrix ? createCopyingProxy(Matrix.class, result) : result;
+		});
+	}
+
+	@Test
+	public void testExportsPopulateMatricesWhoseArraysAreCopies() {
+		// As with Nd4j, matrices of this factory return a copy of their data from
+		// getRowByRowArray
+		MatrixFactory copyingMatrixFactory = (MatrixFactory) createCopyingProxy(MatrixFactory.class, matrixFactory);
+		float[] data = createData();
+		MultiChannelImages images = new MultiChannelImages(data, CHANNELS, HEIGHT, WIDTH, 1, 1, EXAMPLES);
+		Assertions.assertArrayEquals(images.spaceToDepthExport(matrixFactory, 3, 2).getRowByRowArray(),
+				images.spaceToDepthExport(copyingMatrixFactory, 3, 2).getRowByRowArray());
+		Assertions.assertArrayEquals(images.im2colConvExport(matrixFactory, 3, 3, 1, 1).getRowByRowArray(),
+				images.im2colConvExport(copyingMatrixFactory, 3, 3, 1, 1).getRowByRowArray());
+		Assertions.assertArrayEquals(images.im2colPoolExport(matrixFactory, 2, 2, 2, 2).getRowByRowArray(),
+				images.im2colPoolExport(copyingMatrixFactory, 2, 2, 2, 2).getRowByRowArray());
+	}
+
+	@Test
+	public void testDepthToSpaceInvertsSpaceToDepth() {
+		float[] data = createData();
+		float[] depthData = SpaceToDepthImages.spaceToDepth(data, 0, CHANNELS, HEIGHT, WIDTH, 3, 2, EXAMPLES)
+				.getData();
+
+		float[] offsetDepthData = new float[depthData.length + 4];
+		System.arraycopy(depthData, 0, offsetDepthData, 4, depthData.length);
+		SpaceToDepthImages images = SpaceToDepthImages.depthToSpace(offsetDepthData, 4, CHANNELS, HEIGHT, WIDTH, 3,
+				2, EXAMPLES);
+		Assertions.assertEquals(CHANNELS, images.getChannels());
+		Assertions.assertEquals(HEIGHT, images.getHeight());
+		Assertions.assertEquals(WIDTH, images.getWidth());
+		Assertions.assertArrayEquals(data, images.getData());
+		Assertions.assertArrayEquals(data, images.dup().getData());
+	}
+
+	@Test
+	public void testDataIsMaterialisedOnce() {
+		float[] data = createData();
+		SpaceToDepthImages images = SpaceToDepthImages.spaceToDepth(data, 0, CHANNELS, HEIGHT, WIDTH, 2, 2,
+				EXAMPLES);
+		float[] materialised = images.getData();
+		Assertions.assertSame(materialised, images.getData());
+		Assertions.assertArrayEquals(materialised, images.softDup().getData());
+	}
+
+	@Test
+	public void testModificationsDoNotReachViewedData() {
+		float[] data = createData();
+		float[] original = data.clone();
+		SpaceToDepthImages images = SpaceToDepthImages.spaceToDepth(data, 0, CHANNELS, HEIGHT, WIDTH, 2, 2,
+				EXAMPLES);
+		float[] expected = images.getData().clone();
+		for (int i = 0; i < expected.length; i++) {
+			expected[i] = 2 * expected[i];
+		}
+		images.applyValueModifier(v -> 2 * v);
+		Assertions.assertArrayEquals(expected, images.getData());
+
+		Matrix im2col = images.im2colPoolExport(matrixFactory, 1, 1, 1, 1);
+		images.im2colPoolImport(matrixFactory, im2col, 1, 1, 1, 1);
+		for (int i = 0; i < expected.length; i++) {
+			expected[i] = 2 * expected[i];
+		}
+		Assertions.assertArrayEquals(expected, images.getData(), 1e-6f);
+		Assertions.assertArrayEquals(original, data);
+	}
+
+	@Test
+	public void testInvalidBlocksAreRejected() {
+		Assertions.assertThrows(IllegalArgumentException.class,
+				() -> SpaceToDepthImages.spaceToDepth(createData(), 0, CHANNELS, HEIGHT, WIDTH, 4, 2, EXAMPLES));
+	}
+}
@@ -0,0 +1,67 @@
+package org.ml4j.jblas;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.ml4j.Matrix;
+import org.ml4j.MatrixFactory;
+
+public class JBlasRowMajorMatrixTest {
+
+	private MatrixFactory matrixFactory = new JBlasRowMajorMatrixFactory();
+
+	private Matrix createMatrix() {
+		return matrixFactory.createMatrixFromRowsByRowsArray(3, 4,
+				new float[] { 0, 1, 2, 3, 10, 11, 12, 13, 20, 21, 22, 23 });
+	}
+
+	@Test
+	public void testColumnRange() {
+		Matrix matrix = createMatrix();
+		Matrix range = matrix.getColumnRange(1, 3);
+		Assertions.assertEquals(3, range.getRows());
+		Assertions.assertEquals(2, range.getColumns());
+		Assertions.assertArrayEquals(new float[] { 1, 2, 11, 12, 21, 22 }, range.getRowByRowArray());
+		Assertions.assertArrayEquals(matrix.getColumns(new int[] { 1, 2 }).getRowByRowArray(),
+				range.getRowByRowArray());
+	}
+
+	@Test
+	public void testRowRange() {
+		Matrix range = createMatrix().getRowRange(1, 3);
+		Assertions.assertEquals(2, range.getRows());
+		Assertions.assertEquals(4, range.getColumns());
+		Assertions.assertArrayEquals(new float[] { 10, 11, 12, 13, 20, 21, 22, 23 }, range.getRowByRowArray());
+	}
+
+	@Test
+	public void testFullRangeIsAView() {
+		Matrix matrix = createMatrix();
+		Matrix columns = matrix.getColumnRange(0, 4);
+		Matrix rows = matrix.getRowRange(0, 3);
+		Assertions.assertSame(matrix.getRowByRowArray(), columns.getRowByRowArray());
+		Assertions.assertSame(matrix.getRowByRowArray(), rows.getRowByRowArray());
+
+		columns.asInterrimMatrix().close();
+		Assertions.assertFalse(matrix.isClosed());
+	}
+
+	@Test
+	public void testInvalidRange() {
+		Matrix matrix = createMatrix();
+		Assertions.assertThrows(IllegalArgumentException.class, () -> matrix.getColumnRange(2, 5));
+		Assertions.assertThrows(IllegalArgumentException.class, () -> matrix.getRowRange(2, 2));
+	}
+
+	@Test
+	public void testCreateMatrixFromRowsAndColumns() {
+		float[][] data = new float[][] { { 0, 1, 2, 3 }, { 10, 11, 12, 13 }, { 20, 21, 22, 23 } };
+		Matrix rows = matrixFactory.createMatrixFromRows(4, data);
+		Assertions.assertEquals(3, rows.getRows());
+		Assertions.assertArrayEquals(createMatrix().getRowByRowArray(), rows.getRowByRowArray());
+		Matrix columns = matrixFactory.createMatrixFromColumns(4, data);
+		Assertions.assertEquals(4, columns.getRows());
+		Assertions.assertEquals(3, columns.getColumns());
+		Assertions.assertArrayEquals(createMatrix().transpose().getRowByRowArray(), columns.getRowByRowArray());
+		Assertions.assertThrows(IllegalArgumentException.class, () -> matrixFactory.createMatrixFromColumns(3, data));
+	}
+}
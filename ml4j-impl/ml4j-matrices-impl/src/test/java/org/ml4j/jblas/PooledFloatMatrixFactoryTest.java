@@ -0,0 +1,60 @@
+package org.ml4j.jblas;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.ml4j.InterrimMatrix;
+import org.ml4j.Matrix;
+import org.ml4j.MatrixFactory;
+import org.ml4j.floatarray.PooledFloatArrayFactory;
+
+public class PooledFloatMatrixFactoryTest {
+
+	private PooledFloatArrayFactory floatArrayFactory;
+	private MatrixFactory matrixFactory;
+
+	@BeforeEach
+	public void setUp() {
+		floatArrayFactory = new PooledFloatArrayFactory(4, 2, 2);
+		matrixFactory = new JBlasRowMajorMatrixFactory(new PooledFloatMatrixFactory(floatArrayFactory),
+				floatArrayFactory);
+	}
+
+	@Test
+	public void testClosedMatrixDataIsRecycled() {
+		float[] data;
+		try (InterrimMatrix matrix = matrixFactory.createOnes(4, 8).mul(2f).asInterrimMatrix()) {
+			data = matrix.getRowByRowArray();
+		}
+		Matrix zeros = matrixFactory.createZeros(4, 8);
+		Assertions.assertSame(data, zeros.getRowByRowArray());
+		Assertions.assertEquals(0f, zeros.sum());
+		Assertions.assertEquals(1, floatArrayFactory.getHitCount());
+	}
+
+	@Test
+	public void testDupCopiesData() {
+		Matrix matrix = matrixFactory.createOnes(4, 8);
+		Matrix dup = matrix.dup();
+		dup.asEditableMatrix().addi(1f);
+		Assertions.assertNotSame(matrix.getRowByRowArray(), dup.getRowByRowArray());
+		Assertions.assertEquals(32f, matrix.sum());
+		Assertions.assertEquals(64f, dup.sum());
+	}
+
+	@Test
+	public void testWrappedDataIsNotRecycled() {
+		float[] data = new float[32];
+		matrixFactory.createMatrixFromRowsByRowsArray(4, 8, data).asInterrimMatrix().close();
+		Assertions.assertEquals(0, floatArrayFactory.getReleaseCount());
+	}
+
+	@Test
+	public void testSharedDataIsNotRecycled() {
+		Matrix matrix = matrixFactory.createZeros(4, 8);
+		Matrix softDup = matrix.softDup();
+		matrix.asInterrimMatrix().close();
+		softDup.asInterrimMatrix().close();
+		Assertions.assertEquals(0, floatArrayFactory.getReleaseCount());
+	}
+}
@@ -55,6 +55,11 @@ public class CostAndGradientsImpl implements CostAndGradients {
 		return getTotalCost() / numberOfTrainingExamples;
 	}
 
+	@Override
+	public int getNumberOfTrainingExamples() {
+		return numberOfTrainingExamples;
+	}
+
 	public List<AxonsGradient> getTotalTrainableAxonsGradients() {
 		return totalTrainableAxonsGradients;
 	}
@@ -0,0 +1,171 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.ml4j.nn;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Future;
+
+import org.ml4j.EditableMatrix;
+import org.ml4j.Matrix;
+import org.ml4j.nn.axons.AxonsGradient;
+import org.ml4j.nn.axons.AxonsGradientImpl;
+
+/**
+ * GradientAccumulator for data-parallel training, where each mini-batch is
+ * split into a fixed number of shards which are forward and back-propagated
+ * concurrently by replicas of the same Neural Network.
+ *
+ * Every submission in a round receives the same future, which is only
+ * completed once all the shards of the round have been submitted. The future
+ * then holds the all-reduced gradients - the total gradients of the shards
+ * summed in shard order and divided by the total number of training examples -
+ * so the result is the same as had the whole mini-batch been propagated through
+ * a single network, provided that any regularisation is included in the total
+ * gradients of only one of the shards. The averaged gradients reference the
+ * axons of shard 0, and the submitted CostAndGradients are closed once reduced.
+ *
+ * @author Michael Lavelle
+ */
+public class DataParallelGradientAccumulator implements GradientAccumulator {
+
+	private final int numberOfShards;
+
+	private CostAndGradients[] shards;
+
+	private int submittedShardCount;
+
+	private CompletableFuture<List<AxonsGradient>> averageAxonsGradients;
+
+	/**
+	 * @param numberOfShards The number of shards each round of gradients is
+	 *                       accumulated from.
+	 */
+	public DataParallelGradientAccumulator(int numberOfShards) {
+		if (numberOfShards < 1) {
+			throw new IllegalArgumentException("Number of shards must be at least 1");
+		}
+		this.numberOfShards = numberOfShards;
+		this.shards = new CostAndGradients[numberOfShards];
+		this.averageAxonsGradients = new CompletableFuture<>();
+	}
+
+	public int getNumberOfShards() {
+		return numberOfShards;
+	}
+
+	/**
+	 * Submit the CostAndGradients of the next unsubmitted shard of the current
+	 * round.
+	 */
+	@Override
+	public Optional<Future<List<AxonsGradient>>> submitCostAndGradients(CostAndGradients costAndGradients) {
+		return submit(-1, costAndGradients);
+	}
+
+	/**
+	 * Submit the CostAndGradients of a specific shard of the current round.
+	 *
+	 * @param shardIndex       The index of the shard, from 0 to numberOfShards - 1.
+	 * @param costAndGradients The cost and gradients calculated for the shard.
+	 * @return A future handle to the average gradients of the round.
+	 */
+	public Optional<Future<List<AxonsGradient>>> submitCostAndGradients(int shardIndex,
+			CostAndGradients costAndGradients) {
+		if (shardIndex < 0 || shardIndex >= numberOfShards) {
+			throw new IllegalArgumentException("Invalid shard index:" + shardIndex);
+		}
+		return submit(shardIndex, costAndGradients);
+	}
+
+	private Optional<Future<List<AxonsGradient>>> submit(int shardIndex, CostAndGradients costAndGradients) {
+		CostAndGradients[] completedShards = null;
+		CompletableFuture<List<AxonsGradient>> future;
+		synchronized (this) {
+			if (shardIndex < 0) {
+				shardIndex = 0;
+				while (shards[shardIndex] != null) {
+					shardIndex++;
+				}
+			} else if (shards[shardIndex] != null) {
+				throw new IllegalStateException("Shard " + shardIndex + " already submitted for this round");
+			}
+			shards[shardIndex] = costAndGradients;
+			submittedShardCount++;
+			future = averageAxonsGradients;
+			if (submittedShardCount == numberOfShards) {
+				completedShards = shards;
+				shards = new CostAndGradients[numberOfShards];
+				submittedShardCount = 0;
+				averageAxonsGradients = new CompletableFuture<>();
+			}
+		}
+		// Reduce outside the lock, so the next round may already begin
+		if (completedShards != null) {
+			try {
+				future.complete(getAverageTrainableAxonsGradients(completedShards));
+			} catch (RuntimeException e) {
+				future.completeExceptionally(e);
+			}
+		}
+		return Optional.of(future);
+	}
+
+	private List<AxonsGradient> getAverageTrainableAxonsGradients(CostAndGradients[] completedShards) {
+		int numberOfTrainingExamples = 0;
+		int numberOfGradients = completedShards[0].getTotalTrainableAxonsGradients().size();
+		for (CostAndGradients shard : completedShards) {
+			if (shard.getTotalTrainableAxonsGradients().size() != numberOfGradients) {
+				throw new IllegalStateException("Shards have differing numbers of axons gradients");
+			}
+			numberOfTrainingExamples += shard.getNumberOfTrainingExamples();
+		}
+		List<AxonsGradient> averages = new ArrayList<>();
+		for (int gradientIndex = 0; gradientIndex < numberOfGradients; gradientIndex++) {
+			List<AxonsGradient> totals = new ArrayList<>();
+			for (CostAndGradients shard : completedShards) {
+				totals.add(shard.getTotalTrainableAxonsGradients().get(gradientIndex));
+			}
+			List<Matrix> weightsGradients = new ArrayList<>();
+			List<Matrix> leftToRightBiasGradients = new ArrayList<>();
+			List<Matrix> rightToLeftBiasGradients = new ArrayList<>();
+			for (AxonsGradient total : totals) {
+				weightsGradients.add(total.getWeightsGradient());
+				leftToRightBiasGradients.add(total.getLeftToRightBiasGradient());
+				rightToLeftBiasGradients.add(total.getRightToLeftBiasGradient());
+			}
+			averages.add(new AxonsGradientImpl(totals.get(0).getAxons(),
+					getAverage(weightsGradients, numberOfTrainingExamples),
+					getAverage(leftToRightBiasGradients, numberOfTrainingExamples),
+					getAverage(rightToLeftBiasGradients, numberOfTrainingExamples)));
+		}
+		for (CostAndGradients shard : completedShards) {
+			shard.close();
+		}
+		return averages;
+	}
+
+	private Matrix getAverage(List<Matrix> totals, int numberOfTrainingExamples) {
+		if (totals.get(0) == null) {
+			return null;
+		}
+		EditableMatrix sum = totals.get(0).dup().asEditableMatrix();
+		for (int shardIndex = 1; shardIndex < totals.size(); shardIndex++) {
+			sum.addi(totals.get(shardIndex));
+		}
+		return sum.divi(numberOfTrainingExamples);
+	}
+}
@@ -14,17 +14,24 @@
 
 package org.ml4j.nn;
 
+import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Future;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.function.Supplier;
 import java.util.stream.Stream;
 
+import org.ml4j.EditableMatrix;
 import org.ml4j.InterrimMatrix;
 import org.ml4j.Matrix;
 import org.ml4j.nn.activationfunctions.ActivationFunctionBaseType;
@@ -32,12 +39,20 @@ import org.ml4j.nn.activationfunctions.ActivationFunctionType;
 import org.ml4j.nn.axons.AxonWeightsAdjustment;
 import org.ml4j.nn.axons.AxonWeightsAdjustmentDirection;
 import org.ml4j.nn.axons.AxonWeightsAdjustmentImpl;
+import org.ml4j.nn.axons.Axons;
+import org.ml4j.nn.axons.AxonsContext;
 import org.ml4j.nn.axons.AxonsGradient;
 import org.ml4j.nn.axons.TrainableAxons;
+import org.ml4j.nn.components.BranchScheduler;
 import org.ml4j.nn.components.DirectedComponentActivationLifecycle;
+import org.ml4j.nn.components.DirectedComponentsContext;
+import org.ml4j.nn.components.ForkJoinPoolBranchScheduler;
 import org.ml4j.nn.components.NeuralComponentBaseType;
 import org.ml4j.nn.components.NeuralComponentType;
 import org.ml4j.nn.components.NeuralComponentVisitor;
+import org.ml4j.nn.components.NotifyingDirectedComponentActivation;
+import org.ml4j.nn.components.axons.BatchNormDirectedAxonsComponent;
+import org.ml4j.nn.components.axons.DirectedAxonsComponent;
 import org.ml4j.nn.components.factories.DirectedComponentFactory;
 import org.ml4j.nn.components.generic.DirectedComponentChain;
 import org.ml4j.nn.components.onetone.DefaultChainableDirectedComponent;
@@ -47,6 +62,7 @@ import org.ml4j.nn.components.onetoone.TrailingActivationFunctionDirectedCompone
 import org.ml4j.nn.costfunctions.CostFunction;
 import org.ml4j.nn.costfunctions.CostFunctionGradient;
 import org.ml4j.nn.costfunctions.CrossEntropyCostFunction;
+import org.ml4j.nn.costfunctions.DeltaRuleCostFunction;
 import org.ml4j.nn.costfunctions.DeltaRuleCostFunctionGradientImpl;
 import org.ml4j.nn.costfunctions.MultiClassCrossEntropyCostFunction;
 import org.ml4j.nn.costfunctions.SumSquaredErrorCostFunction;
@@ -171,18 +187,15 @@ public abstract class FeedForwardNeuralNetworkBase<C extends FeedForwardNeuralNe
 			} else {
 				int miniBatchSize = trainingContext.getTrainingMiniBatchSize();
 				Matrix activations = trainingDataActivations.getActivations(trainingContext.getMatrixFactory());
+				Matrix labelActivations = trainingLabelActivations.getActivations(trainingContext.getMatrixFactory());
 				int numberOfTrainingElements = trainingDataActivations.getExampleCount();
 				int numberOfBatches = (numberOfTrainingElements - 1) / miniBatchSize + 1;
 				for (int batchIndex = 0; batchIndex < numberOfBatches; batchIndex++) {
 					int startColumnIndex = batchIndex * miniBatchSize;
-					int endColumnIndex = Math.min(startColumnIndex + miniBatchSize - 1, numberOfTrainingElements - 1);
-					int[] columnsIndexes = new int[endColumnIndex - startColumnIndex + 1];
-					for (int c = startColumnIndex; c <= endColumnIndex; c++) {
-						columnsIndexes[c - startColumnIndex] = c;
-					}
-					try (InterrimMatrix dataBatch = activations.getColumns(columnsIndexes).asInterrimMatrix();
-							InterrimMatrix labelBatch = trainingLabelActivations
-									.getActivations(trainingContext.getMatrixFactory()).getColumns(columnsIndexes)
+					int endColumnIndex = Math.min(startColumnIndex + miniBatchSize, numberOfTrainingElements);
+					try (InterrimMatrix dataBatch = activations.getColumnRange(startColumnIndex, endColumnIndex)
+							.asInterrimMatrix();
+							InterrimMatrix labelBatch = labelActivations.getColumnRange(startColumnIndex, endColumnIndex)
 									.asInterrimMatrix()) {
 
 						NeuronsActivation batchDataActivations = new NeuronsActivationImpl(getInputNeurons(), dataBatch,
@@ -410,6 +423,359 @@ public abstract class FeedForwardNeuralNetworkBase<C extends FeedForwardNeuralNe
 		}
 	}
 
+	/**
+	 * Data-parallel variant of train(Supplier, C, Consumer). Each batch - or each
+	 * mini-batch of it, when the training context specifies a mini-batch size - is
+	 * split into up to numberOfWorkers shards of examples, which are forward and
+	 * back-propagated concurrently by this network and by replicas of it created
+	 * with dup, on the BranchScheduler of the training context's
+	 * DirectedComponentsContext. The shard gradients are all-reduced by a
+	 * DataParallelGradientAccumulator, and the resulting weight adjustments are
+	 * applied to this network and to every replica so that the replicas stay in
+	 * step.
+	 * 
+	 * Replicas share the component contexts of this network. Batch norm components
+	 * normalise each shard by the statistics of that shard, and their running
+	 * statistics are reconciled across the replicas after each step. Listeners on
+	 * the training context are called from the worker threads.
+	 * 
+	 * @param trainingDataSet          Supplier of a stream of the labelled batches
+	 *                                 of each epoch.
+	 * @param trainingContext          The training context.
+	 * @param epochAverageCostHandler  Handler passed the average cost of the final
+	 *                                 batch of each epoch.
+	 * @param directedComponentFactory The factory used to create the replicas.
+	 * @param numberOfWorkers          The number of shards each mini-batch is
+	 *                                 split into, each with their own replica of
+	 *                                 the network.
+	 */
+	protected void train(Supplier<Stream<LabeledData<NeuronsActivation, NeuronsActivation>>> trainingDataSet,
+			C trainingContext, Consumer<Float> epochAverageCostHandler,
+			DirectedComponentFactory directedComponentFactory, int numberOfWorkers) {
+
+		if (numberOfWorkers < 1) {
+			throw new IllegalArgumentException("Number of workers must be at least 1");
+		}
+
+		final Integer miniBatchSize = trainingContext.getTrainingMiniBatchSize();
+
+		if (numberOfWorkers == 1 && miniBatchSize == null) {
+			train(trainingDataSet, trainingContext, epochAverageCostHandler);
+			return;
+		}
+
+		if (miniBatchSize != null && miniBatchSize < 1) {
+			throw new IllegalArgumentException("Training mini batch size must be at least 1");
+		}
+
+		final int numberOfEpochs = trainingContext.getTrainingEpochs();
+
+		LOGGER.info("Training the FeedForwardNeuralNetwork for " + numberOfEpochs + " epochs with "
+				+ numberOfWorkers + " workers");
+
+		BranchScheduler branchScheduler = getBranchScheduler(trainingContext);
+
+		List<DataParallelReplica<C>> replicas = new ArrayList<>();
+		replicas.add(new DataParallelReplica<>(this, this));
+		for (int replicaIndex = 1; replicaIndex < numberOfWorkers; replicaIndex++) {
+			replicas.add(new DataParallelReplica<>(this, createReplica(directedComponentFactory, trainingContext)));
+		}
+
+		List<CostAndGradients> costAndGradientsList = new ArrayList<>();
+
+		AtomicInteger iterationIndex = new AtomicInteger(0);
+
+		int epochStartIndex = (lastEpochTrainingContext == null
+				|| lastEpochTrainingContext.getLastTrainingEpochIndex() == null) ? 0
+						: (lastEpochTrainingContext.getLastTrainingEpochIndex() + 1);
+
+		AtomicInteger batchIndex = new AtomicInteger(0);
+
+		for (int epochIndex = epochStartIndex; epochIndex < epochStartIndex + numberOfEpochs; epochIndex++) {
+
+			final int epochIndex2 = epochIndex;
+
+			try (Stream<LabeledData<NeuronsActivation, NeuronsActivation>> trainingDataStream = trainingDataSet
+					.get();) {
+
+				trainingDataStream.forEach(batch -> {
+
+					NeuronsActivation batchDataActivations = batch.getData();
+
+					NeuronsActivation batchLabelActivations = batch.getLabel();
+
+					if (batchDataActivations
+							.getFeatureOrientation() != NeuronsActivationFeatureOrientation.ROWS_SPAN_FEATURE_SET) {
+						throw new IllegalArgumentException("Only neurons actiavation with ROWS_SPAN_FEATURE_SET "
+								+ "orientation supported currently");
+					}
+
+					if (batchLabelActivations
+							.getFeatureOrientation() != NeuronsActivationFeatureOrientation.ROWS_SPAN_FEATURE_SET) {
+						throw new IllegalArgumentException("Only neurons actiavation with ROWS_SPAN_FEATURE_SET "
+								+ "orientation supported currently");
+					}
+
+					int numberOfExamples = batchDataActivations.getExampleCount();
+					int miniBatchExampleCount = miniBatchSize == null ? numberOfExamples : miniBatchSize;
+
+					for (int startExampleIndex = 0; startExampleIndex < numberOfExamples;
+							startExampleIndex += miniBatchExampleCount) {
+
+						int endExampleIndex = Math.min(startExampleIndex + miniBatchExampleCount, numberOfExamples);
+
+						CostAndGradients costAndGradients = trainDataParallelMiniBatch(batchDataActivations,
+								batchLabelActivations, startExampleIndex, endExampleIndex, trainingContext,
+								replicas, branchScheduler, epochIndex2, batchIndex.get(), iterationIndex.get());
+
+						costAndGradientsList.add(costAndGradients);
+
+						LOGGER.debug("Epoch:" + epochIndex2 + " batch " + batchIndex + " Cost:"
+								+ costAndGradients.getAverageCost());
+
+						iterationIndex.addAndGet(1);
+						batchIndex.addAndGet(1);
+					}
+
+					batchDataActivations.close();
+					batchLabelActivations.close();
+				});
+
+				CostAndGradients costAndGradients = costAndGradientsList.get(costAndGradientsList.size() - 1);
+				costAndGradientsList.clear();
+				epochAverageCostHandler.accept(costAndGradients.getAverageCost());
+				LOGGER.debug("Epoch:" + epochIndex + " Cost:" + costAndGradients.getAverageCost());
+				lastEpochTrainingContext = trainingContext;
+			}
+		}
+	}
+
+	/**
+	 * Forward and back-propagate the shards of a mini-batch concurrently, adjust
+	 * the weights of this network and its replicas with the all-reduced gradients,
+	 * and reconcile the batch norm running statistics of the replicas.
+	 * 
+	 * Replicas left without a shard (when the mini-batch has fewer examples than
+	 * there are replicas) are adjusted in the same way, so remain in step.
+	 * 
+	 * Only this network, which propagates the first shard, includes regularisation
+	 * in its gradients and cost, so the combined cost and the all-reduced
+	 * gradients include it once.
+	 * 
+	 * @return The combined cost of the shards, without gradients.
+	 */
+	private CostAndGradients trainDataParallelMiniBatch(NeuronsActivation batchDataActivations,
+			NeuronsActivation batchLabelActivations, int startExampleIndex, int endExampleIndex, C trainingContext,
+			List<DataParallelReplica<C>> replicas, BranchScheduler branchScheduler, int epochIndex, int batchIndex,
+			int iterationIndex) {
+
+		int numberOfExamples = endExampleIndex - startExampleIndex;
+		int numberOfShards = Math.min(replicas.size(), numberOfExamples);
+
+		DataParallelGradientAccumulator gradientAccumulator = new DataParallelGradientAccumulator(numberOfShards);
+
+		Matrix dataActivations = batchDataActivations.getActivations(trainingContext.getMatrixFactory());
+		Matrix labelActivations = batchLabelActivations.getActivations(trainingContext.getMatrixFactory());
+
+		int[] shardExampleCounts = new int[numberOfShards];
+		List<Supplier<CostAndGradients>> shardTasks = new ArrayList<>();
+		AtomicReference<Future<List<AxonsGradient>>> averageAxonsGradientsResult = new AtomicReference<>();
+		for (int shardIndex = 0; shardIndex < numberOfShards; shardIndex++) {
+			// Spread the examples as evenly as possible between the shards
+			int startColumnIndex = startExampleIndex + (shardIndex * numberOfExamples) / numberOfShards;
+			int endColumnIndex = startExampleIndex + ((shardIndex + 1) * numberOfExamples) / numberOfShards;
+			shardExampleCounts[shardIndex] = endColumnIndex - startColumnIndex;
+
+			FeedForwardNeuralNetworkBase<C, ?, ?> replica = replicas.get(shardIndex).network;
+			final int shardIndex2 = shardIndex;
+
+			shardTasks.add(() -> {
+				NeuronsActivation shardDataActivations = new NeuronsActivationImpl(batchDataActivations.getNeurons(),
+						dataActivations.getColumnRange(startColumnIndex, endColumnIndex),
+						batchDataActivations.getFormat());
+				NeuronsActivation shardLabelActivations = new NeuronsActivationImpl(
+						batchLabelActivations.getNeurons(),
+						labelActivations.getColumnRange(startColumnIndex, endColumnIndex),
+						batchLabelActivations.getFormat());
+				try {
+					CostAndGradients shardCostAndGradients = replica.getCostAndGradients(shardDataActivations,
+							shardLabelActivations, trainingContext);
+					gradientAccumulator.submitCostAndGradients(shardIndex2, shardCostAndGradients)
+							.ifPresent(averageAxonsGradientsResult::set);
+					return shardCostAndGradients;
+				} finally {
+					shardDataActivations.close();
+					shardLabelActivations.close();
+				}
+			});
+		}
+
+		float totalCost = 0;
+		for (CostAndGradients shardCostAndGradients : branchScheduler.invokeAll(shardTasks)) {
+			totalCost = totalCost + shardCostAndGradients.getTotalCost();
+		}
+
+		List<AxonsGradient> averageTrainableAxonsGradients;
+		try {
+			// Every shard has reported, so the average gradients are complete
+			averageTrainableAxonsGradients = averageAxonsGradientsResult.get().get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Interrupted when waiting for data-parallel gradients", e);
+		} catch (ExecutionException e) {
+			throw new IllegalStateException("Data-parallel gradient reduction failed", e.getCause());
+		}
+
+		adjustConnectionWeights(trainingContext, averageTrainableAxonsGradients,
+				replicas.subList(1, replicas.size()), epochIndex, batchIndex, iterationIndex);
+
+		for (AxonsGradient axonsGradient : averageTrainableAxonsGradients) {
+			axonsGradient.getWeightsGradient().close();
+			if (axonsGradient.getLeftToRightBiasGradient() != null) {
+				axonsGradient.getLeftToRightBiasGradient().close();
+			}
+			if (axonsGradient.getRightToLeftBiasGradient() != null) {
+				axonsGradient.getRightToLeftBiasGradient().close();
+			}
+		}
+
+		reconcileBatchNormStatistics(replicas, shardExampleCounts);
+
+		return new CostAndGradientsImpl(totalCost, Collections.emptyList(), numberOfExamples);
+	}
+
+	/**
+	 * Reconcile the running statistics of each batch norm component across the
+	 * replicas, setting them to the average of those of the replicas which
+	 * propagated a shard, weighted by the number of examples in each shard.
+	 * 
+	 * As every replica begins each step with the same running statistics, the
+	 * reconciled means are those obtained had the whole mini-batch been
+	 * propagated by a single network. The reconciled variances are the weighted
+	 * average of the shard variances, and so omit the spread of the shard means
+	 * about the mini-batch mean.
+	 */
+	private void reconcileBatchNormStatistics(List<DataParallelReplica<C>> replicas, int[] shardExampleCounts) {
+		for (String componentName : replicas.get(0).batchNormComponents.keySet()) {
+			List<BatchNormDirectedAxonsComponent<?, ?>> shardComponents = new ArrayList<>();
+			for (int shardIndex = 0; shardIndex < shardExampleCounts.length; shardIndex++) {
+				shardComponents.add(replicas.get(shardIndex).batchNormComponents.get(componentName));
+			}
+			Matrix means = getWeightedAverage(shardComponents,
+					BatchNormDirectedAxonsComponent::getExponentiallyWeightedAverageInputFeatureMeans,
+					shardExampleCounts);
+			Matrix variances = getWeightedAverage(shardComponents,
+					BatchNormDirectedAxonsComponent::getExponentiallyWeightedAverageInputFeatureVariances,
+					shardExampleCounts);
+			for (DataParallelReplica<C> replica : replicas) {
+				BatchNormDirectedAxonsComponent<?, ?> component = replica.batchNormComponents.get(componentName);
+				if (means != null) {
+					component.setExponentiallyWeightedAverageInputFeatureMeans(means.dup());
+				}
+				if (variances != null) {
+					component.setExponentiallyWeightedAverageInputFeatureVariances(variances.dup());
+				}
+			}
+			if (means != null) {
+				means.close();
+			}
+			if (variances != null) {
+				variances.close();
+			}
+		}
+	}
+
+	private Matrix getWeightedAverage(List<BatchNormDirectedAxonsComponent<?, ?>> shardComponents,
+			Function<BatchNormDirectedAxonsComponent<?, ?>, Matrix> statistic, int[] shardExampleCounts) {
+		EditableMatrix total = null;
+		int numberOfExamples = 0;
+		for (int shardIndex = 0; shardIndex < shardComponents.size(); shardIndex++) {
+			Matrix shardStatistic = statistic.apply(shardComponents.get(shardIndex));
+			if (shardStatistic == null) {
+				// Not yet initialised by every shard, eg. when a shard has a single example
+				if (total != null) {
+					total.close();
+				}
+				return null;
+			}
+			if (total == null) {
+				total = shardStatistic.mul(shardExampleCounts[shardIndex]).asEditableMatrix();
+			} else {
+				Matrix weightedShardStatistic = shardStatistic.mul(shardExampleCounts[shardIndex]);
+				total.addi(weightedShardStatistic);
+				weightedShardStatistic.close();
+			}
+			numberOfExamples = numberOfExamples + shardExampleCounts[shardIndex];
+		}
+		return total == null ? null : total.divi(numberOfExamples);
+	}
+
+	private BranchScheduler getBranchScheduler(C trainingContext) {
+		BranchScheduler branchScheduler = trainingContext.getDirectedComponentsContext().getBranchScheduler();
+		return branchScheduler == null ? ForkJoinPoolBranchScheduler.getDefault() : branchScheduler;
+	}
+
+	/**
+	 * A network taking part in data-parallel training, with its trainable axons
+	 * indexed by the corresponding axons of the primary network, and its batch
+	 * norm components indexed by name.
+	 */
+	private static class DataParallelReplica<C extends FeedForwardNeuralNetworkContext> {
+
+		private final FeedForwardNeuralNetworkBase<C, ?, ?> network;
+
+		private final Map<TrainableAxons<?, ?, ?>, TrainableAxons<?, ?, ?>> trainableAxons;
+
+		private final Map<String, BatchNormDirectedAxonsComponent<?, ?>> batchNormComponents;
+
+		DataParallelReplica(FeedForwardNeuralNetworkBase<C, ?, ?> primaryNetwork,
+				FeedForwardNeuralNetworkBase<C, ?, ?> network) {
+			this.network = network;
+			this.trainableAxons = new IdentityHashMap<>();
+			this.batchNormComponents = new HashMap<>();
+			Map<String, TrainableAxons<?, ?, ?>> trainableAxonsByName = getTrainableAxonsByName(network);
+			for (Map.Entry<String, TrainableAxons<?, ?, ?>> primaryAxons : getTrainableAxonsByName(primaryNetwork)
+					.entrySet()) {
+				TrainableAxons<?, ?, ?> axons = trainableAxonsByName.get(primaryAxons.getKey());
+				if (axons == null) {
+					throw new IllegalStateException("Replica has no axons component named:" + primaryAxons.getKey());
+				}
+				trainableAxons.put(primaryAxons.getValue(), axons);
+			}
+			for (DefaultChainableDirectedComponent<?, ?> component : network.trailingActivationFunctionComponentChain
+					.flatten()) {
+				if (component instanceof BatchNormDirectedAxonsComponent) {
+					batchNormComponents.put(component.getName(), (BatchNormDirectedAxonsComponent<?, ?>) component);
+				}
+			}
+		}
+
+		/**
+		 * Adapters are flattened along with the components they adapt, so a name may
+		 * occur more than once, but only ever for the same axons.
+		 */
+		private static Map<String, TrainableAxons<?, ?, ?>> getTrainableAxonsByName(
+				FeedForwardNeuralNetworkBase<?, ?, ?> network) {
+			Map<String, TrainableAxons<?, ?, ?>> trainableAxonsByName = new HashMap<>();
+			for (DefaultChainableDirectedComponent<?, ?> component : network.trailingActivationFunctionComponentChain
+					.flatten()) {
+				Axons<?, ?, ?> componentAxons = component instanceof DirectedAxonsComponent
+						? ((DirectedAxonsComponent<?, ?, ?>) component).getAxons()
+						: null;
+				if (componentAxons instanceof TrainableAxons) {
+					TrainableAxons<?, ?, ?> axons = (TrainableAxons<?, ?, ?>) componentAxons;
+					TrainableAxons<?, ?, ?> existingAxons = trainableAxonsByName.put(component.getName(), axons);
+					if (existingAxons != null && existingAxons != axons) {
+						throw new IllegalStateException(
+								"Data-parallel training requires uniquely named axons components:"
+										+ component.getName());
+					}
+				}
+			}
+			return trainableAxonsByName;
+		}
+	}
+
 	protected void train(Stream<LabeledData<NeuronsActivation, NeuronsActivation>> trainingDataActivations,
 			C trainingContext) {
 
@@ -479,17 +845,29 @@ public abstract class FeedForwardNeuralNetworkBase<C extends FeedForwardNeuralNe
 		// Obtain the cost from the cost function
 		LOGGER.debug("Calculating total cost function cost");
 
-		float totalCost = costFunction.getTotalCost(
-				desiredOutputActivations.getActivations(trainingContext.getMatrixFactory()),
-				forwardPropagation.getOutput().getActivations(trainingContext.getMatrixFactory()));
+		Matrix desiredOutputs = desiredOutputActivations.getActivations(trainingContext.getMatrixFactory());
+		Matrix actualOutputs = forwardPropagation.getOutput().getActivations(trainingContext.getMatrixFactory());
+
+		float totalCost;
+		CostFunctionGradient costFunctionGradient;
+		if (costFunction instanceof DeltaRuleCostFunction) {
+			// Calculate the cost and the deltas together in a single pass
+			float[] deltas = new float[actualOutputs.getLength()];
+			totalCost = ((DeltaRuleCostFunction) costFunction).getTotalCostAndDeltas(desiredOutputs, actualOutputs,
+					deltas);
+			costFunctionGradient = new DeltaRuleCostFunctionGradientImpl(trainingContext.getMatrixFactory(),
+					costFunction, desiredOutputActivations, forwardPropagation.getOutput(),
+					trainingContext.getMatrixFactory().createMatrixFromRowsByRowsArray(actualOutputs.getRows(),
+							actualOutputs.getColumns(), deltas));
+		} else {
+			totalCost = costFunction.getTotalCost(desiredOutputs, actualOutputs);
+			costFunctionGradient = new DeltaRuleCostFunctionGradientImpl(trainingContext.getMatrixFactory(),
+					costFunction, desiredOutputActivations, forwardPropagation.getOutput());
+		}
 
 		float totalRegularisationCost = forwardPropagation.getTotalRegularisationCost(trainingContext);
 
 		float totalCostWithRegularisation = totalCost + totalRegularisationCost;
-
-		CostFunctionGradient costFunctionGradient = new DeltaRuleCostFunctionGradientImpl(
-				trainingContext.getMatrixFactory(), costFunction, desiredOutputActivations,
-				forwardPropagation.getOutput());
 		// forwardPropagation.getOutput().close();
 
 		// Back propagate the cost function gradient through the network
@@ -548,8 +926,68 @@ public abstract class FeedForwardNeuralNetworkBase<C extends FeedForwardNeuralNe
 		return axonsGradient;
 	}
 
+	/**
+	 * Create a replica of this network for data-parallel training, sharing the
+	 * contexts of this network's components.
+	 */
+	@SuppressWarnings("unchecked")
+	private FeedForwardNeuralNetworkBase<C, ?, ?> createReplica(DirectedComponentFactory directedComponentFactory,
+			C trainingContext) {
+		N replica = dup(directedComponentFactory);
+		if (!(replica instanceof FeedForwardNeuralNetworkBase)) {
+			throw new UnsupportedOperationException(
+					"Data-parallel training not supported for replicas of type:" + replica.getClass().getName());
+		}
+		FeedForwardNeuralNetworkBase<C, ?, ?> replicaNetwork = (FeedForwardNeuralNetworkBase<C, ?, ?>) replica;
+		shareComponentContexts(replicaNetwork, trainingContext.getDirectedComponentsContext());
+		return replicaNetwork;
+	}
+
+	/**
+	 * Components are duplicated by dup with their names preserved, so the contexts
+	 * configured for this network's components are shared with the replica's
+	 * components of the same name.
+	 * 
+	 * The axons contexts of the replica have no regularisation, as each shard's
+	 * total gradients and cost would otherwise include the whole regularisation
+	 * term. This network propagates the first shard of every mini-batch, so
+	 * regularisation is applied once per mini-batch, as by a single network.
+	 */
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	private void shareComponentContexts(FeedForwardNeuralNetworkBase<C, ?, ?> replica,
+			DirectedComponentsContext directedComponentsContext) {
+		Map<String, DefaultChainableDirectedComponent<?, ?>> componentsByName = new HashMap<>();
+		for (DefaultChainableDirectedComponent<?, ?> component : trailingActivationFunctionComponentChain.flatten()) {
+			componentsByName.put(component.getName(), component);
+		}
+		for (DefaultChainableDirectedComponent replicaComponent : replica.trailingActivationFunctionComponentChain
+				.flatten()) {
+			DefaultChainableDirectedComponent<?, ?> component = componentsByName.get(replicaComponent.getName());
+			if (component != null) {
+				Object context = component.getContext(directedComponentsContext);
+				if (context instanceof AxonsContext && ((AxonsContext) context).getRegularisationLambda() != 0) {
+					context = ((AxonsContext) context).dup().withRegularisationLambda(0);
+				}
+				directedComponentsContext.setContext(replicaComponent, (Serializable) context);
+			}
+		}
+	}
+
 	private void adjustConnectionWeights(C trainingContext, List<AxonsGradient> trainableAxonsGradients, int epochIndex,
 			int batchIndex, int iterationIndex) {
+		adjustConnectionWeights(trainingContext, trainableAxonsGradients, Collections.emptyList(), epochIndex,
+				batchIndex, iterationIndex);
+	}
+
+	/**
+	 * Adjust the weights of the axons of the trainableAxonsGradients, applying the
+	 * same adjustments to the corresponding axons of each replica.
+	 * 
+	 * @param replicas The replicas whose trainable axons are indexed by the axons
+	 *                 of trainableAxonsGradients.
+	 */
+	private void adjustConnectionWeights(C trainingContext, List<AxonsGradient> trainableAxonsGradients,
+			List<DataParallelReplica<C>> replicas, int epochIndex, int batchIndex, int iterationIndex) {
 		int axonsIndex = 0;
 		for (AxonsGradient axonsGradient : trainableAxonsGradients) {
 			TrainableAxons<?, ?, ?> trainableAxons = axonsGradient.getAxons();
@@ -559,27 +997,30 @@ public abstract class FeedForwardNeuralNetworkBase<C extends FeedForwardNeuralNe
 			AxonsGradient adjustedAxonsGradient = getAdjustedAxonsGradient(axonsGradient, axonsIndex, trainingContext,
 					epochIndex, batchIndex, iterationIndex);
 			// Adjust the weights of each set of Axons by subtracting the learning-rate
-			// scaled
-			// gradient matrices
-			Matrix weightsGradient = adjustedAxonsGradient.getWeightsGradient();
-
-			try (InterrimMatrix weightsAdjustment = weightsGradient
-					.mul((float) getTrainingLearningRate(trainingContext, epochIndex, batchIndex, iterationIndex))
-					.asInterrimMatrix()) {
-				AxonWeightsAdjustment axonWeightsAdjustment = null;
-				if (trainableAxons.getLeftNeurons().hasBiasUnit()) {
-					try (InterrimMatrix biasAdjustment = adjustedAxonsGradient.getLeftToRightBiasGradient()
-							.mul(getTrainingLearningRate(trainingContext, epochIndex, batchIndex, iterationIndex))
-							.asInterrimMatrix()) {
-						axonWeightsAdjustment = new AxonWeightsAdjustmentImpl(weightsAdjustment, biasAdjustment);
-						trainableAxons.adjustAxonWeights(axonWeightsAdjustment,
-								AxonWeightsAdjustmentDirection.SUBTRACTION);
-					}
-				} else {
-					axonWeightsAdjustment = new AxonWeightsAdjustmentImpl(weightsAdjustment);
-					trainableAxons.adjustAxonWeights(axonWeightsAdjustment, AxonWeightsAdjustmentDirection.SUBTRACTION);
-				}
+			// scaled gradient matrices. The adjusted gradients are discarded after the
+			// update, so they are scaled in place rather than copied.
+			float trainingLearningRate = getTrainingLearningRate(trainingContext, epochIndex, batchIndex,
+					iterationIndex);
+
+			Matrix weightsAdjustment = adjustedAxonsGradient.getWeightsGradient().asEditableMatrix()
+					.muli(trainingLearningRate);
+
+			AxonWeightsAdjustment axonWeightsAdjustment = null;
+			if (trainableAxons.getLeftNeurons().hasBiasUnit()) {
+				Matrix biasAdjustment = adjustedAxonsGradient.getLeftToRightBiasGradient().asEditableMatrix()
+						.muli(trainingLearningRate);
+				axonWeightsAdjustment = new AxonWeightsAdjustmentImpl(weightsAdjustment, biasAdjustment);
+			} else {
+				axonWeightsAdjustment = new AxonWeightsAdjustmentImpl(weightsAdjustment);
+			}
 
+			trainableAxons.adjustAxonWeights(axonWeightsAdjustment, AxonWeightsAdjustmentDirection.SUBTRACTION);
+			for (DataParallelReplica<C> replica : replicas) {
+				TrainableAxons<?, ?, ?> replicaAxons = replica.trainableAxons.get(trainableAxons);
+				if (replicaAxons == null) {
+					throw new IllegalStateException("Replica has no axons corresponding to:" + trainableAxons);
+				}
+				replicaAxons.adjustAxonWeights(axonWeightsAdjustment, AxonWeightsAdjustmentDirection.SUBTRACTION);
 			}
 
 			axonsIndex++;
@@ -611,6 +1052,49 @@ public abstract class FeedForwardNeuralNetworkBase<C extends FeedForwardNeuralNe
 		return forwardPropagation;
 	}
 	
+	@Override
+	public NeuronsActivation infer(NeuronsActivation inputActivation, C context) {
+
+		LOGGER.debug("Inferring through FeedForwardNeuralNetwork");
+
+		DirectedComponentsContext directedComponentsContext = context.getDirectedComponentsContext()
+				.isTrainingContext() ? context.getDirectedComponentsContext().asNonTrainingContext()
+						: context.getDirectedComponentsContext();
+
+		// Protect the input from being closed by the components, restoring the
+		// caller's flag once inference is complete
+		boolean inputActivationImmutable = inputActivation.isImmutable();
+		inputActivation.setImmutable(true);
+		try {
+			// Forward propagate through each component without building a chain
+			// activation, closing each intermediate activation once consumed. Each
+			// component activation references its input for back propagation, so is
+			// dropped as soon as its output is taken, leaving the closed input
+			// unreachable. Only with a pooled FloatArrayFactory are the closed
+			// matrices recycled, so that the activations alternate between two
+			// buffers wherever consecutive components produce outputs of the same
+			// size - otherwise they are left to the garbage collector
+			NeuronsActivation inFlightActivation = inputActivation;
+			for (DefaultChainableDirectedComponent<?, ?> component : trailingActivationFunctionComponentChain
+					.decompose()) {
+				NeuronsActivation input = inFlightActivation;
+				NeuronsActivation output = NotifyingDirectedComponentActivation
+						.notify(component.getName(), DirectedComponentActivationLifecycle.FORWARD_PROPAGATION,
+								directedComponentsContext.getPropagationListener(),
+								() -> component.forwardPropagateChain(input, directedComponentsContext))
+						.getOutput();
+				if (output != inFlightActivation && inFlightActivation != inputActivation
+						&& !inFlightActivation.isImmutable()) {
+					inFlightActivation.close();
+				}
+				inFlightActivation = output;
+			}
+			return inFlightActivation;
+		} finally {
+			inputActivation.setImmutable(inputActivationImmutable);
+		}
+	}
+
 	@Override
 	public <L> Stream<LabeledData<ForwardPropagation, L>> forwardPropagateWithLabels(Stream<LabeledData<NeuronsActivation, L>> labeledInputActivation, C context) {
 
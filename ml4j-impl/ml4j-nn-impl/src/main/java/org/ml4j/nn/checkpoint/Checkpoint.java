@@ -0,0 +1,90 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.ml4j.nn.checkpoint;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A snapshot of the state of a model and its training, as named float tensors
+ * and named counters.
+ *
+ * Tensors are owned by the checkpoint once added, so a checkpoint can be
+ * written while training continues to update the model it was taken from.
+ *
+ * @author Michael Lavelle
+ */
+public class Checkpoint {
+
+	private Map<String, CheckpointTensor> tensors;
+	private Map<String, Long> counters;
+
+	public Checkpoint() {
+		this.tensors = new LinkedHashMap<>();
+		this.counters = new LinkedHashMap<>();
+	}
+
+	/**
+	 * @param key    The unique key of the tensor.
+	 * @param tensor The tensor, which must not be modified once added.
+	 */
+	public void putTensor(String key, CheckpointTensor tensor) {
+		if (tensors.putIfAbsent(key, tensor) != null) {
+			throw new IllegalArgumentException("Checkpoint already contains a tensor for key:" + key);
+		}
+	}
+
+	/**
+	 * @param key The key of the tensor.
+	 * @return The tensor, or null if this checkpoint has no tensor for the key.
+	 */
+	public CheckpointTensor getTensor(String key) {
+		return tensors.get(key);
+	}
+
+	/**
+	 * @return The keys of the tensors, in the order they were added.
+	 */
+	public Set<String> getTensorKeys() {
+		return Collections.unmodifiableSet(tensors.keySet());
+	}
+
+	/**
+	 * @param key   The unique key of the counter.
+	 * @param value The value of the counter.
+	 */
+	public void putCounter(String key, long value) {
+		if (counters.putIfAbsent(key, value) != null) {
+			throw new IllegalArgumentException("Checkpoint already contains a counter for key:" + key);
+		}
+	}
+
+	/**
+	 * @param key The key of the counter.
+	 * @return The value of the counter, or null if this checkpoint has no counter
+	 *         for the key.
+	 */
+	public Long getCounter(String key) {
+		return counters.get(key);
+	}
+
+	/**
+	 * @return The keys of the counters, in the order they were added.
+	 */
+	public Set<String> getCounterKeys() {
+		return Collections.unmodifiableSet(counters.keySet());
+	}
+}
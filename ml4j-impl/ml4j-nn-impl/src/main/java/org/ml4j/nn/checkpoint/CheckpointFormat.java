@@ -0,0 +1,176 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.ml4j.nn.checkpoint;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Reads and writes Checkpoints in a versioned binary container.
+ *
+ * The container is a header of magic number, format version and record counts,
+ * followed by the counters and then the tensors. Each tensor is its key, its
+ * shape and its values in row by row order. All values are little-endian.
+ *
+ * Checkpoints are written through a fixed size buffer, one record at a time,
+ * to a temporary file which then replaces the target, so an interrupted write
+ * never corrupts an earlier checkpoint. Checkpoints are read by memory-mapping
+ * the file and copying each tensor out in bulk.
+ *
+ * @author Michael Lavelle
+ */
+public final class CheckpointFormat {
+
+	/**
+	 * The magic number "ML4C" identifying a checkpoint file.
+	 */
+	public static final int MAGIC = 0x4D4C3443;
+
+	public static final int VERSION = 1;
+
+	private static final int BUFFER_SIZE = 1 << 20;
+
+	private CheckpointFormat() {
+	}
+
+	/**
+	 * @param checkpoint The checkpoint to write.
+	 * @param path       The path of the checkpoint file, which is replaced if it
+	 *                   exists.
+	 */
+	public static void write(Checkpoint checkpoint, Path path) {
+		Path temporaryPath = path.resolveSibling(path.getFileName() + ".tmp");
+		try {
+			try (FileChannel channel = FileChannel.open(temporaryPath, StandardOpenOption.CREATE,
+					StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+				ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+				buffer.putInt(MAGIC);
+				buffer.putInt(VERSION);
+				buffer.putInt(checkpoint.getCounterKeys().size());
+				buffer.putInt(checkpoint.getTensorKeys().size());
+				for (String key : checkpoint.getCounterKeys()) {
+					writeKey(channel, buffer, key);
+					ensureRemaining(channel, buffer, Long.BYTES);
+					buffer.putLong(checkpoint.getCounter(key));
+				}
+				for (String key : checkpoint.getTensorKeys()) {
+					CheckpointTensor tensor = checkpoint.getTensor(key);
+					writeKey(channel, buffer, key);
+					ensureRemaining(channel, buffer, 2 * Integer.BYTES);
+					buffer.putInt(tensor.getRows());
+					buffer.putInt(tensor.getColumns());
+					writeValues(channel, buffer, tensor.getData());
+				}
+				flush(channel, buffer);
+				channel.force(false);
+			}
+			Files.move(temporaryPath, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		} catch (IOException e) {
+			throw new UncheckedIOException("Unable to write checkpoint to " + path, e);
+		}
+	}
+
+	/**
+	 * @param path The path of the checkpoint file.
+	 * @return The checkpoint read from the file.
+	 */
+	public static Checkpoint read(Path path) {
+		try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+			if (channel.size() > Integer.MAX_VALUE) {
+				throw new IllegalArgumentException("Checkpoint files larger than 2GB are not supported:" + path);
+			}
+			MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+			buffer.order(ByteOrder.LITTLE_ENDIAN);
+			if (buffer.remaining() < 4 * Integer.BYTES || buffer.getInt() != MAGIC) {
+				throw new IllegalArgumentException("Not a checkpoint file:" + path);
+			}
+			int version = buffer.getInt();
+			if (version != VERSION) {
+				throw new IllegalArgumentException("Unsupported checkpoint version " + version + ":" + path);
+			}
+			int counterCount = buffer.getInt();
+			int tensorCount = buffer.getInt();
+			Checkpoint checkpoint = new Checkpoint();
+			for (int i = 0; i < counterCount; i++) {
+				checkpoint.putCounter(readKey(buffer), buffer.getLong());
+			}
+			for (int i = 0; i < tensorCount; i++) {
+				String key = readKey(buffer);
+				int rows = buffer.getInt();
+				int columns = buffer.getInt();
+				float[] data = new float[rows * columns];
+				buffer.asFloatBuffer().get(data);
+				buffer.position(buffer.position() + data.length * Float.BYTES);
+				checkpoint.putTensor(key, new CheckpointTensor(rows, columns, data));
+			}
+			return checkpoint;
+		} catch (IOException e) {
+			throw new UncheckedIOException("Unable to read checkpoint from " + path, e);
+		}
+	}
+
+	private static void writeKey(FileChannel channel, ByteBuffer buffer, String key) throws IOException {
+		byte[] bytes = key.getBytes(StandardCharsets.UTF_8);
+		ensureRemaining(channel, buffer, Integer.BYTES + bytes.length);
+		buffer.putInt(bytes.length);
+		buffer.put(bytes);
+	}
+
+	private static String readKey(ByteBuffer buffer) {
+		byte[] bytes = new byte[buffer.getInt()];
+		buffer.get(bytes);
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+
+	private static void writeValues(FileChannel channel, ByteBuffer buffer, float[] data) throws IOException {
+		int offset = 0;
+		while (offset < data.length) {
+			if (buffer.remaining() < Float.BYTES) {
+				flush(channel, buffer);
+			}
+			FloatBuffer floatBuffer = buffer.asFloatBuffer();
+			int length = Math.min(floatBuffer.remaining(), data.length - offset);
+			floatBuffer.put(data, offset, length);
+			buffer.position(buffer.position() + length * Float.BYTES);
+			offset += length;
+		}
+	}
+
+	private static void ensureRemaining(FileChannel channel, ByteBuffer buffer, int length) throws IOException {
+		if (length > BUFFER_SIZE) {
+			throw new IllegalArgumentException("Checkpoint record header too long:" + length);
+		}
+		if (buffer.remaining() < length) {
+			flush(channel, buffer);
+		}
+	}
+
+	private static void flush(FileChannel channel, ByteBuffer buffer) throws IOException {
+		buffer.flip();
+		while (buffer.hasRemaining()) {
+			channel.write(buffer);
+		}
+		buffer.clear();
+	}
+}
@@ -0,0 +1,69 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.ml4j.nn.checkpoint;
+
+import org.ml4j.Matrix;
+import org.ml4j.MatrixFactory;
+
+/**
+ * A matrix of floats held in a Checkpoint, with its values in row by row
+ * order.
+ *
+ * @author Michael Lavelle
+ */
+public class CheckpointTensor {
+
+	private int rows;
+	private int columns;
+	private float[] data;
+
+	public CheckpointTensor(int rows, int columns, float[] data) {
+		if (data.length != rows * columns) {
+			throw new IllegalArgumentException(
+					"Expected " + rows * columns + " values for shape " + rows + "x" + columns + " but found "
+							+ data.length);
+		}
+		this.rows = rows;
+		this.columns = columns;
+		this.data = data;
+	}
+
+	/**
+	 * @param matrix The matrix to copy.
+	 * @return A tensor holding a copy of the values of the matrix.
+	 */
+	public static CheckpointTensor copyOf(Matrix matrix) {
+		return new CheckpointTensor(matrix.getRows(), matrix.getColumns(), matrix.getRowByRowArray().clone());
+	}
+
+	/**
+	 * @param matrixFactory The matrix factory.
+	 * @return A new matrix holding a copy of the values of this tensor.
+	 */
+	public Matrix toMatrix(MatrixFactory matrixFactory) {
+		return matrixFactory.createMatrixFromRowsByRowsArray(rows, columns, data.clone());
+	}
+
+	public int getRows() {
+		return rows;
+	}
+
+	public int getColumns() {
+		return columns;
+	}
+
+	public float[] getData() {
+		return data;
+	}
+}
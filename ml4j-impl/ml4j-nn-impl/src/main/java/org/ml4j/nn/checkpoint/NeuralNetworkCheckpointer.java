@@ -0,0 +1,253 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.ml4j.nn.checkpoint;
+
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
+
+import org.ml4j.Matrix;
+import org.ml4j.MatrixFactory;
+import org.ml4j.nn.axons.AxonWeights;
+import org.ml4j.nn.axons.AxonWeightsAdjustmentDirection;
+import org.ml4j.nn.axons.AxonWeightsAdjustmentImpl;
+import org.ml4j.nn.axons.FeaturesVector;
+import org.ml4j.nn.axons.TrainableAxons;
+import org.ml4j.nn.components.axons.BatchNormDirectedAxonsComponent;
+import org.ml4j.nn.components.axons.DirectedAxonsComponent;
+import org.ml4j.nn.components.onetone.DefaultChainableDirectedComponent;
+import org.ml4j.nn.optimisation.GradientDescentOptimisationStrategyBase;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Saves and restores the weights and biases of every TrainableAxons of a model,
+ * the running statistics of its batch norm components and optionally the state
+ * of its optimisation strategy, as Checkpoints.
+ *
+ * Components are identified in the checkpoint by name, so a checkpoint can be
+ * restored into any model whose components have the same names and shapes.
+ *
+ * Asynchronous saves take a snapshot on the calling thread, which is the only
+ * part of the save that must not overlap with training, and write it on a
+ * background thread. Saves are written one at a time in the order requested.
+ *
+ * @author Michael Lavelle
+ */
+public class NeuralNetworkCheckpointer {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(NeuralNetworkCheckpointer.class);
+
+	private static final ExecutorService DEFAULT_EXECUTOR = Executors.newSingleThreadExecutor(r -> {
+		Thread thread = new Thread(r, "ml4j-checkpoint");
+		thread.setDaemon(true);
+		return thread;
+	});
+
+	private DefaultChainableDirectedComponent<?, ?> model;
+	private MatrixFactory matrixFactory;
+	private GradientDescentOptimisationStrategyBase optimisationStrategy;
+	private ExecutorService executor;
+
+	public NeuralNetworkCheckpointer(DefaultChainableDirectedComponent<?, ?> model, MatrixFactory matrixFactory) {
+		this(model, matrixFactory, null, DEFAULT_EXECUTOR);
+	}
+
+	/**
+	 * @param model                The model, whose nested components are
+	 *                             checkpointed.
+	 * @param matrixFactory        The matrix factory used when restoring.
+	 * @param optimisationStrategy The optimisation strategy whose state is
+	 *                             checkpointed, or null.
+	 * @param executor             The executor on which asynchronous saves are
+	 *                             written, which should run one save at a time.
+	 */
+	public NeuralNetworkCheckpointer(DefaultChainableDirectedComponent<?, ?> model, MatrixFactory matrixFactory,
+			GradientDescentOptimisationStrategyBase optimisationStrategy, ExecutorService executor) {
+		this.model = model;
+		this.matrixFactory = matrixFactory;
+		this.optimisationStrategy = optimisationStrategy;
+		this.executor = executor;
+	}
+
+	/**
+	 * Copy the current state of the model, which must not be updated until this
+	 * method returns.
+	 *
+	 * @return The checkpoint.
+	 */
+	public Checkpoint snapshot() {
+		Checkpoint checkpoint = new Checkpoint();
+		for (DirectedAxonsComponent<?, ?, ?> component : getAxonsComponents()) {
+			String prefix = "axons/" + component.getName();
+			if (component.getAxons() instanceof TrainableAxons) {
+				AxonWeights axonWeights = ((TrainableAxons<?, ?, ?>) component.getAxons()).getDetachedAxonWeights();
+				checkpoint.putTensor(prefix + "/weights",
+						CheckpointTensor.copyOf(axonWeights.getConnectionWeights().getMatrix()));
+				putVector(checkpoint, prefix + "/leftToRightBiases", axonWeights.getLeftToRightBiases());
+				putVector(checkpoint, prefix + "/rightToLeftBiases", axonWeights.getRightToLeftBiases());
+			}
+			if (component instanceof BatchNormDirectedAxonsComponent) {
+				BatchNormDirectedAxonsComponent<?, ?> batchNormComponent =
+						(BatchNormDirectedAxonsComponent<?, ?>) component;
+				putMatrix(checkpoint, prefix + "/means",
+						batchNormComponent.getExponentiallyWeightedAverageInputFeatureMeans());
+				putMatrix(checkpoint, prefix + "/variances",
+						batchNormComponent.getExponentiallyWeightedAverageInputFeatureVariances());
+			}
+		}
+		if (optimisationStrategy != null) {
+			Map<TrainableAxons<?, ?, ?>, String> axonsNames = new IdentityHashMap<>();
+			getTrainableAxonsByName().forEach((name, axons) -> axonsNames.put(axons, name));
+			optimisationStrategy.writeState(checkpoint, axonsNames::get);
+		}
+		return checkpoint;
+	}
+
+	/**
+	 * Restore the state of the model from the checkpoint. Components without
+	 * state in the checkpoint are left unchanged.
+	 *
+	 * @param checkpoint The checkpoint.
+	 */
+	public void restore(Checkpoint checkpoint) {
+		for (DirectedAxonsComponent<?, ?, ?> component : getAxonsComponents()) {
+			String prefix = "axons/" + component.getName();
+			CheckpointTensor weights = checkpoint.getTensor(prefix + "/weights");
+			if (weights != null && component.getAxons() instanceof TrainableAxons) {
+				restoreAxonWeights((TrainableAxons<?, ?, ?>) component.getAxons(), weights,
+						checkpoint.getTensor(prefix + "/leftToRightBiases"),
+						checkpoint.getTensor(prefix + "/rightToLeftBiases"), prefix);
+			}
+			if (component instanceof BatchNormDirectedAxonsComponent) {
+				BatchNormDirectedAxonsComponent<?, ?> batchNormComponent =
+						(BatchNormDirectedAxonsComponent<?, ?>) component;
+				CheckpointTensor means = checkpoint.getTensor(prefix + "/means");
+				CheckpointTensor variances = checkpoint.getTensor(prefix + "/variances");
+				if (means != null && variances != null) {
+					batchNormComponent.setExponentiallyWeightedAverageInputFeatureMeans(means.toMatrix(matrixFactory));
+					batchNormComponent
+							.setExponentiallyWeightedAverageInputFeatureVariances(variances.toMatrix(matrixFactory));
+				}
+			}
+		}
+		if (optimisationStrategy != null) {
+			optimisationStrategy.readState(checkpoint, getTrainableAxonsByName()::get);
+		}
+	}
+
+	/**
+	 * @param path The path of the checkpoint file to write.
+	 */
+	public void save(Path path) {
+		CheckpointFormat.write(snapshot(), path);
+	}
+
+	/**
+	 * Snapshot the model on the calling thread and write the snapshot in the
+	 * background.
+	 *
+	 * @param path The path of the checkpoint file to write.
+	 * @return A future completing with the path once the checkpoint is written.
+	 */
+	public CompletableFuture<Path> saveAsync(Path path) {
+		Checkpoint checkpoint = snapshot();
+		return CompletableFuture.supplyAsync(() -> {
+			long startTime = System.currentTimeMillis();
+			CheckpointFormat.write(checkpoint, path);
+			LOGGER.debug("Wrote checkpoint to {} in {} ms", path, System.currentTimeMillis() - startTime);
+			return path;
+		}, executor);
+	}
+
+	/**
+	 * @param path The path of the checkpoint file to restore from.
+	 */
+	public void load(Path path) {
+		restore(CheckpointFormat.read(path));
+	}
+
+	private List<DirectedAxonsComponent<?, ?, ?>> getAxonsComponents() {
+		List<DirectedAxonsComponent<?, ?, ?>> components = model.flatten().stream()
+				.filter(c -> c instanceof DirectedAxonsComponent).map(c -> (DirectedAxonsComponent<?, ?, ?>) c)
+				.sorted((c1, c2) -> c1.getName().compareTo(c2.getName())).collect(Collectors.toList());
+		Set<String> names = new HashSet<>();
+		for (DirectedAxonsComponent<?, ?, ?> component : components) {
+			if (!names.add(component.getName())) {
+				throw new IllegalStateException(
+						"Axons components must have unique names to be checkpointed:" + component.getName());
+			}
+		}
+		return components;
+	}
+
+	private Map<String, TrainableAxons<?, ?, ?>> getTrainableAxonsByName() {
+		Map<String, TrainableAxons<?, ?, ?>> trainableAxonsByName = new HashMap<>();
+		for (DirectedAxonsComponent<?, ?, ?> component : getAxonsComponents()) {
+			if (component.getAxons() instanceof TrainableAxons) {
+				trainableAxonsByName.put(component.getName(), (TrainableAxons<?, ?, ?>) component.getAxons());
+			}
+		}
+		return trainableAxonsByName;
+	}
+
+	/**
+	 * Overwrite the axon weights in place with the checkpointed values, so that
+	 * no part of the current values, which may not be finite, survives.
+	 */
+	private void restoreAxonWeights(TrainableAxons<?, ?, ?> axons, CheckpointTensor weights,
+			CheckpointTensor leftToRightBiases, CheckpointTensor rightToLeftBiases, String prefix) {
+		AxonWeights current = axons.getDetachedAxonWeights();
+		Matrix currentLeftToRightBiases = getVector(current.getLeftToRightBiases(), leftToRightBiases);
+		Matrix currentRightToLeftBiases = getVector(current.getRightToLeftBiases(), rightToLeftBiases);
+		checkShape(current.getConnectionWeights().getMatrix(), weights, prefix + "/weights");
+		checkShape(currentLeftToRightBiases, leftToRightBiases, prefix + "/leftToRightBiases");
+		checkShape(currentRightToLeftBiases, rightToLeftBiases, prefix + "/rightToLeftBiases");
+		axons.adjustAxonWeights(new AxonWeightsAdjustmentImpl(weights.toMatrix(matrixFactory),
+				currentLeftToRightBiases == null ? null : leftToRightBiases.toMatrix(matrixFactory),
+				currentRightToLeftBiases == null ? null : rightToLeftBiases.toMatrix(matrixFactory)),
+				AxonWeightsAdjustmentDirection.REPLACEMENT);
+	}
+
+	private Matrix getVector(FeaturesVector vector, CheckpointTensor tensor) {
+		return vector == null || tensor == null ? null : vector.getVector();
+	}
+
+	private void checkShape(Matrix matrix, CheckpointTensor tensor, String key) {
+		if (matrix != null && (matrix.getRows() != tensor.getRows() || matrix.getColumns() != tensor.getColumns())) {
+			throw new IllegalArgumentException("Checkpointed shape " + tensor.getRows() + "x" + tensor.getColumns()
+					+ " of " + key + " does not match " + matrix.getRows() + "x" + matrix.getColumns());
+		}
+	}
+
+	private void putVector(Checkpoint checkpoint, String key, FeaturesVector vector) {
+		if (vector != null) {
+			putMatrix(checkpoint, key, vector.getVector());
+		}
+	}
+
+	private void putMatrix(Checkpoint checkpoint, String key, Matrix matrix) {
+		if (matrix != null) {
+			checkpoint.putTensor(key, CheckpointTensor.copyOf(matrix));
+		}
+	}
+}
@@ -0,0 +1,35 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.ml4j.nn.costfunctions;
+
+import org.ml4j.Matrix;
+
+/**
+ * A CostFunction which can calculate its total cost together with the deltas
+ * of the delta rule in a single pass over the outputs, for use with a
+ * compatible final activation function.
+ *
+ * @author Michael Lavelle
+ */
+public interface DeltaRuleCostFunction extends CostFunction {
+
+	/**
+	 * @param desiredOutputs The desired outputs.
+	 * @param actualOutputs  The actual outputs.
+	 * @param deltas         An array the length of the outputs, populated row by
+	 *                       row with the actual outputs minus the desired outputs.
+	 * @return The total cost.
+	 */
+	float getTotalCostAndDeltas(Matrix desiredOutputs, Matrix actualOutputs, float[] deltas);
+}
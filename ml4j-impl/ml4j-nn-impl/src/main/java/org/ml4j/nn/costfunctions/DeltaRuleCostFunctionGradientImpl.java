@@ -39,6 +39,7 @@ public class DeltaRuleCostFunctionGradientImpl implements CostFunctionGradient {
 	private NeuronsActivation actualOutputs;
 	private CostFunction costFunction;
 	private MatrixFactory matrixFactory;
+	private Matrix deltas;
 
 	/**
 	 * @param costFunction   The cost function.
@@ -68,6 +69,22 @@ public class DeltaRuleCostFunctionGradientImpl implements CostFunctionGradient {
 		this.actualOutputs = actualOutputs;
 	}
 
+	/**
+	 * @param costFunction   The cost function.
+	 * @param desiredOutputs The desired outputs of the network.
+	 * @param actualOutputs  The actual outputs of the network.
+	 * @param deltas         The deltas of the delta rule, already calculated
+	 *                       together with the cost by a DeltaRuleCostFunction.
+	 */
+	public DeltaRuleCostFunctionGradientImpl(MatrixFactory matrixFactory, CostFunction costFunction,
+			NeuronsActivation desiredOutputs, NeuronsActivation actualOutputs, Matrix deltas) {
+		this(matrixFactory, costFunction, desiredOutputs, actualOutputs);
+		if (deltas.getRows() != actualOutputs.getRows() || deltas.getColumns() != actualOutputs.getColumns()) {
+			throw new IllegalArgumentException("Mismatched dimensions between deltas and actual outputs");
+		}
+		this.deltas = deltas;
+	}
+
 	private boolean isDeltaRuleSupported(ActivationFunctionType finalActivationFunctionType) {
 
 		if (costFunction instanceof CrossEntropyCostFunction
@@ -100,7 +117,8 @@ public class DeltaRuleCostFunctionGradientImpl implements CostFunctionGradient {
 		// same as the trainingDataActivations as this is an AutoEncoder), and the
 		// activations resulting from the forward propagation
 
-		Matrix deltasM = actualOutputs.getActivations(matrixFactory).sub(desiredOutputs.getActivations(matrixFactory));
+		Matrix deltasM = deltas != null ? deltas
+				: actualOutputs.getActivations(matrixFactory).sub(desiredOutputs.getActivations(matrixFactory));
 
 		actualOutputs.getActivations(matrixFactory).close();
 
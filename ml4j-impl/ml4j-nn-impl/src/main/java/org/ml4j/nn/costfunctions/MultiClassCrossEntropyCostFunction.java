@@ -14,20 +14,26 @@
 
 package org.ml4j.nn.costfunctions;
 
-import org.ml4j.EditableMatrix;
-import org.ml4j.InterrimMatrix;
 import org.ml4j.Matrix;
 
 /**
  * Multi class cross entropy cost function.
  * 
+ * The cost, and the deltas for a softmax final activation function, are
+ * calculated in a single pass over the outputs without intermediate matrices.
+ * 
  * @author Michael Lavelle
  *
  */
-public class MultiClassCrossEntropyCostFunction implements CostFunction {
+public class MultiClassCrossEntropyCostFunction implements DeltaRuleCostFunction {
 
 	@Override
 	public float getTotalCost(Matrix desiredOutputs, Matrix actualOutputs) {
+		return getTotalCostAndDeltas(desiredOutputs, actualOutputs, null);
+	}
+
+	@Override
+	public float getTotalCostAndDeltas(Matrix desiredOutputs, Matrix actualOutputs, float[] deltas) {
 
 		if (actualOutputs.getColumns() != desiredOutputs.getColumns()) {
 			throw new IllegalArgumentException("Mismatched column count between desired and actual outputs");
@@ -36,16 +42,18 @@ public class MultiClassCrossEntropyCostFunction implements CostFunction {
 			throw new IllegalArgumentException("Mismatched row count between desired and actual outputs");
 		}
 
-		try (InterrimMatrix limitLog = limitLog(actualOutputs).asInterrimMatrix()) {
-			try (InterrimMatrix negativeOfDesiredOutputs = desiredOutputs.mul(-1).asInterrimMatrix()) {
-				try (InterrimMatrix jpart = (negativeOfDesiredOutputs.asEditableMatrix().muli(limitLog)).rowSums()
-						.asInterrimMatrix()) {
-					return jpart.sum();
-				}
+		float[] desired = desiredOutputs.getRowByRowArray();
+		float[] actual = actualOutputs.getRowByRowArray();
+		double totalCost = 0;
+		for (int i = 0; i < actual.length; i++) {
+			if (desired[i] != 0) {
+				totalCost -= desired[i] * Math.log(limit(actual[i]));
+			}
+			if (deltas != null) {
+				deltas[i] = actual[i] - desired[i];
 			}
-
 		}
-
+		return (float) totalCost;
 	}
 
 	private double limit(float value) {
@@ -55,16 +63,6 @@ public class MultiClassCrossEntropyCostFunction implements CostFunction {
 		return value;
 	}
 
-	private Matrix limitLog(Matrix matrix) {
-		EditableMatrix dupMatrix = matrix.dup().asEditableMatrix();
-		for (int r = 0; r < dupMatrix.getRows(); r++) {
-			for (int c = 0; c < dupMatrix.getColumns(); c++) {
-				dupMatrix.put(r, c, (float) Math.log(limit(dupMatrix.get(r, c))));
-			}
-		}
-		return dupMatrix;
-	}
-
 	@Override
 	public float getAverageCost(Matrix desiredOutputs, Matrix actualOutputs) {
 		return getTotalCost(desiredOutputs, actualOutputs) / desiredOutputs.getRows();
@@ -0,0 +1,81 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.ml4j.nn.optimisation;
+
+/**
+ * Adam optimisation, combining bias-corrected decaying averages of the
+ * gradients and of their squares.
+ *
+ * @author Michael Lavelle
+ */
+public class AdamOptimisationStrategy extends GradientDescentOptimisationStrategyBase {
+
+	/**
+	 * Default serialization id.
+	 */
+	private static final long serialVersionUID = 1L;
+
+	public static final float DEFAULT_BETA1 = 0.9f;
+	public static final float DEFAULT_BETA2 = 0.999f;
+	public static final float DEFAULT_EPSILON = 1e-8f;
+
+	private final float beta1;
+	private final float beta2;
+	private final float epsilon;
+
+	public AdamOptimisationStrategy() {
+		this(DEFAULT_BETA1, DEFAULT_BETA2, DEFAULT_EPSILON);
+	}
+
+	/**
+	 * @param beta1   The decay rate of the average of gradients, from 0
+	 *                (inclusive) to 1 (exclusive).
+	 * @param beta2   The decay rate of the average of squared gradients, from 0
+	 *                (inclusive) to 1 (exclusive).
+	 * @param epsilon The positive term added to the denominator for numerical
+	 *                stability.
+	 */
+	public AdamOptimisationStrategy(float beta1, float beta2, float epsilon) {
+		if (beta1 < 0 || beta1 >= 1 || beta2 < 0 || beta2 >= 1) {
+			throw new IllegalArgumentException("Betas must be in the range [0, 1)");
+		}
+		if (epsilon <= 0) {
+			throw new IllegalArgumentException("Epsilon must be positive");
+		}
+		this.beta1 = beta1;
+		this.beta2 = beta2;
+		this.epsilon = epsilon;
+	}
+
+	@Override
+	protected int getStateArrayCount() {
+		return 2;
+	}
+
+	@Override
+	protected void adjustGradient(float[] gradient, float[][] state, int updateCount) {
+		float[] means = state[0];
+		float[] meanSquares = state[1];
+		float meanCorrection = 1f / (1f - (float) Math.pow(beta1, updateCount));
+		float meanSquaresCorrection = 1f / (1f - (float) Math.pow(beta2, updateCount));
+		for (int i = 0; i < gradient.length; i++) {
+			float g = gradient[i];
+			float m = beta1 * means[i] + (1 - beta1) * g;
+			float v = beta2 * meanSquares[i] + (1 - beta2) * g * g;
+			means[i] = m;
+			meanSquares[i] = v;
+			gradient[i] = (m * meanCorrection) / ((float) Math.sqrt(v * meanSquaresCorrection) + epsilon);
+		}
+	}
+}
@@ -0,0 +1,214 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.ml4j.nn.optimisation;
+
+import java.io.Serializable;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+import org.ml4j.Matrix;
+import org.ml4j.MatrixFactory;
+import org.ml4j.nn.DirectedNeuralNetworkContext;
+import org.ml4j.nn.axons.AxonsGradient;
+import org.ml4j.nn.axons.AxonsGradientImpl;
+import org.ml4j.nn.axons.TrainableAxons;
+import org.ml4j.nn.checkpoint.Checkpoint;
+import org.ml4j.nn.checkpoint.CheckpointTensor;
+
+/**
+ * Base class for stateful GradientDescentOptimisationStrategies.
+ *
+ * State is kept per axons index, as one or more float arrays for each of the
+ * weights and bias gradients. Checkpointed state is keyed by the names of the
+ * Axons instead, as indexes are not stable across models, and restored state is
+ * attached to an index when its Axons are next adjusted. Each update is a single fused loop over the
+ * gradient and its state arrays, writing the adjusted gradient over the
+ * gradient's own data rather than allocating new matrices.
+ *
+ * @author Michael Lavelle
+ */
+public abstract class GradientDescentOptimisationStrategyBase implements GradientDescentOptimisationStrategy {
+
+	/**
+	 * Default serialization id.
+	 */
+	private static final long serialVersionUID = 1L;
+
+	private static final int WEIGHTS = 0;
+	private static final int LEFT_TO_RIGHT_BIASES = 1;
+	private static final int RIGHT_TO_LEFT_BIASES = 2;
+
+	private static final String CHECKPOINT_KEY_PREFIX = "optimiser/";
+	private static final String UPDATE_COUNT_KEY = "/updateCount";
+
+	private final Map<Integer, AxonsState> axonsStates = new HashMap<>();
+
+	private final Map<TrainableAxons<?, ?, ?>, AxonsState> restoredAxonsStates = new IdentityHashMap<>();
+
+	/**
+	 * The optimisation state of one set of Axons.
+	 */
+	private static class AxonsState implements Serializable {
+
+		/**
+		 * Default serialization id.
+		 */
+		private static final long serialVersionUID = 1L;
+
+		private TrainableAxons<?, ?, ?> axons;
+
+		private int updateCount;
+
+		private float[][][] parameterStates = new float[3][][];
+	}
+
+	@Override
+	public AxonsGradient getAdjustedAxonsGradient(AxonsGradient axonsGradient, int axonsIndex,
+			DirectedNeuralNetworkContext trainingContext, int epochIndex, int batchIndex, int iterationIndex) {
+		AxonsState axonsState = axonsStates.get(axonsIndex);
+		if (axonsState == null) {
+			axonsState = restoredAxonsStates.remove(axonsGradient.getAxons());
+			if (axonsState == null) {
+				axonsState = new AxonsState();
+			}
+			axonsState.axons = axonsGradient.getAxons();
+			axonsStates.put(axonsIndex, axonsState);
+		}
+		axonsState.updateCount++;
+		MatrixFactory matrixFactory = trainingContext.getMatrixFactory();
+		return new AxonsGradientImpl(axonsGradient.getAxons(),
+				getAdjustedGradient(axonsGradient.getWeightsGradient(), axonsState, WEIGHTS, matrixFactory),
+				getAdjustedGradient(axonsGradient.getLeftToRightBiasGradient(), axonsState, LEFT_TO_RIGHT_BIASES,
+						matrixFactory),
+				getAdjustedGradient(axonsGradient.getRightToLeftBiasGradient(), axonsState, RIGHT_TO_LEFT_BIASES,
+						matrixFactory));
+	}
+
+	private Matrix getAdjustedGradient(Matrix gradient, AxonsState axonsState, int parameter,
+			MatrixFactory matrixFactory) {
+		if (gradient == null) {
+			return null;
+		}
+		float[] gradientData = gradient.getRowByRowArray();
+		float[][] state = axonsState.parameterStates[parameter];
+		if (state == null || state[0].length != gradientData.length) {
+			state = new float[getStateArrayCount()][gradientData.length];
+			axonsState.parameterStates[parameter] = state;
+		}
+		adjustGradient(gradientData, state, axonsState.updateCount);
+		return matrixFactory.createMatrixFromRowsByRowsArray(gradient.getRows(), gradient.getColumns(),
+				gradientData);
+	}
+
+	/**
+	 * Discard all state, so that the next update of each set of Axons is treated
+	 * as the first.
+	 */
+	public void reset() {
+		axonsStates.clear();
+		restoredAxonsStates.clear();
+	}
+
+	/**
+	 * Copy the state of each set of Axons into the checkpoint, keyed by the name
+	 * of the Axons.
+	 *
+	 * @param checkpoint The checkpoint.
+	 * @param axonsNames Maps each set of Axons with state to a unique name.
+	 */
+	public void writeState(Checkpoint checkpoint, Function<TrainableAxons<?, ?, ?>, String> axonsNames) {
+		for (AxonsState axonsState : axonsStates.values()) {
+			writeState(checkpoint, axonsState, axonsNames);
+		}
+		for (AxonsState axonsState : restoredAxonsStates.values()) {
+			writeState(checkpoint, axonsState, axonsNames);
+		}
+	}
+
+	private void writeState(Checkpoint checkpoint, AxonsState axonsState,
+			Function<TrainableAxons<?, ?, ?>, String> axonsNames) {
+		String name = axonsNames.apply(axonsState.axons);
+		if (name == null) {
+			throw new IllegalStateException("No name for axons with optimisation state:" + axonsState.axons);
+		}
+		String prefix = CHECKPOINT_KEY_PREFIX + name;
+		if (checkpoint.getCounter(prefix + UPDATE_COUNT_KEY) != null) {
+			throw new IllegalStateException("Axons with optimisation state must have unique names:" + name);
+		}
+		checkpoint.putCounter(prefix + UPDATE_COUNT_KEY, axonsState.updateCount);
+		for (int parameter = 0; parameter < axonsState.parameterStates.length; parameter++) {
+			float[][] state = axonsState.parameterStates[parameter];
+			for (int i = 0; state != null && i < state.length; i++) {
+				checkpoint.putTensor(prefix + "/" + parameter + "/" + i,
+						new CheckpointTensor(1, state[i].length, state[i].clone()));
+			}
+		}
+	}
+
+	/**
+	 * Replace the state of every set of Axons with the state in the checkpoint.
+	 * State for names without Axons is ignored.
+	 *
+	 * @param checkpoint The checkpoint.
+	 * @param namedAxons Maps each name in the checkpoint to its Axons, or null.
+	 */
+	public void readState(Checkpoint checkpoint, Function<String, TrainableAxons<?, ?, ?>> namedAxons) {
+		reset();
+		for (String key : checkpoint.getCounterKeys()) {
+			if (key.startsWith(CHECKPOINT_KEY_PREFIX) && key.endsWith(UPDATE_COUNT_KEY)) {
+				String prefix = key.substring(0, key.length() - UPDATE_COUNT_KEY.length());
+				TrainableAxons<?, ?, ?> axons = namedAxons.apply(prefix.substring(CHECKPOINT_KEY_PREFIX.length()));
+				if (axons == null) {
+					continue;
+				}
+				AxonsState axonsState = new AxonsState();
+				axonsState.axons = axons;
+				axonsState.updateCount = checkpoint.getCounter(key).intValue();
+				for (int parameter = 0; parameter < axonsState.parameterStates.length; parameter++) {
+					if (checkpoint.getTensor(prefix + "/" + parameter + "/0") != null) {
+						float[][] state = new float[getStateArrayCount()][];
+						for (int i = 0; i < state.length; i++) {
+							CheckpointTensor tensor = checkpoint.getTensor(prefix + "/" + parameter + "/" + i);
+							if (tensor == null) {
+								throw new IllegalArgumentException("Checkpoint has no optimisation state for "
+										+ prefix + "/" + parameter + "/" + i);
+							}
+							state[i] = tensor.getData().clone();
+						}
+						axonsState.parameterStates[parameter] = state;
+					}
+				}
+				restoredAxonsStates.put(axons, axonsState);
+			}
+		}
+	}
+
+	/**
+	 * @return The number of state arrays kept per gradient.
+	 */
+	protected abstract int getStateArrayCount();
+
+	/**
+	 * Update the state and overwrite the gradient with the adjusted gradient.
+	 *
+	 * @param gradient    The gradient, to be overwritten with the adjusted
+	 *                    gradient.
+	 * @param state       The state arrays for this gradient, each the same length
+	 *                    as the gradient, initially zero.
+	 * @param updateCount The number of updates of these Axons, including this one.
+	 */
+	protected abstract void adjustGradient(float[] gradient, float[][] state, int updateCount);
+}
@@ -0,0 +1,62 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.ml4j.nn.optimisation;
+
+/**
+ * Momentum optimisation, accumulating a velocity v = momentum * v + gradient
+ * which replaces the gradient in the weight update.
+ *
+ * @author Michael Lavelle
+ */
+public class MomentumOptimisationStrategy extends GradientDescentOptimisationStrategyBase {
+
+	/**
+	 * Default serialization id.
+	 */
+	private static final long serialVersionUID = 1L;
+
+	public static final float DEFAULT_MOMENTUM = 0.9f;
+
+	protected final float momentum;
+
+	public MomentumOptimisationStrategy() {
+		this(DEFAULT_MOMENTUM);
+	}
+
+	/**
+	 * @param momentum The proportion of the velocity retained at each update,
+	 *                 from 0 (inclusive) to 1 (exclusive).
+	 */
+	public MomentumOptimisationStrategy(float momentum) {
+		if (momentum < 0 || momentum >= 1) {
+			throw new IllegalArgumentException("Momentum must be in the range [0, 1)");
+		}
+		this.momentum = momentum;
+	}
+
+	@Override
+	protected int getStateArrayCount() {
+		return 1;
+	}
+
+	@Override
+	protected void adjustGradient(float[] gradient, float[][] state, int updateCount) {
+		float[] velocity = state[0];
+		for (int i = 0; i < gradient.length; i++) {
+			float v = momentum * velocity[i] + gradient[i];
+			velocity[i] = v;
+			gradient[i] = v;
+		}
+	}
+}
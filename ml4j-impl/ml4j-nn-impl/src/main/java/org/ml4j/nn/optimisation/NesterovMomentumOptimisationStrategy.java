@@ -0,0 +1,53 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.ml4j.nn.optimisation;
+
+/**
+ * Nesterov accelerated momentum optimisation, in the form which needs no
+ * look-ahead forward propagation: the velocity is accumulated as for
+ * MomentumOptimisationStrategy, and the weight update uses gradient +
+ * momentum * v.
+ *
+ * @author Michael Lavelle
+ */
+public class NesterovMomentumOptimisationStrategy extends MomentumOptimisationStrategy {
+
+	/**
+	 * Default serialization id.
+	 */
+	private static final long serialVersionUID = 1L;
+
+	public NesterovMomentumOptimisationStrategy() {
+		super();
+	}
+
+	/**
+	 * @param momentum The proportion of the velocity retained at each update,
+	 *                 from 0 (inclusive) to 1 (exclusive).
+	 */
+	public NesterovMomentumOptimisationStrategy(float momentum) {
+		super(momentum);
+	}
+
+	@Override
+	protected void adjustGradient(float[] gradient, float[][] state, int updateCount) {
+		float[] velocity = state[0];
+		for (int i = 0; i < gradient.length; i++) {
+			float g = gradient[i];
+			float v = momentum * velocity[i] + g;
+			velocity[i] = v;
+			gradient[i] = g + momentum * v;
+		}
+	}
+}
@@ -0,0 +1,71 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.ml4j.nn.optimisation;
+
+/**
+ * RMSProp optimisation, dividing each gradient element by the root of a
+ * decaying average of its squares.
+ *
+ * @author Michael Lavelle
+ */
+public class RMSPropOptimisationStrategy extends GradientDescentOptimisationStrategyBase {
+
+	/**
+	 * Default serialization id.
+	 */
+	private static final long serialVersionUID = 1L;
+
+	public static final float DEFAULT_DECAY_RATE = 0.9f;
+	public static final float DEFAULT_EPSILON = 1e-8f;
+
+	private final float decayRate;
+	private final float epsilon;
+
+	public RMSPropOptimisationStrategy() {
+		this(DEFAULT_DECAY_RATE, DEFAULT_EPSILON);
+	}
+
+	/**
+	 * @param decayRate The decay rate of the average of squared gradients, from 0
+	 *                  (inclusive) to 1 (exclusive).
+	 * @param epsilon   The positive term added to the denominator for numerical
+	 *                  stability.
+	 */
+	public RMSPropOptimisationStrategy(float decayRate, float epsilon) {
+		if (decayRate < 0 || decayRate >= 1) {
+			throw new IllegalArgumentException("Decay rate must be in the range [0, 1)");
+		}
+		if (epsilon <= 0) {
+			throw new IllegalArgumentException("Epsilon must be positive");
+		}
+		this.decayRate = decayRate;
+		this.epsilon = epsilon;
+	}
+
+	@Override
+	protected int getStateArrayCount() {
+		return 1;
+	}
+
+	@Override
+	protected void adjustGradient(float[] gradient, float[][] state, int updateCount) {
+		float[] meanSquares = state[0];
+		for (int i = 0; i < gradient.length; i++) {
+			float g = gradient[i];
+			float s = decayRate * meanSquares[i] + (1 - decayRate) * g * g;
+			meanSquares[i] = s;
+			gradient[i] = g / ((float) Math.sqrt(s) + epsilon);
+		}
+	}
+}
@@ -119,6 +119,14 @@ public class SupervisedFeedForwardNeuralNetworkImpl extends
 		super.train(trainingDataActivations, trainingContext, onEpochAverageCostHandler);
 	}
 
+	@Override
+	public void train(Supplier<Stream<LabeledData<NeuronsActivation, NeuronsActivation>>> trainingDataActivations,
+			FeedForwardNeuralNetworkContext trainingContext, Consumer<Float> onEpochAverageCostHandler,
+			DirectedComponentFactory directedComponentFactory, int numberOfWorkers) {
+		super.train(trainingDataActivations, trainingContext, onEpochAverageCostHandler, directedComponentFactory,
+				numberOfWorkers);
+	}
+
 	/**
 	 * Return the prediction accuracy.
 	 * 
@@ -0,0 +1,73 @@
+package org.ml4j.nn;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.ml4j.MatrixFactory;
+import org.ml4j.jblas.JBlasRowMajorMatrixFactory;
+import org.ml4j.nn.axons.AxonsGradient;
+import org.ml4j.nn.axons.AxonsGradientImpl;
+import org.ml4j.nn.axons.TrainableAxons;
+
+public class DataParallelGradientAccumulatorTest {
+
+	private MatrixFactory matrixFactory = new JBlasRowMajorMatrixFactory();
+
+	private CostAndGradients createShard(TrainableAxons<?, ?, ?> axons, float weightsGradient,
+			int numberOfTrainingExamples) {
+		AxonsGradient total = new AxonsGradientImpl(axons,
+				matrixFactory.createOnes(2, 3).mul(weightsGradient), matrixFactory.createOnes(2, 1));
+		return new CostAndGradientsImpl(numberOfTrainingExamples, Arrays.asList(total), numberOfTrainingExamples);
+	}
+
+	@Test
+	public void testFutureCompletesWithAverageOnceEveryShardHasReported()
+			throws InterruptedException, ExecutionException {
+		TrainableAxons<?, ?, ?> axons = Mockito.mock(TrainableAxons.class);
+		TrainableAxons<?, ?, ?> replicaAxons = Mockito.mock(TrainableAxons.class);
+		DataParallelGradientAccumulator accumulator = new DataParallelGradientAccumulator(2);
+
+		Future<List<AxonsGradient>> first = accumulator.submitCostAndGradients(1, createShard(replicaAxons, 6f, 3))
+				.get();
+		Assertions.assertFalse(first.isDone());
+
+		Future<List<AxonsGradient>> second = accumulator.submitCostAndGradients(0, createShard(axons, 2f, 1)).get();
+		Assertions.assertSame(first, second);
+		Assertions.assertTrue(first.isDone());
+
+		List<AxonsGradient> averages = first.get();
+		Assertions.assertEquals(1, averages.size());
+		Assertions.assertSame(axons, averages.get(0).getAxons());
+		Assertions.assertEquals(12f, averages.get(0).getWeightsGradient().sum(), 0.0001f);
+		Assertions.assertEquals(1f, averages.get(0).getLeftToRightBiasGradient().sum(), 0.0001f);
+		Assertions.assertNull(averages.get(0).getRightToLeftBiasGradient());
+	}
+
+	@Test
+	public void testEachRoundHasItsOwnFuture() {
+		TrainableAxons<?, ?, ?> axons = Mockito.mock(TrainableAxons.class);
+		DataParallelGradientAccumulator accumulator = new DataParallelGradientAccumulator(1);
+
+		Future<List<AxonsGradient>> first = accumulator.submitCostAndGradients(createShard(axons, 1f, 1)).get();
+		Future<List<AxonsGradient>> second = accumulator.submitCostAndGradients(createShard(axons, 1f, 1)).get();
+		Assertions.assertNotSame(first, second);
+		Assertions.assertTrue(second.isDone());
+	}
+
+	@Test
+	public void testShardCannotBeSubmittedTwiceInARound() {
+		TrainableAxons<?, ?, ?> axons = Mockito.mock(TrainableAxons.class);
+		DataParallelGradientAccumulator accumulator = new DataParallelGradientAccumulator(2);
+		accumulator.submitCostAndGradients(0, createShard(axons, 1f, 1));
+
+		Assertions.assertThrows(IllegalStateException.class,
+				() -> accumulator.submitCostAndGradients(0, createShard(axons, 1f, 1)));
+		Assertions.assertThrows(IllegalArgumentException.class,
+				() -> accumulator.submitCostAndGradients(2, createShard(axons, 1f, 1)));
+	}
+}
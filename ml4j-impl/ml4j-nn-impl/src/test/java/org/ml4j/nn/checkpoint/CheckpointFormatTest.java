@@ -0,0 +1,79 @@
+package org.ml4j.nn.checkpoint;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class CheckpointFormatTest {
+
+	@TempDir
+	Path directory;
+
+	@Test
+	public void testWriteAndRead() {
+		// Larger than the write buffer, so written in several chunks
+		float[] large = new float[300_001];
+		for (int i = 0; i < large.length; i++) {
+			large[i] = i * 0.5f - 7f;
+		}
+		Checkpoint checkpoint = new Checkpoint();
+		checkpoint.putCounter("optimiser/0/updateCount", 12345678901L);
+		checkpoint.putTensor("axons/fc1/weights", new CheckpointTensor(2, 3, new float[] { 1, 2, 3, 4, 5, 6 }));
+		checkpoint.putTensor("axons/fc1/leftToRightBiases", new CheckpointTensor(2, 1, new float[] { -1, 1 }));
+		checkpoint.putTensor("axons/fc\u00e92/weights", new CheckpointTensor(1, large.length, large));
+		checkpoint.putTensor("empty", new CheckpointTensor(0, 0, new float[0]));
+
+		Path path = directory.resolve("model.ckpt");
+		CheckpointFormat.write(checkpoint, path);
+		Checkpoint read = CheckpointFormat.read(path);
+
+		Assertions.assertEquals(Arrays.asList("axons/fc1/weights", "axons/fc1/leftToRightBiases",
+				"axons/fc\u00e92/weights", "empty"), Arrays.asList(read.getTensorKeys().toArray()));
+		Assertions.assertEquals(12345678901L, read.getCounter("optimiser/0/updateCount").longValue());
+		CheckpointTensor weights = read.getTensor("axons/fc1/weights");
+		Assertions.assertEquals(2, weights.getRows());
+		Assertions.assertEquals(3, weights.getColumns());
+		Assertions.assertArrayEquals(new float[] { 1, 2, 3, 4, 5, 6 }, weights.getData());
+		Assertions.assertArrayEquals(new float[] { -1, 1 }, read.getTensor("axons/fc1/leftToRightBiases").getData());
+		Assertions.assertArrayEquals(large, read.getTensor("axons/fc\u00e92/weights").getData());
+		Assertions.assertEquals(0, read.getTensor("empty").getData().length);
+	}
+
+	@Test
+	public void testWriteReplacesExistingCheckpoint() throws IOException {
+		Path path = directory.resolve("model.ckpt");
+		Checkpoint first = new Checkpoint();
+		first.putTensor("weights", new CheckpointTensor(1, 2, new float[] { 1, 2 }));
+		CheckpointFormat.write(first, path);
+		Checkpoint second = new Checkpoint();
+		second.putTensor("weights", new CheckpointTensor(1, 1, new float[] { 3 }));
+		CheckpointFormat.write(second, path);
+
+		Assertions.assertArrayEquals(new float[] { 3 }, CheckpointFormat.read(path).getTensor("weights").getData());
+		try (Stream<Path> files = Files.list(directory)) {
+			Assertions.assertEquals(1, files.count());
+		}
+	}
+
+	@Test
+	public void testReadRejectsOtherFiles() throws IOException {
+		Path path = directory.resolve("other.ser");
+		Files.write(path, new byte[] { 1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12, 13, 14, 15, 16 });
+		Assertions.assertThrows(IllegalArgumentException.class, () -> CheckpointFormat.read(path));
+	}
+
+	@Test
+	public void testDuplicateKeysAreRejected() {
+		Checkpoint checkpoint = new Checkpoint();
+		checkpoint.putTensor("weights", new CheckpointTensor(1, 1, new float[] { 1 }));
+		Assertions.assertThrows(IllegalArgumentException.class,
+				() -> checkpoint.putTensor("weights", new CheckpointTensor(1, 1, new float[] { 2 })));
+		Assertions.assertThrows(IllegalArgumentException.class, () -> new CheckpointTensor(2, 2, new float[3]));
+	}
+}
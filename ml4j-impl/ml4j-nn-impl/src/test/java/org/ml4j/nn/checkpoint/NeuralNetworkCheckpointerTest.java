@@ -0,0 +1,174 @@
+package org.ml4j.nn.checkpoint;
+
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+import org.ml4j.Matrix;
+import org.ml4j.MatrixFactory;
+import org.ml4j.jblas.JBlasRowMajorMatrixFactory;
+import org.ml4j.nn.DirectedNeuralNetworkContext;
+import org.ml4j.nn.axons.AxonWeights;
+import org.ml4j.nn.axons.AxonWeightsAdjustment;
+import org.ml4j.nn.axons.AxonWeightsAdjustmentDirection;
+import org.ml4j.nn.axons.AxonsGradient;
+import org.ml4j.nn.axons.AxonsGradientImpl;
+import org.ml4j.nn.axons.BiasVector;
+import org.ml4j.nn.axons.TrainableAxons;
+import org.ml4j.nn.axons.WeightsMatrix;
+import org.ml4j.nn.components.axons.BatchNormDirectedAxonsComponent;
+import org.ml4j.nn.components.axons.DirectedAxonsComponent;
+import org.ml4j.nn.components.onetone.DefaultChainableDirectedComponent;
+import org.ml4j.nn.optimisation.MomentumOptimisationStrategy;
+
+public class NeuralNetworkCheckpointerTest {
+
+	@TempDir
+	Path directory;
+
+	private MatrixFactory matrixFactory = new JBlasRowMajorMatrixFactory();
+
+	private Matrix weights;
+	private Matrix biases;
+	private TrainableAxons<?, ?, ?> axons;
+	private BatchNormDirectedAxonsComponent<?, ?> batchNormComponent;
+	private DefaultChainableDirectedComponent<?, ?> model;
+	private DirectedNeuralNetworkContext context;
+
+	@BeforeEach
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	public void setUp() {
+		weights = matrixFactory.createMatrixFromRowsByRowsArray(2, 3, new float[] { 1, 2, 3, 4, 5, 6 });
+		biases = matrixFactory.createMatrixFromRowsByRowsArray(2, 1, new float[] { 7, 8 });
+
+		// Axons whose weights are adjusted in place, returning copies when detached
+		axons = Mockito.mock(TrainableAxons.class);
+		Mockito.when(axons.getDetachedAxonWeights()).thenAnswer(invocation -> {
+			AxonWeights axonWeights = Mockito.mock(AxonWeights.class);
+			WeightsMatrix weightsMatrix = Mockito.mock(WeightsMatrix.class);
+			Mockito.when(weightsMatrix.getMatrix()).thenReturn(weights.dup());
+			BiasVector biasVector = Mockito.mock(BiasVector.class);
+			Mockito.when(biasVector.getVector()).thenReturn(biases.dup());
+			Mockito.when(axonWeights.getConnectionWeights()).thenReturn(weightsMatrix);
+			Mockito.when(axonWeights.getLeftToRightBiases()).thenReturn(biasVector);
+			return axonWeights;
+		});
+		Mockito.doAnswer(invocation -> {
+			AxonWeightsAdjustment adjustment = invocation.getArgument(0);
+			if (invocation.getArgument(1) == AxonWeightsAdjustmentDirection.REPLACEMENT) {
+				weights = adjustment.getConnectionWeights().dup();
+				biases = adjustment.getLeftToRightBiases().get().dup();
+			} else {
+				float sign = invocation.getArgument(1) == AxonWeightsAdjustmentDirection.ADDITION ? 1f : -1f;
+				weights = weights.add(adjustment.getConnectionWeights().mul(sign));
+				biases = biases.add(adjustment.getLeftToRightBiases().get().mul(sign));
+			}
+			return null;
+		}).when(axons).adjustAxonWeights(Mockito.any(), Mockito.any());
+
+		DirectedAxonsComponent axonsComponent = Mockito.mock(DirectedAxonsComponent.class);
+		Mockito.when(axonsComponent.getName()).thenReturn("fc");
+		Mockito.when(axonsComponent.getAxons()).thenReturn(axons);
+
+		batchNormComponent = Mockito.mock(BatchNormDirectedAxonsComponent.class);
+		Mockito.when(batchNormComponent.getName()).thenReturn("bn");
+		Mockito.when(batchNormComponent.getExponentiallyWeightedAverageInputFeatureMeans())
+				.thenReturn(matrixFactory.createMatrixFromRowsByRowsArray(2, 1, new float[] { 0.5f, -0.5f }));
+		Mockito.when(batchNormComponent.getExponentiallyWeightedAverageInputFeatureVariances())
+				.thenReturn(matrixFactory.createMatrixFromRowsByRowsArray(2, 1, new float[] { 2f, 3f }));
+
+		context = Mockito.mock(DirectedNeuralNetworkContext.class);
+		Mockito.when(context.getMatrixFactory()).thenReturn(matrixFactory);
+
+		model = Mockito.mock(DefaultChainableDirectedComponent.class);
+		Mockito.when(model.flatten()).thenReturn(new HashSet(Arrays.asList(model, axonsComponent, batchNormComponent)));
+	}
+
+	@Test
+	public void testSaveAndLoad() throws InterruptedException, ExecutionException {
+		MomentumOptimisationStrategy optimisationStrategy = new MomentumOptimisationStrategy();
+		NeuralNetworkCheckpointer checkpointer = new NeuralNetworkCheckpointer(model, matrixFactory,
+				optimisationStrategy, Executors.newSingleThreadExecutor());
+		Path path = directory.resolve("model.ckpt");
+		Assertions.assertEquals(path, checkpointer.saveAsync(path).get());
+
+		weights = matrixFactory.createZeros(2, 3);
+		biases = matrixFactory.createZeros(2, 1);
+		checkpointer.load(path);
+
+		Assertions.assertArrayEquals(new float[] { 1, 2, 3, 4, 5, 6 }, weights.getRowByRowArray());
+		Assertions.assertArrayEquals(new float[] { 7, 8 }, biases.getRowByRowArray());
+		ArgumentCaptor<Matrix> means = ArgumentCaptor.forClass(Matrix.class);
+		ArgumentCaptor<Matrix> variances = ArgumentCaptor.forClass(Matrix.class);
+		Mockito.verify(batchNormComponent).setExponentiallyWeightedAverageInputFeatureMeans(means.capture());
+		Mockito.verify(batchNormComponent).setExponentiallyWeightedAverageInputFeatureVariances(variances.capture());
+		Assertions.assertArrayEquals(new float[] { 0.5f, -0.5f }, means.getValue().getRowByRowArray());
+		Assertions.assertArrayEquals(new float[] { 2f, 3f }, variances.getValue().getRowByRowArray());
+	}
+
+	@Test
+	public void testRestoreOverNonFiniteWeights() {
+		NeuralNetworkCheckpointer checkpointer = new NeuralNetworkCheckpointer(model, matrixFactory);
+		Checkpoint checkpoint = checkpointer.snapshot();
+
+		weights = matrixFactory.createOnes(2, 3).mul(Float.NaN);
+		biases = matrixFactory.createOnes(2, 1).mul(Float.NEGATIVE_INFINITY);
+		checkpointer.restore(checkpoint);
+
+		Assertions.assertArrayEquals(new float[] { 1, 2, 3, 4, 5, 6 }, weights.getRowByRowArray());
+		Assertions.assertArrayEquals(new float[] { 7, 8 }, biases.getRowByRowArray());
+	}
+
+	@Test
+	public void testOptimisationStateIsKeyedByComponentName() {
+		MomentumOptimisationStrategy optimisationStrategy = new MomentumOptimisationStrategy();
+		AxonsGradient axonsGradient = new AxonsGradientImpl(axons, matrixFactory.createOnes(2, 3),
+				matrixFactory.createOnes(2, 1));
+		optimisationStrategy.getAdjustedAxonsGradient(axonsGradient, 4, context, 0, 0, 0);
+		Checkpoint checkpoint = new NeuralNetworkCheckpointer(model, matrixFactory, optimisationStrategy,
+				Executors.newSingleThreadExecutor()).snapshot();
+
+		Assertions.assertEquals(Long.valueOf(1), checkpoint.getCounter("optimiser/fc/updateCount"));
+		Assertions.assertNull(checkpoint.getCounter("optimiser/4/updateCount"));
+
+		// The restored state follows the axons to whichever index they are adjusted at
+		MomentumOptimisationStrategy restoredStrategy = new MomentumOptimisationStrategy();
+		new NeuralNetworkCheckpointer(model, matrixFactory, restoredStrategy, Executors.newSingleThreadExecutor())
+				.restore(checkpoint);
+		Assertions.assertArrayEquals(
+				optimisationStrategy.getAdjustedAxonsGradient(new AxonsGradientImpl(axons,
+						matrixFactory.createOnes(2, 3), matrixFactory.createOnes(2, 1)), 4, context, 0, 0, 0)
+						.getWeightsGradient().getRowByRowArray(),
+				restoredStrategy.getAdjustedAxonsGradient(new AxonsGradientImpl(axons,
+						matrixFactory.createOnes(2, 3), matrixFactory.createOnes(2, 1)), 0, context, 0, 0, 0)
+						.getWeightsGradient().getRowByRowArray(),
+				0f);
+	}
+
+	@Test
+	public void testSnapshotIsIndependentOfLaterUpdates() {
+		NeuralNetworkCheckpointer checkpointer = new NeuralNetworkCheckpointer(model, matrixFactory);
+		Checkpoint checkpoint = checkpointer.snapshot();
+		weights.asEditableMatrix().muli(10f);
+
+		Assertions.assertArrayEquals(new float[] { 1, 2, 3, 4, 5, 6 },
+				checkpoint.getTensor("axons/fc/weights").getData());
+		Assertions.assertNull(checkpoint.getTensor("axons/fc/rightToLeftBiases"));
+	}
+
+	@Test
+	public void testRestoreRejectsMismatchedShapes() {
+		NeuralNetworkCheckpointer checkpointer = new NeuralNetworkCheckpointer(model, matrixFactory);
+		Checkpoint checkpoint = new Checkpoint();
+		checkpoint.putTensor("axons/fc/weights", new CheckpointTensor(3, 2, new float[6]));
+		Assertions.assertThrows(IllegalArgumentException.class, () -> checkpointer.restore(checkpoint));
+	}
+}
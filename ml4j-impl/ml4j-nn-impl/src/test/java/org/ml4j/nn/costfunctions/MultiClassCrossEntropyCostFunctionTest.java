@@ -0,0 +1,39 @@
+package org.ml4j.nn.costfunctions;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.ml4j.Matrix;
+import org.ml4j.MatrixFactory;
+import org.ml4j.jblas.JBlasRowMajorMatrixFactory;
+
+public class MultiClassCrossEntropyCostFunctionTest {
+
+	private MatrixFactory matrixFactory = new JBlasRowMajorMatrixFactory();
+
+	private MultiClassCrossEntropyCostFunction costFunction = new MultiClassCrossEntropyCostFunction();
+
+	// Three classes by two examples
+	private Matrix desiredOutputs = matrixFactory.createMatrixFromRowsByRowsArray(3, 2,
+			new float[] { 1, 0, 0, 0, 0, 1 });
+
+	private Matrix actualOutputs = matrixFactory.createMatrixFromRowsByRowsArray(3, 2,
+			new float[] { 0.5f, 0.2f, 0.25f, 0.8f, 0.25f, 0f });
+
+	@Test
+	public void testTotalCostAndDeltas() {
+		float[] deltas = new float[6];
+		float totalCost = costFunction.getTotalCostAndDeltas(desiredOutputs, actualOutputs, deltas);
+
+		// The zero probability of the second example's class is limited
+		float expectedCost = (float) (-Math.log(0.5) - Math.log(0.00000000001f));
+		Assertions.assertEquals(expectedCost, totalCost, 0.0001f);
+		Assertions.assertEquals(expectedCost, costFunction.getTotalCost(desiredOutputs, actualOutputs), 0.0001f);
+		Assertions.assertArrayEquals(new float[] { -0.5f, 0.2f, 0.25f, 0.8f, 0.25f, -1f }, deltas, 0.0001f);
+	}
+
+	@Test
+	public void testMismatchedDimensions() {
+		Assertions.assertThrows(IllegalArgumentException.class,
+				() -> costFunction.getTotalCost(desiredOutputs, matrixFactory.createMatrix(2, 2)));
+	}
+}
@@ -0,0 +1,113 @@
+package org.ml4j.nn.optimisation;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.ml4j.MatrixFactory;
+import org.ml4j.jblas.JBlasRowMajorMatrixFactory;
+import org.ml4j.nn.DirectedNeuralNetworkContext;
+import org.ml4j.nn.axons.AxonsGradient;
+import org.ml4j.nn.axons.AxonsGradientImpl;
+import org.ml4j.nn.axons.TrainableAxons;
+import org.ml4j.nn.checkpoint.Checkpoint;
+
+public class GradientDescentOptimisationStrategyTest {
+
+	private MatrixFactory matrixFactory = new JBlasRowMajorMatrixFactory();
+
+	private DirectedNeuralNetworkContext context;
+
+	private TrainableAxons<?, ?, ?> axons;
+
+	@BeforeEach
+	public void setUp() {
+		context = Mockito.mock(DirectedNeuralNetworkContext.class);
+		Mockito.when(context.getMatrixFactory()).thenReturn(matrixFactory);
+		axons = Mockito.mock(TrainableAxons.class);
+	}
+
+	private float[] adjust(GradientDescentOptimisationStrategy strategy, int axonsIndex, float weightsGradient,
+			float biasGradient) {
+		return adjust(strategy, axons, axonsIndex, weightsGradient, biasGradient);
+	}
+
+	private float[] adjust(GradientDescentOptimisationStrategy strategy, TrainableAxons<?, ?, ?> axons,
+			int axonsIndex, float weightsGradient, float biasGradient) {
+		AxonsGradient axonsGradient = new AxonsGradientImpl(axons,
+				matrixFactory.createOnes(2, 3).mul(weightsGradient), matrixFactory.createOnes(2, 1).mul(biasGradient));
+		AxonsGradient adjusted = strategy.getAdjustedAxonsGradient(axonsGradient, axonsIndex, context, 0, 0, 0);
+		Assertions.assertSame(axons, adjusted.getAxons());
+		Assertions.assertNull(adjusted.getRightToLeftBiasGradient());
+		return new float[] { adjusted.getWeightsGradient().get(1, 2),
+				adjusted.getLeftToRightBiasGradient().get(1, 0) };
+	}
+
+	@Test
+	public void testMomentum() {
+		GradientDescentOptimisationStrategy strategy = new MomentumOptimisationStrategy(0.5f);
+		Assertions.assertArrayEquals(new float[] { 2f, 4f }, adjust(strategy, 0, 2f, 4f), 0.0001f);
+		Assertions.assertArrayEquals(new float[] { 3f, 2f }, adjust(strategy, 0, 2f, 0f), 0.0001f);
+	}
+
+	@Test
+	public void testNesterovMomentum() {
+		GradientDescentOptimisationStrategy strategy = new NesterovMomentumOptimisationStrategy(0.5f);
+		Assertions.assertArrayEquals(new float[] { 3f, 6f }, adjust(strategy, 0, 2f, 4f), 0.0001f);
+		Assertions.assertArrayEquals(new float[] { 3.5f, 1f }, adjust(strategy, 0, 2f, 0f), 0.0001f);
+	}
+
+	@Test
+	public void testRMSProp() {
+		GradientDescentOptimisationStrategy strategy = new RMSPropOptimisationStrategy(0.75f, 1e-8f);
+		// s = 0.25 * 16 = 4, so g / sqrt(s) = 4 / 2
+		Assertions.assertArrayEquals(new float[] { 2f, 2f }, adjust(strategy, 0, 4f, 4f), 0.0001f);
+		// s = 0.75 * 4 + 0.25 * 4 = 4
+		Assertions.assertArrayEquals(new float[] { 1f, 1f }, adjust(strategy, 0, 2f, 2f), 0.0001f);
+	}
+
+	@Test
+	public void testAdamFirstUpdateIsBiasCorrectedSign() {
+		GradientDescentOptimisationStrategy strategy = new AdamOptimisationStrategy();
+		Assertions.assertArrayEquals(new float[] { 1f, -1f }, adjust(strategy, 0, 3f, -0.5f), 0.0001f);
+	}
+
+	@Test
+	public void testStateIsKeptPerAxonsIndex() {
+		MomentumOptimisationStrategy strategy = new MomentumOptimisationStrategy(0.5f);
+		adjust(strategy, 0, 2f, 2f);
+		Assertions.assertArrayEquals(new float[] { 2f, 2f }, adjust(strategy, 1, 2f, 2f), 0.0001f);
+		Assertions.assertArrayEquals(new float[] { 3f, 3f }, adjust(strategy, 0, 2f, 2f), 0.0001f);
+
+		strategy.reset();
+		Assertions.assertArrayEquals(new float[] { 2f, 2f }, adjust(strategy, 0, 2f, 2f), 0.0001f);
+	}
+
+	@Test
+	public void testStateIsRestoredFromCheckpoint() {
+		TrainableAxons<?, ?, ?> otherAxons = Mockito.mock(TrainableAxons.class);
+		AdamOptimisationStrategy strategy = new AdamOptimisationStrategy();
+		adjust(strategy, axons, 0, 2f, 4f);
+		adjust(strategy, otherAxons, 3, 1f, -1f);
+		adjust(strategy, axons, 0, -1f, 3f);
+		Checkpoint checkpoint = new Checkpoint();
+		strategy.writeState(checkpoint, a -> a == axons ? "first" : "second");
+		Assertions.assertEquals(Long.valueOf(2), checkpoint.getCounter("optimiser/first/updateCount"));
+
+		// State is restored by name, so the axons may be adjusted at other indexes
+		AdamOptimisationStrategy restored = new AdamOptimisationStrategy();
+		restored.readState(checkpoint, name -> "first".equals(name) ? axons : otherAxons);
+		Assertions.assertArrayEquals(adjust(strategy, axons, 0, 0.5f, 2f), adjust(restored, axons, 1, 0.5f, 2f),
+				0f);
+		Assertions.assertArrayEquals(adjust(strategy, otherAxons, 3, 0.5f, 2f),
+				adjust(restored, otherAxons, 0, 0.5f, 2f), 0f);
+	}
+
+	@Test
+	public void testInvalidHyperparameters() {
+		Assertions.assertThrows(IllegalArgumentException.class, () -> new MomentumOptimisationStrategy(1f));
+		Assertions.assertThrows(IllegalArgumentException.class, () -> new RMSPropOptimisationStrategy(0.9f, 0f));
+		Assertions.assertThrows(IllegalArgumentException.class,
+				() -> new AdamOptimisationStrategy(0.9f, -0.1f, 1e-8f));
+	}
+}
@@ -0,0 +1,78 @@
+package org.ml4j.nn.supervised;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.ml4j.MatrixFactory;
+import org.ml4j.jblas.JBlasRowMajorMatrixFactory;
+import org.ml4j.nn.FeedForwardNeuralNetworkContext;
+import org.ml4j.nn.components.DirectedComponentsContext;
+import org.ml4j.nn.components.onetone.DefaultChainableDirectedComponent;
+import org.ml4j.nn.components.onetone.DefaultChainableDirectedComponentActivation;
+import org.ml4j.nn.components.onetone.DefaultDirectedComponentChain;
+import org.ml4j.nn.components.onetone.TrailingActivationFunctionDirectedComponentChain;
+import org.ml4j.nn.neurons.Neurons;
+import org.ml4j.nn.neurons.NeuronsActivation;
+import org.ml4j.nn.neurons.NeuronsActivationImpl;
+import org.ml4j.nn.neurons.format.NeuronsActivationFormat;
+
+public class SupervisedFeedForwardNeuralNetworkImplTest {
+
+	private MatrixFactory matrixFactory = new JBlasRowMajorMatrixFactory();
+
+	private NeuronsActivation createActivation() {
+		return new NeuronsActivationImpl(new Neurons(2, false), matrixFactory.createOnes(2, 3),
+				NeuronsActivationFormat.ROWS_SPAN_FEATURE_SET);
+	}
+
+	private DefaultChainableDirectedComponent<?, ?> createComponent(NeuronsActivation input,
+			DirectedComponentsContext context, NeuronsActivation output) {
+		DefaultChainableDirectedComponent<?, ?> component = Mockito.mock(DefaultChainableDirectedComponent.class);
+		DefaultChainableDirectedComponentActivation activation = Mockito
+				.mock(DefaultChainableDirectedComponentActivation.class);
+		Mockito.when(activation.getOutput()).thenReturn(output);
+		Mockito.doReturn(activation).when(component).forwardPropagateChain(input, context);
+		return component;
+	}
+
+	@Test
+	public void testInferClosesIntermediateActivationsEagerly() {
+		DirectedComponentsContext trainingContext = Mockito.mock(DirectedComponentsContext.class);
+		DirectedComponentsContext nonTrainingContext = Mockito.mock(DirectedComponentsContext.class);
+		Mockito.when(trainingContext.isTrainingContext()).thenReturn(true);
+		Mockito.when(trainingContext.asNonTrainingContext()).thenReturn(nonTrainingContext);
+		FeedForwardNeuralNetworkContext context = Mockito.mock(FeedForwardNeuralNetworkContext.class);
+		Mockito.when(context.getDirectedComponentsContext()).thenReturn(trainingContext);
+
+		NeuronsActivation input = createActivation();
+		NeuronsActivation first = createActivation();
+		NeuronsActivation second = createActivation();
+		NeuronsActivation third = createActivation();
+
+		// The second component passes its input through unchanged
+		List<DefaultChainableDirectedComponent<?, ?>> components = Arrays.asList(
+				createComponent(input, nonTrainingContext, first), createComponent(first, nonTrainingContext, first),
+				createComponent(first, nonTrainingContext, second),
+				createComponent(second, nonTrainingContext, third));
+		TrailingActivationFunctionDirectedComponentChain trailingChain = Mockito
+				.mock(TrailingActivationFunctionDirectedComponentChain.class);
+		Mockito.when(trailingChain.decompose()).thenReturn(components);
+
+		SupervisedFeedForwardNeuralNetworkImpl network = new SupervisedFeedForwardNeuralNetworkImpl("network",
+				Mockito.mock(DefaultDirectedComponentChain.class), trailingChain);
+
+		Assertions.assertFalse(input.isImmutable());
+
+		NeuronsActivation output = network.infer(input, context);
+
+		Assertions.assertSame(third, output);
+		Assertions.assertFalse(input.isImmutable());
+		Assertions.assertNotNull(input.getActivations(matrixFactory));
+		Assertions.assertThrows(IllegalStateException.class, () -> first.getActivations(matrixFactory));
+		Assertions.assertThrows(IllegalStateException.class, () -> second.getActivations(matrixFactory));
+		Assertions.assertEquals(6f, output.getActivations(matrixFactory).sum(), 0.0001f);
+	}
+}
@@ -101,7 +101,26 @@ public class JBlasRowMajorMatrixOptimised extends JBlasRowMajorMatrix {
 	public static RowMajorFloatArrayMatrix gemm(float alpha, RowMajorFloatArrayMatrix a,
 			RowMajorFloatArrayMatrix b, float beta, RowMajorFloatArrayMatrix c) {
 		BLAS.getInstance().sgemm("N", "N", c.getColumns(), c.getRows(), b.getRows(), alpha, b.getRowByRowArray(), b.getOffset(),
-				b.getColumns(), a.getRowByRowArray(), a.getOffset(), a.getColumns(), beta, c.getRowByRowArray(), c.getOffset(), c.getColumns());
+				b.getRowStride(), a.getRowByRowArray(), a.getOffset(), a.getRowStride(), beta, c.getRowByRowArray(), c.getOffset(), c.getRowStride());
+		return c;
+	}
+	
+	/**
+	 * Compute c <- alpha * a*b^T + beta * c (general matrix matrix
+	 * multiplication) where a, b and c are row-major matrices, and b is a
+	 * columns x rows matrix whose transpose is used
+	 * 
+	 * @param alpha
+	 * @param a
+	 * @param b
+	 * @param beta
+	 * @param c
+	 * @return
+	 */
+	public static RowMajorFloatArrayMatrix gemmTransposeB(float alpha, RowMajorFloatArrayMatrix a,
+			RowMajorFloatArrayMatrix b, float beta, RowMajorFloatArrayMatrix c) {
+		BLAS.getInstance().sgemm("T", "N", c.getColumns(), c.getRows(), a.getColumns(), alpha, b.getRowByRowArray(), b.getOffset(),
+				b.getRowStride(), a.getRowByRowArray(), a.getOffset(), a.getRowStride(), beta, c.getRowByRowArray(), c.getOffset(), c.getRowStride());
 		return c;
 	}
 	
@@ -5,15 +5,26 @@ public class RowMajorFloatArrayMatrix {
 	private FloatArray floatArray;
 	private int rows;
 	private int columns;
+	private int rowStride;
 	
 	public float[] getRowByRowArray() {
 		return floatArray.getData();
 	}
 	
 	public RowMajorFloatArrayMatrix(FloatArray floatArray, int rows, int columns) {
+		this(floatArray, rows, columns, columns);
+	}
+	
+	/**
+	 * A matrix whose rows are rowStride elements apart in the float array, so
+	 * that a block of columns of a wider row-major matrix can be referenced
+	 * without copying.
+	 */
+	public RowMajorFloatArrayMatrix(FloatArray floatArray, int rows, int columns, int rowStride) {
 		this.floatArray = floatArray;
 		this.rows = rows;
 		this.columns = columns;
+		this.rowStride = rowStride;
 	}
 	public FloatArray getFloatArray() {
 		return floatArray;
@@ -25,6 +36,10 @@ public class RowMajorFloatArrayMatrix {
 		return columns;
 	}
 	
+	public int getRowStride() {
+		return rowStride;
+	}
+	
 	public int getOffset() {
 		return floatArray.getOffset();
 	}
@@ -0,0 +1,322 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.ml4j.nn.axons;
+
+import java.util.Optional;
+
+import org.ml4j.Matrix;
+import org.ml4j.MatrixFactory;
+import org.ml4j.jblas.FloatArray;
+import org.ml4j.jblas.JBlasRowMajorMatrixOptimised;
+import org.ml4j.jblas.RowMajorFloatArrayMatrix;
+import org.ml4j.nn.neurons.ImageNeuronsActivationImpl;
+import org.ml4j.nn.neurons.Neurons3D;
+import org.ml4j.nn.neurons.NeuronsActivation;
+import org.ml4j.nn.neurons.format.ImageNeuronsActivationFormat;
+import org.ml4j.nn.neurons.format.NeuronsActivationFormat;
+import org.ml4j.nn.neurons.format.features.DimensionScope;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Convolutional axon weights which generalise the shifted-GEMM method of
+ * LowMemorySamePaddingConvolutionalAxonWeightsImpl to arbitrary padding and
+ * stride, in both directions.
+ *
+ * For each filter position the kernel slice for that position is multiplied
+ * directly against the window of the source image which it overlaps, with the
+ * product accumulated into the target. Windows are referenced in place using
+ * the row stride of the source, and padding is handled by clipping each window
+ * to the image bounds, so neither an im2col matrix nor a padded copy of the
+ * input is created, and the input is never modified. The connection weights
+ * gradient is accumulated in the same way, one kernel slice at a time, from the
+ * product of each output gradient window with the transposed input window.
+ *
+ * @author Michael Lavelle
+ */
+public class LowMemoryConvolutionalAxonWeightsImpl extends AxonWeightsBase {
+
+	/**
+	 * Default serialization id.
+	 */
+	private static final long serialVersionUID = 1L;
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(LowMemoryConvolutionalAxonWeightsImpl.class);
+
+	private Axons3DConfig config;
+	private Neurons3D leftNeurons;
+	private Neurons3D rightNeurons;
+
+	public LowMemoryConvolutionalAxonWeightsImpl(Neurons3D leftNeurons, Neurons3D rightNeurons,
+			Axons3DConfig config, WeightsMatrix connectionWeights, BiasVector leftToRightBiases) {
+		super(leftNeurons.getNeuronCountExcludingBias(), rightNeurons.getNeuronCountExcludingBias(),
+				connectionWeights, leftToRightBiases, null, AxonWeightsType.CONVOLUTIONAL);
+		this.config = config;
+		this.leftNeurons = leftNeurons;
+		this.rightNeurons = rightNeurons;
+	}
+
+	@Override
+	public AxonWeights dup() {
+		return new LowMemoryConvolutionalAxonWeightsImpl(leftNeurons, rightNeurons, config.dup(),
+				connectionWeights.dup(), leftToRightBiases == null ? null : leftToRightBiases.dup());
+	}
+
+	@Override
+	public NeuronsActivation applyToLeftToRightInput(NeuronsActivation input, AxonsContext axonsContext) {
+
+		LOGGER.debug("Pushing left to right through low memory convolutional axons");
+
+		MatrixFactory matrixFactory = axonsContext.getMatrixFactory();
+		int examples = input.getExampleCount();
+
+		float[][] kernelSlices = getKernelSlices(true);
+
+		Matrix output = matrixFactory.createMatrix(rightNeurons.getDepth(),
+				rightNeurons.getHeight() * rightNeurons.getWidth() * examples);
+
+		accumulateShiftedProducts(kernelSlices, input.getActivations(matrixFactory).getRowByRowArray(),
+				output.getRowByRowArray(), examples, true);
+
+		if (leftNeurons.hasBiasUnit() && getLeftToRightBiases() != null) {
+			output.asEditableMatrix().addiColumnVector(getLeftToRightBiases().getVector());
+		}
+		output.asEditableMatrix().reshape(rightNeurons.getNeuronCountExcludingBias(), examples);
+
+		return new ImageNeuronsActivationImpl(output, rightNeurons,
+				ImageNeuronsActivationFormat.ML4J_DEFAULT_IMAGE_FORMAT, false);
+	}
+
+	@Override
+	public NeuronsActivation applyToRightToLeftInput(NeuronsActivation input, AxonsContext axonsContext) {
+
+		LOGGER.debug("Pushing right to left through low memory convolutional axons");
+
+		MatrixFactory matrixFactory = axonsContext.getMatrixFactory();
+		int examples = input.getExampleCount();
+
+		float[][] kernelSlices = getKernelSlices(false);
+
+		Matrix output = matrixFactory.createMatrix(leftNeurons.getNeuronCountExcludingBias(), examples);
+
+		accumulateShiftedProducts(kernelSlices, input.getActivations(matrixFactory).getRowByRowArray(),
+				output.getRowByRowArray(), examples, false);
+
+		return new ImageNeuronsActivationImpl(output, leftNeurons,
+				ImageNeuronsActivationFormat.ML4J_DEFAULT_IMAGE_FORMAT, false);
+	}
+
+	/**
+	 * Calculate the gradient of the connection weights from the input images and
+	 * the gradient of the output images, without an im2col matrix.
+	 *
+	 * @param input          The left to right input images.
+	 * @param outputGradient The gradient of the output images, with one row per
+	 *                       output channel or in image format.
+	 * @param matrixFactory  The matrix factory.
+	 * @return The connection weights gradient, in the shape of the connection
+	 *         weights.
+	 */
+	public Matrix getConnectionWeightsGradient(NeuronsActivation input, NeuronsActivation outputGradient,
+			MatrixFactory matrixFactory) {
+
+		LOGGER.debug("Calculating low memory convolutional axons weights gradient");
+
+		int examples = input.getExampleCount();
+		int outputChannels = rightNeurons.getDepth();
+		int inputChannels = leftNeurons.getDepth();
+		int filterSize = config.getFilterHeight() * config.getFilterWidth();
+
+		float[][] gradientSlices = new float[filterSize][outputChannels * inputChannels];
+		accumulateShiftedWeightsGradients(gradientSlices, input.getActivations(matrixFactory).getRowByRowArray(),
+				outputGradient.getActivations(matrixFactory).getRowByRowArray(), examples);
+
+		Matrix weightsGradient = matrixFactory.createMatrix(outputChannels, inputChannels * filterSize);
+		float[] gradient = weightsGradient.getRowByRowArray();
+		for (int o = 0; o < outputChannels; o++) {
+			for (int i = 0; i < inputChannels; i++) {
+				int kernelOffset = (o * inputChannels + i) * filterSize;
+				for (int f = 0; f < filterSize; f++) {
+					gradient[kernelOffset + f] = gradientSlices[f][o * inputChannels + i];
+				}
+			}
+		}
+		return weightsGradient;
+	}
+
+	/**
+	 * Split the kernel into one matrix per filter position, each output channels
+	 * by input channels for the left to right direction, or input channels by
+	 * output channels for the right to left direction.
+	 */
+	private float[][] getKernelSlices(boolean leftToRight) {
+		float[] kernel = getConnectionWeights().getMatrix().getRowByRowArray();
+		int outputChannels = rightNeurons.getDepth();
+		int inputChannels = leftNeurons.getDepth();
+		int filterSize = config.getFilterHeight() * config.getFilterWidth();
+		float[][] kernelSlices = new float[filterSize][outputChannels * inputChannels];
+		for (int o = 0; o < outputChannels; o++) {
+			for (int i = 0; i < inputChannels; i++) {
+				int kernelOffset = (o * inputChannels + i) * filterSize;
+				int sliceIndex = leftToRight ? o * inputChannels + i : i * outputChannels + o;
+				for (int f = 0; f < filterSize; f++) {
+					kernelSlices[f][sliceIndex] = kernel[kernelOffset + f];
+				}
+			}
+		}
+		return kernelSlices;
+	}
+
+	/**
+	 * Accumulate the product of each kernel slice with its shifted window into the
+	 * target, both directions sharing the same mapping between output and input
+	 * positions.
+	 *
+	 * @param leftToRight Whether the source is the input image and the target the
+	 *                    output image, or the reverse.
+	 */
+	private void accumulateShiftedProducts(float[][] kernelSlices, float[] source, float[] target, int examples,
+			boolean leftToRight) {
+		forEachShiftedWindow(examples, (filterIndex, inputWindow, outputWindow) -> {
+			FloatArray kernelSlice = new FloatArray(kernelSlices[filterIndex], 0);
+			if (leftToRight) {
+				JBlasRowMajorMatrixOptimised.gemm(1f, new RowMajorFloatArrayMatrix(kernelSlice, outputWindow.getRows(),
+						inputWindow.getRows()), inputWindow.withData(source), 1f, outputWindow.withData(target));
+			} else {
+				JBlasRowMajorMatrixOptimised.gemm(1f, new RowMajorFloatArrayMatrix(kernelSlice, inputWindow.getRows(),
+						outputWindow.getRows()), outputWindow.withData(source), 1f, inputWindow.withData(target));
+			}
+		});
+	}
+
+	/**
+	 * Accumulate the product of each output gradient window with its transposed
+	 * input window into the gradient slice for the window's filter position.
+	 */
+	private void accumulateShiftedWeightsGradients(float[][] gradientSlices, float[] input, float[] outputGradient,
+			int examples) {
+		forEachShiftedWindow(examples, (filterIndex, inputWindow, outputWindow) -> {
+			JBlasRowMajorMatrixOptimised.gemmTransposeB(1f, outputWindow.withData(outputGradient),
+					inputWindow.withData(input), 1f, new RowMajorFloatArrayMatrix(
+							new FloatArray(gradientSlices[filterIndex], 0), outputWindow.getRows(),
+							inputWindow.getRows()));
+		});
+	}
+
+	/**
+	 * A window of an image matrix, with one row per channel, at a given offset
+	 * and row stride, which can be applied to either the data of the image or of
+	 * its gradient.
+	 */
+	private static class ImageWindow {
+
+		private final int offset;
+		private final int channels;
+		private final int columns;
+		private final int rowStride;
+
+		ImageWindow(int offset, int channels, int columns, int rowStride) {
+			this.offset = offset;
+			this.channels = channels;
+			this.columns = columns;
+			this.rowStride = rowStride;
+		}
+
+		int getRows() {
+			return channels;
+		}
+
+		RowMajorFloatArrayMatrix withData(float[] data) {
+			return new RowMajorFloatArrayMatrix(new FloatArray(data, offset), channels, columns, rowStride);
+		}
+	}
+
+	/**
+	 * Accepts the corresponding input and output windows for a filter position.
+	 */
+	@FunctionalInterface
+	private interface ShiftedWindowConsumer {
+
+		void accept(int filterIndex, ImageWindow inputWindow, ImageWindow outputWindow);
+	}
+
+	/**
+	 * Visit the corresponding input and output windows of each filter position,
+	 * all directions sharing the same mapping between output and input positions.
+	 */
+	private void forEachShiftedWindow(int examples, ShiftedWindowConsumer consumer) {
+
+		int inputChannels = leftNeurons.getDepth();
+		int inputHeight = leftNeurons.getHeight();
+		int inputWidth = leftNeurons.getWidth();
+		int outputChannels = rightNeurons.getDepth();
+		int outputHeight = rightNeurons.getHeight();
+		int outputWidth = rightNeurons.getWidth();
+		int filterHeight = config.getFilterHeight();
+		int filterWidth = config.getFilterWidth();
+		int strideHeight = config.getStrideHeight();
+		int strideWidth = config.getStrideWidth();
+		int paddingHeight = config.getPaddingHeight();
+		int paddingWidth = config.getPaddingWidth();
+
+		// Each channel is a row of the image matrices, with examples contiguous for
+		// each pixel
+		int inputRowStride = inputHeight * inputWidth * examples;
+		int outputRowStride = outputHeight * outputWidth * examples;
+
+		for (int kh = 0; kh < filterHeight; kh++) {
+			for (int kw = 0; kw < filterWidth; kw++) {
+
+				// The range of output columns whose window at this filter position lies
+				// within the unpadded input
+				int startOutputColumn = Math.max(0, -Math.floorDiv(kw - paddingWidth, strideWidth));
+				int endOutputColumn = Math.min(outputWidth - 1,
+						Math.floorDiv(inputWidth - 1 + paddingWidth - kw, strideWidth));
+				if (startOutputColumn > endOutputColumn) {
+					continue;
+				}
+				// With unit stride the window's columns are contiguous, so can be
+				// multiplied in a single GEMM per row
+				int columnsPerProduct = strideWidth == 1 ? endOutputColumn - startOutputColumn + 1 : 1;
+
+				for (int oh = 0; oh < outputHeight; oh++) {
+					int ih = oh * strideHeight + kh - paddingHeight;
+					if (ih < 0 || ih >= inputHeight) {
+						continue;
+					}
+					for (int ow = startOutputColumn; ow <= endOutputColumn; ow += columnsPerProduct) {
+						int iw = ow * strideWidth + kw - paddingWidth;
+						int inputOffset = (ih * inputWidth + iw) * examples;
+						int outputOffset = (oh * outputWidth + ow) * examples;
+						int columns = columnsPerProduct * examples;
+						consumer.accept(kh * filterWidth + kw,
+								new ImageWindow(inputOffset, inputChannels, columns, inputRowStride),
+								new ImageWindow(outputOffset, outputChannels, columns, outputRowStride));
+					}
+				}
+			}
+		}
+	}
+
+	@Override
+	public boolean isSupported(NeuronsActivationFormat<?> format) {
+		return ImageNeuronsActivationFormat.ML4J_DEFAULT_IMAGE_FORMAT.isEquivalentFormat(format,
+				DimensionScope.INPUT);
+	}
+
+	@Override
+	public Optional<NeuronsActivationFormat<?>> optimisedFor() {
+		return Optional.empty();
+	}
+}
@@ -0,0 +1,207 @@
+
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.ml4j.nn.axons;
+
+import java.util.Arrays;
+import java.util.Optional;
+
+import org.ml4j.EditableMatrix;
+import org.ml4j.Matrix;
+import org.ml4j.MatrixFactory;
+import org.ml4j.nn.neurons.Neurons;
+import org.ml4j.nn.neurons.Neurons3D;
+import org.ml4j.nn.neurons.NeuronsActivation;
+import org.ml4j.nn.neurons.NeuronsActivationFeatureOrientation;
+import org.ml4j.nn.neurons.NeuronsActivationImpl;
+import org.ml4j.nn.neurons.format.NeuronsActivationFormat;
+import org.ml4j.nn.neurons.format.features.Dimension;
+import org.ml4j.nn.neurons.format.features.FeaturesFormatImpl;
+
+/**
+ * Convolutional axons for arbitrary padding and stride which convolve by
+ * shifted GEMMs directly against the input and output images, rather than by
+ * multiplying a materialised im2col matrix.
+ * 
+ * The axons gradient is accumulated by shifted GEMMs in the same way, from the
+ * retained input and the output gradient, so no im2col matrix is created in
+ * either direction.
+ * 
+ * @author Michael Lavelle
+ */
+public class LowMemoryConvolutionalAxonsImpl implements ConvolutionalAxons {
+
+	/**
+	 * Default serialization id.
+	 */
+	private static final long serialVersionUID = 1L;
+
+	private Axons3DConfig config;
+	private LowMemoryConvolutionalAxonWeightsImpl convolutionalAxonWeights;
+	
+	public LowMemoryConvolutionalAxonsImpl(Axons3DConfig config,
+			LowMemoryConvolutionalAxonWeightsImpl convolutionalAxonWeights) {
+		this.config = config;
+		this.convolutionalAxonWeights = convolutionalAxonWeights;
+	}
+
+	public LowMemoryConvolutionalAxonsImpl(MatrixFactory matrixFactory, Axons3DConfig config,
+			WeightsMatrix weightsMatrix, BiasVector biasMatrix) {
+		this(config, 
+				createInitialAxonWeights(matrixFactory, config, weightsMatrix, biasMatrix));
+	}
+	
+	private static LowMemoryConvolutionalAxonWeightsImpl createInitialAxonWeights(MatrixFactory matrixFactory, Axons3DConfig config, WeightsMatrix connectionWeights, BiasVector leftToRightBiases) {
+		
+		if (connectionWeights == null) {
+			throw new IllegalArgumentException("WeightsMatrix cannot be null");
+		}
+		
+		AxonWeightsInitialiser axonWeightsInitialiser = new DefaultFullyConnectedAxonWeightsInitialiser(
+				new Neurons(config.getFilterWidth() * config.getFilterHeight() * config.getLeftNeurons().getDepth(), config.getLeftNeurons().hasBiasUnit()),
+				new Neurons(config.getRightNeurons().getDepth(), config.getRightNeurons().hasBiasUnit()));
+
+		Matrix initialConnectionWeights = connectionWeights.getMatrix() == null
+				? axonWeightsInitialiser.getInitialConnectionWeights(matrixFactory)
+				: connectionWeights.getMatrix();
+							
+		Optional<Matrix> initialLeftToRightBiases = leftToRightBiases == null
+				? axonWeightsInitialiser.getInitialLeftToRightBiases(matrixFactory)
+				: Optional.of(leftToRightBiases.getVector());
+				
+		return new LowMemoryConvolutionalAxonWeightsImpl(config.getLeftNeurons(), 
+				config.getRightNeurons(), config, new WeightsMatrixImpl(initialConnectionWeights,
+						connectionWeights.getFormat()), config.getLeftNeurons().hasBiasUnit() && initialLeftToRightBiases.isPresent() ? new BiasVectorImpl(initialLeftToRightBiases.get(),
+								FeaturesVectorFormat.DEFAULT_BIAS_FORMAT)
+						: null);		
+			
+	}
+	
+	
+
+	@Override
+	public void adjustAxonWeights(AxonWeightsAdjustment adjustment,
+			AxonWeightsAdjustmentDirection adjustmentDirection) {
+		convolutionalAxonWeights.adjustWeights(adjustment, adjustmentDirection);
+	}
+
+	@Override
+	public Neurons3D getLeftNeurons() {
+		return config.getLeftNeurons();
+	}
+
+	@Override
+	public Neurons3D getRightNeurons() {
+		return config.getRightNeurons();
+	}
+
+	@Override
+	public AxonsActivation pushLeftToRight(NeuronsActivation leftNeuronsActivation,
+			AxonsActivation previousRightToLeftActivation, AxonsContext axonsContext) {
+
+		if (axonsContext.getLeftHandInputDropoutKeepProbability() != 1) {
+			throw new IllegalArgumentException("Convolutional layers do not support dropout");
+		}
+
+		NeuronsActivation output = convolutionalAxonWeights.applyToLeftToRightInput(leftNeuronsActivation,
+				axonsContext);
+
+		if (axonsContext.isTrainingContext()) {
+			// The input is retained for the axons gradient
+			leftNeuronsActivation.setImmutable(true);
+		} else if (!leftNeuronsActivation.isImmutable()) {
+			leftNeuronsActivation.close();
+		}
+
+		return new AxonsActivationImpl(this, null, () -> leftNeuronsActivation, output);
+	}
+
+	@Override
+	public AxonsActivation pushRightToLeft(NeuronsActivation rightNeuronsActivation,
+			AxonsActivation previousLeftToRightActivation, AxonsContext axonsContext) {
+
+		if (axonsContext.getLeftHandInputDropoutKeepProbability() != 1) {
+			throw new IllegalArgumentException("Convolutional layers do not support dropout");
+		}
+
+		NeuronsActivation output = convolutionalAxonWeights.applyToRightToLeftInput(rightNeuronsActivation, axonsContext);
+		NeuronsActivation reformattedInput = reformatRightToLeftInput(axonsContext.getMatrixFactory(),
+				rightNeuronsActivation);
+		reformattedInput.setImmutable(true);
+		return new AxonsActivationImpl(this, null, () -> reformattedInput, output);
+	}
+
+	@Override
+	public Optional<Matrix> getConnectionWeightsGradient(NeuronsActivation leftToRightInput,
+			NeuronsActivation rightToLeftInput, AxonsContext axonsContext) {
+		return Optional.of(convolutionalAxonWeights.getConnectionWeightsGradient(leftToRightInput, rightToLeftInput,
+				axonsContext.getMatrixFactory()));
+	}
+	
+	public NeuronsActivation reformatRightToLeftInput(MatrixFactory matrixFactory, NeuronsActivation input) {
+
+		if (input.isImmutable()) {
+			// Leave the input as it is, and reshape a view of it instead
+			Matrix matrix = input.getActivations(matrixFactory);
+			EditableMatrix view = matrix.softDup().asEditableMatrix();
+			view.reshape(config.getRightNeurons().getDepth(), matrix.getLength() / config.getRightNeurons().getDepth());
+			return new NeuronsActivationImpl(new Neurons(config.getRightNeurons().getDepth(), false), view,
+					new NeuronsActivationFormat<>(input.getFeatureOrientation(),
+							new FeaturesFormatImpl(Arrays.asList(Dimension.DEPTH)),
+							Arrays.asList(Dimension.HEIGHT, Dimension.WIDTH, Dimension.EXAMPLE)));
+		} else {
+			input.reshape(config.getRightNeurons().getDepth(),
+					config.getRightNeurons().getWidth() * config.getRightNeurons().getHeight() * input.getExampleCount());
+			return input;
+		}
+	}
+
+	@Override
+	public ConvolutionalAxons dup() {
+		return new LowMemoryConvolutionalAxonsImpl(config.dup(),
+				(LowMemoryConvolutionalAxonWeightsImpl) convolutionalAxonWeights.dup());
+	}
+
+	@Override
+	public boolean isTrainable(AxonsContext axonsContext) {
+		return !axonsContext.isWithFreezeOut();
+	}
+
+	@Override
+	public AxonWeights getDetachedAxonWeights() {
+		return convolutionalAxonWeights.dup();
+	}
+
+	@Override
+	public Axons3DConfig getConfig() {
+		return config;
+	}
+
+	@Override
+	public Optional<NeuronsActivationFormat<?>> optimisedFor() {
+		return convolutionalAxonWeights.optimisedFor();
+	}
+
+	@Override
+	public boolean isSupported(NeuronsActivationFormat<?> format) {
+		return convolutionalAxonWeights.isSupported(format) 
+				&& NeuronsActivationFeatureOrientation.ROWS_SPAN_FEATURE_SET
+			.equals(format.getFeatureOrientation());
+	}
+
+	@Override
+	public AxonsType getAxonsType() {
+		return AxonsType.getBaseType(AxonsBaseType.CONVOLUTIONAL);
+	}
+}
@@ -139,7 +139,9 @@ public class LowMemorySamePaddingConvolutionalAxonWeightsImpl extends AxonWeight
 
 		float f = ((float) kernelWidth) / ((float) (inputHeight + inputWidth));
 		int delta = (int) Math.ceil((double) f);
-		float[] targetData = new float[(m + 2 * delta) * inputWidth * inputHeight * examples];
+		Matrix target = axonsContext.getMatrixFactory().createMatrix(m + 2 * delta,
+				inputWidth * inputHeight * examples);
+		float[] targetData = target.getRowByRowArray();
 
 		NeuronsActivation inputMat = inputMatrix;
 
@@ -231,8 +233,11 @@ public class LowMemorySamePaddingConvolutionalAxonWeightsImpl extends AxonWeight
 
 		LOGGER.debug("End Pushing left to right through Conv axons");
 		if (leftNeurons.hasBiasUnit() && biasMatrix != null) {
-			return createOutputActivationByCopyingData(axonsContext.getMatrixFactory(), targetData, inputWidth,
-					inputHeight, outputChannels, examples, delta, biasMatrix);
+			ImageNeuronsActivation output = createOutputActivationByCopyingData(axonsContext.getMatrixFactory(),
+					targetData, inputWidth, inputHeight, outputChannels, examples, delta, biasMatrix);
+			// The target data has been copied, so can be released
+			target.close();
+			return output;
 		} else {
 			return createOutputActivationByReferencingData(targetData, inputWidth, inputHeight, outputChannels,
 					examples, delta, rightNeurons);
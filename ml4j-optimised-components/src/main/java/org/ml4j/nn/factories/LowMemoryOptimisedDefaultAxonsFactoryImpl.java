@@ -18,8 +18,8 @@ import org.ml4j.MatrixFactory;
 import org.ml4j.nn.axons.Axons3DConfig;
 import org.ml4j.nn.axons.BiasVector;
 import org.ml4j.nn.axons.ConvolutionalAxons;
-import org.ml4j.nn.axons.DefaultConvolutionalAxonsImpl;
 import org.ml4j.nn.axons.DefaultOneByOneConvolutionalAxonsImpl;
+import org.ml4j.nn.axons.LowMemoryConvolutionalAxonsImpl;
 import org.ml4j.nn.axons.LowMemorySamePaddingConvolutionalAxonsImpl;
 import org.ml4j.nn.axons.WeightsMatrix;
 
@@ -49,7 +49,7 @@ public class LowMemoryOptimisedDefaultAxonsFactoryImpl extends DefaultAxonsFacto
 			return new LowMemorySamePaddingConvolutionalAxonsImpl(matrixFactory, config, connectionWeights, biases);
 		}
 		else {
-			return new DefaultConvolutionalAxonsImpl(this, config, connectionWeights, biases);
+			return new LowMemoryConvolutionalAxonsImpl(matrixFactory, config, connectionWeights, biases);
 		}
 	}
 }
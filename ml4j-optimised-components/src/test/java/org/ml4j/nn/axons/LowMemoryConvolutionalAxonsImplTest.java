@@ -0,0 +1,157 @@
+package org.ml4j.nn.axons;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.ml4j.Matrix;
+import org.ml4j.MatrixFactory;
+import org.ml4j.jblas.JBlasRowMajorMatrixFactory;
+import org.ml4j.nn.neurons.Neurons;
+import org.ml4j.nn.neurons.Neurons3D;
+import org.ml4j.nn.neurons.NeuronsActivation;
+import org.ml4j.nn.neurons.NeuronsActivationImpl;
+import org.ml4j.nn.neurons.format.ImageNeuronsActivationFormat;
+import org.ml4j.nn.neurons.format.features.Dimension;
+import org.mockito.Mockito;
+
+public class LowMemoryConvolutionalAxonsImplTest {
+
+	private static final int EXAMPLES = 3;
+
+	private MatrixFactory matrixFactory = new JBlasRowMajorMatrixFactory();
+
+	private AxonsContext axonsContext;
+
+	private Random random = new Random(1);
+
+	@BeforeEach
+	public void setUp() {
+		axonsContext = Mockito.mock(AxonsContext.class);
+		Mockito.when(axonsContext.getMatrixFactory()).thenReturn(matrixFactory);
+		Mockito.when(axonsContext.getLeftHandInputDropoutKeepProbability()).thenReturn(1f);
+		Mockito.when(axonsContext.isTrainingContext()).thenReturn(true);
+	}
+
+	@Test
+	public void testStrideAndPaddingMatchesDirectConvolution() {
+		assertMatchesDirectConvolution(7, 6, 2, 3, 3, 2, 2, 1, 1, 0, false, false);
+	}
+
+	@Test
+	public void testStrideWithoutPaddingMatchesDirectConvolution() {
+		assertMatchesDirectConvolution(5, 5, 3, 2, 3, 3, 2, 2, 0, 0, true, false);
+	}
+
+	@Test
+	public void testSamePaddingMatchesDirectConvolution() {
+		assertMatchesDirectConvolution(6, 6, 2, 2, 5, 5, 1, 1, 2, 2, true, true);
+	}
+
+	@Test
+	public void testUnevenStrideAndPaddingMatchesDirectConvolution() {
+		assertMatchesDirectConvolution(5, 4, 2, 3, 3, 2, 2, 3, 1, 2, false, true);
+	}
+
+	private void assertMatchesDirectConvolution(int inputHeight, int inputWidth, int inputDepth, int outputDepth,
+			int filterHeight, int filterWidth, int strideHeight, int strideWidth, int paddingHeight,
+			int paddingWidth, boolean hasBiasUnit, boolean immutableGradient) {
+		int outputHeight = (inputHeight + 2 * paddingHeight - filterHeight) / strideHeight + 1;
+		int outputWidth = (inputWidth + 2 * paddingWidth - filterWidth) / strideWidth + 1;
+		Neurons3D leftNeurons = new Neurons3D(inputWidth, inputHeight, inputDepth, hasBiasUnit);
+		Neurons3D rightNeurons = new Neurons3D(outputWidth, outputHeight, outputDepth, false);
+		Axons3DConfig config = new Axons3DConfig(leftNeurons, rightNeurons).withFilterHeight(filterHeight)
+				.withFilterWidth(filterWidth).withStrideHeight(strideHeight).withStrideWidth(strideWidth)
+				.withPaddingHeight(paddingHeight).withPaddingWidth(paddingWidth);
+
+		Matrix kernel = createRandomMatrix(outputDepth, inputDepth * filterHeight * filterWidth);
+		WeightsMatrix weights = new WeightsMatrixImpl(kernel,
+				new WeightsFormatImpl(Arrays.asList(Dimension.INPUT_DEPTH, Dimension.FILTER_HEIGHT, Dimension.FILTER_WIDTH),
+						Arrays.asList(Dimension.OUTPUT_DEPTH), WeightsMatrixOrientation.ROWS_SPAN_OUTPUT_DIMENSIONS));
+		Matrix bias = hasBiasUnit ? createRandomMatrix(outputDepth, 1) : matrixFactory.createZeros(outputDepth, 1);
+		BiasVector biases = hasBiasUnit ? new BiasVectorImpl(bias, FeaturesVectorFormat.DEFAULT_BIAS_FORMAT) : null;
+
+		ConvolutionalAxons axons = new LowMemoryConvolutionalAxonsImpl(matrixFactory, config, weights, biases);
+
+		// Direct convolution of the input, with the output gradient back-propagated
+		// through its adjoint
+		float[] k = kernel.getRowByRowArray();
+		Matrix input = createRandomMatrix(leftNeurons.getNeuronCountExcludingBias(), EXAMPLES);
+		Matrix outputGradient = createRandomMatrix(rightNeurons.getNeuronCountExcludingBias(), EXAMPLES);
+		float[] x = input.getRowByRowArray();
+		float[] dy = outputGradient.getRowByRowArray();
+		float[] expectedOutput = new float[outputDepth * outputHeight * outputWidth * EXAMPLES];
+		float[] expectedInputGradient = new float[x.length];
+		float[] expectedWeightsGradient = new float[k.length];
+		for (int o = 0; o < outputDepth; o++) {
+			for (int oh = 0; oh < outputHeight; oh++) {
+				for (int ow = 0; ow < outputWidth; ow++) {
+					for (int e = 0; e < EXAMPLES; e++) {
+						int outputIndex = ((o * outputHeight + oh) * outputWidth + ow) * EXAMPLES + e;
+						expectedOutput[outputIndex] = bias.get(o, 0);
+						for (int c = 0; c < inputDepth; c++) {
+							for (int kh = 0; kh < filterHeight; kh++) {
+								for (int kw = 0; kw < filterWidth; kw++) {
+									int ih = oh * strideHeight + kh - paddingHeight;
+									int iw = ow * strideWidth + kw - paddingWidth;
+									if (ih >= 0 && ih < inputHeight && iw >= 0 && iw < inputWidth) {
+										int kernelIndex = ((o * inputDepth + c) * filterHeight + kh) * filterWidth + kw;
+										int inputIndex = ((c * inputHeight + ih) * inputWidth + iw) * EXAMPLES + e;
+										expectedOutput[outputIndex] += k[kernelIndex] * x[inputIndex];
+										expectedInputGradient[inputIndex] += k[kernelIndex] * dy[outputIndex];
+										expectedWeightsGradient[kernelIndex] += dy[outputIndex] * x[inputIndex];
+									}
+								}
+							}
+						}
+					}
+				}
+			}
+		}
+
+		AxonsActivation activation = axons.pushLeftToRight(createActivation(input), null, axonsContext);
+		assertEquals(expectedOutput, rightNeurons.getNeuronCountExcludingBias(), activation.getPostDropoutOutput());
+
+		NeuronsActivation gradient = createActivation(outputGradient);
+		gradient.setImmutable(immutableGradient);
+		AxonsActivation gradientActivation = axons.pushRightToLeft(gradient, activation, axonsContext);
+		assertEquals(expectedInputGradient, leftNeurons.getNeuronCountExcludingBias(),
+				gradientActivation.getPostDropoutOutput());
+		Matrix reformattedGradient = gradientActivation.getPostDropoutInput().get().getActivations(matrixFactory);
+		Assertions.assertEquals(outputDepth, reformattedGradient.getRows());
+		Assertions.assertArrayEquals(dy, reformattedGradient.getRowByRowArray(), 0f);
+		if (immutableGradient) {
+			// An immutable gradient is left as it is, and a reshaped view used instead
+			Assertions.assertEquals(rightNeurons.getNeuronCountExcludingBias(), outputGradient.getRows());
+		}
+
+		// The weights gradient is accumulated from the input without an im2col matrix
+		Matrix weightsGradient = axons.getConnectionWeightsGradient(activation.getPostDropoutInput().get(),
+				gradientActivation.getPostDropoutInput().get(), axonsContext).get();
+		Assertions.assertEquals(outputDepth, weightsGradient.getRows());
+		Assertions.assertEquals(inputDepth * filterHeight * filterWidth, weightsGradient.getColumns());
+		Assertions.assertArrayEquals(expectedWeightsGradient, weightsGradient.getRowByRowArray(), 0.0001f);
+	}
+
+	private Matrix createRandomMatrix(int rows, int columns) {
+		float[] data = new float[rows * columns];
+		for (int i = 0; i < data.length; i++) {
+			data[i] = (float) random.nextGaussian();
+		}
+		return matrixFactory.createMatrixFromRowsByRowsArray(rows, columns, data);
+	}
+
+	private NeuronsActivation createActivation(Matrix matrix) {
+		return new NeuronsActivationImpl(new Neurons(matrix.getRows(), false), matrix,
+				ImageNeuronsActivationFormat.ML4J_DEFAULT_IMAGE_FORMAT);
+	}
+
+	private void assertEquals(float[] expected, int expectedRows, NeuronsActivation actual) {
+		Matrix actualMatrix = actual.getActivations(matrixFactory);
+		Assertions.assertEquals(expectedRows, actualMatrix.getRows());
+		Assertions.assertEquals(EXAMPLES, actualMatrix.getColumns());
+		Assertions.assertArrayEquals(expected, actualMatrix.getRowByRowArray(), 0.0001f);
+	}
+}